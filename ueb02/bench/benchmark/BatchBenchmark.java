@@ -0,0 +1,132 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.ExpressionAPI;
+import compiler.Batch;
+import compiler.BatchEvaluator;
+import compiler.BatchResult;
+import expression.Expression;
+import expression.VariableTable;
+
+/**
+ * Vergleicht den skalaren Kern der bitparallelen Auswertung mit dem Vektorkern, getrennt nach
+ * Operator. Für jeden binären Operator wird ein vollständiger Baum über 16 Variablen
+ * ausgewertet, für die Negation eine Kette von 15 Negationen. Der Vektorkern ist nur aktiv,
+ * wenn mit ant bench -Dvector=true gestartet wird, sonst messen beide Varianten den skalaren
+ * Kern.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+    /** Anzahl der Variablen bzw. Negationen */
+    private static final int VARIABLES = 16;
+
+    /** Anzahl der Kontexte pro Auswertung */
+    private static final int LANES = 1 << 20;
+
+    /** der untersuchte Operator */
+    @Param({"and", "or", "xor", "equiv", "impl", "not"})
+    public String op;
+
+    /** true für den Vektorkern */
+    @Param({"false", "true"})
+    public boolean vectorize;
+
+    /** der Auswerter */
+    private BatchEvaluator evaluator;
+
+    /** die Kontexte */
+    private Batch batch;
+
+    /**
+     * Erzeugt den Ausdruck und zufällig belegte Spalten.
+     */
+    @Setup
+    public void setup() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final VariableTable table = new VariableTable();
+        final Expression[] level = new Expression[VARIABLES];
+        for (int i = 0; i < VARIABLES; i++) {
+            level[i] = api.makeVariableExpression("v" + (char) ('a' + i));
+        }
+        Expression e;
+        if ("not".equals(op)) {
+            e = level[0];
+            for (int i = 1; i < VARIABLES; i++) {
+                e = api.makeNotExpression(e);
+            }
+        } else {
+            for (int size = VARIABLES / 2; size > 0; size /= 2) {
+                for (int i = 0; i < size; i++) {
+                    level[i] = combine(api, level[2 * i], level[2 * i + 1]);
+                }
+            }
+            e = level[0];
+        }
+        evaluator = new BatchEvaluator(e, true, table, vectorize);
+
+        final Random random = new Random(0);
+        batch = new Batch(table, LANES);
+        for (int i = 0; i < table.size(); i++) {
+            final long[] column = new long[batch.words()];
+            for (int w = 0; w < column.length; w++) {
+                column[w] = random.nextLong();
+            }
+            batch.setColumn(table.getName(i), column);
+        }
+    }
+
+    /**
+     * Verknüpft zwei Ausdrücke mit dem untersuchten Operator.
+     *
+     * @param api die Fabrik
+     * @param l der linke Operand
+     * @param r der rechte Operand
+     * @return die Verknüpfung
+     */
+    private Expression combine(ExpressionAPI api, Expression l, Expression r) {
+        switch (op) {
+            case "and":
+                return api.makeAndExpression(l, r);
+            case "or":
+                return api.makeOrExpression(l, r);
+            case "xor":
+                return api.makeXorExpression(l, r);
+            case "equiv":
+                return api.makeEquivalenceExpression(l, r);
+            default:
+                return api.makeConsequenceExpression(l, r);
+        }
+    }
+
+    /**
+     * Auswertung aller Kontexte.
+     *
+     * @return das Ergebnis
+     */
+    @Benchmark
+    public BatchResult evaluate() {
+        return evaluator.evaluate(batch);
+    }
+}
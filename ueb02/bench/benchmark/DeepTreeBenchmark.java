@@ -0,0 +1,108 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.ExpressionAPI;
+import evaluation.IterativeEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Belastungstest für entartete Bäume: links- und rechtstiefe Ketten aus Und und Oder, wie sie
+ * der Regelgenerator erzeugt. Die rekursive Auswertung im Baum scheitert bei einer Million
+ * Knoten mit einem StackOverflowError, JMH meldet diesen Lauf als fehlgeschlagen und fährt mit
+ * den übrigen fort.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepTreeBenchmark {
+
+    /** Anzahl der binären Knoten der Kette */
+    @Param({"1000", "10000", "1000000"})
+    public int depth;
+
+    /** "left" für linkstiefe, "right" für rechtstiefe Ketten */
+    @Param({"left", "right"})
+    public String shape;
+
+    /** die Kette */
+    private Expression chain;
+
+    /** der Kontext */
+    private Context context;
+
+    /**
+     * Erzeugt eine Kette, in der sich Und und Oder abwechseln, sodass die verkürzte Auswertung
+     * nur selten abbricht.
+     */
+    @Setup
+    public void setup() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression a = api.makeVariableExpression("a");
+        final Expression b = api.makeVariableExpression("b");
+        final boolean left = "left".equals(shape);
+        chain = a;
+        for (int i = 0; i < depth; i++) {
+            if (i % 2 == 0) {
+                chain = left ? api.makeAndExpression(chain, b) : api.makeAndExpression(b, chain);
+            } else {
+                chain = left ? api.makeOrExpression(chain, a) : api.makeOrExpression(a, chain);
+            }
+        }
+        context = new Context();
+        context.set("a", false);
+        context.set("b", true);
+    }
+
+    /**
+     * Rekursive Auswertung im Baum.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean treeShort() throws IncompleteContextException {
+        return chain.evaluateShort(context);
+    }
+
+    /**
+     * Verkürzte Auswertung mit dem Arbeitsstapel.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean iterativeShort() throws IncompleteContextException {
+        return IterativeEvaluator.evaluateShort(chain, context);
+    }
+
+    /**
+     * Vollständige Auswertung mit dem Arbeitsstapel.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean iterativeComplete() throws IncompleteContextException {
+        return IterativeEvaluator.evaluateComplete(chain, context);
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.ExpressionAPI;
+import expression.Expression;
+import io.ExpressionParser;
+import io.SyntaxException;
+
+/**
+ * Misst den Durchsatz beim Einlesen einer Regeldatei von etwa 16 Millionen Zeichen im
+ * Lesemodus. Durchsatz in MB/s ist 16 geteilt durch die gemessene Zeit in Sekunden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    /** Größe der Regeldatei in Zeichen */
+    private static final int SIZE = 16_000_000;
+
+    /** die Regeldatei */
+    private String rules;
+
+    /** die API */
+    private ExpressionAPI api;
+
+    /**
+     * Erzeugt zufällige Regeln der Tiefe 6 über zehn Variablen in der Syntax von toString.
+     */
+    @Setup
+    public void setup() {
+        api = new ExpressionAPI();
+        final Random random = new Random(0);
+        final StringBuilder builder = new StringBuilder(SIZE + SIZE / 10);
+        while (builder.length() < SIZE) {
+            random(random, 6).toString(builder);
+            builder.append('\n');
+        }
+        rules = builder.toString();
+    }
+
+    /**
+     * Erzeugt einen zufälligen Ausdruck.
+     *
+     * @param random der Zufallsgenerator
+     * @param depth die Tiefe
+     * @return der Ausdruck
+     */
+    private Expression random(Random random, int depth) {
+        if (depth == 0) {
+            return api.makeVariableExpression("var" + (char) ('a' + random.nextInt(10)));
+        }
+        final Expression left = random(random, depth - 1);
+        switch (random.nextInt(6)) {
+            case 0:
+                return api.makeAndExpression(left, random(random, depth - 1));
+            case 1:
+                return api.makeOrExpression(left, random(random, depth - 1));
+            case 2:
+                return api.makeXorExpression(left, random(random, depth - 1));
+            case 3:
+                return api.makeEquivalenceExpression(left, random(random, depth - 1));
+            case 4:
+                return api.makeConsequenceExpression(left, random(random, depth - 1));
+            default:
+                return api.makeNotExpression(left);
+        }
+    }
+
+    /**
+     * Liest alle Regeln ein.
+     *
+     * @return die Anzahl der Regeln
+     * @throws IOException nie
+     * @throws SyntaxException nie
+     */
+    @Benchmark
+    public int parseAll() throws IOException, SyntaxException {
+        int count = 0;
+        try (ExpressionParser parser = new ExpressionParser(api, new StringReader(rules))) {
+            while (parser.next() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
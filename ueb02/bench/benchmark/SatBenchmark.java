@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import expression.Expression;
+import logic.SatChecker;
+
+/**
+ * Misst den SAT-Solver auf den Formeln des {@link SatCorpus}, jeweils mit einem frischen
+ * Checker, damit keine gelernten Klauseln aus früheren Aufrufen helfen. Gemessen wird die
+ * Übersetzung mit Tseitin zusammen mit der Suche.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SatBenchmark {
+
+    /** die Formel: pigeonhole, random3sat, adder oder rules */
+    @Param({"pigeonhole", "random3sat", "adder", "rules"})
+    public String family;
+
+    /** die Formel */
+    private Expression formula;
+
+    /**
+     * Erzeugt die Formel.
+     */
+    @Setup
+    public void setup() {
+        final SatCorpus corpus = new SatCorpus();
+        switch (family) {
+            case "pigeonhole":
+                formula = corpus.pigeonhole(8);
+                break;
+            case "random3sat":
+                formula = corpus.random3Sat(200, 20);
+                break;
+            case "adder":
+                formula = corpus.adder(64);
+                break;
+            default:
+                formula = corpus.rule(300, 14, 20);
+        }
+    }
+
+    /**
+     * Prüft die Formel auf Erfüllbarkeit, beim Addierer auf Allgemeingültigkeit.
+     *
+     * @return das Ergebnis
+     */
+    @Benchmark
+    public boolean solve() {
+        final SatChecker checker = new SatChecker();
+        return "adder".equals(family) ? checker.isTautology(formula)
+            : checker.isSatisfiable(formula);
+    }
+}
@@ -0,0 +1,204 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import api.ExpressionAPI;
+import expression.Expression;
+
+/**
+ * Erzeugt die Formeln, mit denen der SAT-Solver gemessen wird. Alle Formeln sind
+ * deterministisch und werden als Bäume über die {@link ExpressionAPI} gebaut, so wie es die
+ * Regeln der Anwendung sind.
+ *
+ * <ul>
+ * <li>pigeonhole: n + 1 Tauben in n Schlägen, unerfüllbar und für Resolution exponentiell
+ * schwer</li>
+ * <li>random3sat: zufällige 3-KNF am Phasenübergang mit 4,26 Klauseln pro Variable</li>
+ * <li>adder: Gleichheit der Summenbits zweier verschieden aufgebauter Ripple-Carry-Addierer,
+ * allgemeingültig</li>
+ * <li>rules: zufällige tiefe Regelbäume mit allen Operatoren über Hunderten von
+ * Variablen</li>
+ * </ul>
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class SatCorpus {
+
+    /** Klauseln pro Variable am Phasenübergang von 3-SAT, in Tausendsteln */
+    private static final int RATIO_MILLIS = 4260;
+
+    /** Tausend */
+    private static final int MILLIS = 1000;
+
+    /** Literale pro Klausel bei random3sat */
+    private static final int CLAUSE_SIZE = 3;
+
+    /** Anzahl der binären Operatoren */
+    private static final int OPERATORS = 5;
+
+    /** Anzahl der Buchstaben */
+    private static final int LETTERS = 26;
+
+    /** die API zum Erzeugen der Knoten */
+    private final ExpressionAPI api = new ExpressionAPI();
+
+    /**
+     * Liefert die Variable mit einem Index. Bezeichner bestehen nur aus Buchstaben, der Index
+     * wird deshalb zur Basis 26 geschrieben.
+     *
+     * @param index der Index
+     * @return die Variable
+     */
+    public Expression variable(int index) {
+        final StringBuilder name = new StringBuilder("x");
+        int rest = index;
+        do {
+            name.append((char) ('a' + rest % LETTERS));
+            rest /= LETTERS;
+        } while (rest > 0);
+        return api.makeVariableExpression(name.toString());
+    }
+
+    /**
+     * Verknüpft Ausdrücke zu einem balancierten Baum aus Und oder Oder.
+     *
+     * @param parts die Ausdrücke, mindestens einer
+     * @param and true für Und, false für Oder
+     * @return der Baum
+     */
+    public Expression balanced(List<Expression> parts, boolean and) {
+        List<Expression> level = parts;
+        while (level.size() > 1) {
+            final List<Expression> next = new ArrayList<>();
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                next.add(and ? api.makeAndExpression(level.get(i), level.get(i + 1))
+                    : api.makeOrExpression(level.get(i), level.get(i + 1)));
+            }
+            if (level.size() % 2 == 1) {
+                next.add(level.get(level.size() - 1));
+            }
+            level = next;
+        }
+        return level.get(0);
+    }
+
+    /**
+     * Erzeugt das Schubfachproblem mit holes + 1 Tauben. Variable p * holes + h bedeutet, dass
+     * Taube p in Schlag h sitzt.
+     *
+     * @param holes die Anzahl der Schläge
+     * @return die unerfüllbare Formel
+     */
+    public Expression pigeonhole(int holes) {
+        final List<Expression> clauses = new ArrayList<>();
+        for (int p = 0; p <= holes; p++) {
+            final List<Expression> somewhere = new ArrayList<>();
+            for (int h = 0; h < holes; h++) {
+                somewhere.add(variable(p * holes + h));
+            }
+            clauses.add(balanced(somewhere, false));
+        }
+        for (int h = 0; h < holes; h++) {
+            for (int p = 0; p <= holes; p++) {
+                for (int q = p + 1; q <= holes; q++) {
+                    clauses.add(api.makeOrExpression(
+                        api.makeNotExpression(variable(p * holes + h)),
+                        api.makeNotExpression(variable(q * holes + h))));
+                }
+            }
+        }
+        return balanced(clauses, true);
+    }
+
+    /**
+     * Erzeugt eine zufällige 3-KNF am Phasenübergang.
+     *
+     * @param variables die Anzahl der Variablen
+     * @param seed der Startwert des Zufallsgenerators
+     * @return die Formel
+     */
+    public Expression random3Sat(int variables, long seed) {
+        final Random r = new Random(seed);
+        final List<Expression> clauses = new ArrayList<>();
+        for (int i = 0; i < variables * RATIO_MILLIS / MILLIS; i++) {
+            final List<Expression> literals = new ArrayList<>();
+            for (int k = 0; k < CLAUSE_SIZE; k++) {
+                final Expression v = variable(r.nextInt(variables));
+                literals.add(r.nextBoolean() ? v : api.makeNotExpression(v));
+            }
+            clauses.add(balanced(literals, false));
+        }
+        return balanced(clauses, true);
+    }
+
+    /**
+     * Erzeugt die Gleichheit der Summenbits zweier Addierer für bits Stellen. Der erste
+     * berechnet den Übertrag als (a &amp;&amp; b) || (c &amp;&amp; (a ^ b)) und die Summe mit
+     * Xor, der zweite den Übertrag als Mehrheit und die Summe mit Äquivalenzen.
+     *
+     * @param bits die Anzahl der Stellen
+     * @return die allgemeingültige Formel
+     */
+    public Expression adder(int bits) {
+        Expression carry = api.makeConstantExpression(false);
+        Expression majority = carry;
+        final List<Expression> equal = new ArrayList<>();
+        for (int i = 0; i < bits; i++) {
+            final Expression a = variable(2 * i);
+            final Expression b = variable(2 * i + 1);
+            final Expression half = api.makeXorExpression(a, b);
+            final Expression sum = api.makeXorExpression(half, carry);
+            final Expression other = api.makeNotExpression(api.makeEquivalenceExpression(
+                api.makeEquivalenceExpression(a, b), api.makeNotExpression(majority)));
+            equal.add(api.makeEquivalenceExpression(sum, other));
+            carry = api.makeOrExpression(api.makeAndExpression(a, b),
+                api.makeAndExpression(carry, half));
+            majority = api.makeOrExpression(api.makeOrExpression(api.makeAndExpression(a, b),
+                api.makeAndExpression(a, majority)), api.makeAndExpression(b, majority));
+        }
+        return balanced(equal, true);
+    }
+
+    /**
+     * Erzeugt einen zufälligen Regelbaum mit allen Operatoren.
+     *
+     * @param variables die Anzahl der Variablen
+     * @param depth die Tiefe des Baums
+     * @param seed der Startwert des Zufallsgenerators
+     * @return der Baum
+     */
+    public Expression rule(int variables, int depth, long seed) {
+        return rule(new Random(seed), variables, depth);
+    }
+
+    /**
+     * Erzeugt einen zufälligen Regelbaum mit allen Operatoren.
+     *
+     * @param r der Zufallsgenerator
+     * @param variables die Anzahl der Variablen
+     * @param depth die Tiefe des Baums
+     * @return der Baum
+     */
+    private Expression rule(Random r, int variables, int depth) {
+        if (depth == 0) {
+            final Expression v = variable(r.nextInt(variables));
+            return r.nextBoolean() ? v : api.makeNotExpression(v);
+        }
+        final Expression left = rule(r, variables, depth - 1);
+        final Expression right = rule(r, variables, depth - 1);
+        switch (r.nextInt(OPERATORS)) {
+            case 0:
+                return api.makeAndExpression(left, right);
+            case 1:
+                return api.makeOrExpression(left, right);
+            case 2:
+                return api.makeXorExpression(left, right);
+            case 3:
+                return api.makeEquivalenceExpression(left, right);
+            default:
+                return api.makeConsequenceExpression(left, right);
+        }
+    }
+}
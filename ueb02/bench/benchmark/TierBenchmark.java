@@ -0,0 +1,155 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.ExpressionAPI;
+import compiler.CompiledExpression;
+import compiler.HiddenClassCompiler;
+import compiler.Program;
+import compiler.ProgramCompiler;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Vergleicht die Auswertung im Baum (kalte Stufe) mit dem Postfix-Programm und der
+ * übersetzten Klasse (heiße Stufe). Bei 4096 Blättern ist der Ausdruck zu groß für eine
+ * Klasse, er bleibt dann wie in TieredExpression im Baum.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TierBenchmark {
+
+    /** Anzahl der Blätter des vollständigen Baums */
+    @Param({"16", "256", "4096"})
+    public int leaves;
+
+    /** der Baum */
+    private Expression tree;
+
+    /** das verkürzt auswertende Programm */
+    private Program program;
+
+    /** die übersetzte Klasse */
+    private CompiledExpression compiled;
+
+    /** der Kontext */
+    private Context context;
+
+    /**
+     * Erzeugt einen vollständigen Baum über acht Variablen mit allen binären Operatoren.
+     */
+    @Setup
+    public void setup() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final String[] names = {"a", "b", "c", "d", "e", "f", "g", "h"};
+        context = new Context();
+        final Expression[] level = new Expression[leaves];
+        for (int i = 0; i < leaves; i++) {
+            level[i] = api.makeVariableExpression(names[i % names.length]);
+        }
+        for (int i = 0; i < names.length; i++) {
+            context.set(names[i], i % 2 == 0);
+        }
+        for (int size = leaves / 2; size > 0; size /= 2) {
+            for (int i = 0; i < size; i++) {
+                final Expression l = level[2 * i];
+                final Expression r = level[2 * i + 1];
+                switch (i % 5) {
+                    case 0:
+                        level[i] = api.makeAndExpression(l, r);
+                        break;
+                    case 1:
+                        level[i] = api.makeOrExpression(l, api.makeNotExpression(r));
+                        break;
+                    case 2:
+                        level[i] = api.makeXorExpression(l, r);
+                        break;
+                    case 3:
+                        level[i] = api.makeEquivalenceExpression(l, r);
+                        break;
+                    default:
+                        level[i] = api.makeConsequenceExpression(l, r);
+                        break;
+                }
+            }
+        }
+        tree = level[0];
+        program = ProgramCompiler.compile(tree, true);
+        compiled = HiddenClassCompiler.compile(tree);
+    }
+
+    /**
+     * Auswertung im Baum.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean treeShort() throws IncompleteContextException {
+        return tree.evaluateShort(context);
+    }
+
+    /**
+     * Vollständige Auswertung im Baum.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean treeComplete() throws IncompleteContextException {
+        return tree.evaluateComplete(context);
+    }
+
+    /**
+     * Auswertung mit dem Postfix-Programm.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean programShort() throws IncompleteContextException {
+        return program.evaluate(context);
+    }
+
+    /**
+     * Auswertung mit der übersetzten Klasse, bei zu großen Ausdrücken im Baum.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean hiddenClass() throws IncompleteContextException {
+        return compiled != null ? compiled.evaluateShort(context) : tree.evaluateShort(context);
+    }
+
+    /**
+     * Vollständige Auswertung mit der übersetzten Klasse, bei zu großen Ausdrücken im Baum.
+     *
+     * @return das Ergebnis
+     * @throws IncompleteContextException nie, der Kontext ist vollständig
+     */
+    @Benchmark
+    public boolean hiddenClassComplete() throws IncompleteContextException {
+        return compiled != null ? compiled.evaluateComplete(context)
+            : tree.evaluateComplete(context);
+    }
+}
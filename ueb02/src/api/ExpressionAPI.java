@@ -20,6 +20,12 @@ import tree.Equivalence;
  */
 public class ExpressionAPI {
 
+    /**
+     * Konstruktor.
+     */
+    public ExpressionAPI() {
+    }
+
     /**
      * Erzeugt einen neuen konstanten Ausdruck, dessen Wert entweder "true" oder "false" ist.
      * 
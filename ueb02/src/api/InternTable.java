@@ -0,0 +1,203 @@
+package api;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import expression.Expression;
+
+/**
+ * Nebenläufige Tabelle mit schwachen Referenzen auf die kanonischen Knoten der
+ * {@link InterningExpressionAPI}. Die Tabelle ist in Segmente mit eigener Sperre aufgeteilt,
+ * Threads, die Knoten mit verschiedenen Hashwerten anlegen, behindern sich daher selten.
+ * Knoten, die nirgends mehr verwendet werden, räumt der Garbage Collector ab, ihre Einträge
+ * werden beim nächsten Zugriff auf das Segment entfernt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+final class InternTable {
+
+    /** Zweierlogarithmus der Anzahl der Segmente */
+    private static final int SEGMENT_BITS = 4;
+
+    /** Anfangsgröße der Hashtabelle eines Segments, eine Zweierpotenz */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** die Segmente */
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    /**
+     * Konstruktor.
+     */
+    InternTable() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Liefert den kanonischen Knoten zu einem Schlüssel und legt ihn an, wenn es noch keinen
+     * gibt.
+     *
+     * @param hash der Hashwert des Schlüssels
+     * @param matches prüft, ob ein vorhandener Knoten zum Schlüssel passt
+     * @param factory erzeugt einen neuen Knoten zum Schlüssel
+     * @return der kanonische Knoten
+     * @pre matches != null
+     * @pre factory != null
+     */
+    Expression intern(int hash, Predicate<Expression> matches, Supplier<Expression> factory) {
+        assert matches != null;
+        assert factory != null;
+        int h = hash ^ (hash >>> Short.SIZE);
+        return segments[h & (segments.length - 1)].intern(h, matches, factory);
+    }
+
+    /**
+     * Liefert die Anzahl der Einträge. Einträge von abgeräumten Knoten werden mitgezählt, bis
+     * ihr Segment das nächste Mal benutzt wird.
+     *
+     * @return die Anzahl der Einträge
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Eintrag einer Hashtabelle, eine schwache Referenz auf einen Knoten.
+     */
+    private static final class Entry extends WeakReference<Expression> {
+
+        /** der Hashwert des Knotens */
+        private final int hash;
+
+        /** der nächste Eintrag derselben Hashzelle */
+        private Entry next;
+
+        /**
+         * Konstruktor.
+         *
+         * @param expression der Knoten
+         * @param hash der Hashwert des Knotens
+         * @param queue die Queue, in die der Eintrag nach dem Abräumen eingereiht wird
+         * @param next der nächste Eintrag derselben Hashzelle
+         */
+        Entry(Expression expression, int hash, ReferenceQueue<Expression> queue, Entry next) {
+            super(expression, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Segment mit eigener Hashtabelle und Sperre.
+     */
+    private static final class Segment {
+
+        /** Queue der Einträge abgeräumter Knoten */
+        private final ReferenceQueue<Expression> queue = new ReferenceQueue<>();
+
+        /** die Hashtabelle */
+        private Entry[] table = new Entry[INITIAL_CAPACITY];
+
+        /** die Anzahl der Einträge */
+        private int count;
+
+        /**
+         * Liefert den kanonischen Knoten zu einem Schlüssel und legt ihn an, wenn es noch
+         * keinen gibt.
+         *
+         * @param hash der Hashwert des Schlüssels
+         * @param matches prüft, ob ein vorhandener Knoten zum Schlüssel passt
+         * @param factory erzeugt einen neuen Knoten zum Schlüssel
+         * @return der kanonische Knoten
+         */
+        synchronized Expression intern(int hash, Predicate<Expression> matches,
+                Supplier<Expression> factory) {
+            expunge();
+            int index = indexOf(hash, table.length);
+            for (Entry e = table[index]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    Expression candidate = e.get();
+                    if (candidate != null && matches.test(candidate)) {
+                        return candidate;
+                    }
+                }
+            }
+            Expression created = factory.get();
+            table[index] = new Entry(created, hash, queue, table[index]);
+            count++;
+            //verdoppeln ab einem Füllgrad von drei Vierteln
+            if (count > table.length - (table.length >>> 2)) {
+                resize();
+            }
+            return created;
+        }
+
+        /**
+         * Liefert die Anzahl der Einträge.
+         *
+         * @return die Anzahl der Einträge
+         */
+        synchronized int size() {
+            expunge();
+            return count;
+        }
+
+        /**
+         * Berechnet die Hashzelle, die unteren Bits wählen bereits das Segment.
+         *
+         * @param hash der Hashwert
+         * @param length die Größe der Hashtabelle
+         * @return die Hashzelle
+         */
+        private static int indexOf(int hash, int length) {
+            return (hash >>> SEGMENT_BITS) & (length - 1);
+        }
+
+        /**
+         * Entfernt die Einträge abgeräumter Knoten.
+         */
+        private void expunge() {
+            for (Object ref = queue.poll(); ref != null; ref = queue.poll()) {
+                Entry stale = (Entry) ref;
+                int index = indexOf(stale.hash, table.length);
+                Entry prev = null;
+                for (Entry e = table[index]; e != null; prev = e, e = e.next) {
+                    if (e == stale) {
+                        if (prev == null) {
+                            table[index] = e.next;
+                        } else {
+                            prev.next = e.next;
+                        }
+                        count--;
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Verdoppelt die Hashtabelle.
+         */
+        private void resize() {
+            Entry[] old = table;
+            table = new Entry[old.length * 2];
+            for (Entry head : old) {
+                Entry e = head;
+                while (e != null) {
+                    Entry next = e.next;
+                    int index = indexOf(e.hash, table.length);
+                    e.next = table[index];
+                    table[index] = e;
+                    e = next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package api;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import expression.Expression;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Identity;
+import tree.Negation;
+import tree.Or;
+import tree.UnaryOperation;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * API zur Erstellung von Expression-Instanzen, die strukturell gleiche Teilausdrücke nur
+ * einmal anlegt (Hash-Consing). Zu jedem Operator und jedem Paar von Operanden gibt es genau
+ * einen Knoten, ebenso zu jedem Bezeichner und jeder Konstanten. Werden Ausdrücke ausschließlich
+ * über dieselbe Instanz gebaut, sind strukturell gleiche Ausdrücke daher identisch und gemeinsame
+ * Teilformeln liegen nur einmal im Speicher, die Ausdrücke bilden dann einen gerichteten
+ * azyklischen Graphen statt eines Baums.
+ *
+ * Die Knoten sind unveränderlich, getChildrenCount, toString und toGraphviz liefern deshalb
+ * dasselbe wie für den entsprechenden Baum. Die Knoten werden schwach referenziert, nicht mehr
+ * verwendete Teilausdrücke werden vom Garbage Collector abgeräumt. Die Instanz darf von mehreren
+ * Threads gleichzeitig verwendet werden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class InterningExpressionAPI extends ExpressionAPI {
+
+    /** die Konstante true */
+    private final Expression trueConstant;
+
+    /** die Konstante false */
+    private final Expression falseConstant;
+
+    /** die kanonischen Knoten */
+    private final InternTable table = new InternTable();
+
+    /**
+     * Konstruktor. Die beiden Konstanten werden direkt angelegt, damit der Konstruktor keine
+     * überschreibbare Methode aufruft.
+     */
+    public InterningExpressionAPI() {
+        trueConstant = new Constant(0, true);
+        falseConstant = new Constant(0, false);
+    }
+
+    /**
+     * Liefert die Anzahl der kanonischen Knoten, die noch nicht abgeräumt wurden.
+     *
+     * @return die Anzahl der Knoten ohne Konstanten
+     */
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public Expression makeConstantExpression(boolean value) {
+        return value ? trueConstant : falseConstant;
+    }
+
+    @Override
+    public Expression makeVariableExpression(String name) {
+        assert (name != null);
+        assert (name.matches("^[a-zA-Z]+$"));
+
+        return table.intern(name.hashCode(),
+            e -> e instanceof Variable && ((Variable) e).getName().equals(name),
+            () -> super.makeVariableExpression(name));
+    }
+
+    @Override
+    public Expression makeIdExpression(Expression operand) {
+        assert (operand != null);
+
+        return unary(Identity.class, operand, () -> super.makeIdExpression(operand));
+    }
+
+    @Override
+    public Expression makeNotExpression(Expression operand) {
+        assert (operand != null);
+
+        return unary(Negation.class, operand, () -> super.makeNotExpression(operand));
+    }
+
+    @Override
+    public Expression makeAndExpression(Expression left, Expression right) {
+        assert (left != null);
+        assert (right != null);
+
+        return binary(And.class, left, right, () -> super.makeAndExpression(left, right));
+    }
+
+    @Override
+    public Expression makeOrExpression(Expression left, Expression right) {
+        assert (left != null);
+        assert (right != null);
+
+        return binary(Or.class, left, right, () -> super.makeOrExpression(left, right));
+    }
+
+    @Override
+    public Expression makeXorExpression(Expression left, Expression right) {
+        assert (left != null);
+        assert (right != null);
+
+        return binary(Xor.class, left, right, () -> super.makeXorExpression(left, right));
+    }
+
+    @Override
+    public Expression makeEquivalenceExpression(Expression left, Expression right) {
+        assert (left != null);
+        assert (right != null);
+
+        return binary(Equivalence.class, left, right,
+            () -> super.makeEquivalenceExpression(left, right));
+    }
+
+    @Override
+    public Expression makeConsequenceExpression(Expression left, Expression right) {
+        assert (left != null);
+        assert (right != null);
+
+        return binary(Consequence.class, left, right,
+            () -> super.makeConsequenceExpression(left, right));
+    }
+
+    /**
+     * Liefert den kanonischen unären Knoten. Die Operanden werden über ihre Identität
+     * verglichen, sie sind selbst kanonisch, wenn sie von dieser Instanz stammen.
+     *
+     * @param type die Klasse des Knotens
+     * @param operand der Operand
+     * @param factory erzeugt einen neuen Knoten
+     * @return der kanonische Knoten
+     * @throws ArithmeticException wenn der entsprechende Baum mehr als Integer.MAX_VALUE Knoten
+     *             hätte
+     */
+    private Expression unary(Class<? extends UnaryOperation> type, Expression operand,
+            Supplier<Expression> factory) {
+        Math.addExact(operand.getChildrenCount(), 1);
+        int hash = Objects.hash(type, System.identityHashCode(operand));
+        return table.intern(hash,
+            e -> e.getClass() == type && ((UnaryOperation) e).getOperand() == operand,
+            factory);
+    }
+
+    /**
+     * Liefert den kanonischen binären Knoten. Die Operanden werden über ihre Identität
+     * verglichen, sie sind selbst kanonisch, wenn sie von dieser Instanz stammen.
+     *
+     * @param type die Klasse des Knotens
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @param factory erzeugt einen neuen Knoten
+     * @return der kanonische Knoten
+     * @throws ArithmeticException wenn der entsprechende Baum mehr als Integer.MAX_VALUE Knoten
+     *             hätte
+     */
+    private Expression binary(Class<? extends BinaryOperation> type, Expression left,
+            Expression right, Supplier<Expression> factory) {
+        Math.addExact(Math.addExact(left.getChildrenCount(), right.getChildrenCount()), 1);
+        int hash = Objects.hash(type, System.identityHashCode(left),
+                System.identityHashCode(right));
+        return table.intern(hash,
+            e -> e.getClass() == type && ((BinaryOperation) e).getLeft() == left
+                    && ((BinaryOperation) e).getRight() == right,
+            factory);
+    }
+}
@@ -0,0 +1,199 @@
+package compiler;
+
+import java.util.Arrays;
+import java.util.List;
+
+import expression.Context;
+import expression.VariableTable;
+
+/**
+ * Eine Menge von Kontexten, deren Belegungen spaltenweise abgelegt sind. Jede Variable besitzt
+ * eine Spalte aus long-Worten, in der Bit i von Wort w den Wert im Kontext (Lane) 64 * w + i
+ * enthält, sowie eine gleich aufgebaute Spalte, die angibt, in welchen Lanes die Variable
+ * belegt ist.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class Batch {
+
+    /** Anzahl der Bit, um die eine Lane für den Index ihres Worts verschoben wird */
+    static final int WORD_SHIFT = 6;
+
+    /** die Zuordnung von Bezeichnern zu Slots */
+    private final VariableTable table;
+
+    /** die Anzahl der Kontexte */
+    private final int size;
+
+    /** die Anzahl der long-Worte pro Spalte */
+    private final int words;
+
+    /** die Werte, erster Index ist der Slot, oder null für noch nicht angelegte Spalten */
+    private long[][] values;
+
+    /** die Belegung, erster Index ist der Slot, oder null für noch nicht angelegte Spalten */
+    private long[][] defined;
+
+    /**
+     * Konstruktor für eine Menge von Kontexten, in denen noch keine Variable belegt ist.
+     *
+     * @param table die Zuordnung von Bezeichnern zu Slots
+     * @param size die Anzahl der Kontexte
+     * @pre table != null
+     * @pre size &ge; 0
+     */
+    public Batch(VariableTable table, int size) {
+        assert table != null;
+        assert size >= 0;
+
+        this.table = table;
+        this.size = size;
+        this.words = (size + Long.SIZE - 1) >>> WORD_SHIFT;
+        this.values = new long[table.size()][];
+        this.defined = new long[table.size()][];
+    }
+
+    /**
+     * Erzeugt eine Menge von Kontexten aus einer Liste herkömmlicher Kontexte. Übernommen werden
+     * die Werte aller Bezeichner der Tabelle.
+     *
+     * @param table die Zuordnung von Bezeichnern zu Slots
+     * @param contexts die Kontexte, Index ist die Lane
+     * @return die neue Menge
+     * @pre table != null
+     * @pre contexts != null
+     */
+    public static Batch of(VariableTable table, List<Context> contexts) {
+        assert contexts != null;
+
+        Batch batch = new Batch(table, contexts.size());
+        for (int lane = 0; lane < contexts.size(); lane++) {
+            Context c = contexts.get(lane);
+            for (int slot = 0; c != null && slot < table.size(); slot++) {
+                Boolean value = c.get(table.getName(slot));
+                if (value != null) {
+                    batch.set(lane, slot, value);
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Liefert die Zuordnung von Bezeichnern zu Slots.
+     *
+     * @return die Tabelle
+     */
+    public VariableTable getTable() {
+        return table;
+    }
+
+    /**
+     * Liefert die Anzahl der Kontexte.
+     *
+     * @return die Anzahl der Lanes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Liefert die Anzahl der long-Worte pro Spalte.
+     *
+     * @return die Anzahl der Worte
+     */
+    public int words() {
+        return words;
+    }
+
+    /**
+     * Setzt den Wert einer Variablen in einem Kontext.
+     *
+     * @param lane der Index des Kontexts
+     * @param slot der Slot der Variablen
+     * @param val der Wert
+     * @pre 0 &le; lane &lt; size()
+     * @pre 0 &le; slot &lt; getTable().size()
+     */
+    public void set(int lane, int slot, boolean val) {
+        assert lane >= 0 && lane < size;
+        assert slot >= 0 && slot < table.size();
+
+        ensureColumn(slot);
+        long bit = 1L << lane;
+        defined[slot][lane >>> WORD_SHIFT] |= bit;
+        if (val) {
+            values[slot][lane >>> WORD_SHIFT] |= bit;
+        } else {
+            values[slot][lane >>> WORD_SHIFT] &= ~bit;
+        }
+    }
+
+    /**
+     * Übernimmt eine vollständig belegte Spalte.
+     *
+     * @param id der Bezeichner der Variablen, sein Slot wird bei Bedarf angelegt
+     * @param column die Werte, ein Bit pro Lane
+     * @pre id != null
+     * @pre column.length == words()
+     */
+    public void setColumn(String id, long[] column) {
+        long[] all = new long[words];
+        Arrays.fill(all, -1L);
+        setColumn(id, column, all);
+    }
+
+    /**
+     * Übernimmt eine Spalte, in der nicht jede Lane belegt sein muss.
+     *
+     * @param id der Bezeichner der Variablen, sein Slot wird bei Bedarf angelegt
+     * @param column die Werte, ein Bit pro Lane
+     * @param mask die belegten Lanes, ein Bit pro Lane
+     * @pre id != null
+     * @pre column.length == words() und mask.length == words()
+     */
+    public void setColumn(String id, long[] column, long[] mask) {
+        assert column.length == words && mask.length == words;
+
+        int slot = table.slotOf(id);
+        ensureColumn(slot);
+        System.arraycopy(column, 0, values[slot], 0, words);
+        System.arraycopy(mask, 0, defined[slot], 0, words);
+    }
+
+    /**
+     * Legt die Spalten eines Slots an, falls sie noch fehlen.
+     *
+     * @param slot der Slot
+     */
+    private void ensureColumn(int slot) {
+        if (slot >= values.length) {
+            values = Arrays.copyOf(values, table.size());
+            defined = Arrays.copyOf(defined, table.size());
+        }
+        if (values[slot] == null) {
+            values[slot] = new long[words];
+            defined[slot] = new long[words];
+        }
+    }
+
+    /**
+     * Liefert die Spalte der Werte einer Variablen.
+     *
+     * @param slot der Slot
+     * @return die Spalte oder null, wenn die Variable in keiner Lane belegt wurde
+     */
+    long[] values(int slot) {
+        return slot < values.length ? values[slot] : null;
+    }
+
+    /**
+     * Liefert die Spalte der Belegung einer Variablen.
+     *
+     * @param slot der Slot
+     * @return die Spalte oder null, wenn die Variable in keiner Lane belegt wurde
+     */
+    long[] defined(int slot) {
+        return slot < defined.length ? defined[slot] : null;
+    }
+}
@@ -0,0 +1,208 @@
+package compiler;
+
+import java.util.Arrays;
+
+import expression.Expression;
+import expression.VariableTable;
+
+/**
+ * Wertet einen Ausdruck bitparallel über eine Menge von Kontexten aus. Grundlage ist das
+ * vollständig auswertende Postfix-Programm, dessen Befehle hier jeweils auf ganze Blöcke von
+ * long-Worten angewendet werden: Und, Oder und Exklusiv-Oder werden zu &amp;, | und ^, die
+ * Negation zu ~, Äquivalenz und Implikation zu ~(l ^ r) und ~l | r. Jedes Wort wertet so 64
+ * Kontexte auf einmal aus.
+ *
+ * Wurde die Klasse compiler.VectorKernel mit übersetzt (ant -Dvector=true ...) und läuft die
+ * JVM mit --add-modules jdk.incubator.vector, werden die Blöcke mit der Vector API in
+ * 256- oder 512-Bit-Registern verarbeitet, sonst Wort für Wort.
+ *
+ * Neben den Werten wird für jede Lane mitgeführt, ob eine benötigte Variable fehlt. Bei
+ * verkürzter Semantik gilt eine fehlende Variable im rechten Operanden von Und, Oder und
+ * Implikation nur in den Lanes, in denen der linke Operand das Ergebnis noch nicht festlegt,
+ * genau wie bei evaluateShort.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class BatchEvaluator {
+
+    /** Anzahl der Worte, die pro Befehl am Stück verarbeitet werden */
+    static final int BLOCK_WORDS = 64;
+
+    /** der Vektorkern oder null, wenn er nicht verfügbar ist */
+    private static final BlockKernel VECTOR = loadVectorKernel();
+
+    /** das vollständig auswertende Programm */
+    private final Program program;
+
+    /** true für die Fehlersemantik von evaluateShort */
+    private final boolean shortCircuit;
+
+    /** der Rechenkern */
+    private final BlockKernel kernel;
+
+    /**
+     * Konstruktor, nutzt den Vektorkern, wenn er verfügbar ist.
+     *
+     * @param e der Ausdruck
+     * @param shortCircuit true für die Semantik von evaluateShort, false für die von
+     *            evaluateComplete
+     * @param table die Zuordnung von Bezeichnern zu Slots, an die die Auswertung gebunden wird
+     * @pre e != null
+     * @pre table != null
+     */
+    public BatchEvaluator(Expression e, boolean shortCircuit, VariableTable table) {
+        this(e, shortCircuit, table, true);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param e der Ausdruck
+     * @param shortCircuit true für die Semantik von evaluateShort, false für die von
+     *            evaluateComplete
+     * @param table die Zuordnung von Bezeichnern zu Slots, an die die Auswertung gebunden wird
+     * @param vectorize false, um auch bei verfügbarem Vektorkern skalar zu rechnen
+     * @pre e != null
+     * @pre table != null
+     */
+    public BatchEvaluator(Expression e, boolean shortCircuit, VariableTable table,
+            boolean vectorize) {
+        this.program = ProgramCompiler.compile(e, false, table);
+        this.shortCircuit = shortCircuit;
+        this.kernel = vectorize && VECTOR != null ? VECTOR : new ScalarKernel();
+    }
+
+    /**
+     * Lädt den Vektorkern.
+     *
+     * @return der Kern oder null, wenn die Klasse oder das Modul jdk.incubator.vector fehlt oder
+     *         die CPU keine Vektorregister für mehrere long-Werte hat
+     */
+    private static BlockKernel loadVectorKernel() {
+        try {
+            return (BlockKernel) Class.forName("compiler.VectorKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Prüft, ob der Vektorkern verfügbar ist.
+     *
+     * @return true, wenn die Blöcke mit der Vector API verarbeitet werden können
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR != null;
+    }
+
+    /**
+     * Prüft, ob dieser Auswerter den Vektorkern nutzt.
+     *
+     * @return true, wenn die Blöcke mit der Vector API verarbeitet werden
+     */
+    public boolean isVectorized() {
+        return kernel == VECTOR;
+    }
+
+    /**
+     * Wertet den Ausdruck in allen Kontexten der Menge aus.
+     *
+     * @param batch die Kontexte
+     * @return die Wahrheitswerte und die Lanes mit fehlenden Variablen
+     * @pre batch != null
+     * @pre batch.getTable() ist die Tabelle dieses Auswerters
+     */
+    public BatchResult evaluate(Batch batch) {
+        assert batch != null;
+        assert batch.getTable() == program.getTable();
+
+        int words = batch.words();
+        long[] values = new long[words];
+        long[] missing = new long[words];
+        int depth = Math.max(program.getMaxStack(), 1);
+        long[][] valueStack = new long[depth][BLOCK_WORDS];
+        long[][] missingStack = new long[depth][BLOCK_WORDS];
+
+        for (int base = 0; base < words; base += BLOCK_WORDS) {
+            int n = Math.min(BLOCK_WORDS, words - base);
+            evaluateBlock(batch, base, n, valueStack, missingStack);
+            System.arraycopy(valueStack[0], 0, values, base, n);
+            System.arraycopy(missingStack[0], 0, missing, base, n);
+        }
+
+        int tail = batch.size() & (Long.SIZE - 1);
+        if (tail != 0) {
+            long lanes = (1L << tail) - 1;
+            values[words - 1] &= lanes;
+            missing[words - 1] &= lanes;
+        }
+        for (int w = 0; w < words; w++) {
+            values[w] &= ~missing[w];
+        }
+        return new BatchResult(values, missing, batch.size());
+    }
+
+    /**
+     * Interpretiert das Programm für einen Block von Worten. Das Ergebnis liegt danach im
+     * untersten Eintrag der Stapel.
+     *
+     * @param batch die Kontexte
+     * @param base der Index des ersten Worts
+     * @param n die Anzahl der Worte im Block
+     * @param values der Stapel der Werte
+     * @param missing der Stapel der fehlenden Variablen
+     */
+    private void evaluateBlock(Batch batch, int base, int n, long[][] values, long[][] missing) {
+        int sp = -1;
+        for (int pc = 0; pc < program.size(); pc++) {
+            int insn = program.getInstruction(pc);
+            int op = insn & Program.OP_MASK;
+            switch (op) {
+                case Program.PUSH_FALSE:
+                case Program.PUSH_TRUE:
+                    sp++;
+                    Arrays.fill(values[sp], 0, n, op == Program.PUSH_TRUE ? -1L : 0L);
+                    Arrays.fill(missing[sp], 0, n, 0L);
+                    break;
+                case Program.LOAD:
+                    sp++;
+                    load(batch, program.getSlot(insn >>> Program.OP_BITS), base, n, values[sp],
+                            missing[sp]);
+                    break;
+                case Program.NOT:
+                    kernel.not(values[sp], n);
+                    break;
+                default:
+                    sp--;
+                    kernel.combine(op, shortCircuit, n, values[sp], missing[sp], values[sp + 1],
+                            missing[sp + 1]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Lädt einen Block der Spalten einer Variablen.
+     *
+     * @param batch die Kontexte
+     * @param slot der Slot der Variablen
+     * @param base der Index des ersten Worts
+     * @param n die Anzahl der Worte im Block
+     * @param v der Block für die Werte
+     * @param m der Block für die fehlenden Variablen
+     */
+    private static void load(Batch batch, int slot, int base, int n, long[] v, long[] m) {
+        long[] column = batch.values(slot);
+        long[] mask = batch.defined(slot);
+        if (column == null) {
+            Arrays.fill(v, 0, n, 0L);
+            Arrays.fill(m, 0, n, -1L);
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            v[i] = column[base + i];
+            m[i] = ~mask[base + i];
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package compiler;
+
+/**
+ * Das Ergebnis einer spaltenweisen Auswertung über eine Menge von Kontexten. Für jede Lane
+ * liegen ein Wahrheitswert und die Angabe vor, ob die Auswertung in dieser Lane wegen einer
+ * fehlenden Variablen gescheitert wäre.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class BatchResult {
+
+    /** die Wahrheitswerte, ein Bit pro Lane */
+    private final long[] values;
+
+    /** die Lanes mit fehlenden Variablen, ein Bit pro Lane */
+    private final long[] missing;
+
+    /** die Anzahl der Lanes */
+    private final int size;
+
+    /**
+     * Konstruktor.
+     *
+     * @param values die Wahrheitswerte, ein Bit pro Lane
+     * @param missing die Lanes mit fehlenden Variablen, ein Bit pro Lane
+     * @param size die Anzahl der Lanes
+     */
+    BatchResult(long[] values, long[] missing, int size) {
+        this.values = values;
+        this.missing = missing;
+        this.size = size;
+    }
+
+    /**
+     * Liefert die Anzahl der Lanes.
+     *
+     * @return die Anzahl der Lanes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Liefert den Wahrheitswert einer Lane.
+     *
+     * @param lane der Index des Kontexts
+     * @return der Wahrheitswert, false wenn in der Lane eine Variable fehlt
+     * @pre 0 &le; lane &lt; size()
+     */
+    public boolean get(int lane) {
+        assert lane >= 0 && lane < size;
+
+        return (values[lane >>> Batch.WORD_SHIFT] & (1L << lane)) != 0L;
+    }
+
+    /**
+     * Gibt an, ob die Auswertung in einer Lane eine IncompleteContextException ausgelöst hätte.
+     *
+     * @param lane der Index des Kontexts
+     * @return true, wenn eine benötigte Variable fehlt
+     * @pre 0 &le; lane &lt; size()
+     */
+    public boolean isMissing(int lane) {
+        assert lane >= 0 && lane < size;
+
+        return (missing[lane >>> Batch.WORD_SHIFT] & (1L << lane)) != 0L;
+    }
+
+    /**
+     * Liefert die Wahrheitswerte als Bitfeld.
+     *
+     * @return eine Kopie der Wahrheitswerte, ein Bit pro Lane
+     */
+    public long[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * Liefert die Lanes mit fehlenden Variablen als Bitfeld.
+     *
+     * @return eine Kopie der Lanes mit fehlenden Variablen, ein Bit pro Lane
+     */
+    public long[] getMissing() {
+        return missing.clone();
+    }
+
+    /**
+     * Liefert die Anzahl der Lanes, deren Ergebnis true ist.
+     *
+     * @return die Anzahl
+     */
+    public int countTrue() {
+        int count = 0;
+        for (long word : values) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
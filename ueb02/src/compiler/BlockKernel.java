@@ -0,0 +1,31 @@
+package compiler;
+
+/**
+ * Rechenkern der bitparallelen Auswertung. Ein Kern wendet einzelne Befehle des
+ * Postfix-Programms auf Blöcke von long-Worten an, jedes Bit ist dabei ein Kontext.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+interface BlockKernel {
+
+    /**
+     * Negiert einen Block.
+     *
+     * @param v die Werte
+     * @param n die Anzahl der Worte im Block
+     */
+    void not(long[] v, int n);
+
+    /**
+     * Verknüpft zwei Blöcke, das Ergebnis steht danach im linken Block.
+     *
+     * @param op der binäre Befehl
+     * @param shortCircuit true für die Fehlersemantik von evaluateShort
+     * @param n die Anzahl der Worte im Block
+     * @param l die Werte des linken Operanden
+     * @param lm die fehlenden Variablen des linken Operanden
+     * @param r die Werte des rechten Operanden
+     * @param rm die fehlenden Variablen des rechten Operanden
+     */
+    void combine(int op, boolean shortCircuit, int n, long[] l, long[] lm, long[] r, long[] rm);
+}
@@ -0,0 +1,34 @@
+package compiler;
+
+import expression.Context;
+import expression.IncompleteContextException;
+
+/**
+ * Schnittstelle der zur Laufzeit erzeugten Klassen, die jeweils genau einen Ausdruck ohne
+ * virtuelle Aufrufe auswerten.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public interface CompiledExpression {
+
+    /**
+     * Wertet den Ausdruck mit verkürzter Auswertung aus, genau wie
+     * {@link expression.Expression#evaluateShort(Context)} auf dem Baum.
+     *
+     * @param c der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return der Wahrheitswert des Ausdrucks
+     * @throws IncompleteContextException wenn eine der benötigten Variablen nicht im Kontext
+     *             definiert ist
+     */
+    boolean evaluateShort(Context c) throws IncompleteContextException;
+
+    /**
+     * Wertet den Ausdruck vollständig aus, genau wie
+     * {@link expression.Expression#evaluateComplete(Context)} auf dem Baum.
+     *
+     * @param c der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return der Wahrheitswert des Ausdrucks
+     * @throws IncompleteContextException wenn eine der Variablen nicht im Kontext definiert ist
+     */
+    boolean evaluateComplete(Context c) throws IncompleteContextException;
+}
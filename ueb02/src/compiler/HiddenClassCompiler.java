@@ -0,0 +1,642 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Übersetzt einen Ausdruck zur Laufzeit in eine eigene versteckte Klasse (Hidden Class) ohne
+ * virtuelle Aufrufe, sodass HotSpot die gesamte Formel inlinen kann. Grundlage sind die
+ * Postfix-Programme des ProgramCompiler.
+ *
+ * Die Methode evaluateShort übersetzt das verkürzt auswertende Programm in bedingte Sprünge,
+ * jede Variable wird erst an ihrer Stelle aus dem Kontext gelesen. Die Variablen werden so in
+ * derselben Reihenfolge wie im Baum gelesen, eine fehlende Variable führt zu derselben
+ * IncompleteContextException, und eine übersprungene Variable darf fehlen. Die Methode
+ * evaluateComplete ist geradliniger Bytecode ohne Sprünge, jede Variable wird einmal zu Beginn
+ * in der Reihenfolge ihres ersten Auftretens gelesen, was ebenfalls der Reihenfolge des Baums
+ * entspricht.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class HiddenClassCompiler {
+
+    /**
+     * maximale Länge der erzeugten Methode im Bytecode, längere Methoden übersetzt HotSpot
+     * standardmäßig nicht (-XX:HugeMethodLimit)
+     */
+    private static final int MAX_CODE_LENGTH = 8000;
+
+    /** größter Index einer lokalen Variablen, der ohne wide adressiert werden kann */
+    private static final int MAX_NARROW_LOCAL = 0xFF;
+
+    /** Anzahl der lokalen Variablen vor den Variablen des Ausdrucks (this und der Kontext) */
+    private static final int FIRST_LOCAL = 2;
+
+    /** Kennung am Anfang jeder Klassendatei */
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /** Klassendatei-Version (Java 8, Sprungziele brauchen StackMapTable-Einträge) */
+    private static final int CLASS_VERSION = 52;
+
+    /** Zugriffsrechte public final super */
+    private static final int ACC_CLASS = 0x0031;
+
+    /** Zugriffsrecht public */
+    private static final int ACC_PUBLIC = 0x0001;
+
+    /** Opcode aload_0 */
+    private static final int ALOAD_0 = 0x2a;
+
+    /** Opcode aload_1 */
+    private static final int ALOAD_1 = 0x2b;
+
+    /** Opcode iconst_0 */
+    private static final int ICONST_0 = 0x03;
+
+    /** Opcode iconst_1 */
+    private static final int ICONST_1 = 0x04;
+
+    /** Opcode ldc_w */
+    private static final int LDC_W = 0x13;
+
+    /** Opcode iload */
+    private static final int ILOAD = 0x15;
+
+    /** Opcode istore */
+    private static final int ISTORE = 0x36;
+
+    /** Opcode pop */
+    private static final int POP = 0x57;
+
+    /** Opcode dup */
+    private static final int DUP = 0x59;
+
+    /** Opcode swap */
+    private static final int SWAP = 0x5f;
+
+    /** Opcode iand */
+    private static final int IAND = 0x7e;
+
+    /** Opcode ior */
+    private static final int IOR = 0x80;
+
+    /** Opcode ixor */
+    private static final int IXOR = 0x82;
+
+    /** Opcode ifeq */
+    private static final int IFEQ = 0x99;
+
+    /** Opcode ifne */
+    private static final int IFNE = 0x9a;
+
+    /** Opcode ireturn */
+    private static final int IRETURN = 0xac;
+
+    /** Opcode return */
+    private static final int RETURN = 0xb1;
+
+    /** Opcode invokespecial */
+    private static final int INVOKESPECIAL = 0xb7;
+
+    /** Opcode invokestatic */
+    private static final int INVOKESTATIC = 0xb8;
+
+    /** Opcode wide */
+    private static final int WIDE = 0xc4;
+
+    /** Typ eines StackMapTable-Eintrags, der alle lokalen Variablen und den Stapel angibt */
+    private static final int FULL_FRAME = 255;
+
+    /** Verifikationstyp int */
+    private static final int ITEM_INTEGER = 1;
+
+    /** Verifikationstyp Objekt einer Klasse */
+    private static final int ITEM_OBJECT = 7;
+
+    /** Lookup im Paket compiler, in dem die versteckten Klassen definiert werden */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Privater Konstruktor, diese Klasse enthält nur statische Methoden.
+     */
+    private HiddenClassCompiler() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in eine versteckte Klasse.
+     *
+     * @param e der Ausdruck
+     * @return eine Instanz der erzeugten Klasse oder null, wenn der Ausdruck zu groß ist, als
+     *         dass HotSpot die erzeugten Methoden noch übersetzen würde
+     * @pre e != null
+     */
+    public static CompiledExpression compile(Expression e) {
+        assert e != null;
+
+        byte[] bytes = generate(ProgramCompiler.compile(e, true),
+                ProgramCompiler.compile(e, false));
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            Class<?> hidden = LOOKUP.defineHiddenClass(bytes, true).lookupClass();
+            return (CompiledExpression) hidden.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Liest den Wert einer Variablen, wird aus dem erzeugten Bytecode aufgerufen.
+     *
+     * @param c der Kontext oder null
+     * @param name der Bezeichner der Variablen
+     * @return 1 für true, 0 für false
+     * @throws IncompleteContextException wenn die Variable nicht im Kontext ist
+     */
+    static int load(Context c, String name) throws IncompleteContextException {
+        Boolean value = c == null ? null : c.get(name);
+        if (value == null) {
+            throw new IncompleteContextException(name);
+        }
+        return value ? 1 : 0;
+    }
+
+    /**
+     * Erzeugt die Klassendatei.
+     *
+     * @param shortProgram das verkürzt auswertende Programm
+     * @param completeProgram das vollständig auswertende Programm
+     * @return die Klassendatei oder null, wenn der Bytecode einer Methode zu lang wird
+     */
+    private static byte[] generate(Program shortProgram, Program completeProgram) {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef("compiler/GeneratedExpression");
+        int superClass = pool.classRef("java/lang/Object");
+        int iface = pool.classRef("compiler/CompiledExpression");
+        int objectInit = pool.methodRef(superClass, "<init>", "()V");
+        int load = pool.methodRef(pool.classRef("compiler/HiddenClassCompiler"), "load",
+                "(Lexpression/Context;Ljava/lang/String;)I");
+
+        MethodCode shortCode = shortCode(shortProgram, pool, load);
+        MethodCode completeCode = completeCode(completeProgram, pool, load);
+        if (shortCode == null || completeCode == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream init = new ByteArrayOutputStream();
+        init.write(ALOAD_0);
+        init.write(INVOKESPECIAL);
+        writeShort(init, objectInit);
+        init.write(RETURN);
+        MethodCode initCode = new MethodCode(init.toByteArray(), 1, 1, null);
+
+        int codeName = pool.utf8("Code");
+        int stackMapName = pool.utf8("StackMapTable");
+        int initName = pool.utf8("<init>");
+        int initDesc = pool.utf8("()V");
+        int shortName = pool.utf8("evaluateShort");
+        int completeName = pool.utf8("evaluateComplete");
+        int evalDesc = pool.utf8("(Lexpression/Context;)Z");
+
+        final int methods = 3;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(CLASS_VERSION);
+            pool.writeTo(out);
+            out.writeShort(ACC_CLASS);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(iface);
+            out.writeShort(0);
+            out.writeShort(methods);
+            writeMethod(out, initName, initDesc, codeName, stackMapName, initCode);
+            writeMethod(out, shortName, evalDesc, codeName, stackMapName, shortCode);
+            writeMethod(out, completeName, evalDesc, codeName, stackMapName, completeCode);
+            out.writeShort(0);
+        } catch (IOException ex) {
+            throw new AssertionError(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Erzeugt den Bytecode für ein verkürzt auswertendes Programm. Die Sprünge des Programms
+     * lassen den Wert auf dem Stapel und entfernen ihn beim Durchfallen, sie werden zu dup,
+     * ifeq bzw. ifne und pop. Alle Sprünge des Programms führen vorwärts, an jedem Sprungziel
+     * liegen nur Wahrheitswerte auf dem Stapel.
+     *
+     * @param program das Programm
+     * @param pool der Konstantenpool
+     * @param load Index der Methode load
+     * @return der Bytecode oder null, wenn er zu lang wird
+     */
+    private static MethodCode shortCode(Program program, ConstantPool pool, int load) {
+        final int size = program.size();
+        //Position im Bytecode und Stapeltiefe je Anweisung, -1 für Anweisungen ohne Sprungziel
+        int[] offsets = new int[size + 1];
+        int[] frameDepths = new int[size + 1];
+        int[] branches = new int[size];
+        Arrays.fill(frameDepths, -1);
+        Arrays.fill(branches, -1);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int depth = 0;
+        for (int pc = 0; pc < size; pc++) {
+            offsets[pc] = body.size();
+            assert frameDepths[pc] < 0 || frameDepths[pc] == depth;
+            int insn = program.getInstruction(pc);
+            int op = insn & Program.OP_MASK;
+            if (op == Program.LOAD) {
+                body.write(ALOAD_1);
+                body.write(LDC_W);
+                writeShort(body, pool.string(program.getVariable(insn >>> Program.OP_BITS)));
+                body.write(INVOKESTATIC);
+                writeShort(body, load);
+                depth++;
+            } else if (op == Program.JUMP_FALSE_OR_POP || op == Program.JUMP_TRUE_OR_POP) {
+                int target = insn >>> Program.OP_BITS;
+                assert target > pc;
+                frameDepths[target] = depth;
+                body.write(DUP);
+                branches[pc] = body.size();
+                body.write(op == Program.JUMP_FALSE_OR_POP ? IFEQ : IFNE);
+                writeShort(body, 0);
+                body.write(POP);
+                depth--;
+            } else {
+                depth += operation(body, insn);
+            }
+            if (body.size() > MAX_CODE_LENGTH) {
+                return null;
+            }
+        }
+        offsets[size] = body.size();
+        assert frameDepths[size] < 0 || frameDepths[size] == depth;
+        body.write(IRETURN);
+        if (body.size() > MAX_CODE_LENGTH) {
+            return null;
+        }
+
+        byte[] code = body.toByteArray();
+        for (int pc = 0; pc < size; pc++) {
+            if (branches[pc] >= 0) {
+                int offset = offsets[program.getInstruction(pc) >>> Program.OP_BITS] - branches[pc];
+                code[branches[pc] + 1] = (byte) (offset >>> Byte.SIZE);
+                code[branches[pc] + 2] = (byte) offset;
+            }
+        }
+
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        int object = pool.classRef("java/lang/Object");
+        int context = pool.classRef("expression/Context");
+        int count = 0;
+        int previous = -1;
+        for (int pc = 0; pc <= size; pc++) {
+            if (frameDepths[pc] >= 0) {
+                frames.write(FULL_FRAME);
+                writeShort(frames, offsets[pc] - previous - 1);
+                previous = offsets[pc];
+                writeShort(frames, FIRST_LOCAL);
+                frames.write(ITEM_OBJECT);
+                writeShort(frames, object);
+                frames.write(ITEM_OBJECT);
+                writeShort(frames, context);
+                writeShort(frames, frameDepths[pc]);
+                for (int i = 0; i < frameDepths[pc]; i++) {
+                    frames.write(ITEM_INTEGER);
+                }
+                count++;
+            }
+        }
+        ByteArrayOutputStream stackMap = new ByteArrayOutputStream();
+        writeShort(stackMap, count);
+        stackMap.writeBytes(frames.toByteArray());
+        //+2 für Kontext und Bezeichner beim Lesen einer Variablen
+        return new MethodCode(code, program.getMaxStack() + 2, FIRST_LOCAL,
+                count == 0 ? null : stackMap.toByteArray());
+    }
+
+    /**
+     * Erzeugt geradlinigen Bytecode für ein vollständig auswertendes Programm. Jede Variable
+     * wird zu Beginn einmal in eine lokale Variable gelesen.
+     *
+     * @param program das Programm
+     * @param pool der Konstantenpool
+     * @param load Index der Methode load
+     * @return der Bytecode oder null, wenn er zu lang wird
+     */
+    private static MethodCode completeCode(Program program, ConstantPool pool, int load) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int variables = program.getVariableCount();
+        for (int index = 0; index < variables; index++) {
+            body.write(ALOAD_1);
+            body.write(LDC_W);
+            writeShort(body, pool.string(program.getVariable(index)));
+            body.write(INVOKESTATIC);
+            writeShort(body, load);
+            local(body, ISTORE, FIRST_LOCAL + index);
+        }
+        for (int pc = 0; pc < program.size(); pc++) {
+            int insn = program.getInstruction(pc);
+            if ((insn & Program.OP_MASK) == Program.LOAD) {
+                local(body, ILOAD, FIRST_LOCAL + (insn >>> Program.OP_BITS));
+            } else {
+                operation(body, insn);
+            }
+            if (body.size() > MAX_CODE_LENGTH) {
+                return null;
+            }
+        }
+        body.write(IRETURN);
+        if (body.size() > MAX_CODE_LENGTH) {
+            return null;
+        }
+        //+1 für die Konstante bei NOT, EQUIV und IMPL
+        return new MethodCode(body.toByteArray(), Math.max(program.getMaxStack() + 1, 2),
+                FIRST_LOCAL + variables, null);
+    }
+
+    /**
+     * Schreibt den Bytecode einer Anweisung ohne Variablen und ohne Sprung.
+     *
+     * @param body der Bytecode
+     * @param insn die Anweisung
+     * @return die Änderung der Stapeltiefe
+     */
+    private static int operation(ByteArrayOutputStream body, int insn) {
+        switch (insn & Program.OP_MASK) {
+            case Program.PUSH_FALSE:
+                body.write(ICONST_0);
+                return 1;
+            case Program.PUSH_TRUE:
+                body.write(ICONST_1);
+                return 1;
+            case Program.NOT:
+                body.write(ICONST_1);
+                body.write(IXOR);
+                return 0;
+            case Program.AND:
+                body.write(IAND);
+                return -1;
+            case Program.OR:
+                body.write(IOR);
+                return -1;
+            case Program.XOR:
+                body.write(IXOR);
+                return -1;
+            case Program.EQUIV:
+                body.write(IXOR);
+                body.write(ICONST_1);
+                body.write(IXOR);
+                return -1;
+            case Program.IMPL:
+                body.write(SWAP);
+                body.write(ICONST_1);
+                body.write(IXOR);
+                body.write(IOR);
+                return -1;
+            default:
+                throw new AssertionError(insn);
+        }
+    }
+
+    /**
+     * Schreibt einen Zugriff auf eine lokale Variable, bei Bedarf mit wide-Präfix.
+     *
+     * @param body der Bytecode
+     * @param opcode iload oder istore
+     * @param index der Index der lokalen Variablen
+     */
+    private static void local(ByteArrayOutputStream body, int opcode, int index) {
+        if (index > MAX_NARROW_LOCAL) {
+            body.write(WIDE);
+            body.write(opcode);
+            writeShort(body, index);
+        } else {
+            body.write(opcode);
+            body.write(index);
+        }
+    }
+
+    /**
+     * Schreibt zwei Bytes in Big-Endian-Reihenfolge.
+     *
+     * @param body der Bytecode
+     * @param value der Wert
+     */
+    private static void writeShort(ByteArrayOutputStream body, int value) {
+        body.write(value >>> Byte.SIZE);
+        body.write(value);
+    }
+
+    /**
+     * Schreibt eine öffentliche Methode mit Code-Attribut und bei Bedarf einer StackMapTable.
+     *
+     * @param out die Klassendatei
+     * @param name Index des Methodennamens
+     * @param desc Index des Deskriptors
+     * @param codeName Index des Attributnamens "Code"
+     * @param stackMapName Index des Attributnamens "StackMapTable"
+     * @param method der Bytecode der Methode
+     * @throws IOException wird von einem ByteArrayOutputStream nie geworfen
+     */
+    private static void writeMethod(DataOutputStream out, int name, int desc, int codeName,
+            int stackMapName, MethodCode method) throws IOException {
+        final int codeHeader = 12;
+        final int attributeHeader = 6;
+        byte[] code = method.code;
+        byte[] stackMap = method.stackMap;
+        int attributes = stackMap == null ? 0 : attributeHeader + stackMap.length;
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(desc);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(codeHeader + code.length + attributes);
+        out.writeShort(method.maxStack);
+        out.writeShort(method.maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        if (stackMap == null) {
+            out.writeShort(0);
+        } else {
+            out.writeShort(1);
+            out.writeShort(stackMapName);
+            out.writeInt(stackMap.length);
+            out.write(stackMap);
+        }
+    }
+
+    /**
+     * Bytecode einer erzeugten Methode mit den Angaben für ihr Code-Attribut.
+     */
+    private static final class MethodCode {
+
+        /** der Bytecode */
+        private final byte[] code;
+
+        /** die maximale Stapeltiefe */
+        private final int maxStack;
+
+        /** die Anzahl der lokalen Variablen */
+        private final int maxLocals;
+
+        /** der Inhalt des StackMapTable-Attributs oder null, wenn es keine Sprungziele gibt */
+        private final byte[] stackMap;
+
+        /**
+         * Konstruktor.
+         *
+         * @param code der Bytecode
+         * @param maxStack die maximale Stapeltiefe
+         * @param maxLocals die Anzahl der lokalen Variablen
+         * @param stackMap der Inhalt des StackMapTable-Attributs oder null
+         */
+        private MethodCode(byte[] code, int maxStack, int maxLocals, byte[] stackMap) {
+            this.code = code;
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+            this.stackMap = stackMap;
+        }
+    }
+
+    /**
+     * Konstantenpool einer Klassendatei, gleiche Einträge werden nur einmal angelegt.
+     */
+    private static final class ConstantPool {
+
+        /** Tag für Utf8-Einträge */
+        private static final int UTF8 = 1;
+
+        /** Tag für Klassen-Einträge */
+        private static final int CLASS = 7;
+
+        /** Tag für String-Einträge */
+        private static final int STRING = 8;
+
+        /** Tag für Methoden-Einträge */
+        private static final int METHOD_REF = 10;
+
+        /** Tag für NameAndType-Einträge */
+        private static final int NAME_AND_TYPE = 12;
+
+        /** die bisherigen Einträge */
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+
+        /** die Indizes der bisherigen Einträge, Schlüssel ist Tag und Inhalt */
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        /** der nächste freie Index */
+        private int next = 1;
+
+        /**
+         * Legt einen Eintrag an, falls er noch nicht vorhanden ist.
+         *
+         * @param tag der Tag des Eintrags
+         * @param content der Inhalt des Eintrags ohne Tag
+         * @return der Index des Eintrags
+         */
+        private int entry(int tag, byte[] content) {
+            String key = tag + ":" + new String(content, StandardCharsets.ISO_8859_1);
+            Integer index = indices.get(key);
+            if (index == null) {
+                index = next++;
+                indices.put(key, index);
+                entries.write(tag);
+                entries.write(content, 0, content.length);
+            }
+            return index;
+        }
+
+        /**
+         * Legt einen Utf8-Eintrag an.
+         *
+         * @param s die Zeichenkette
+         * @return der Index des Eintrags
+         */
+        private int utf8(String s) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(content)) {
+                out.writeUTF(s);
+            } catch (IOException ex) {
+                throw new AssertionError(ex);
+            }
+            return entry(UTF8, content.toByteArray());
+        }
+
+        /**
+         * Legt einen Eintrag an, der auf zwei andere Einträge verweist.
+         *
+         * @param tag der Tag des Eintrags
+         * @param first der erste Index
+         * @param second der zweite Index oder -1, wenn nur ein Index verwiesen wird
+         * @return der Index des Eintrags
+         */
+        private int ref(int tag, int first, int second) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            writeShort(content, first);
+            if (second >= 0) {
+                writeShort(content, second);
+            }
+            return entry(tag, content.toByteArray());
+        }
+
+        /**
+         * Legt einen Klassen-Eintrag an.
+         *
+         * @param internalName der interne Klassenname, z.B. java/lang/Object
+         * @return der Index des Eintrags
+         */
+        private int classRef(String internalName) {
+            return ref(CLASS, utf8(internalName), -1);
+        }
+
+        /**
+         * Legt einen String-Eintrag an.
+         *
+         * @param s die Zeichenkette
+         * @return der Index des Eintrags
+         */
+        private int string(String s) {
+            return ref(STRING, utf8(s), -1);
+        }
+
+        /**
+         * Legt einen Methoden-Eintrag an.
+         *
+         * @param owner Index der Klasse
+         * @param name der Methodenname
+         * @param desc der Deskriptor
+         * @return der Index des Eintrags
+         */
+        private int methodRef(int owner, String name, String desc) {
+            return ref(METHOD_REF, owner, ref(NAME_AND_TYPE, utf8(name), utf8(desc)));
+        }
+
+        /**
+         * Schreibt die Anzahl und alle Einträge in die Klassendatei.
+         *
+         * @param out die Klassendatei
+         * @throws IOException wird von einem ByteArrayOutputStream nie geworfen
+         */
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeShort(next);
+            entries.writeTo(out);
+        }
+    }
+}
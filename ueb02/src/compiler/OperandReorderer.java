@@ -0,0 +1,336 @@
+package compiler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import api.ExpressionAPI;
+import evaluation.ProfilingEvaluator;
+import expression.Expression;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Negation;
+import tree.Or;
+import tree.UnaryOperation;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * Sortiert die Operanden von Und- und Oder-Verknüpfungen nach den Messwerten eines
+ * {@link ProfilingEvaluator} so um, dass die verkürzte Auswertung im Mittel möglichst wenige
+ * Knoten auswertet. Der erste Operand wird immer ausgewertet, der zweite nur, wenn der erste
+ * nicht entscheidet; die erwarteten Kosten von "x &amp;&amp; y" sind also
+ * 1 + k(x) + P(x) * k(y). Vorn steht deshalb der Operand, der billig ist oder oft entscheidet.
+ *
+ * Die Kosten werden von den Blättern zur Wurzel mit den bereits umsortierten Operanden
+ * berechnet, Variablen und Konstanten kosten einen Knoten, andere Blätter ihre gemessenen
+ * Kosten. Die Wahrscheinlichkeiten stammen aus den Messwerten der ursprünglichen Knoten; sie
+ * hängen bei vollständigem Kontext nicht von der Reihenfolge ab. Nie ausgewertete Knoten gelten
+ * als in der Hälfte der Fälle wahr. Xor und Äquivalenz werten immer beide Operanden aus, ihre
+ * Kosten hängen nicht von der Reihenfolge ab, sie bleiben deshalb wie sie sind; die Implikation
+ * ist nicht vertauschbar.
+ *
+ * Das Ergebnis ist ein {@link ReorderedExpression}, das bei fehlenden Variablen auf den
+ * ursprünglichen Baum zurückfällt. Dafür schlägt es vor der Auswertung jede Variable unterhalb
+ * der vertauschten Knoten im Kontext nach; jede Nachfrage kostet wie ein Variablenknoten. Die
+ * Vertauschungen bleiben nur, wenn der umsortierte Baum auch mit diesen Kosten billiger ist,
+ * sonst wertet immer der ursprüngliche Baum aus. Eine Instanz darf nicht von mehreren Threads
+ * gleichzeitig verwendet werden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class OperandReorderer {
+
+    /** Anfangsgröße der Stapel */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** die Kosten einer Nachfrage im Kontext vor der Auswertung des umsortierten Baums */
+    private static final double GUARD_COST = 1;
+
+    /** Wahrscheinlichkeit für Knoten ohne Messwerte */
+    private static final double UNKNOWN_PROBABILITY = 0.5;
+
+    /** die Messwerte */
+    private final ProfilingEvaluator profiler;
+
+    /** die API, mit der geänderte Knoten aufgebaut werden */
+    private final ExpressionAPI api = new ExpressionAPI();
+
+    /** die neuen Knoten der bereits bearbeiteten ursprünglichen Knoten */
+    private Expression[] built;
+
+    /** die erwarteten Kosten der bearbeiteten Knoten vor dem Umsortieren */
+    private double[] originalCosts;
+
+    /** die erwarteten Kosten der bearbeiteten Knoten nach dem Umsortieren */
+    private double[] costs;
+
+    /** true, wenn unter einem bearbeiteten Knoten ein Blatt liegt, das nicht aus tree stammt */
+    private boolean[] opaque;
+
+    /** die Anzahl der bearbeiteten Knoten */
+    private int size;
+
+    /** die vertauschten ursprünglichen Knoten */
+    private List<Expression> swapped;
+
+    /**
+     * Konstruktor.
+     *
+     * @param profiler die Messwerte, nach denen umsortiert wird
+     * @pre profiler != null
+     */
+    public OperandReorderer(ProfilingEvaluator profiler) {
+        assert profiler != null;
+
+        this.profiler = profiler;
+    }
+
+    /**
+     * Sortiert die Operanden eines Ausdrucks nach den aktuellen Messwerten um. Der Baum wird
+     * ohne Rekursion durchlaufen, gemeinsame Teilausdrücke werden nur einmal bearbeitet, und
+     * unveränderte Teilbäume werden übernommen. Wiegt die Ersparnis die Prüfung des Kontexts
+     * nicht auf, enthält das Ergebnis keine Vertauschungen.
+     *
+     * @param e der Ausdruck
+     * @return der umsortierte Ausdruck
+     * @throws IllegalArgumentException wenn eine binäre Operation unbekannt ist
+     * @pre e != null
+     */
+    public ReorderedExpression reorder(Expression e) {
+        assert e != null;
+
+        built = new Expression[INITIAL_CAPACITY];
+        originalCosts = new double[INITIAL_CAPACITY];
+        costs = new double[INITIAL_CAPACITY];
+        opaque = new boolean[INITIAL_CAPACITY];
+        size = 0;
+        swapped = new ArrayList<>();
+        Map<Expression, Integer> done = new IdentityHashMap<>();
+
+        Expression[] stack = new Expression[INITIAL_CAPACITY];
+        boolean[] visited = new boolean[INITIAL_CAPACITY];
+        int[] values = new int[INITIAL_CAPACITY];
+        int top = 0;
+        int count = 0;
+        stack[0] = e;
+        while (top >= 0) {
+            Expression node = stack[top];
+            Integer known = visited[top] ? null : done.get(node);
+            int result;
+            if (known != null) {
+                result = known;
+            } else if (!visited[top] && (node instanceof BinaryOperation
+                    || node instanceof UnaryOperation)) {
+                visited[top] = true;
+                if (top + 2 >= stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    visited = Arrays.copyOf(visited, stack.length);
+                }
+                if (node instanceof BinaryOperation binary) {
+                    stack[++top] = binary.getRight();
+                    visited[top] = false;
+                    stack[++top] = binary.getLeft();
+                } else {
+                    stack[++top] = ((UnaryOperation) node).getOperand();
+                }
+                visited[top] = false;
+                continue;
+            } else if (node instanceof BinaryOperation binary) {
+                count--;
+                result = binary(binary, values[count - 1], values[count]);
+                count--;
+            } else if (node instanceof UnaryOperation unary) {
+                result = unary(unary, values[--count]);
+            } else {
+                result = leaf(node);
+            }
+            if (known == null) {
+                done.put(node, result);
+            }
+            stack[top--] = null;
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = result;
+        }
+        int root = values[0];
+        String[] guarded = guarded();
+        double cost = costs[root] + guarded.length * GUARD_COST;
+        ReorderedExpression reordered;
+        if (cost < originalCosts[root]) {
+            reordered = new ReorderedExpression(e, built[root], guarded, swapped.size(),
+                    originalCosts[root], cost);
+        } else {
+            reordered = new ReorderedExpression(e, e, new String[0], 0, originalCosts[root],
+                    originalCosts[root]);
+        }
+        built = null;
+        originalCosts = null;
+        costs = null;
+        opaque = null;
+        swapped = null;
+        return reordered;
+    }
+
+    /**
+     * Legt das Ergebnis eines bearbeiteten Knotens ab.
+     *
+     * @param node der neue Knoten
+     * @param originalCost die erwarteten Kosten vor dem Umsortieren
+     * @param cost die erwarteten Kosten nach dem Umsortieren
+     * @param hidden true, wenn unter dem Knoten ein Blatt liegt, das nicht aus tree stammt
+     * @return der Index des Ergebnisses
+     */
+    private int append(Expression node, double originalCost, double cost, boolean hidden) {
+        if (size == built.length) {
+            built = Arrays.copyOf(built, size * 2);
+            originalCosts = Arrays.copyOf(originalCosts, size * 2);
+            costs = Arrays.copyOf(costs, size * 2);
+            opaque = Arrays.copyOf(opaque, size * 2);
+        }
+        built[size] = node;
+        originalCosts[size] = originalCost;
+        costs[size] = cost;
+        opaque[size] = hidden;
+        return size++;
+    }
+
+    /**
+     * Bearbeitet ein Blatt.
+     *
+     * @param node das Blatt
+     * @return der Index des Ergebnisses
+     */
+    private int leaf(Expression node) {
+        if (node instanceof Variable || node instanceof Constant) {
+            return append(node, 1, 1, false);
+        }
+        ProfilingEvaluator.Profile profile = profiler.getProfile(node);
+        double cost = profile != null ? profile.getMeanCost() : node.getChildrenCount();
+        return append(node, cost, cost, true);
+    }
+
+    /**
+     * Bearbeitet eine unäre Operation.
+     *
+     * @param unary die ursprüngliche Operation
+     * @param operand der Index des bearbeiteten Operanden
+     * @return der Index des Ergebnisses
+     */
+    private int unary(UnaryOperation unary, int operand) {
+        Expression node = unary;
+        if (built[operand] != unary.getOperand()) {
+            node = unary instanceof Negation ? api.makeNotExpression(built[operand])
+                : api.makeIdExpression(built[operand]);
+        }
+        return append(node, 1 + originalCosts[operand], 1 + costs[operand], opaque[operand]);
+    }
+
+    /**
+     * Bearbeitet eine binäre Operation und vertauscht die Operanden, wenn das die erwarteten
+     * Kosten senkt. Liegt darunter ein Blatt, das nicht aus tree stammt, sind dessen Variablen
+     * unbekannt und die Operanden bleiben, wie sie sind.
+     *
+     * @param binary die ursprüngliche Operation
+     * @param left der Index des bearbeiteten linken Operanden
+     * @param right der Index des bearbeiteten rechten Operanden
+     * @return der Index des Ergebnisses
+     */
+    private int binary(BinaryOperation binary, int left, int right) {
+        double leftOn = continues(binary, binary.getLeft());
+        double originalCost = 1 + originalCosts[left] + leftOn * originalCosts[right];
+        double cost = 1 + costs[left] + leftOn * costs[right];
+        boolean hidden = opaque[left] || opaque[right];
+        if ((binary instanceof And || binary instanceof Or) && !hidden) {
+            double swappedCost =
+                    1 + costs[right] + continues(binary, binary.getRight()) * costs[left];
+            if (swappedCost < cost) {
+                swapped.add(binary);
+                return append(make(binary, built[right], built[left]), originalCost,
+                    swappedCost, false);
+            }
+        }
+        Expression node = binary;
+        if (built[left] != binary.getLeft() || built[right] != binary.getRight()) {
+            node = make(binary, built[left], built[right]);
+        }
+        return append(node, originalCost, cost, hidden);
+    }
+
+    /**
+     * Liefert die Wahrscheinlichkeit, dass nach einem zuerst ausgewerteten Operanden auch der
+     * andere ausgewertet werden muss.
+     *
+     * @param binary die Operation
+     * @param first der zuerst ausgewertete ursprüngliche Operand
+     * @return die Wahrscheinlichkeit
+     */
+    private double continues(BinaryOperation binary, Expression first) {
+        if (binary instanceof Xor || binary instanceof Equivalence) {
+            return 1;
+        }
+        ProfilingEvaluator.Profile profile = profiler.getProfile(first);
+        double p = profile != null ? profile.getTrueProbability() : UNKNOWN_PROBABILITY;
+        return binary instanceof Or ? 1 - p : p;
+    }
+
+    /**
+     * Baut eine binäre Operation derselben Art mit neuen Operanden.
+     *
+     * @param binary die Vorlage
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return die neue Operation
+     */
+    private Expression make(BinaryOperation binary, Expression left, Expression right) {
+        if (binary instanceof And) {
+            return api.makeAndExpression(left, right);
+        } else if (binary instanceof Or) {
+            return api.makeOrExpression(left, right);
+        } else if (binary instanceof Xor) {
+            return api.makeXorExpression(left, right);
+        } else if (binary instanceof Equivalence) {
+            return api.makeEquivalenceExpression(left, right);
+        } else if (binary instanceof Consequence) {
+            return api.makeConsequenceExpression(left, right);
+        }
+        throw new IllegalArgumentException("unbekannter Knoten " + binary.getClass().getName());
+    }
+
+    /**
+     * Sammelt die Variablen unterhalb der vertauschten Knoten.
+     *
+     * @return die Bezeichner
+     */
+    private String[] guarded() {
+        Set<String> names = new LinkedHashSet<>();
+        Set<Expression> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Expression> pending = new ArrayDeque<>(swapped);
+        while (!pending.isEmpty()) {
+            Expression node = pending.pop();
+            if (!seen.add(node)) {
+                continue;
+            }
+            if (node instanceof BinaryOperation binary) {
+                pending.push(binary.getRight());
+                pending.push(binary.getLeft());
+            } else if (node instanceof UnaryOperation unary) {
+                pending.push(unary.getOperand());
+            } else if (node instanceof Variable variable) {
+                names.add(variable.getName());
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+}
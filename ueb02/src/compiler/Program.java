@@ -0,0 +1,382 @@
+package compiler;
+
+import expression.Context;
+import expression.IncompleteContextException;
+import expression.SlotContext;
+import expression.VariableTable;
+
+/**
+ * Ein zu einem flachen Postfix-Programm übersetzter Ausdruck. Jede Anweisung ist ein int, dessen
+ * unterste acht Bit den Befehl und dessen übrige Bit das Argument (Variablen-Index oder
+ * Sprungziel) enthalten. Variablen werden über einen programmeigenen Index angesprochen, der
+ * beim Übersetzen auf einen Slot der VariableTable abgebildet wird. Die Auswertung läuft in
+ * einer einzigen Schleife über ein Feld ohne virtuelle Aufrufe. Bis zu einer Stapeltiefe von 64
+ * liegt der Stapel bitweise in einem long, sodass pro Auswertung kein Objekt erzeugt wird.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class Program {
+
+    /** legt false auf den Stapel */
+    static final int PUSH_FALSE = 0;
+
+    /** legt true auf den Stapel */
+    static final int PUSH_TRUE = 1;
+
+    /** legt den Wert der Variablen mit dem Index des Arguments auf den Stapel */
+    static final int LOAD = 2;
+
+    /** negiert den obersten Wert */
+    static final int NOT = 3;
+
+    /** verknüpft die obersten beiden Werte mit Und */
+    static final int AND = 4;
+
+    /** verknüpft die obersten beiden Werte mit Oder */
+    static final int OR = 5;
+
+    /** verknüpft die obersten beiden Werte mit Exklusiv-Oder */
+    static final int XOR = 6;
+
+    /** verknüpft die obersten beiden Werte mit Äquivalenz */
+    static final int EQUIV = 7;
+
+    /** verknüpft die obersten beiden Werte mit Implikation */
+    static final int IMPL = 8;
+
+    /** springt zum Argument, falls der oberste Wert false ist, sonst wird er entfernt */
+    static final int JUMP_FALSE_OR_POP = 9;
+
+    /** springt zum Argument, falls der oberste Wert true ist, sonst wird er entfernt */
+    static final int JUMP_TRUE_OR_POP = 10;
+
+    /** Anzahl der Bit für den Befehl */
+    static final int OP_BITS = 8;
+
+    /** Maske für den Befehl */
+    static final int OP_MASK = (1 << OP_BITS) - 1;
+
+    /** maximale Stapeltiefe, die in einem long Platz findet */
+    private static final int REGISTER_DEPTH = Long.SIZE;
+
+    /** Namen der Befehle für die Textdarstellung */
+    private static final String[] NAMES = {"F", "T", "LOAD", "NOT", "AND", "OR", "XOR", "EQUIV",
+        "IMPL", "JF", "JT"};
+
+    /** die Anweisungen */
+    private final int[] code;
+
+    /** die Bezeichner der Variablen, Index ist der programmeigene Index */
+    private final String[] variables;
+
+    /** die Zuordnung von Bezeichnern zu Slots, an die das Programm gebunden ist */
+    private final VariableTable table;
+
+    /** die Slots der Variablen in der Tabelle, Index ist der programmeigene Index */
+    private final int[] slots;
+
+    /** die maximale Stapeltiefe */
+    private final int maxStack;
+
+    /** true, wenn das Programm verkürzt auswertet */
+    private final boolean shortCircuit;
+
+    /**
+     * Konstruktor.
+     *
+     * @param code die Anweisungen
+     * @param variables die Bezeichner der Variablen, Index ist der programmeigene Index
+     * @param table die Zuordnung von Bezeichnern zu Slots, an die das Programm gebunden ist
+     * @param slots die Slots der Variablen in der Tabelle
+     * @param maxStack die maximale Stapeltiefe
+     * @param shortCircuit true, wenn das Programm verkürzt auswertet
+     */
+    Program(int[] code, String[] variables, VariableTable table, int[] slots, int maxStack,
+            boolean shortCircuit) {
+        this.code = code;
+        this.variables = variables;
+        this.table = table;
+        this.slots = slots;
+        this.maxStack = maxStack;
+        this.shortCircuit = shortCircuit;
+    }
+
+    /**
+     * Liefert die Anzahl der Anweisungen.
+     *
+     * @return die Anzahl der Anweisungen
+     */
+    public int size() {
+        return code.length;
+    }
+
+    /**
+     * Liefert die Anzahl der unterschiedlichen Variablen.
+     *
+     * @return die Anzahl der Variablen
+     */
+    public int getVariableCount() {
+        return variables.length;
+    }
+
+    /**
+     * Liefert den Bezeichner der Variablen mit dem übergebenen Index.
+     *
+     * @param index der programmeigene Index der Variablen
+     * @return der Bezeichner
+     * @pre 0 &le; index &lt; getVariableCount()
+     */
+    public String getVariable(int index) {
+        assert index >= 0 && index < variables.length;
+
+        return variables[index];
+    }
+
+    /**
+     * Liefert die Zuordnung von Bezeichnern zu Slots, an die das Programm gebunden ist.
+     *
+     * @return die Tabelle
+     */
+    public VariableTable getTable() {
+        return table;
+    }
+
+    /**
+     * Liefert die maximale Stapeltiefe.
+     *
+     * @return die maximale Stapeltiefe
+     */
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    /**
+     * Liefert die Anweisung an der übergebenen Position, z.B. für weitere Übersetzungsstufen.
+     *
+     * @param pc die Position
+     * @return die Anweisung
+     */
+    int getInstruction(int pc) {
+        return code[pc];
+    }
+
+    /**
+     * Liefert den Slot in der VariableTable für einen programmeigenen Index.
+     *
+     * @param index der programmeigene Index der Variablen
+     * @return der Slot
+     */
+    int getSlot(int index) {
+        return slots[index];
+    }
+
+    /**
+     * Gibt an, ob das Programm verkürzt (wie evaluateShort) oder vollständig (wie
+     * evaluateComplete) auswertet.
+     *
+     * @return true bei verkürzter Auswertung
+     */
+    public boolean isShortCircuit() {
+        return shortCircuit;
+    }
+
+    /**
+     * Wertet das Programm im übergebenen Kontext aus.
+     *
+     * @param c Der Kontext, in dem ausgewertet werden soll. Falls der Kontext nicht benötigt
+     *            wird, darf c leer oder null sein.
+     * @return Der Wahrheitswert des Ausdrucks
+     * @throws IncompleteContextException Sofern eine der ausgewerteten Variablen nicht im
+     *             Kontext definiert ist
+     */
+    public boolean evaluate(Context c) throws IncompleteContextException {
+        return run(c, null);
+    }
+
+    /**
+     * Wertet das Programm in einem Slot-Kontext aus. Jeder Zugriff auf eine Variable ist dabei
+     * ein Bit-Test.
+     *
+     * @param c der Kontext, er muss an dieselbe VariableTable gebunden sein
+     * @return Der Wahrheitswert des Ausdrucks
+     * @throws IncompleteContextException Sofern eine der ausgewerteten Variablen nicht im
+     *             Kontext belegt ist
+     * @pre c != null
+     * @pre c.getTable() == getTable()
+     */
+    public boolean evaluate(SlotContext c) throws IncompleteContextException {
+        assert c != null;
+        assert c.getTable() == table;
+
+        return run(null, c);
+    }
+
+    /**
+     * Interpretiert das Programm. Genau einer der beiden Kontexte wird genutzt.
+     *
+     * @param c der herkömmliche Kontext oder null
+     * @param s der Slot-Kontext oder null
+     * @return der Wahrheitswert des Ausdrucks
+     * @throws IncompleteContextException sofern eine Variable nicht im Kontext definiert ist
+     */
+    private boolean run(Context c, SlotContext s) throws IncompleteContextException {
+        if (maxStack > REGISTER_DEPTH) {
+            return runDeep(c, s);
+        }
+        long stack = 0L;
+        int pc = 0;
+        while (pc < code.length) {
+            int insn = code[pc++];
+            int op = insn & OP_MASK;
+            switch (op) {
+                case PUSH_FALSE:
+                case PUSH_TRUE:
+                    stack = (stack << 1) | op;
+                    break;
+                case LOAD:
+                    stack = (stack << 1) | (load(c, s, insn >>> OP_BITS) ? 1L : 0L);
+                    break;
+                case NOT:
+                    stack ^= 1L;
+                    break;
+                case JUMP_FALSE_OR_POP:
+                    if ((stack & 1L) == 0L) {
+                        pc = insn >>> OP_BITS;
+                    } else {
+                        stack >>>= 1;
+                    }
+                    break;
+                case JUMP_TRUE_OR_POP:
+                    if ((stack & 1L) != 0L) {
+                        pc = insn >>> OP_BITS;
+                    } else {
+                        stack >>>= 1;
+                    }
+                    break;
+                default:
+                    boolean right = (stack & 1L) != 0L;
+                    stack >>>= 1;
+                    boolean left = (stack & 1L) != 0L;
+                    stack = (stack & ~1L) | (apply(op, left, right) ? 1L : 0L);
+                    break;
+            }
+        }
+        return (stack & 1L) != 0L;
+    }
+
+    /**
+     * Wertet Programme aus, deren Stapel nicht in ein long passt. Der Stapel wird hier als Feld
+     * angelegt.
+     *
+     * @param c der herkömmliche Kontext oder null
+     * @param s der Slot-Kontext oder null
+     * @return der Wahrheitswert des Ausdrucks
+     * @throws IncompleteContextException sofern eine Variable nicht im Kontext definiert ist
+     */
+    private boolean runDeep(Context c, SlotContext s) throws IncompleteContextException {
+        boolean[] stack = new boolean[maxStack];
+        int sp = -1;
+        int pc = 0;
+        while (pc < code.length) {
+            int insn = code[pc++];
+            int op = insn & OP_MASK;
+            switch (op) {
+                case PUSH_FALSE:
+                case PUSH_TRUE:
+                    stack[++sp] = op == PUSH_TRUE;
+                    break;
+                case LOAD:
+                    stack[++sp] = load(c, s, insn >>> OP_BITS);
+                    break;
+                case NOT:
+                    stack[sp] = !stack[sp];
+                    break;
+                case JUMP_FALSE_OR_POP:
+                    if (!stack[sp]) {
+                        pc = insn >>> OP_BITS;
+                    } else {
+                        sp--;
+                    }
+                    break;
+                case JUMP_TRUE_OR_POP:
+                    if (stack[sp]) {
+                        pc = insn >>> OP_BITS;
+                    } else {
+                        sp--;
+                    }
+                    break;
+                default:
+                    sp--;
+                    stack[sp] = apply(op, stack[sp], stack[sp + 1]);
+                    break;
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * Liest den Wert einer Variablen aus dem Slot-Kontext oder, falls dieser null ist, aus dem
+     * herkömmlichen Kontext.
+     *
+     * @param c der herkömmliche Kontext oder null
+     * @param s der Slot-Kontext oder null
+     * @param index der programmeigene Index der Variablen
+     * @return der Wert der Variablen
+     * @throws IncompleteContextException wenn die Variable nicht im Kontext ist
+     */
+    private boolean load(Context c, SlotContext s, int index) throws IncompleteContextException {
+        if (s != null) {
+            int slot = slots[index];
+            if (!s.has(slot)) {
+                throw new IncompleteContextException(variables[index]);
+            }
+            return s.get(slot);
+        }
+        Boolean value = c == null ? null : c.get(variables[index]);
+        if (value == null) {
+            throw new IncompleteContextException(variables[index]);
+        }
+        return value;
+    }
+
+    /**
+     * Wendet einen binären Befehl auf zwei Werte an.
+     *
+     * @param op der Befehl
+     * @param left der linke Wert
+     * @param right der rechte Wert
+     * @return das Ergebnis
+     */
+    private static boolean apply(int op, boolean left, boolean right) {
+        switch (op) {
+            case AND:
+                return left & right;
+            case OR:
+                return left | right;
+            case XOR:
+                return left ^ right;
+            case EQUIV:
+                return left == right;
+            case IMPL:
+                return !left | right;
+            default:
+                throw new AssertionError(op);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int pc = 0; pc < code.length; pc++) {
+            int op = code[pc] & OP_MASK;
+            sb.append(pc).append(": ").append(NAMES[op]);
+            if (op == LOAD) {
+                sb.append(' ').append(variables[code[pc] >>> OP_BITS]);
+            } else if (op == JUMP_FALSE_OR_POP || op == JUMP_TRUE_OR_POP) {
+                sb.append(' ').append(code[pc] >>> OP_BITS);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package compiler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import expression.Expression;
+import expression.VariableTable;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Identity;
+import tree.Negation;
+import tree.Or;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * Übersetzt einen Ausdruck in ein flaches Postfix-Programm. Jede Variable erhält beim ersten
+ * Auftreten einen programmeigenen Index und wird an einen Slot der VariableTable gebunden,
+ * Identitäten entfallen. Bei verkürzter Auswertung werden Und, Oder und
+ * Implikation mit bedingten Sprüngen übersetzt, sodass der rechte Operand wie bei evaluateShort
+ * nur bei Bedarf ausgewertet wird.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class ProgramCompiler {
+
+    /** Anfangsgröße des Anweisungspuffers */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** true, wenn verkürzt ausgewertet werden soll */
+    private final boolean shortCircuit;
+
+    /** die bisher erzeugten Anweisungen */
+    private int[] code = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der bisher erzeugten Anweisungen */
+    private int size;
+
+    /** die Indizes der bisher gefundenen Variablen */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /** die aktuelle Stapeltiefe */
+    private int depth;
+
+    /** die maximale Stapeltiefe */
+    private int maxDepth;
+
+    /**
+     * Konstruktor.
+     *
+     * @param shortCircuit true, wenn verkürzt ausgewertet werden soll
+     */
+    private ProgramCompiler(boolean shortCircuit) {
+        this.shortCircuit = shortCircuit;
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in ein Programm.
+     *
+     * @param e der Ausdruck
+     * @param shortCircuit true für die Semantik von evaluateShort, false für die von
+     *            evaluateComplete
+     * @return das Programm
+     * @pre e != null
+     */
+    public static Program compile(Expression e, boolean shortCircuit) {
+        return compile(e, shortCircuit, new VariableTable());
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in ein Programm, das an die übergebene Tabelle gebunden wird.
+     * Mehrere Programme können so denselben SlotContext nutzen.
+     *
+     * @param e der Ausdruck
+     * @param shortCircuit true für die Semantik von evaluateShort, false für die von
+     *            evaluateComplete
+     * @param table die Zuordnung von Bezeichnern zu Slots, fehlende Bezeichner werden angelegt
+     * @return das Programm
+     * @pre e != null
+     * @pre table != null
+     */
+    public static Program compile(Expression e, boolean shortCircuit, VariableTable table) {
+        assert e != null;
+        assert table != null;
+
+        ProgramCompiler compiler = new ProgramCompiler(shortCircuit);
+        compiler.emit(e);
+        String[] variables = new String[compiler.indices.size()];
+        int[] slots = new int[variables.length];
+        for (Map.Entry<String, Integer> entry : compiler.indices.entrySet()) {
+            variables[entry.getValue()] = entry.getKey();
+            slots[entry.getValue()] = table.slotOf(entry.getKey());
+        }
+        return new Program(Arrays.copyOf(compiler.code, compiler.size), variables, table, slots,
+                compiler.maxDepth, shortCircuit);
+    }
+
+    /**
+     * Erzeugt die Anweisungen für einen Teilausdruck.
+     *
+     * @param e der Teilausdruck
+     */
+    private void emit(Expression e) {
+        if (e instanceof Constant constant) {
+            push(constant.getValue() ? Program.PUSH_TRUE : Program.PUSH_FALSE);
+        } else if (e instanceof Variable variable) {
+            Integer index = indices.computeIfAbsent(variable.getName(), name -> indices.size());
+            push(Program.LOAD | (index << Program.OP_BITS));
+        } else if (e instanceof Identity identity) {
+            emit(identity.getOperand());
+        } else if (e instanceof Negation negation) {
+            emit(negation.getOperand());
+            append(Program.NOT);
+        } else if (e instanceof BinaryOperation binary) {
+            emitBinary(binary);
+        } else {
+            throw new IllegalArgumentException("unbekannter Ausdruck: " + e.getClass());
+        }
+    }
+
+    /**
+     * Erzeugt die Anweisungen für eine binäre Operation.
+     *
+     * @param binary die binäre Operation
+     */
+    private void emitBinary(BinaryOperation binary) {
+        emit(binary.getLeft());
+        int jump = -1;
+        if (shortCircuit) {
+            if (binary instanceof And) {
+                jump = append(Program.JUMP_FALSE_OR_POP);
+            } else if (binary instanceof Or) {
+                jump = append(Program.JUMP_TRUE_OR_POP);
+            } else if (binary instanceof Consequence) {
+                //!l || r, der negierte linke Wert ist bei einem Sprung bereits das Ergebnis
+                append(Program.NOT);
+                jump = append(Program.JUMP_TRUE_OR_POP);
+            }
+        }
+        emit(binary.getRight());
+        if (jump >= 0) {
+            //der linke Wert wurde beim Durchfallen entfernt, der rechte ist das Ergebnis
+            depth--;
+            code[jump] |= size << Program.OP_BITS;
+        } else {
+            append(opcode(binary));
+            depth--;
+        }
+    }
+
+    /**
+     * Liefert den Befehl für eine binäre Operation.
+     *
+     * @param binary die binäre Operation
+     * @return der Befehl
+     */
+    static int opcode(BinaryOperation binary) {
+        if (binary instanceof And) {
+            return Program.AND;
+        } else if (binary instanceof Or) {
+            return Program.OR;
+        } else if (binary instanceof Xor) {
+            return Program.XOR;
+        } else if (binary instanceof Equivalence) {
+            return Program.EQUIV;
+        } else if (binary instanceof Consequence) {
+            return Program.IMPL;
+        }
+        throw new IllegalArgumentException("unbekannter Operator: " + binary.getClass());
+    }
+
+    /**
+     * Hängt eine Anweisung an, die einen Wert auf den Stapel legt.
+     *
+     * @param insn die Anweisung
+     */
+    private void push(int insn) {
+        append(insn);
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    /**
+     * Hängt eine Anweisung an.
+     *
+     * @param insn die Anweisung
+     * @return die Position der Anweisung
+     */
+    private int append(int insn) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, 2 * size);
+        }
+        code[size] = insn;
+        return size++;
+    }
+}
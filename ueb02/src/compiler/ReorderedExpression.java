@@ -0,0 +1,177 @@
+package compiler;
+
+import java.lang.ref.WeakReference;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Ausdruck, dessen Und- und Oder-Verknüpfungen vom {@link OperandReorderer} nach gemessenen
+ * Kosten und Wahrscheinlichkeiten umsortiert wurden. Neben dem umsortierten Baum bleibt der
+ * ursprüngliche erhalten; toString und toGraphviz zeigen weiterhin ihn.
+ *
+ * Mit vollständigem Kontext liefern beide Bäume denselben Wert. Fehlt eine Variable, kann der
+ * umsortierte Baum aber eine andere oder gar keine IncompleteContextException werfen. Der
+ * umsortierte Baum wird deshalb nur genutzt, wenn der Kontext alle Variablen unterhalb der
+ * vertauschten Knoten belegt; sonst wertet der ursprüngliche Baum aus, und das Verhalten bei
+ * fehlenden Variablen bleibt genau das des ursprünglichen Ausdrucks. Aus einem Kontext lassen
+ * sich keine Variablen entfernen, der zuletzt vollständig geprüfte Kontext wird deshalb gemerkt
+ * und bei weiteren Auswertungen nicht erneut geprüft.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class ReorderedExpression implements Expression {
+
+    /** der ursprüngliche Baum */
+    private final Expression original;
+
+    /** der umsortierte Baum */
+    private final Expression reordered;
+
+    /** die Variablen unterhalb der vertauschten Knoten */
+    private final String[] guarded;
+
+    /** die Anzahl der vertauschten Knoten */
+    private final int swaps;
+
+    /** die erwarteten Kosten des ursprünglichen Baums */
+    private final double originalCost;
+
+    /** die erwarteten Kosten des umsortierten Baums */
+    private final double expectedCost;
+
+    /** der zuletzt geprüfte Kontext, der alle Variablen unter den vertauschten Knoten belegt */
+    private volatile WeakReference<Context> verified = new WeakReference<>(null);
+
+    /**
+     * Konstruktor.
+     *
+     * @param original der ursprüngliche Baum
+     * @param reordered der umsortierte Baum
+     * @param guarded die Variablen unterhalb der vertauschten Knoten
+     * @param swaps die Anzahl der vertauschten Knoten
+     * @param originalCost die erwarteten Kosten des ursprünglichen Baums
+     * @param expectedCost die erwarteten Kosten des umsortierten Baums einschließlich der
+     *            Prüfung des Kontexts
+     */
+    ReorderedExpression(Expression original, Expression reordered, String[] guarded, int swaps,
+            double originalCost, double expectedCost) {
+        this.original = original;
+        this.reordered = reordered;
+        this.guarded = guarded;
+        this.swaps = swaps;
+        this.originalCost = originalCost;
+        this.expectedCost = expectedCost;
+    }
+
+    /**
+     * Liefert den ursprünglichen Baum.
+     *
+     * @return der ursprüngliche Baum
+     */
+    public Expression getOriginal() {
+        return original;
+    }
+
+    /**
+     * Liefert den umsortierten Baum. Er ist ohne die Prüfung des Kontexts nur für vollständige
+     * Kontexte gleichwertig.
+     *
+     * @return der umsortierte Baum
+     */
+    public Expression getReordered() {
+        return reordered;
+    }
+
+    /**
+     * Liefert die Anzahl der vertauschten Knoten.
+     *
+     * @return die Anzahl
+     */
+    public int getSwapCount() {
+        return swaps;
+    }
+
+    /**
+     * Liefert die nach den Messwerten erwartete Anzahl ausgewerteter Knoten des ursprünglichen
+     * Baums.
+     *
+     * @return die erwarteten Kosten
+     */
+    public double getOriginalCost() {
+        return originalCost;
+    }
+
+    /**
+     * Liefert die nach den Messwerten erwartete Anzahl ausgewerteter Knoten des umsortierten
+     * Baums, jede Nachfrage im Kontext vor der Auswertung zählt wie ein Knoten.
+     *
+     * @return die erwarteten Kosten
+     */
+    public double getExpectedCost() {
+        return expectedCost;
+    }
+
+    /**
+     * Wählt den Baum, der im Kontext auswertet.
+     *
+     * @param c der Kontext oder null
+     * @return der umsortierte Baum, wenn der Kontext alle Variablen unterhalb der vertauschten
+     *         Knoten belegt, sonst der ursprüngliche
+     */
+    private Expression select(Context c) {
+        if (swaps == 0 || c == null) {
+            return original;
+        } else if (verified.get() == c) {
+            return reordered;
+        }
+        for (String name : guarded) {
+            if (!c.has(name)) {
+                return original;
+            }
+        }
+        verified = new WeakReference<>(c);
+        return reordered;
+    }
+
+    @Override
+    public boolean evaluateShort(Context c) throws IncompleteContextException {
+        return select(c).evaluateShort(c);
+    }
+
+    @Override
+    public boolean evaluateComplete(Context c) throws IncompleteContextException {
+        return select(c).evaluateComplete(c);
+    }
+
+    @Override
+    public boolean evaluateParallel(Context c, int bound) throws IncompleteContextException {
+        return select(c).evaluateParallel(c, bound);
+    }
+
+    @Override
+    public int getChildrenCount() {
+        return original.getChildrenCount();
+    }
+
+    @Override
+    public String toString() {
+        return original.toString();
+    }
+
+    @Override
+    public void toString(StringBuilder builder) {
+        original.toString(builder);
+    }
+
+    @Override
+    public String toGraphviz() {
+        return original.toGraphviz();
+    }
+
+    @Override
+    public void toGraphviz(StringBuilder builder, String prefix) {
+        original.toGraphviz(builder, prefix);
+    }
+}
@@ -0,0 +1,242 @@
+package compiler;
+
+import expression.Context;
+import expression.SlotContext;
+import expression.VariableTable;
+
+/**
+ * Ein Netz aus vielen Regeln, in dem gleiche Teilausdrücke nur einmal als Knoten vorkommen
+ * (siehe {@link RuleSetCompiler}). Die Knoten liegen in topologischer Reihenfolge, Operanden
+ * vor ihren Operationen; eine Auswertung ist deshalb ein einziger Durchlauf über die Knoten,
+ * und ihr Aufwand wächst mit der Anzahl der verschiedenen Teilausdrücke, nicht mit der Summe
+ * der Baumgrößen.
+ *
+ * Ausgewertet wird wie mit evaluateComplete: eine Regel, in der eine Variable fehlt, wird im
+ * Ergebnis als fehlend markiert.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class RuleNetwork {
+
+    /** Zustand eines falschen Knotens */
+    private static final byte FALSE = 0;
+
+    /** Zustand eines wahren Knotens */
+    private static final byte TRUE = 1;
+
+    /** Zustand eines Knotens, dem eine Variable fehlt; mit jedem anderen verodert mindestens 2 */
+    private static final byte MISSING = 2;
+
+    /** Anzahl der Bit, um einen Index für sein Wort zu verschieben */
+    private static final int WORD_SHIFT = 6;
+
+    /** Namen der Befehle für die Textdarstellung */
+    private static final String[] NAMES = {"F", "T", "LOAD", "NOT", "AND", "OR", "XOR", "EQUIV",
+            "IMPL"};
+
+    /** der Befehl jedes Knotens, Konstanten wie in {@link Program} */
+    private final byte[] ops;
+
+    /** der erste Operand bzw. der Variablen-Index jedes Knotens */
+    private final int[] first;
+
+    /** der zweite Operand jedes binären Knotens */
+    private final int[] second;
+
+    /** die Knoten der Regeln */
+    private final int[] roots;
+
+    /** die Bezeichner der Variablen */
+    private final String[] variables;
+
+    /** die Slots der Variablen in der Tabelle */
+    private final int[] slots;
+
+    /** die Zuordnung von Bezeichnern zu Slots, an die das Netz gebunden ist */
+    private final VariableTable table;
+
+    /** die Summe der Knotenzahlen aller Regeln */
+    private final long inputNodes;
+
+    /**
+     * Konstruktor.
+     *
+     * @param ops der Befehl jedes Knotens
+     * @param first der erste Operand bzw. der Variablen-Index jedes Knotens
+     * @param second der zweite Operand jedes binären Knotens
+     * @param roots die Knoten der Regeln
+     * @param variables die Bezeichner der Variablen
+     * @param slots die Slots der Variablen in der Tabelle
+     * @param table die Zuordnung von Bezeichnern zu Slots
+     * @param inputNodes die Summe der Knotenzahlen aller Regeln
+     */
+    RuleNetwork(byte[] ops, int[] first, int[] second, int[] roots, String[] variables,
+            int[] slots, VariableTable table, long inputNodes) {
+        this.ops = ops;
+        this.first = first;
+        this.second = second;
+        this.roots = roots;
+        this.variables = variables;
+        this.slots = slots;
+        this.table = table;
+        this.inputNodes = inputNodes;
+    }
+
+    /**
+     * Liefert die Anzahl der Regeln.
+     *
+     * @return die Anzahl der Regeln
+     */
+    public int getRuleCount() {
+        return roots.length;
+    }
+
+    /**
+     * Liefert die Anzahl der verschiedenen Knoten des Netzes.
+     *
+     * @return die Anzahl der Knoten
+     */
+    public int getNodeCount() {
+        return ops.length;
+    }
+
+    /**
+     * Liefert die Summe der Knotenzahlen aller Regeln, also den Aufwand, wenn jede Regel ihren
+     * eigenen Baum durchläuft.
+     *
+     * @return die Summe der Knotenzahlen
+     */
+    public long getInputNodeCount() {
+        return inputNodes;
+    }
+
+    /**
+     * Liefert die Anzahl der unterschiedlichen Variablen.
+     *
+     * @return die Anzahl der Variablen
+     */
+    public int getVariableCount() {
+        return variables.length;
+    }
+
+    /**
+     * Liefert die Zuordnung von Bezeichnern zu Slots, an die das Netz gebunden ist.
+     *
+     * @return die Tabelle
+     */
+    public VariableTable getTable() {
+        return table;
+    }
+
+    /**
+     * Wertet alle Regeln in einem Kontext aus.
+     *
+     * @param c der Kontext oder null
+     * @return die Wahrheitswerte, ein Bit pro Regel in der Reihenfolge der Übersetzung
+     */
+    public BatchResult evaluate(Context c) {
+        byte[] loaded = new byte[variables.length];
+        for (int v = 0; v < variables.length; v++) {
+            Boolean value = c == null ? null : c.get(variables[v]);
+            loaded[v] = value == null ? MISSING : value ? TRUE : FALSE;
+        }
+        return run(loaded);
+    }
+
+    /**
+     * Wertet alle Regeln in einem Slot-Kontext aus.
+     *
+     * @param c der Kontext, er muss an dieselbe VariableTable gebunden sein
+     * @return die Wahrheitswerte, ein Bit pro Regel in der Reihenfolge der Übersetzung
+     * @pre c != null
+     * @pre c.getTable() == getTable()
+     */
+    public BatchResult evaluate(SlotContext c) {
+        assert c != null;
+        assert c.getTable() == table;
+
+        byte[] loaded = new byte[variables.length];
+        for (int v = 0; v < variables.length; v++) {
+            int slot = slots[v];
+            loaded[v] = !c.has(slot) ? MISSING : c.get(slot) ? TRUE : FALSE;
+        }
+        return run(loaded);
+    }
+
+    /**
+     * Berechnet alle Knoten in topologischer Reihenfolge und sammelt die Werte der Regeln.
+     *
+     * @param loaded der Zustand jeder Variablen
+     * @return die Wahrheitswerte der Regeln
+     */
+    private BatchResult run(byte[] loaded) {
+        int n = ops.length;
+        byte[] state = new byte[n];
+        for (int i = 0; i < n; i++) {
+            state[i] = switch (ops[i]) {
+                case Program.PUSH_FALSE -> FALSE;
+                case Program.PUSH_TRUE -> TRUE;
+                case Program.LOAD -> loaded[first[i]];
+                case Program.NOT -> {
+                    byte s = state[first[i]];
+                    yield s == MISSING ? MISSING : (byte) (s ^ TRUE);
+                }
+                default -> apply(ops[i], state[first[i]], state[second[i]]);
+            };
+        }
+        int words = (roots.length + Long.SIZE - 1) >>> WORD_SHIFT;
+        long[] values = new long[words];
+        long[] missing = new long[words];
+        for (int r = 0; r < roots.length; r++) {
+            byte root = state[roots[r]];
+            if (root == TRUE) {
+                values[r >>> WORD_SHIFT] |= 1L << r;
+            } else if (root == MISSING) {
+                missing[r >>> WORD_SHIFT] |= 1L << r;
+            }
+        }
+        return new BatchResult(values, missing, roots.length);
+    }
+
+    /**
+     * Wendet einen binären Befehl auf zwei Zustände an.
+     *
+     * @param op der Befehl
+     * @param left der linke Zustand
+     * @param right der rechte Zustand
+     * @return das Ergebnis, MISSING wenn ein Operand fehlt
+     */
+    private static byte apply(byte op, byte left, byte right) {
+        if ((left | right) >= MISSING) {
+            return MISSING;
+        }
+        return switch (op) {
+            case Program.AND -> (byte) (left & right);
+            case Program.OR -> (byte) (left | right);
+            case Program.XOR -> (byte) (left ^ right);
+            case Program.EQUIV -> (byte) (left ^ right ^ TRUE);
+            case Program.IMPL -> (byte) ((left ^ TRUE) | right);
+            default -> throw new IllegalStateException("unbekannter Befehl " + op);
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < ops.length; i++) {
+            builder.append(i).append(": ").append(NAMES[ops[i]]);
+            if (ops[i] == Program.LOAD) {
+                builder.append(' ').append(variables[first[i]]);
+            } else if (ops[i] == Program.NOT) {
+                builder.append(' ').append(first[i]);
+            } else if (ops[i] > Program.NOT) {
+                builder.append(' ').append(first[i]).append(' ').append(second[i]);
+            }
+            builder.append('\n');
+        }
+        for (int r = 0; r < roots.length; r++) {
+            builder.append("Regel ").append(r).append(": ").append(roots[r]).append('\n');
+        }
+        return builder.toString();
+    }
+}
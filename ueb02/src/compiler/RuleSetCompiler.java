@@ -0,0 +1,253 @@
+package compiler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import expression.Expression;
+import expression.VariableTable;
+import tree.BinaryOperation;
+import tree.Constant;
+import tree.Identity;
+import tree.Negation;
+import tree.UnaryOperation;
+import tree.Variable;
+
+/**
+ * Übersetzt eine Menge von Regeln in ein gemeinsames {@link RuleNetwork}. Jeder Knoten wird
+ * über seinen Befehl und seine bereits übersetzten Operanden gehasht, gleiche Teilausdrücke
+ * werden so über alle Regeln hinweg nur einmal angelegt, auch wenn sie als verschiedene Objekte
+ * gebaut wurden. Die Operanden von Und, Oder, Xor und Äquivalenz werden dabei sortiert,
+ * Identitäten und doppelte Negationen entfallen.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class RuleSetCompiler {
+
+    /** Anfangsgröße der Puffer */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Anzahl der Bit eines Operanden im Schlüssel eines Knotens */
+    private static final int OPERAND_BITS = 30;
+
+    /** Position des Befehls im Schlüssel eines Knotens */
+    private static final int OP_SHIFT = 2 * OPERAND_BITS;
+
+    /** Zweiter Operand von Knoten ohne zweiten Operanden */
+    private static final int NONE = 0;
+
+    /** die Zuordnung von Bezeichnern zu Slots */
+    private final VariableTable table;
+
+    /** die Knoten nach Befehl und Operanden */
+    private final Map<Long, Integer> unique = new HashMap<>();
+
+    /** die Knoten der bereits übersetzten Ausdrucksobjekte */
+    private final Map<Expression, Integer> done = new IdentityHashMap<>();
+
+    /** die Indizes der bisher gefundenen Variablen */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /** die Bezeichner der Variablen in der Reihenfolge ihres Auftretens */
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    /** der Befehl jedes Knotens */
+    private byte[] ops = new byte[INITIAL_CAPACITY];
+
+    /** der erste Operand bzw. der Variablen-Index jedes Knotens */
+    private int[] first = new int[INITIAL_CAPACITY];
+
+    /** der zweite Operand jedes Knotens */
+    private int[] second = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der Knoten */
+    private int size;
+
+    /** die Summe der Knotenzahlen aller Regeln */
+    private long inputNodes;
+
+    /**
+     * Konstruktor.
+     *
+     * @param table die Zuordnung von Bezeichnern zu Slots
+     */
+    private RuleSetCompiler(VariableTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Übersetzt Regeln in ein Netz mit einer eigenen VariableTable.
+     *
+     * @param rules die Regeln
+     * @return das Netz, Regel i liefert Bit i des Ergebnisses
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre rules != null und enthält kein null
+     */
+    public static RuleNetwork compile(List<? extends Expression> rules) {
+        return compile(rules, new VariableTable());
+    }
+
+    /**
+     * Übersetzt Regeln in ein Netz, dessen Variablen an Slots einer gegebenen VariableTable
+     * gebunden werden.
+     *
+     * @param rules die Regeln
+     * @param table die Zuordnung von Bezeichnern zu Slots
+     * @return das Netz, Regel i liefert Bit i des Ergebnisses
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre rules != null und enthält kein null
+     * @pre table != null
+     */
+    public static RuleNetwork compile(List<? extends Expression> rules, VariableTable table) {
+        assert rules != null;
+        assert table != null;
+
+        RuleSetCompiler compiler = new RuleSetCompiler(table);
+        int[] roots = new int[rules.size()];
+        for (int r = 0; r < roots.length; r++) {
+            Expression rule = rules.get(r);
+            assert rule != null;
+            compiler.inputNodes += rule.getChildrenCount();
+            roots[r] = compiler.node(rule);
+        }
+        int variables = compiler.indices.size();
+        int[] slots = new int[variables];
+        for (int v = 0; v < variables; v++) {
+            slots[v] = table.slotOf(compiler.names[v]);
+        }
+        return new RuleNetwork(Arrays.copyOf(compiler.ops, compiler.size),
+                Arrays.copyOf(compiler.first, compiler.size),
+                Arrays.copyOf(compiler.second, compiler.size), roots,
+                Arrays.copyOf(compiler.names, variables), slots, table, compiler.inputNodes);
+    }
+
+    /**
+     * Übersetzt einen Ausdruck ohne Rekursion in Postordnung.
+     *
+     * @param e der Ausdruck
+     * @return der Knoten des Ausdrucks
+     */
+    private int node(Expression e) {
+        Expression[] stack = new Expression[INITIAL_CAPACITY];
+        boolean[] visited = new boolean[INITIAL_CAPACITY];
+        int[] values = new int[INITIAL_CAPACITY];
+        int top = 0;
+        int count = 0;
+        stack[0] = e;
+        while (top >= 0) {
+            Expression current = stack[top];
+            Integer known = visited[top] ? null : done.get(current);
+            int result;
+            if (known != null) {
+                result = known;
+            } else if (!visited[top] && (current instanceof BinaryOperation
+                    || current instanceof UnaryOperation)) {
+                visited[top] = true;
+                if (top + 2 >= stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    visited = Arrays.copyOf(visited, stack.length);
+                }
+                if (current instanceof BinaryOperation binary) {
+                    stack[++top] = binary.getRight();
+                    visited[top] = false;
+                    stack[++top] = binary.getLeft();
+                } else {
+                    stack[++top] = ((UnaryOperation) current).getOperand();
+                }
+                visited[top] = false;
+                continue;
+            } else if (current instanceof BinaryOperation binary) {
+                count--;
+                result = binary(ProgramCompiler.opcode(binary), values[count - 1], values[count]);
+                count--;
+            } else if (current instanceof Negation) {
+                int operand = values[--count];
+                result = ops[operand] == Program.NOT ? first[operand]
+                        : intern(Program.NOT, operand, NONE);
+            } else if (current instanceof Identity) {
+                result = values[--count];
+            } else if (current instanceof Variable variable) {
+                result = intern(Program.LOAD, variable(variable.getName()), NONE);
+            } else if (current instanceof Constant constant) {
+                result = intern(constant.getValue() ? Program.PUSH_TRUE : Program.PUSH_FALSE,
+                        NONE, NONE);
+            } else {
+                throw new IllegalArgumentException(
+                        "unbekannter Knoten " + current.getClass().getName());
+            }
+            if (known == null) {
+                done.put(current, result);
+            }
+            stack[top--] = null;
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = result;
+        }
+        return values[0];
+    }
+
+    /**
+     * Liefert den Knoten einer binären Operation, bei vertauschbaren Operationen mit sortierten
+     * Operanden.
+     *
+     * @param op der Befehl
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return der Knoten
+     */
+    private int binary(int op, int left, int right) {
+        if (op != Program.IMPL && left > right) {
+            return intern(op, right, left);
+        }
+        return intern(op, left, right);
+    }
+
+    /**
+     * Liefert den Knoten zu Befehl und Operanden und legt ihn bei Bedarf an.
+     *
+     * @param op der Befehl
+     * @param a der erste Operand bzw. der Variablen-Index
+     * @param b der zweite Operand
+     * @return der Knoten
+     */
+    private int intern(int op, int a, int b) {
+        Long key = (long) op << OP_SHIFT | (long) a << OPERAND_BITS | b;
+        Integer known = unique.get(key);
+        if (known != null) {
+            return known;
+        }
+        assert size < 1 << OPERAND_BITS;
+        if (size == ops.length) {
+            ops = Arrays.copyOf(ops, size * 2);
+            first = Arrays.copyOf(first, size * 2);
+            second = Arrays.copyOf(second, size * 2);
+        }
+        ops[size] = (byte) op;
+        first[size] = a;
+        second[size] = b;
+        unique.put(key, size);
+        return size++;
+    }
+
+    /**
+     * Liefert den Index einer Variablen und legt ihn bei Bedarf an.
+     *
+     * @param name der Bezeichner
+     * @return der Index
+     */
+    private int variable(String name) {
+        Integer index = indices.get(name);
+        if (index == null) {
+            index = indices.size();
+            if (index == names.length) {
+                names = Arrays.copyOf(names, index * 2);
+            }
+            names[index] = name;
+            indices.put(name, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,87 @@
+package compiler;
+
+/**
+ * Rechenkern auf einzelnen long-Worten. Er ist immer verfügbar und rechnet außerdem die Reste
+ * der Blöcke, die nicht in ein ganzes Vektorregister passen.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+final class ScalarKernel implements BlockKernel {
+
+    @Override
+    public void not(long[] v, int n) {
+        not(v, 0, n);
+    }
+
+    @Override
+    public void combine(int op, boolean shortCircuit, int n, long[] l, long[] lm, long[] r,
+            long[] rm) {
+        combine(op, shortCircuit, 0, n, l, lm, r, rm);
+    }
+
+    /**
+     * Negiert einen Ausschnitt eines Blocks.
+     *
+     * @param v die Werte
+     * @param from der erste Index
+     * @param to der erste Index hinter dem Ausschnitt
+     */
+    static void not(long[] v, int from, int to) {
+        for (int i = from; i < to; i++) {
+            v[i] = ~v[i];
+        }
+    }
+
+    /**
+     * Verknüpft einen Ausschnitt zweier Blöcke, das Ergebnis steht danach im linken Block.
+     *
+     * @param op der binäre Befehl
+     * @param shortCircuit true für die Fehlersemantik von evaluateShort
+     * @param from der erste Index
+     * @param to der erste Index hinter dem Ausschnitt
+     * @param l die Werte des linken Operanden
+     * @param lm die fehlenden Variablen des linken Operanden
+     * @param r die Werte des rechten Operanden
+     * @param rm die fehlenden Variablen des rechten Operanden
+     */
+    static void combine(int op, boolean shortCircuit, int from, int to, long[] l, long[] lm,
+            long[] r, long[] rm) {
+        switch (op) {
+            case Program.AND:
+                for (int i = from; i < to; i++) {
+                    //rechts wird nur ausgewertet, wo links true ist
+                    lm[i] |= shortCircuit ? l[i] & rm[i] : rm[i];
+                    l[i] &= r[i];
+                }
+                break;
+            case Program.OR:
+                for (int i = from; i < to; i++) {
+                    //rechts wird nur ausgewertet, wo links false ist
+                    lm[i] |= shortCircuit ? ~l[i] & rm[i] : rm[i];
+                    l[i] |= r[i];
+                }
+                break;
+            case Program.IMPL:
+                for (int i = from; i < to; i++) {
+                    //rechts wird nur ausgewertet, wo links true ist
+                    lm[i] |= shortCircuit ? l[i] & rm[i] : rm[i];
+                    l[i] = ~l[i] | r[i];
+                }
+                break;
+            case Program.XOR:
+                for (int i = from; i < to; i++) {
+                    lm[i] |= rm[i];
+                    l[i] ^= r[i];
+                }
+                break;
+            case Program.EQUIV:
+                for (int i = from; i < to; i++) {
+                    lm[i] |= rm[i];
+                    l[i] = ~(l[i] ^ r[i]);
+                }
+                break;
+            default:
+                throw new AssertionError(op);
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package compiler;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import api.InterningExpressionAPI;
+import expression.Expression;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Identity;
+import tree.Negation;
+import tree.Or;
+import tree.UnaryOperation;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * Vereinfacht Ausdrücke durch algebraische Umformungen und Konstantenfaltung. Der Baum wird
+ * ohne Rekursion von den Blättern zur Wurzel durchlaufen, jede Operation wird mit ihren bereits
+ * vereinfachten Operanden neu aufgebaut. Dabei entfallen Identitäten und doppelte Negationen,
+ * Operationen mit Konstanten werden gefaltet oder auf einen Operanden bzw. dessen Negation
+ * verkürzt, und gleiche oder komplementäre Operanden (x &amp;&amp; x, x ^ !x, x -&gt; x, ...)
+ * werden erkannt. Da alle Operanden schon vereinfacht sind, genügt ein Durchlauf.
+ *
+ * Das Ergebnis wird mit einer {@link InterningExpressionAPI} aufgebaut, strukturell gleiche
+ * Teilausdrücke sind also identisch; so wird x &amp;&amp; x auch bei verschiedenen Bäumen für
+ * x erkannt, und gemeinsame Teilausdrücke der Eingabe werden nur einmal vereinfacht. Knoten,
+ * die nicht aus dem Paket tree stammen, werden unverändert übernommen.
+ *
+ * Das Ergebnis ist für jeden Kontext, der alle Variablen des ursprünglichen Ausdrucks belegt,
+ * gleichwertig. Variablen können dabei wegfallen (x ^ x ergibt F), ein unvollständiger Kontext
+ * kann dann einen Wert statt einer IncompleteContextException liefern.
+ *
+ * Jede Instanz zählt die angewandten Umformungen und die Knoten vor und nach der
+ * Vereinfachung über alle Aufrufe. Eine Instanz darf nicht von mehreren Threads gleichzeitig
+ * verwendet werden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class Simplifier {
+
+    /**
+     * Die Arten von Umformungen, die gezählt werden.
+     */
+    public enum Rewrite {
+        /** (x) ergibt x */
+        IDENTITY,
+        /** !!x ergibt x */
+        DOUBLE_NEGATION,
+        /** Operation mit ausschließlich konstanten Operanden */
+        CONSTANT_FOLDING,
+        /** neutrales Element, etwa x &amp;&amp; T, x || F, x ^ F, T -&gt; x */
+        NEUTRAL_ELEMENT,
+        /** absorbierendes Element, etwa x &amp;&amp; F, x || T, F -&gt; x, x -&gt; T */
+        ABSORBING_ELEMENT,
+        /** Negation des anderen Operanden, etwa bei x ^ T, x &lt;-&gt; F, x -&gt; F */
+        NEGATION,
+        /** x &amp;&amp; x und x || x ergeben x */
+        IDEMPOTENCE,
+        /** x ^ x, x &lt;-&gt; x und x -&gt; x ergeben eine Konstante */
+        SAME_OPERANDS,
+        /** komplementäre Operanden, etwa x &amp;&amp; !x, x || !x, x -&gt; !x */
+        COMPLEMENT
+    }
+
+    /** Anfangsgröße der Stapel */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** die API, mit der das Ergebnis aufgebaut wird */
+    private final InterningExpressionAPI api;
+
+    /** die Konstante true */
+    private final Expression trueConstant;
+
+    /** die Konstante false */
+    private final Expression falseConstant;
+
+    /** die Anzahl der Umformungen je Art */
+    private final long[] counts = new long[Rewrite.values().length];
+
+    /** die Anzahl der Knoten aller Eingaben */
+    private long inputNodes;
+
+    /** die Anzahl der Knoten aller Ergebnisse */
+    private long outputNodes;
+
+    /** die offenen Knoten des Durchlaufs */
+    private Expression[] stack = new Expression[INITIAL_CAPACITY];
+
+    /** true, wenn die Operanden des Knotens schon auf dem Stapel liegen */
+    private boolean[] visited = new boolean[INITIAL_CAPACITY];
+
+    /** die vereinfachten Operanden, die noch auf ihre Operation warten */
+    private Expression[] values = new Expression[INITIAL_CAPACITY];
+
+    /**
+     * Konstruktor mit einer eigenen InterningExpressionAPI.
+     */
+    public Simplifier() {
+        this(new InterningExpressionAPI());
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param api die API, mit der das Ergebnis aufgebaut wird
+     * @pre api != null
+     */
+    public Simplifier(InterningExpressionAPI api) {
+        assert api != null;
+
+        this.api = api;
+        this.trueConstant = api.makeConstantExpression(true);
+        this.falseConstant = api.makeConstantExpression(false);
+    }
+
+    /**
+     * Vereinfacht einen Ausdruck.
+     *
+     * @param e der Ausdruck
+     * @return ein gleichwertiger Ausdruck mit höchstens so vielen Knoten
+     * @pre e != null
+     */
+    public Expression simplify(Expression e) {
+        assert e != null;
+
+        Map<Expression, Expression> done = new IdentityHashMap<>();
+        int top = 0;
+        int size = 0;
+        push(e, 0);
+        while (top >= 0) {
+            Expression node = stack[top];
+            if (!visited[top]) {
+                Expression known = done.get(node);
+                if (known == null && node instanceof BinaryOperation binary) {
+                    visited[top] = true;
+                    push(binary.getRight(), ++top);
+                    push(binary.getLeft(), ++top);
+                    continue;
+                }
+                if (known == null && node instanceof UnaryOperation unary) {
+                    visited[top] = true;
+                    push(unary.getOperand(), ++top);
+                    continue;
+                }
+                if (known == null) {
+                    known = leaf(node);
+                    done.put(node, known);
+                }
+                stack[top--] = null;
+                size = value(size);
+                values[size - 1] = known;
+                continue;
+            }
+            stack[top--] = null;
+            Expression result;
+            if (node instanceof BinaryOperation) {
+                size--;
+                result = binary(node, values[size - 1], values[size]);
+                values[size] = null;
+            } else if (node instanceof Identity) {
+                result = identity(values[size - 1]);
+            } else {
+                result = not(values[size - 1]);
+            }
+            values[size - 1] = result;
+            done.put(node, result);
+        }
+        Expression result = values[0];
+        values[0] = null;
+        inputNodes += e.getChildrenCount();
+        outputNodes += result.getChildrenCount();
+        return result;
+    }
+
+    /**
+     * Liefert, wie oft eine Umformung angewandt wurde.
+     *
+     * @param rewrite die Umformung
+     * @return die Anzahl
+     * @pre rewrite != null
+     */
+    public long getCount(Rewrite rewrite) {
+        assert rewrite != null;
+
+        return counts[rewrite.ordinal()];
+    }
+
+    /**
+     * Liefert die Anzahl aller angewandten Umformungen.
+     *
+     * @return die Anzahl
+     */
+    public long getTotalCount() {
+        return Arrays.stream(counts).sum();
+    }
+
+    /**
+     * Liefert die Summe der Knotenzahlen aller vereinfachten Ausdrücke.
+     *
+     * @return die Anzahl der Knoten vor der Vereinfachung
+     */
+    public long getInputNodes() {
+        return inputNodes;
+    }
+
+    /**
+     * Liefert die Summe der Knotenzahlen aller Ergebnisse.
+     *
+     * @return die Anzahl der Knoten nach der Vereinfachung
+     */
+    public long getOutputNodes() {
+        return outputNodes;
+    }
+
+    /**
+     * Setzt die Statistik zurück.
+     */
+    public void resetStatistics() {
+        Arrays.fill(counts, 0);
+        inputNodes = 0;
+        outputNodes = 0;
+    }
+
+    /**
+     * Liefert die Statistik, etwa "Knoten 120 -&gt; 45, IDENTITY=10, NEUTRAL_ELEMENT=3".
+     *
+     * @return die Statistik
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Knoten ").append(inputNodes).append(" -> ").append(outputNodes);
+        for (Rewrite rewrite : Rewrite.values()) {
+            if (counts[rewrite.ordinal()] > 0) {
+                builder.append(", ").append(rewrite).append('=')
+                        .append(counts[rewrite.ordinal()]);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Legt einen Knoten auf den Stapel des Durchlaufs.
+     *
+     * @param e der Knoten
+     * @param index die Position auf dem Stapel
+     */
+    private void push(Expression e, int index) {
+        if (index == stack.length) {
+            stack = Arrays.copyOf(stack, index * 2);
+            visited = Arrays.copyOf(visited, index * 2);
+        }
+        stack[index] = e;
+        visited[index] = false;
+    }
+
+    /**
+     * Reserviert einen Platz auf dem Stapel der Operanden.
+     *
+     * @param size die Anzahl der Operanden auf dem Stapel
+     * @return die neue Anzahl
+     */
+    private int value(int size) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        return size + 1;
+    }
+
+    /**
+     * Zählt eine Umformung.
+     *
+     * @param rewrite die Umformung
+     * @param result das Ergebnis der Umformung
+     * @return result
+     */
+    private Expression count(Rewrite rewrite, Expression result) {
+        counts[rewrite.ordinal()]++;
+        return result;
+    }
+
+    /**
+     * Übernimmt ein Blatt in die API des Ergebnisses.
+     *
+     * @param e das Blatt
+     * @return das kanonische Blatt oder e, wenn es nicht aus dem Paket tree stammt
+     */
+    private Expression leaf(Expression e) {
+        if (e instanceof Variable variable) {
+            return api.makeVariableExpression(variable.getName());
+        }
+        if (e instanceof Constant constant) {
+            return constant.getValue() ? trueConstant : falseConstant;
+        }
+        return e;
+    }
+
+    /**
+     * Vereinfacht eine Identität.
+     *
+     * @param operand der vereinfachte Operand
+     * @return der Operand
+     */
+    private Expression identity(Expression operand) {
+        return count(Rewrite.IDENTITY, operand);
+    }
+
+    /**
+     * Bildet die vereinfachte Negation.
+     *
+     * @param operand der vereinfachte Operand
+     * @return die Negation
+     */
+    private Expression not(Expression operand) {
+        if (operand instanceof Constant constant) {
+            return count(Rewrite.CONSTANT_FOLDING, constant.getValue() ? falseConstant
+                    : trueConstant);
+        }
+        if (operand instanceof Negation negation) {
+            return count(Rewrite.DOUBLE_NEGATION, negation.getOperand());
+        }
+        return api.makeNotExpression(operand);
+    }
+
+    /**
+     * Bildet die vereinfachte binäre Operation.
+     *
+     * @param e die ursprüngliche Operation
+     * @param left der vereinfachte linke Operand
+     * @param right der vereinfachte rechte Operand
+     * @return die vereinfachte Operation
+     */
+    private Expression binary(Expression e, Expression left, Expression right) {
+        if (left instanceof Constant l && right instanceof Constant r) {
+            return count(Rewrite.CONSTANT_FOLDING,
+                    ((BinaryOperation) e).evaluate(l.getValue(), r.getValue()) ? trueConstant
+                            : falseConstant);
+        }
+        if (e instanceof And) {
+            return and(left, right);
+        } else if (e instanceof Or) {
+            return or(left, right);
+        } else if (e instanceof Xor) {
+            return xor(left, right);
+        } else if (e instanceof Equivalence) {
+            return equivalence(left, right);
+        } else if (e instanceof Consequence) {
+            return consequence(left, right);
+        }
+        return e;
+    }
+
+    /**
+     * Vereinfacht eine Konjunktion, höchstens ein Operand ist konstant.
+     *
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return die vereinfachte Konjunktion
+     */
+    private Expression and(Expression left, Expression right) {
+        if (left == trueConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, right);
+        } else if (right == trueConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, left);
+        } else if (left == falseConstant || right == falseConstant) {
+            return count(Rewrite.ABSORBING_ELEMENT, falseConstant);
+        } else if (left == right) {
+            return count(Rewrite.IDEMPOTENCE, left);
+        } else if (complementary(left, right)) {
+            return count(Rewrite.COMPLEMENT, falseConstant);
+        }
+        return api.makeAndExpression(left, right);
+    }
+
+    /**
+     * Vereinfacht eine Disjunktion, höchstens ein Operand ist konstant.
+     *
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return die vereinfachte Disjunktion
+     */
+    private Expression or(Expression left, Expression right) {
+        if (left == falseConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, right);
+        } else if (right == falseConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, left);
+        } else if (left == trueConstant || right == trueConstant) {
+            return count(Rewrite.ABSORBING_ELEMENT, trueConstant);
+        } else if (left == right) {
+            return count(Rewrite.IDEMPOTENCE, left);
+        } else if (complementary(left, right)) {
+            return count(Rewrite.COMPLEMENT, trueConstant);
+        }
+        return api.makeOrExpression(left, right);
+    }
+
+    /**
+     * Vereinfacht eine Alternative, höchstens ein Operand ist konstant.
+     *
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return die vereinfachte Alternative
+     */
+    private Expression xor(Expression left, Expression right) {
+        if (left == falseConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, right);
+        } else if (right == falseConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, left);
+        } else if (left == trueConstant) {
+            return count(Rewrite.NEGATION, not(right));
+        } else if (right == trueConstant) {
+            return count(Rewrite.NEGATION, not(left));
+        } else if (left == right) {
+            return count(Rewrite.SAME_OPERANDS, falseConstant);
+        } else if (complementary(left, right)) {
+            return count(Rewrite.COMPLEMENT, trueConstant);
+        }
+        return api.makeXorExpression(left, right);
+    }
+
+    /**
+     * Vereinfacht eine Äquivalenz, höchstens ein Operand ist konstant.
+     *
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return die vereinfachte Äquivalenz
+     */
+    private Expression equivalence(Expression left, Expression right) {
+        if (left == trueConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, right);
+        } else if (right == trueConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, left);
+        } else if (left == falseConstant) {
+            return count(Rewrite.NEGATION, not(right));
+        } else if (right == falseConstant) {
+            return count(Rewrite.NEGATION, not(left));
+        } else if (left == right) {
+            return count(Rewrite.SAME_OPERANDS, trueConstant);
+        } else if (complementary(left, right)) {
+            return count(Rewrite.COMPLEMENT, falseConstant);
+        }
+        return api.makeEquivalenceExpression(left, right);
+    }
+
+    /**
+     * Vereinfacht eine Implikation, höchstens ein Operand ist konstant.
+     *
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return die vereinfachte Implikation
+     */
+    private Expression consequence(Expression left, Expression right) {
+        if (left == trueConstant) {
+            return count(Rewrite.NEUTRAL_ELEMENT, right);
+        } else if (left == falseConstant || right == trueConstant) {
+            return count(Rewrite.ABSORBING_ELEMENT, trueConstant);
+        } else if (right == falseConstant) {
+            return count(Rewrite.NEGATION, not(left));
+        } else if (left == right) {
+            return count(Rewrite.SAME_OPERANDS, trueConstant);
+        } else if (complementary(left, right)) {
+            //x -> !x ergibt !x, !x -> x ergibt x
+            return count(Rewrite.COMPLEMENT, right);
+        }
+        return api.makeConsequenceExpression(left, right);
+    }
+
+    /**
+     * Prüft, ob ein Operand die Negation des anderen ist.
+     *
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return true, wenn die Operanden komplementär sind
+     */
+    private static boolean complementary(Expression left, Expression right) {
+        return left instanceof Negation l && l.getOperand() == right
+                || right instanceof Negation r && r.getOperand() == left;
+    }
+}
@@ -0,0 +1,139 @@
+package compiler;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Ausdruck mit zwei Ausführungsstufen. Solange der Ausdruck selten ausgewertet wird, wertet der
+ * Baum selbst aus (kalte Stufe). Ab einer Anzahl von Aufrufen wird der Ausdruck einmalig mit dem
+ * HiddenClassCompiler in eine eigene Klasse übersetzt, die fortan die Auswertung übernimmt
+ * (heiße Stufe). Die Klasse liest die Variablen in derselben Reihenfolge wie der Baum und wirft
+ * bei fehlenden Variablen dieselbe IncompleteContextException, die Auswertung kehrt deshalb nie
+ * in den Baum zurück. Ist der Ausdruck zu groß, als dass HotSpot die erzeugte Methode noch
+ * übersetzen würde, bleibt er im Baum; das verkürzt auswertende Postfix-Programm wäre als
+ * heiße Stufe langsamer als der Baum.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class TieredExpression implements Expression {
+
+    /** Standardanzahl der Aufrufe, ab der übersetzt wird */
+    public static final int DEFAULT_THRESHOLD = 10000;
+
+    /** der ursprüngliche Baum */
+    private final Expression tree;
+
+    /** Anzahl der Aufrufe, ab der übersetzt wird */
+    private final int threshold;
+
+    /** Anzahl der bisherigen Aufrufe, wird nicht synchronisiert gezählt */
+    private int calls;
+
+    /** die übersetzte Klasse oder null */
+    private volatile CompiledExpression compiled;
+
+    /** true, wenn der Ausdruck zu groß für eine Klasse ist und im Baum bleibt */
+    private volatile boolean tooLarge;
+
+    /**
+     * Konstruktor mit der Standardanzahl an Aufrufen.
+     *
+     * @param tree der ursprüngliche Baum
+     * @pre tree != null
+     */
+    public TieredExpression(Expression tree) {
+        this(tree, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param tree der ursprüngliche Baum
+     * @param threshold Anzahl der Aufrufe, ab der übersetzt wird
+     * @pre tree != null
+     * @pre threshold &ge; 0
+     */
+    public TieredExpression(Expression tree, int threshold) {
+        assert tree != null;
+        assert threshold >= 0;
+
+        this.tree = tree;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gibt an, ob die heiße Stufe bereits aktiv ist.
+     *
+     * @return true, wenn der Ausdruck übersetzt wurde
+     */
+    public boolean isCompiled() {
+        return compiled != null;
+    }
+
+    @Override
+    public boolean evaluateShort(Context c) throws IncompleteContextException {
+        CompiledExpression hot = compiled;
+        if (hot != null) {
+            return hot.evaluateShort(c);
+        }
+        if (++calls >= threshold && !tooLarge) {
+            compile();
+        }
+        return tree.evaluateShort(c);
+    }
+
+    @Override
+    public boolean evaluateComplete(Context c) throws IncompleteContextException {
+        CompiledExpression hot = compiled;
+        if (hot != null) {
+            return hot.evaluateComplete(c);
+        }
+        return tree.evaluateComplete(c);
+    }
+
+    /**
+     * Übersetzt den Ausdruck, höchstens einmal.
+     */
+    private synchronized void compile() {
+        if (isCompiled() || tooLarge) {
+            return;
+        }
+        CompiledExpression hot = HiddenClassCompiler.compile(tree);
+        if (hot != null) {
+            compiled = hot;
+        } else {
+            tooLarge = true;
+        }
+    }
+
+    @Override
+    public boolean evaluateParallel(Context c, int bound) throws IncompleteContextException {
+        return tree.evaluateParallel(c, bound);
+    }
+
+    @Override
+    public int getChildrenCount() {
+        return tree.getChildrenCount();
+    }
+
+    @Override
+    public String toString() {
+        return tree.toString();
+    }
+
+    @Override
+    public void toString(StringBuilder builder) {
+        tree.toString(builder);
+    }
+
+    @Override
+    public String toGraphviz() {
+        return tree.toGraphviz();
+    }
+
+    @Override
+    public void toGraphviz(StringBuilder builder, String prefix) {
+        tree.toGraphviz(builder, prefix);
+    }
+}
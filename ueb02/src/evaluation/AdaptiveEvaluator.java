@@ -0,0 +1,112 @@
+package evaluation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import expression.Context;
+import expression.Counter;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Parallele, vollständige Auswertung von Ausdrücken ohne feste Grenze. Ob der rechte Operand
+ * einer binären Operation abgespalten wird, entscheidet ein CostModel anhand der geschätzten
+ * Laufzeit des Teilbaums. Zusätzlich wird nicht abgespalten, solange der aktuelle Worker
+ * bereits mehr wartende Teilaufgaben hat, als andere Worker stehlen können, d.h. wenn alle
+ * Kerne ausgelastet sind.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class AdaptiveEvaluator {
+
+    /** Faktor, um den die geschätzte Laufzeit die Abspaltungskosten übersteigen muss */
+    private static final double FORK_FACTOR = 4.0;
+
+    /** Anzahl wartender Teilaufgaben, ab der keine weiteren abgespalten werden */
+    private static final int MAX_SURPLUS = 2;
+
+    /** der Pool, auf dem die Teilaufgaben ausgeführt werden */
+    private final ForkJoinPool pool;
+
+    /** das Kostenmodell */
+    private final CostModel model;
+
+    /** wird für jede abgespaltene Teilaufgabe einmal aufgerufen */
+    private final Runnable forkListener;
+
+    /** die Entscheidungsregel für die Teilaufgaben */
+    private final ForkPolicy policy = new ForkPolicy() {
+
+        @Override
+        public boolean shouldFork(Expression left, Expression right) {
+            return (pool.getParallelism() > 1)
+                    && (ForkJoinTask.getSurplusQueuedTaskCount() < MAX_SURPLUS)
+                    && model.isWorthForking(right, FORK_FACTOR);
+        }
+
+        @Override
+        public boolean evaluateSequential(Expression e, Context c)
+                throws IncompleteContextException {
+            return model.evaluateAndLearn(e, c);
+        }
+    };
+
+    /**
+     * Konstruktor für einen Auswerter auf dem Common-Pool, der beim Erzeugen kalibriert wird
+     * und die abgespaltenen Teilaufgaben im Counter zählt.
+     */
+    public AdaptiveEvaluator() {
+        this(ForkJoinPool.commonPool(), CostModel.calibrate(ForkJoinPool.commonPool()),
+                Counter::increment);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param pool der Pool, auf dem die Teilaufgaben ausgeführt werden
+     * @param model das Kostenmodell, das auch zwischen mehreren Auswertern geteilt werden kann
+     * @param forkListener wird für jede abgespaltene Teilaufgabe einmal aufgerufen
+     * @pre pool != null
+     * @pre model != null
+     * @pre forkListener != null
+     */
+    public AdaptiveEvaluator(ForkJoinPool pool, CostModel model, Runnable forkListener) {
+        assert pool != null;
+        assert model != null;
+        assert forkListener != null;
+
+        this.pool = pool;
+        this.model = model;
+        this.forkListener = forkListener;
+    }
+
+    /**
+     * Liefert das Kostenmodell dieses Auswerters.
+     *
+     * @return das Kostenmodell
+     */
+    public CostModel getModel() {
+        return model;
+    }
+
+    /**
+     * Wertet den Ausdruck parallel und vollständig aus.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine der Variablen innerhalb des Ausdrucks nicht
+     *             im Kontext definiert ist
+     * @pre expression != null
+     */
+    public boolean evaluate(Expression expression, Context c) throws IncompleteContextException {
+        assert expression != null;
+
+        EvaluationTask task = new EvaluationTask(expression, c, policy, forkListener);
+        try {
+            return pool.invoke(task);
+        } catch (EvaluationTask.UncheckedContextException e) {
+            throw e.getContextException();
+        }
+    }
+}
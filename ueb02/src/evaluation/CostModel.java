@@ -0,0 +1,227 @@
+package evaluation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import api.ExpressionAPI;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Kostenmodell für die adaptive Parallelisierung. Es schätzt die Laufzeit eines Teilbaums über
+ * die mittlere Auswertungszeit pro Knoten und vergleicht sie mit den Kosten einer Abspaltung.
+ * Beide Werte können beim Start kalibriert werden, die Knotenkosten werden zusätzlich aus den
+ * sequentiell ausgewerteten Teilbäumen vergangener Auswertungen nachgelernt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class CostModel {
+
+    /** Anfangsschätzung der Auswertungszeit pro Knoten in Nanosekunden */
+    public static final double DEFAULT_NODE_NANOS = 5.0;
+
+    /** Anfangsschätzung der Kosten einer Abspaltung in Nanosekunden */
+    public static final double DEFAULT_FORK_NANOS = 2000.0;
+
+    /** Gewicht einer neuen Messung im gleitenden Mittelwert */
+    private static final double LEARNING_RATE = 0.05;
+
+    /** Mindestanzahl an Knoten, ab der eine sequentielle Auswertung gemessen wird */
+    private static final int SAMPLE_MIN_NODES = 256;
+
+    /** Tiefe des vollständigen Baums, der zur Kalibrierung ausgewertet wird */
+    private static final int CALIBRATION_DEPTH = 12;
+
+    /** Anzahl der Durchläufe bei der Kalibrierung */
+    private static final int CALIBRATION_ROUNDS = 200;
+
+    /** mittlere Auswertungszeit pro Knoten in Nanosekunden */
+    private volatile double nodeNanos;
+
+    /** mittlere Kosten einer Abspaltung in Nanosekunden */
+    private final double forkNanos;
+
+    /**
+     * Konstruktor.
+     *
+     * @param nodeNanos Schätzung der Auswertungszeit pro Knoten in Nanosekunden
+     * @param forkNanos Schätzung der Kosten einer Abspaltung in Nanosekunden
+     * @pre nodeNanos &gt; 0
+     * @pre forkNanos &ge; 0
+     */
+    public CostModel(double nodeNanos, double forkNanos) {
+        assert nodeNanos > 0;
+        assert forkNanos >= 0;
+
+        this.nodeNanos = nodeNanos;
+        this.forkNanos = forkNanos;
+    }
+
+    /**
+     * Erzeugt ein Kostenmodell, dessen Werte auf dieser Maschine und dem übergebenen Pool
+     * gemessen wurden.
+     *
+     * @param pool der Pool, dessen Abspaltungskosten gemessen werden
+     * @return das kalibrierte Kostenmodell
+     * @pre pool != null
+     */
+    public static CostModel calibrate(ForkJoinPool pool) {
+        assert pool != null;
+
+        return new CostModel(measureNodeNanos(), measureForkNanos(pool));
+    }
+
+    /**
+     * Misst die Auswertungszeit pro Knoten an einem vollständigen Baum aus Variablen.
+     *
+     * @return die beste gemessene Zeit pro Knoten in Nanosekunden
+     */
+    private static double measureNodeNanos() {
+        ExpressionAPI api = new ExpressionAPI();
+        Context c = new Context();
+        c.set("a", true);
+        c.set("b", false);
+        Expression[] level = new Expression[1 << CALIBRATION_DEPTH];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = api.makeVariableExpression((i & 1) == 0 ? "a" : "b");
+        }
+        for (int size = level.length / 2; size > 0; size /= 2) {
+            for (int i = 0; i < size; i++) {
+                level[i] = (i & 1) == 0
+                        ? api.makeOrExpression(level[2 * i], level[2 * i + 1])
+                        : api.makeAndExpression(level[2 * i], level[2 * i + 1]);
+            }
+        }
+        Expression tree = level[0];
+
+        long best = Long.MAX_VALUE;
+        try {
+            for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+                long start = System.nanoTime();
+                tree.evaluateComplete(c);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+        } catch (IncompleteContextException e) {
+            throw new AssertionError(e);
+        }
+        return Math.max((double) best / tree.getChildrenCount(), Double.MIN_NORMAL);
+    }
+
+    /**
+     * Misst die Kosten für das Abspalten und Zusammenführen einer leeren Teilaufgabe.
+     *
+     * @param pool der Pool, auf dem gemessen wird
+     * @return die mittleren Kosten einer Abspaltung in Nanosekunden
+     */
+    private static double measureForkNanos(ForkJoinPool pool) {
+        final class Probe extends RecursiveAction {
+
+            /** Aus Konformitätsgründen, wird von einigen IDEs erwartet. */
+            private static final long serialVersionUID = 1L;
+
+            /** Anzahl der noch abzuspaltenden Teilaufgaben */
+            private final int forks;
+
+            /**
+             * Konstruktor.
+             *
+             * @param forks Anzahl der noch abzuspaltenden Teilaufgaben
+             */
+            Probe(int forks) {
+                this.forks = forks;
+            }
+
+            @Override
+            protected void compute() {
+                for (int i = 0; i < forks; i++) {
+                    Probe probe = new Probe(0);
+                    probe.fork();
+                    probe.join();
+                }
+            }
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            long start = System.nanoTime();
+            pool.invoke(new Probe(CALIBRATION_ROUNDS));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / CALIBRATION_ROUNDS;
+    }
+
+    /**
+     * Liefert die aktuelle Schätzung der Auswertungszeit pro Knoten.
+     *
+     * @return die Zeit pro Knoten in Nanosekunden
+     */
+    public double getNodeNanos() {
+        return nodeNanos;
+    }
+
+    /**
+     * Liefert die aktuelle Schätzung der Kosten einer Abspaltung.
+     *
+     * @return die Kosten einer Abspaltung in Nanosekunden
+     */
+    public double getForkNanos() {
+        return forkNanos;
+    }
+
+    /**
+     * Schätzt die Laufzeit einer vollständigen Auswertung des Teilbaums.
+     *
+     * @param e der Teilbaum
+     * @return die geschätzte Laufzeit in Nanosekunden
+     */
+    public double estimate(Expression e) {
+        return e.getChildrenCount() * nodeNanos;
+    }
+
+    /**
+     * Prüft, ob sich die Abspaltung eines Teilbaums lohnt, d.h. ob seine geschätzte Laufzeit
+     * die Kosten der Abspaltung um den übergebenen Faktor übersteigt.
+     *
+     * @param e der Teilbaum
+     * @param factor der geforderte Faktor zwischen Laufzeit und Abspaltungskosten
+     * @return true, wenn sich die Abspaltung lohnt
+     */
+    public boolean isWorthForking(Expression e, double factor) {
+        return e.getChildrenCount() * nodeNanos >= forkNanos * factor;
+    }
+
+    /**
+     * Wertet einen Teilbaum vollständig aus und lernt aus der gemessenen Laufzeit, sofern der
+     * Teilbaum groß genug für eine aussagekräftige Messung ist.
+     *
+     * @param e der Teilbaum
+     * @param c der Kontext für die Auswertung, oder null
+     * @return der Wahrheitswert des Teilbaums
+     * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+     */
+    boolean evaluateAndLearn(Expression e, Context c) throws IncompleteContextException {
+        int nodes = e.getChildrenCount();
+        if (nodes < SAMPLE_MIN_NODES) {
+            return e.evaluateComplete(c);
+        }
+        long start = System.nanoTime();
+        boolean result = e.evaluateComplete(c);
+        record(nodes, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Übernimmt eine Messung in den gleitenden Mittelwert der Knotenkosten.
+     *
+     * @param nodes die Anzahl der ausgewerteten Knoten
+     * @param nanos die gemessene Laufzeit in Nanosekunden
+     * @pre nodes &gt; 0
+     */
+    public synchronized void record(int nodes, long nanos) {
+        assert nodes > 0;
+
+        double sample = Math.max((double) nanos / nodes, Double.MIN_NORMAL);
+        nodeNanos += LEARNING_RATE * (sample - nodeNanos);
+    }
+}
@@ -0,0 +1,135 @@
+package evaluation;
+
+import java.util.concurrent.RecursiveTask;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.BinaryOperation;
+import tree.UnaryOperation;
+
+/**
+ * Teilaufgabe des ForkJoinEvaluator, die einen (Teil-)Ausdruck vollständig auswertet.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+class EvaluationTask extends RecursiveTask<Boolean> {
+
+    /**
+     * Aus Konformitätsgründen, wird von einigen IDEs erwartet.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /** der auszuwertende Ausdruck */
+    private final transient Expression expression;
+
+    /** der Kontext für die Auswertung */
+    private final transient Context context;
+
+    /** entscheidet, wann eine Teilaufgabe abgespalten wird */
+    private final transient ForkPolicy policy;
+
+    /** wird für jede abgespaltene Teilaufgabe einmal aufgerufen */
+    private final transient Runnable forkListener;
+
+    /**
+     * Konstruktor.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param context der Kontext für die Auswertung, oder null, wenn nicht benötigt
+     * @param policy entscheidet, wann eine Teilaufgabe abgespalten wird
+     * @param forkListener wird für jede abgespaltene Teilaufgabe einmal aufgerufen
+     */
+    EvaluationTask(Expression expression, Context context, ForkPolicy policy,
+            Runnable forkListener) {
+        this.expression = expression;
+        this.context = context;
+        this.policy = policy;
+        this.forkListener = forkListener;
+    }
+
+    @Override
+    protected Boolean compute() {
+        try {
+            return evaluate(expression);
+        } catch (IncompleteContextException e) {
+            throw new UncheckedContextException(e);
+        }
+    }
+
+    /**
+     * Wertet einen Teilausdruck aus. Unäre Operationen werden im aktuellen Worker durchlaufen,
+     * bei binären Operationen wird der rechte Operand abgespalten, sofern die ForkPolicy dies
+     * verlangt, während der linke im aktuellen Worker weiter ausgewertet wird.
+     *
+     * @param e der auszuwertende Teilausdruck
+     * @return der Wahrheitswert des Teilausdrucks
+     * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+     */
+    private boolean evaluate(Expression e) throws IncompleteContextException {
+        if (e instanceof UnaryOperation unary) {
+            return unary.evaluate(evaluate(unary.getOperand()));
+        }
+        if (e instanceof BinaryOperation binary) {
+            Expression left = binary.getLeft();
+            Expression right = binary.getRight();
+            if (policy.shouldFork(left, right)) {
+                EvaluationTask rightTask = new EvaluationTask(right, context, policy, forkListener);
+                rightTask.fork();
+                forkListener.run();
+                boolean leftResult;
+                try {
+                    leftResult = evaluate(left);
+                } catch (IncompleteContextException ex) {
+                    //Geschwisteraufgabe abwarten, damit keine Arbeit den Aufruf überdauert
+                    rightTask.quietlyJoin();
+                    throw ex;
+                }
+                boolean rightResult;
+                try {
+                    rightResult = rightTask.join();
+                } catch (UncheckedContextException ex) {
+                    throw ex.getContextException();
+                }
+                return binary.evaluate(leftResult, rightResult);
+            }
+        }
+        //Wenn keine Parallelisierung benoetigt wird
+        return policy.evaluateSequential(e, context);
+    }
+
+    /**
+     * Transportiert eine IncompleteContextException durch den Pool, da RecursiveTask keine
+     * geprüften Exceptions zulässt.
+     */
+    static class UncheckedContextException extends RuntimeException {
+
+        /**
+         * Aus Konformitätsgründen, wird von einigen IDEs erwartet.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Konstruktor.
+         *
+         * @param cause die ursächliche Exception
+         */
+        UncheckedContextException(Throwable cause) {
+            super(cause);
+        }
+
+        /**
+         * Liefert die ursprüngliche IncompleteContextException, auch wenn der Pool diese
+         * Exception beim Weiterreichen zwischen Threads in eine Kopie verpackt hat.
+         *
+         * @return die ursprüngliche Exception
+         */
+        IncompleteContextException getContextException() {
+            Throwable t = getCause();
+            while (!(t instanceof IncompleteContextException)) {
+                t = t.getCause();
+            }
+            return (IncompleteContextException) t;
+        }
+    }
+}
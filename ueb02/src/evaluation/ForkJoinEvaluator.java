@@ -0,0 +1,103 @@
+package evaluation;
+
+import java.util.concurrent.ForkJoinPool;
+
+import expression.Context;
+import expression.Counter;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Parallele, vollständige Auswertung von Ausdrücken auf einem gemeinsam genutzten ForkJoinPool.
+ * Statt für jeden binären Knoten oberhalb der Grenze einen eigenen Thread zu starten, wird der
+ * rechte Teilbaum als RecursiveTask abgespalten und von den Worker-Threads des Pools per
+ * Work-Stealing abgearbeitet.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class ForkJoinEvaluator {
+
+    /** Standard-Auswerter auf dem Common-Pool, der die Abspaltungen im Counter zählt */
+    private static final ForkJoinEvaluator DEFAULT =
+            new ForkJoinEvaluator(ForkJoinPool.commonPool(), Counter::increment);
+
+    /** der Pool, auf dem die Teilaufgaben ausgeführt werden */
+    private final ForkJoinPool pool;
+
+    /** wird für jede abgespaltene Teilaufgabe einmal aufgerufen */
+    private final Runnable forkListener;
+
+    /**
+     * Konstruktor für einen Auswerter, der die Abspaltungen im Counter zählt.
+     *
+     * @param pool der Pool, auf dem die Teilaufgaben ausgeführt werden
+     * @pre pool != null
+     */
+    public ForkJoinEvaluator(ForkJoinPool pool) {
+        this(pool, Counter::increment);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param pool der Pool, auf dem die Teilaufgaben ausgeführt werden
+     * @param forkListener wird für jede abgespaltene Teilaufgabe einmal aufgerufen
+     * @pre pool != null
+     * @pre forkListener != null
+     */
+    public ForkJoinEvaluator(ForkJoinPool pool, Runnable forkListener) {
+        assert pool != null;
+        assert forkListener != null;
+
+        this.pool = pool;
+        this.forkListener = forkListener;
+    }
+
+    /**
+     * Liefert den gemeinsam genutzten Auswerter auf dem Common-Pool. Dessen Parallelität lässt
+     * sich über die Systemeigenschaft "java.util.concurrent.ForkJoinPool.common.parallelism"
+     * einstellen.
+     *
+     * @return der Standard-Auswerter
+     */
+    public static ForkJoinEvaluator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Liefert den Pool, auf dem die Teilaufgaben ausgeführt werden.
+     *
+     * @return der Pool
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Wertet den Ausdruck parallel und vollständig aus. Der rechte Teilbaum einer binären
+     * Operation wird genau dann als eigene Teilaufgabe abgespalten, wenn die Anzahl der
+     * Unterknoten beider Operanden größer gleich der übergebenen Grenze ist.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @param bound Die Grenze, ab der parallelisiert werden soll.
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine der Variablen innerhalb des Ausdrucks nicht
+     *             im Kontext definiert ist
+     * @pre expression != null
+     */
+    public boolean evaluate(Expression expression, Context c, int bound)
+            throws IncompleteContextException {
+        assert expression != null;
+
+        ForkPolicy policy =
+                (left, right) -> (left.getChildrenCount() + right.getChildrenCount()) >= bound;
+        EvaluationTask task = new EvaluationTask(expression, c, policy, forkListener);
+        try {
+            return pool.invoke(task);
+        } catch (EvaluationTask.UncheckedContextException e) {
+            throw e.getContextException();
+        }
+    }
+
+}
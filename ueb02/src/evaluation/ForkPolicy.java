@@ -0,0 +1,36 @@
+package evaluation;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Entscheidet für eine EvaluationTask, ob der rechte Operand einer binären Operation als eigene
+ * Teilaufgabe abgespalten wird, und wertet nicht abgespaltene Teilbäume aus.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+interface ForkPolicy {
+
+    /**
+     * Entscheidet, ob der rechte Operand abgespalten werden soll.
+     *
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return true, wenn der rechte Operand als eigene Teilaufgabe ausgewertet werden soll
+     */
+    boolean shouldFork(Expression left, Expression right);
+
+    /**
+     * Wertet einen Teilbaum ohne weitere Abspaltungen aus.
+     *
+     * @param e der Teilbaum
+     * @param c der Kontext für die Auswertung, oder null
+     * @return der Wahrheitswert des Teilbaums
+     * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+     */
+    default boolean evaluateSequential(Expression e, Context c)
+            throws IncompleteContextException {
+        return e.evaluateComplete(c);
+    }
+}
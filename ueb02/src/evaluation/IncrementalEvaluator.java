@@ -0,0 +1,556 @@
+package evaluation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.BinaryOperation;
+import tree.Constant;
+import tree.UnaryOperation;
+import tree.Variable;
+
+/**
+ * Inkrementelle Auswertung für einen langlebigen Kontext, in dem sich jeweils einzelne
+ * Variablen ändern. Der Auswerter merkt sich den letzten Wert jedes Knotens und zu jedem
+ * Bezeichner die Blätter, die ihn lesen. Ändert {@link #set(String, boolean)} eine Variable,
+ * werden nur diese Blätter und von dort aus die Knoten auf dem Weg zur Wurzel neu berechnet;
+ * ein Weg endet, sobald sich der Wert eines Knotens nicht ändert. Die Kosten einer Änderung
+ * hängen damit von den betroffenen Wegen ab und nicht von der Größe des Baums.
+ *
+ * Die Knoten sind so nummeriert, dass Operanden vor ihren Operationen stehen. Geänderte Knoten
+ * liegen in einem Min-Heap nach dieser Nummer, so dass ein gemeinsam genutzter Teilausdruck
+ * erst nach allen seinen Operanden und höchstens einmal pro Änderung berechnet wird.
+ *
+ * Ein Auswerter kann mehrere Wurzeln haben, die sich Teilausdrücke teilen; mit
+ * {@link #addRoot(Expression)} hinzugefügte Knoten erhalten die nächsten Nummern, die Ordnung
+ * bleibt also erhalten. {@link #setAll(Map)} ändert mehrere Variablen in einem Durchlauf.
+ *
+ * Jeder Knoten hat den Wert, den ihm evaluateShort geben würde: ein Knoten ist unbekannt, wenn
+ * evaluateShort an ihm eine IncompleteContextException werfen würde, und merkt sich dann den
+ * Bezeichner, der gemeldet würde.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class IncrementalEvaluator {
+
+    /** Anfangsgröße der Felder */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Wert eines falschen Knotens */
+    private static final byte FALSE = 0;
+
+    /** Wert eines wahren Knotens */
+    private static final byte TRUE = 1;
+
+    /** Wert eines Knotens, dem eine Variable fehlt */
+    private static final byte UNKNOWN = 2;
+
+    /** kein Operand */
+    private static final int NONE = -1;
+
+    /** keine Wurzeln */
+    private static final int[] NO_ROOTS = {};
+
+    /** der Kontext, den der Auswerter mitführt */
+    private final Context context;
+
+    /** die Nummer jedes aufgenommenen Knotens */
+    private final Map<Expression, Integer> index = new IdentityHashMap<>();
+
+    /** die Blätter zu jedem Bezeichner */
+    private final Map<String, int[]> leaves = new HashMap<>();
+
+    /** die Anzahl der Knoten */
+    private int size;
+
+    /** die Knoten, Operanden vor ihren Operationen */
+    private Expression[] nodes = new Expression[INITIAL_CAPACITY];
+
+    /** der linke bzw. einzige Operand jedes Knotens oder NONE */
+    private int[] left = new int[INITIAL_CAPACITY];
+
+    /** der rechte Operand jedes Knotens oder NONE */
+    private int[] right = new int[INITIAL_CAPACITY];
+
+    /** die Elternknoten jedes Knotens oder null */
+    private int[][] parents = new int[INITIAL_CAPACITY][];
+
+    /** die Anzahl der Elternknoten jedes Knotens */
+    private int[] parentCount = new int[INITIAL_CAPACITY];
+
+    /** der letzte Wert jedes Knotens */
+    private byte[] values = new byte[INITIAL_CAPACITY];
+
+    /** der fehlende Bezeichner jedes unbekannten Knotens */
+    private String[] missing = new String[INITIAL_CAPACITY];
+
+    /** Markierung der Knoten im Heap */
+    private boolean[] queued = new boolean[INITIAL_CAPACITY];
+
+    /** Min-Heap der neu zu berechnenden Knoten */
+    private int[] heap = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der Knoten im Heap */
+    private int heapSize;
+
+    /** die Knoten der Wurzeln */
+    private int[] roots = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der Wurzeln */
+    private int rootCount;
+
+    /** die Wurzeln, deren Knoten ein Knoten ist, oder null */
+    private int[][] rootsAt = new int[INITIAL_CAPACITY][];
+
+    /** die Anzahl der bei der letzten Änderung berechneten Knoten */
+    private int lastUpdateCount;
+
+    /**
+     * Konstruktor für einen Auswerter ohne Wurzeln.
+     *
+     * @param c der Kontext, er wird übernommen und darf danach nur noch über
+     *            {@link #set(String, boolean)} und {@link #setAll(Map)} geändert werden; null
+     *            für einen leeren Kontext
+     */
+    public IncrementalEvaluator(Context c) {
+        this.context = c == null ? new Context() : c;
+    }
+
+    /**
+     * Konstruktor, wertet den Ausdruck einmal vollständig aus. Gemeinsam genutzte Teilausdrücke
+     * werden nur einmal aufgenommen.
+     *
+     * @param root der Ausdruck
+     * @param c der Kontext, er wird übernommen und darf danach nur noch über
+     *            {@link #set(String, boolean)} und {@link #setAll(Map)} geändert werden; null
+     *            für einen leeren Kontext
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre root != null
+     */
+    public IncrementalEvaluator(Expression root, Context c) {
+        this(c);
+        addRoot(root);
+    }
+
+    /**
+     * Nimmt einen weiteren Ausdruck auf und wertet seine neuen Knoten aus. Knoten, die schon zu
+     * einer anderen Wurzel gehören, werden wiederverwendet.
+     *
+     * @param root der Ausdruck
+     * @return die Nummer der Wurzel, beginnend bei 0
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre root != null
+     */
+    public int addRoot(Expression root) {
+        assert root != null;
+
+        int first = size;
+        number(root);
+        for (int i = first; i < size; i++) {
+            compute(i);
+        }
+        lastUpdateCount = size - first;
+        int node = index.get(root);
+        if (rootCount == roots.length) {
+            roots = Arrays.copyOf(roots, rootCount * 2);
+        }
+        roots[rootCount] = node;
+        rootsAt[node] = extend(rootsAt[node], rootCount);
+        return rootCount++;
+    }
+
+    /**
+     * Liefert die Anzahl der Wurzeln.
+     *
+     * @return die Anzahl der Wurzeln
+     */
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    /**
+     * Liefert den Wert der ersten Wurzel im aktuellen Kontext, ohne etwas neu zu berechnen.
+     *
+     * @return der Wert, den evaluateShort liefern würde
+     * @throws IncompleteContextException wenn evaluateShort eine werfen würde, mit demselben
+     *             Bezeichner
+     * @pre getRootCount() &gt; 0
+     */
+    public boolean getValue() throws IncompleteContextException {
+        return getValue(0);
+    }
+
+    /**
+     * Liefert den Wert einer Wurzel im aktuellen Kontext, ohne etwas neu zu berechnen.
+     *
+     * @param root die Nummer der Wurzel
+     * @return der Wert, den evaluateShort liefern würde
+     * @throws IncompleteContextException wenn evaluateShort eine werfen würde, mit demselben
+     *             Bezeichner
+     * @pre 0 &lt;= root &lt; getRootCount()
+     */
+    public boolean getValue(int root) throws IncompleteContextException {
+        assert root >= 0 && root < rootCount;
+
+        int node = roots[root];
+        if (values[node] == UNKNOWN) {
+            throw new IncompleteContextException(missing[node]);
+        }
+        return values[node] == TRUE;
+    }
+
+    /**
+     * Setzt eine Variable im Kontext und berechnet die davon abhängigen Knoten neu.
+     *
+     * @param id der Bezeichner
+     * @param val der neue Wert
+     * @pre id != null
+     */
+    public void set(String id, boolean val) {
+        assert id != null;
+
+        lastUpdateCount = 0;
+        if (change(id, val)) {
+            propagate(null);
+        }
+    }
+
+    /**
+     * Setzt mehrere Variablen im Kontext und berechnet die davon abhängigen Knoten in einem
+     * Durchlauf neu; jeder Knoten wird dabei höchstens einmal berechnet.
+     *
+     * @param updates die neuen Werte nach Bezeichner
+     * @return die Nummern der Wurzeln, deren Wert oder fehlender Bezeichner sich geändert hat
+     * @pre updates != null
+     */
+    public int[] setAll(Map<String, Boolean> updates) {
+        assert updates != null;
+
+        lastUpdateCount = 0;
+        boolean any = false;
+        for (Map.Entry<String, Boolean> entry : updates.entrySet()) {
+            any |= change(entry.getKey(), entry.getValue());
+        }
+        if (!any) {
+            return NO_ROOTS;
+        }
+        int[][] changed = {NO_ROOTS};
+        propagate(changed);
+        return changed[0];
+    }
+
+    /**
+     * Liefert den Kontext, den der Auswerter mitführt.
+     *
+     * @return der Kontext
+     */
+    public Context getContext() {
+        return context;
+    }
+
+    /**
+     * Liefert die Anzahl der verschiedenen Knoten aller Wurzeln.
+     *
+     * @return die Anzahl der Knoten
+     */
+    public int getNodeCount() {
+        return size;
+    }
+
+    /**
+     * Liefert die Anzahl der Knoten, die bei der letzten Änderung neu berechnet wurden, nach
+     * dem Hinzufügen einer Wurzel die Anzahl ihrer neuen Knoten.
+     *
+     * @return die Anzahl der berechneten Knoten
+     */
+    public int getLastUpdateCount() {
+        return lastUpdateCount;
+    }
+
+    /**
+     * Setzt eine Variable im Kontext und legt ihre Blätter in den Heap, wenn sich ihr Wert
+     * ändert.
+     *
+     * @param id der Bezeichner
+     * @param val der neue Wert
+     * @return true, wenn Blätter in den Heap gelegt wurden
+     */
+    private boolean change(String id, boolean val) {
+        Boolean old = context.get(id);
+        context.set(id, val);
+        int[] readers = leaves.get(id);
+        if (readers == null || old != null && old == val) {
+            return false;
+        }
+        for (int leaf : readers) {
+            offer(leaf);
+        }
+        return true;
+    }
+
+    /**
+     * Berechnet die Knoten im Heap und ihre Elternknoten neu, solange sich Werte ändern.
+     *
+     * @param changed nimmt im ersten Eintrag die geänderten Wurzeln auf, oder null
+     */
+    private void propagate(int[][] changed) {
+        int changedCount = 0;
+        while (heapSize > 0) {
+            int i = poll();
+            lastUpdateCount++;
+            if (compute(i)) {
+                for (int p = 0; p < parentCount[i]; p++) {
+                    offer(parents[i][p]);
+                }
+                for (int k = 0; changed != null && rootsAt[i] != null
+                        && k < rootsAt[i].length; k++) {
+                    changed[0] = append(changed[0], changedCount++, rootsAt[i][k]);
+                }
+            }
+        }
+        if (changed != null) {
+            changed[0] = Arrays.copyOf(changed[0], changedCount);
+        }
+    }
+
+    /**
+     * Nummeriert die noch nicht aufgenommenen Knoten eines Ausdrucks ohne Rekursion in
+     * Postorder und trägt sie ein. Die Knoten werden erst eingetragen, wenn der ganze Ausdruck
+     * durchlaufen ist, ein unbekannter Knoten lässt den Auswerter deshalb unverändert.
+     *
+     * @param root der Ausdruck
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     */
+    private void number(Expression root) {
+        Set<Expression> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Expression[] order = new Expression[INITIAL_CAPACITY];
+        int count = 0;
+        Expression[] stack = new Expression[INITIAL_CAPACITY];
+        boolean[] expanded = new boolean[INITIAL_CAPACITY];
+        int top = 0;
+        stack[0] = root;
+        while (top >= 0) {
+            Expression e = stack[top];
+            if (index.containsKey(e) || seen.contains(e)) {
+                top--;
+            } else if (!expanded[top] && (e instanceof BinaryOperation
+                    || e instanceof UnaryOperation)) {
+                expanded[top] = true;
+                if (top + 2 >= stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    expanded = Arrays.copyOf(expanded, stack.length);
+                }
+                if (e instanceof BinaryOperation binary) {
+                    stack[++top] = binary.getRight();
+                    expanded[top] = false;
+                    stack[++top] = binary.getLeft();
+                } else {
+                    stack[++top] = ((UnaryOperation) e).getOperand();
+                }
+                expanded[top] = false;
+            } else {
+                if (!expanded[top] && !(e instanceof Variable) && !(e instanceof Constant)) {
+                    throw new IllegalArgumentException("unbekannter Knoten "
+                            + e.getClass().getName());
+                }
+                seen.add(e);
+                if (count == order.length) {
+                    order = Arrays.copyOf(order, count * 2);
+                }
+                order[count++] = e;
+                top--;
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            add(order[k]);
+        }
+    }
+
+    /**
+     * Trägt einen Knoten ein, dessen Operanden schon eingetragen sind.
+     *
+     * @param e der Knoten, eine Operation, eine Variable oder eine Konstante
+     */
+    private void add(Expression e) {
+        if (size == nodes.length) {
+            int capacity = size * 2;
+            nodes = Arrays.copyOf(nodes, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            parentCount = Arrays.copyOf(parentCount, capacity);
+            values = Arrays.copyOf(values, capacity);
+            missing = Arrays.copyOf(missing, capacity);
+            queued = Arrays.copyOf(queued, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            rootsAt = Arrays.copyOf(rootsAt, capacity);
+        }
+        int i = size;
+        left[i] = NONE;
+        right[i] = NONE;
+        if (e instanceof BinaryOperation binary) {
+            left[i] = index.get(binary.getLeft());
+            right[i] = index.get(binary.getRight());
+            addParent(right[i], i);
+        } else if (e instanceof UnaryOperation unary) {
+            left[i] = index.get(unary.getOperand());
+        } else if (e instanceof Variable variable) {
+            leaves.put(variable.getName(), extend(leaves.get(variable.getName()), i));
+        }
+        if (left[i] != NONE) {
+            addParent(left[i], i);
+        }
+        nodes[i] = e;
+        index.put(e, i);
+        size++;
+    }
+
+    /**
+     * Trägt einen Elternknoten ein.
+     *
+     * @param child der Operand
+     * @param parent die Operation
+     */
+    private void addParent(int child, int parent) {
+        parents[child] = append(parents[child], parentCount[child]++, parent);
+    }
+
+    /**
+     * Hängt einen Wert an ein Feld an, das bei Bedarf vergrößert wird.
+     *
+     * @param array das Feld oder null
+     * @param count die Anzahl der belegten Einträge
+     * @param value der Wert
+     * @return das Feld mit dem Wert an Position count
+     */
+    private static int[] append(int[] array, int count, int value) {
+        int[] result = array;
+        if (result == null) {
+            result = new int[1];
+        } else if (count == result.length) {
+            result = Arrays.copyOf(result, Math.max(1, count * 2));
+        }
+        result[count] = value;
+        return result;
+    }
+
+    /**
+     * Liefert eine um einen Wert verlängerte Kopie eines Felds.
+     *
+     * @param array das Feld oder null
+     * @param value der Wert
+     * @return die Kopie mit dem Wert am Ende
+     */
+    private static int[] extend(int[] array, int value) {
+        if (array == null) {
+            return new int[] {value};
+        }
+        int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    /**
+     * Berechnet den Wert eines Knotens aus den Werten seiner Operanden bzw. dem Kontext.
+     *
+     * @param i der Knoten
+     * @return true, wenn sich der Wert oder der fehlende Bezeichner geändert hat
+     */
+    private boolean compute(int i) {
+        Expression e = nodes[i];
+        byte value;
+        String absent = null;
+        if (e instanceof BinaryOperation binary) {
+            byte l = values[left[i]];
+            if (l == UNKNOWN) {
+                value = UNKNOWN;
+                absent = missing[left[i]];
+            } else if (IterativeEvaluator.decides(binary, l == TRUE)) {
+                value = of(binary.evaluate(l == TRUE, l == TRUE));
+            } else if (values[right[i]] == UNKNOWN) {
+                value = UNKNOWN;
+                absent = missing[right[i]];
+            } else {
+                value = of(binary.evaluate(l == TRUE, values[right[i]] == TRUE));
+            }
+        } else if (e instanceof UnaryOperation unary) {
+            value = values[left[i]];
+            if (value == UNKNOWN) {
+                absent = missing[left[i]];
+            } else {
+                value = of(unary.evaluate(value == TRUE));
+            }
+        } else if (e instanceof Variable variable) {
+            Boolean v = context.get(variable.getName());
+            value = v == null ? UNKNOWN : of(v);
+            absent = v == null ? variable.getName() : null;
+        } else {
+            value = of(((Constant) e).getValue());
+        }
+        boolean changed = value != values[i] || !Objects.equals(absent, missing[i]);
+        values[i] = value;
+        missing[i] = absent;
+        return changed;
+    }
+
+    /**
+     * Liefert die Darstellung eines Wahrheitswerts.
+     *
+     * @param b der Wahrheitswert
+     * @return TRUE oder FALSE
+     */
+    private static byte of(boolean b) {
+        return b ? TRUE : FALSE;
+    }
+
+    /**
+     * Legt einen Knoten in den Heap, sofern er nicht schon darin liegt.
+     *
+     * @param i der Knoten
+     */
+    private void offer(int i) {
+        if (queued[i]) {
+            return;
+        }
+        queued[i] = true;
+        int position = heapSize++;
+        while (position > 0 && heap[(position - 1) >>> 1] > i) {
+            heap[position] = heap[(position - 1) >>> 1];
+            position = (position - 1) >>> 1;
+        }
+        heap[position] = i;
+    }
+
+    /**
+     * Entnimmt den Knoten mit der kleinsten Nummer aus dem Heap.
+     *
+     * @return der Knoten
+     */
+    private int poll() {
+        int min = heap[0];
+        queued[min] = false;
+        int last = heap[--heapSize];
+        int position = 0;
+        int child = 1;
+        while (child < heapSize) {
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+            child = 2 * position + 1;
+        }
+        heap[position] = last;
+        return min;
+    }
+}
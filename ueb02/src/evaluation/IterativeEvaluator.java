@@ -0,0 +1,191 @@
+package evaluation;
+
+import java.util.Arrays;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Or;
+import tree.UnaryOperation;
+
+/**
+ * Nicht rekursive Auswertung mit eigenem Arbeitsstapel. Die Auswertung im Baum belegt pro
+ * Knoten einen Java-Frame und scheitert an linkstiefen Ketten mit einigen hunderttausend Knoten
+ * mit einem StackOverflowError. Hier liegen die offenen Knoten und die Zwischenergebnisse in
+ * Arrays auf dem Heap, die Tiefe des Baums ist nur durch den Speicher begrenzt.
+ *
+ * Die Operanden werden in derselben Reihenfolge ausgewertet wie im Baum, bei verkürzter
+ * Auswertung wird der rechte Operand von Und, Oder und Implikation genau dann übersprungen,
+ * wenn evaluateShort ihn überspringt. Eine fehlende Variable wird daher an derselben Stelle
+ * gemeldet.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class IterativeEvaluator {
+
+    /** Anfangsgröße der Stapel */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Zustand einer unären Operation, die auf ihren Operanden wartet */
+    private static final byte UNARY = 0;
+
+    /** Zustand einer binären Operation, die auf ihren linken Operanden wartet */
+    private static final byte LEFT = 1;
+
+    /** Zustand einer binären Operation, die auf ihren rechten Operanden wartet */
+    private static final byte RIGHT = 2;
+
+    /** true für die verkürzte Auswertung */
+    private final boolean shortCircuit;
+
+    /** der Kontext */
+    private final Context context;
+
+    /** die offenen Operationen */
+    private Expression[] nodes = new Expression[INITIAL_CAPACITY];
+
+    /** die Zustände der offenen Operationen */
+    private byte[] states = new byte[INITIAL_CAPACITY];
+
+    /** die Anzahl der offenen Operationen */
+    private int nodeCount;
+
+    /** die Werte der linken Operanden, deren rechter Operand noch aussteht */
+    private boolean[] values = new boolean[INITIAL_CAPACITY];
+
+    /** die Anzahl der Zwischenergebnisse */
+    private int valueCount;
+
+    /**
+     * Konstruktor.
+     *
+     * @param shortCircuit true für die verkürzte Auswertung
+     * @param context der Kontext
+     */
+    private IterativeEvaluator(boolean shortCircuit, Context context) {
+        this.shortCircuit = shortCircuit;
+        this.context = context;
+    }
+
+    /**
+     * Wertet den Ausdruck verkürzt aus, mit demselben Ergebnis wie evaluateShort.
+     *
+     * @param e der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine benötigte Variable nicht im Kontext
+     *             definiert ist
+     * @pre e != null
+     */
+    public static boolean evaluateShort(Expression e, Context c)
+            throws IncompleteContextException {
+        assert e != null;
+
+        return new IterativeEvaluator(true, c).run(e);
+    }
+
+    /**
+     * Wertet den Ausdruck vollständig aus, mit demselben Ergebnis wie evaluateComplete.
+     *
+     * @param e der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine der Variablen innerhalb des Ausdrucks nicht
+     *             im Kontext definiert ist
+     * @pre e != null
+     */
+    public static boolean evaluateComplete(Expression e, Context c)
+            throws IncompleteContextException {
+        assert e != null;
+
+        return new IterativeEvaluator(false, c).run(e);
+    }
+
+    /**
+     * Prüft, ob der linke Operand das Ergebnis bei verkürzter Auswertung bereits festlegt.
+     *
+     * @param binary die binäre Operation
+     * @param left der Wahrheitswert des linken Operanden
+     * @return true, wenn der rechte Operand nicht ausgewertet wird
+     */
+    static boolean decides(BinaryOperation binary, boolean left) {
+        return binary instanceof And && !left
+                || binary instanceof Or && left
+                || binary instanceof Consequence && !left;
+    }
+
+    /**
+     * Wertet einen Ausdruck mit dem Arbeitsstapel aus. Der Abstieg folgt jeweils dem ersten
+     * Operanden bis zu einem Blatt und legt die Operationen dabei auf den Stapel. Beim Aufstieg
+     * wird der Wert des Blatts durch die Operationen gereicht, bis ein binärer Knoten seinen
+     * rechten Operanden benötigt; dann beginnt dort der nächste Abstieg.
+     *
+     * @param root der Ausdruck
+     * @return der Wahrheitswert
+     * @throws IncompleteContextException wenn eine benötigte Variable nicht im Kontext ist
+     */
+    private boolean run(Expression root) throws IncompleteContextException {
+        Expression e = root;
+        while (true) {
+            while (true) {
+                if (e instanceof BinaryOperation binary) {
+                    push(binary, LEFT);
+                    e = binary.getLeft();
+                } else if (e instanceof UnaryOperation unary) {
+                    push(unary, UNARY);
+                    e = unary.getOperand();
+                } else {
+                    break;
+                }
+            }
+            //Blätter und fremde Knoten werten sich selbst aus
+            boolean value = shortCircuit ? e.evaluateShort(context) : e.evaluateComplete(context);
+            e = null;
+            while (e == null) {
+                if (nodeCount == 0) {
+                    return value;
+                }
+                int top = --nodeCount;
+                Expression node = nodes[top];
+                nodes[top] = null;
+                if (states[top] == UNARY) {
+                    value = ((UnaryOperation) node).evaluate(value);
+                } else if (states[top] == RIGHT) {
+                    value = ((BinaryOperation) node).evaluate(values[--valueCount], value);
+                } else {
+                    BinaryOperation binary = (BinaryOperation) node;
+                    if (shortCircuit && decides(binary, value)) {
+                        //der rechte Wert ist beliebig, der linke bestimmt das Ergebnis
+                        value = binary.evaluate(value, value);
+                    } else {
+                        if (valueCount == values.length) {
+                            values = Arrays.copyOf(values, valueCount * 2);
+                        }
+                        values[valueCount++] = value;
+                        push(binary, RIGHT);
+                        e = binary.getRight();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Legt eine Operation auf den Stapel.
+     *
+     * @param e die Operation
+     * @param state der Zustand der Operation
+     */
+    private void push(Expression e, byte state) {
+        if (nodeCount == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodeCount * 2);
+            states = Arrays.copyOf(states, nodeCount * 2);
+        }
+        nodes[nodeCount] = e;
+        states[nodeCount] = state;
+        nodeCount++;
+    }
+}
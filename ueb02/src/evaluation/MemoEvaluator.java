@@ -0,0 +1,203 @@
+package evaluation;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import expression.Context;
+import expression.Counter;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.BinaryOperation;
+import tree.UnaryOperation;
+
+/**
+ * Auswertung mit Memoisierung gemeinsamer Teilausdrücke. Wird dieselbe Expression-Instanz
+ * mehrfach als Operand verwendet, ist der Ausdruck ein gerichteter azyklischer Graph; die
+ * Auswertung im Baum berechnet einen solchen Teilausdruck an jeder Verwendung neu. Dieser
+ * Auswerter merkt sich das Ergebnis jedes Operationsknotens für die Dauer einer Auswertung,
+ * Schlüssel ist die Identität des Knotens. Jeder Knoten wird so genau einmal ausgewertet.
+ *
+ * Die sequentiellen Varianten nutzen eine IdentityHashMap, die parallele eine sperrfreie
+ * Tabelle, in der jeder Knoten genau einmal als Teilaufgabe eingetragen wird. Erreichen zwei
+ * Threads denselben Knoten, wertet ihn der Thread aus, der ihn eingetragen hat, der andere
+ * wartet auf das Ergebnis.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class MemoEvaluator {
+
+    /** Standard-Auswerter auf dem Common-Pool, der die Abspaltungen im Counter zählt */
+    private static final MemoEvaluator DEFAULT =
+            new MemoEvaluator(ForkJoinPool.commonPool(), Counter::increment);
+
+    /** der Pool, auf dem die Teilaufgaben ausgeführt werden */
+    private final ForkJoinPool pool;
+
+    /** wird für jede abgespaltene Teilaufgabe einmal aufgerufen */
+    private final Runnable forkListener;
+
+    /**
+     * Konstruktor für einen Auswerter, der die Abspaltungen im Counter zählt.
+     *
+     * @param pool der Pool, auf dem die Teilaufgaben ausgeführt werden
+     * @pre pool != null
+     */
+    public MemoEvaluator(ForkJoinPool pool) {
+        this(pool, Counter::increment);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param pool der Pool, auf dem die Teilaufgaben ausgeführt werden
+     * @param forkListener wird für jede abgespaltene Teilaufgabe einmal aufgerufen
+     * @pre pool != null
+     * @pre forkListener != null
+     */
+    public MemoEvaluator(ForkJoinPool pool, Runnable forkListener) {
+        assert pool != null;
+        assert forkListener != null;
+
+        this.pool = pool;
+        this.forkListener = forkListener;
+    }
+
+    /**
+     * Liefert den gemeinsam genutzten Auswerter auf dem Common-Pool.
+     *
+     * @return der Standard-Auswerter
+     */
+    public static MemoEvaluator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Wertet den Ausdruck verkürzt aus wie evaluateShort, jeder Operationsknoten wird dabei
+     * höchstens einmal ausgewertet.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine benötigte Variable nicht im Kontext
+     *             definiert ist
+     * @pre expression != null
+     */
+    public boolean evaluateShort(Expression expression, Context c)
+            throws IncompleteContextException {
+        assert expression != null;
+
+        return evaluate(expression, c, true, new IdentityHashMap<>());
+    }
+
+    /**
+     * Wertet den Ausdruck vollständig aus wie evaluateComplete, jeder Operationsknoten wird
+     * dabei genau einmal ausgewertet.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine der Variablen innerhalb des Ausdrucks nicht
+     *             im Kontext definiert ist
+     * @pre expression != null
+     */
+    public boolean evaluateComplete(Expression expression, Context c)
+            throws IncompleteContextException {
+        assert expression != null;
+
+        return evaluate(expression, c, false, new IdentityHashMap<>());
+    }
+
+    /**
+     * Wertet den Ausdruck parallel und vollständig aus wie evaluateParallel, jeder
+     * Operationsknoten wird dabei genau einmal ausgewertet, auch wenn mehrere Threads ihn
+     * gleichzeitig erreichen. Der rechte Operand einer binären Operation wird abgespalten, wenn
+     * die Anzahl der Unterknoten beider Operanden größer gleich der übergebenen Grenze ist.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @param bound Die Grenze, ab der parallelisiert werden soll.
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine der Variablen innerhalb des Ausdrucks nicht
+     *             im Kontext definiert ist
+     * @pre expression != null
+     */
+    public boolean evaluateParallel(Expression expression, Context c, int bound)
+            throws IncompleteContextException {
+        assert expression != null;
+
+        if (!MemoTask.isOperation(expression)) {
+            return expression.evaluateComplete(c);
+        }
+        ForkPolicy policy =
+                (left, right) -> (left.getChildrenCount() + right.getChildrenCount()) >= bound;
+        Set<Expression> operations = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectOperations(expression, operations);
+        MemoTable table = new MemoTable(operations.size());
+        MemoTask root = new MemoTask(expression, c, policy, forkListener, table);
+        table.putIfAbsent(root);
+        try {
+            return pool.invoke(root);
+        } catch (EvaluationTask.UncheckedContextException e) {
+            throw e.getContextException();
+        }
+    }
+
+    /**
+     * Sammelt die verschiedenen Operationsknoten eines Ausdrucks, jeder Knoten wird einmal
+     * besucht.
+     *
+     * @param e der Ausdruck
+     * @param operations die bisher gefundenen Operationsknoten
+     */
+    private static void collectOperations(Expression e, Set<Expression> operations) {
+        if (!MemoTask.isOperation(e) || !operations.add(e)) {
+            return;
+        }
+        if (e instanceof UnaryOperation unary) {
+            collectOperations(unary.getOperand(), operations);
+        } else {
+            BinaryOperation binary = (BinaryOperation) e;
+            collectOperations(binary.getLeft(), operations);
+            collectOperations(binary.getRight(), operations);
+        }
+    }
+
+    /**
+     * Wertet einen Teilausdruck sequentiell mit Memoisierung aus.
+     *
+     * @param e der Teilausdruck
+     * @param c der Kontext
+     * @param shortCircuit true für die verkürzte Auswertung
+     * @param memo die Ergebnisse der bereits ausgewerteten Operationsknoten
+     * @return der Wahrheitswert des Teilausdrucks
+     * @throws IncompleteContextException wenn eine benötigte Variable nicht im Kontext ist
+     */
+    private static boolean evaluate(Expression e, Context c, boolean shortCircuit,
+            Map<Expression, Boolean> memo) throws IncompleteContextException {
+        if (!MemoTask.isOperation(e)) {
+            return shortCircuit ? e.evaluateShort(c) : e.evaluateComplete(c);
+        }
+        Boolean cached = memo.get(e);
+        if (cached != null) {
+            return cached;
+        }
+        boolean result;
+        if (e instanceof UnaryOperation unary) {
+            result = unary.evaluate(evaluate(unary.getOperand(), c, shortCircuit, memo));
+        } else {
+            BinaryOperation binary = (BinaryOperation) e;
+            boolean left = evaluate(binary.getLeft(), c, shortCircuit, memo);
+            if (shortCircuit && IterativeEvaluator.decides(binary, left)) {
+                //der rechte Wert ist beliebig, der linke bestimmt das Ergebnis
+                result = binary.evaluate(left, left);
+            } else {
+                result = binary.evaluate(left, evaluate(binary.getRight(), c, shortCircuit, memo));
+            }
+        }
+        memo.put(e, result);
+        return result;
+    }
+}
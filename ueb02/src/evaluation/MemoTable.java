@@ -0,0 +1,59 @@
+package evaluation;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import expression.Expression;
+
+/**
+ * Sperrfreie Tabelle der Teilaufgaben einer parallelen Auswertung mit Memoisierung, eine pro
+ * Auswertung. Schlüssel ist die Identität des Knotens, die Tabelle ist offen adressiert und
+ * wird per compareAndSet befüllt. Sie wächst nicht, ihre Kapazität wird beim Anlegen aus der
+ * Anzahl der verschiedenen Operationsknoten bestimmt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+final class MemoTable {
+
+    /** die Einträge */
+    private final AtomicReferenceArray<MemoTask> slots;
+
+    /**
+     * Konstruktor.
+     *
+     * @param expected die höchstens einzutragende Anzahl von Knoten
+     * @pre expected >= 0
+     */
+    MemoTable(int expected) {
+        assert expected >= 0;
+        //höchstens halb voll, damit die Sondierungsfolgen kurz bleiben
+        slots = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(expected, 1)) << 2);
+    }
+
+    /**
+     * Trägt eine Teilaufgabe ein, sofern es zu ihrem Knoten noch keine gibt.
+     *
+     * @param candidate die neue Teilaufgabe
+     * @return die eingetragene Teilaufgabe zum Knoten, candidate genau dann, wenn der Aufrufer
+     *         sie eingetragen hat und daher ausführen muss
+     * @pre es werden nicht mehr Knoten eingetragen als beim Anlegen angegeben
+     */
+    MemoTask putIfAbsent(MemoTask candidate) {
+        Expression key = candidate.getExpression();
+        int mask = slots.length() - 1;
+        int h = System.identityHashCode(key);
+        int i = (h ^ (h >>> Short.SIZE)) & mask;
+        while (true) {
+            MemoTask task = slots.get(i);
+            if (task == null) {
+                if (slots.compareAndSet(i, null, candidate)) {
+                    return candidate;
+                }
+                task = slots.get(i);
+            }
+            if (task.getExpression() == key) {
+                return task;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+}
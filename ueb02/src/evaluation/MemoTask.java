@@ -0,0 +1,140 @@
+package evaluation;
+
+import java.util.concurrent.RecursiveTask;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.BinaryOperation;
+import tree.UnaryOperation;
+
+/**
+ * Teilaufgabe des MemoEvaluator für einen Operationsknoten. Zu jedem Knoten gibt es in der
+ * MemoTable genau eine Teilaufgabe, die von dem Thread ausgeführt wird, der sie eingetragen hat.
+ * Alle anderen Stellen, an denen der Knoten vorkommt, warten mit join auf ihr Ergebnis, auch
+ * eine fehlende Variable wird so nur einmal festgestellt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+class MemoTask extends RecursiveTask<Boolean> {
+
+    /**
+     * Aus Konformitätsgründen, wird von einigen IDEs erwartet.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /** der auszuwertende Knoten */
+    private final transient Expression expression;
+
+    /** der Kontext für die Auswertung */
+    private final transient Context context;
+
+    /** entscheidet, wann ein Operand abgespalten wird */
+    private final transient ForkPolicy policy;
+
+    /** wird für jede abgespaltene Teilaufgabe einmal aufgerufen */
+    private final transient Runnable forkListener;
+
+    /** die Teilaufgaben dieser Auswertung */
+    private final transient MemoTable table;
+
+    /**
+     * Konstruktor.
+     *
+     * @param expression der auszuwertende Knoten
+     * @param context der Kontext für die Auswertung, oder null, wenn nicht benötigt
+     * @param policy entscheidet, wann ein Operand abgespalten wird
+     * @param forkListener wird für jede abgespaltene Teilaufgabe einmal aufgerufen
+     * @param table die Teilaufgaben dieser Auswertung
+     */
+    MemoTask(Expression expression, Context context, ForkPolicy policy, Runnable forkListener,
+            MemoTable table) {
+        this.expression = expression;
+        this.context = context;
+        this.policy = policy;
+        this.forkListener = forkListener;
+        this.table = table;
+    }
+
+    /**
+     * Liefert den Knoten dieser Teilaufgabe.
+     *
+     * @return der Knoten
+     */
+    Expression getExpression() {
+        return expression;
+    }
+
+    @Override
+    protected Boolean compute() {
+        try {
+            if (expression instanceof UnaryOperation unary) {
+                return unary.evaluate(evaluate(unary.getOperand()));
+            }
+            BinaryOperation binary = (BinaryOperation) expression;
+            Expression left = binary.getLeft();
+            Expression right = binary.getRight();
+            if (isOperation(right) && policy.shouldFork(left, right)) {
+                MemoTask candidate = newTask(right);
+                MemoTask rightTask = table.putIfAbsent(candidate);
+                if (rightTask == candidate) {
+                    rightTask.fork();
+                    forkListener.run();
+                }
+                boolean leftResult;
+                try {
+                    leftResult = evaluate(left);
+                } catch (IncompleteContextException ex) {
+                    //Geschwisteraufgabe abwarten, damit keine Arbeit den Aufruf überdauert
+                    rightTask.quietlyJoin();
+                    throw ex;
+                }
+                return binary.evaluate(leftResult, rightTask.join());
+            }
+            return binary.evaluate(evaluate(left), evaluate(right));
+        } catch (IncompleteContextException e) {
+            throw new EvaluationTask.UncheckedContextException(e);
+        }
+    }
+
+    /**
+     * Wertet einen Operanden aus. Blätter werden direkt ausgewertet, für Operationsknoten wird
+     * die Teilaufgabe aus der Tabelle ausgeführt oder abgewartet.
+     *
+     * @param e der Operand
+     * @return der Wahrheitswert des Operanden
+     * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+     */
+    private boolean evaluate(Expression e) throws IncompleteContextException {
+        if (!isOperation(e)) {
+            return e.evaluateComplete(context);
+        }
+        MemoTask candidate = newTask(e);
+        MemoTask task = table.putIfAbsent(candidate);
+        try {
+            return task == candidate ? task.invoke() : task.join();
+        } catch (EvaluationTask.UncheckedContextException ex) {
+            throw ex.getContextException();
+        }
+    }
+
+    /**
+     * Erzeugt eine Teilaufgabe für einen Operationsknoten dieser Auswertung.
+     *
+     * @param e der Operationsknoten
+     * @return die noch nicht eingetragene Teilaufgabe
+     */
+    private MemoTask newTask(Expression e) {
+        return new MemoTask(e, context, policy, forkListener, table);
+    }
+
+    /**
+     * Prüft, ob ein Knoten über die Tabelle ausgewertet wird.
+     *
+     * @param e der Knoten
+     * @return true für unäre und binäre Operationen
+     */
+    static boolean isOperation(Expression e) {
+        return e instanceof UnaryOperation || e instanceof BinaryOperation;
+    }
+}
@@ -0,0 +1,221 @@
+package evaluation;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.BinaryOperation;
+import tree.UnaryOperation;
+
+/**
+ * Verkürzte Auswertung wie evaluateShort, die für jeden Knoten mitschreibt, wie oft er
+ * ausgewertet wurde, wie oft er wahr bzw. falsch war und wie viele Knoten seine Auswertung
+ * gekostet hat. Knoten werden über ihre Identität unterschieden, ein gemeinsamer Teilausdruck
+ * sammelt also die Auswertungen aller Stellen, an denen er vorkommt. Knoten, die nicht aus dem
+ * Paket tree stammen, werden mit evaluateShort ausgewertet und kosten so viel, wie sie
+ * Unterknoten haben.
+ *
+ * Eine Instanz darf nicht von mehreren Threads gleichzeitig verwendet werden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class ProfilingEvaluator {
+
+    /** die Messwerte der bisher ausgewerteten Knoten */
+    private final Map<Expression, Profile> profiles = new IdentityHashMap<>();
+
+    /** die Anzahl der bisher ausgewerteten Knoten über alle Aufrufe */
+    private long visits;
+
+    /** die Anzahl der Aufrufe von {@link #evaluate} */
+    private long evaluations;
+
+    /**
+     * Konstruktor für einen Auswerter ohne Messwerte.
+     */
+    public ProfilingEvaluator() {
+    }
+
+    /**
+     * Wertet einen Ausdruck verkürzt aus und zeichnet dabei die Messwerte aller ausgewerteten
+     * Knoten auf.
+     *
+     * @param e der Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException wenn eine benötigte Variable nicht im Kontext ist
+     * @pre e != null
+     */
+    public boolean evaluate(Expression e, Context c) throws IncompleteContextException {
+        assert e != null;
+
+        evaluations++;
+        return node(e, c);
+    }
+
+    /**
+     * Liefert die Messwerte eines Knotens.
+     *
+     * @param node der Knoten
+     * @return die Messwerte oder null, wenn der Knoten noch nie ausgewertet wurde
+     */
+    public Profile getProfile(Expression node) {
+        return profiles.get(node);
+    }
+
+    /**
+     * Liefert die Anzahl der Aufrufe von {@link #evaluate}.
+     *
+     * @return die Anzahl
+     */
+    public long getEvaluationCount() {
+        return evaluations;
+    }
+
+    /**
+     * Verwirft alle Messwerte.
+     */
+    public void reset() {
+        profiles.clear();
+        visits = 0;
+        evaluations = 0;
+    }
+
+    /**
+     * Wertet einen Knoten aus und zeichnet seine Messwerte auf.
+     *
+     * @param e der Knoten
+     * @param c der Kontext oder null
+     * @return der Wahrheitswert
+     * @throws IncompleteContextException wenn eine benötigte Variable nicht im Kontext ist
+     */
+    private boolean node(Expression e, Context c) throws IncompleteContextException {
+        Profile profile = profiles.computeIfAbsent(e, key -> new Profile());
+        long start = visits;
+        boolean completed = false;
+        try {
+            boolean value;
+            if (e instanceof UnaryOperation unary) {
+                visits++;
+                value = unary.evaluate(node(unary.getOperand(), c));
+            } else if (e instanceof BinaryOperation binary) {
+                visits++;
+                boolean left = node(binary.getLeft(), c);
+                value = IterativeEvaluator.decides(binary, left) ? binary.evaluate(left, left)
+                    : binary.evaluate(left, node(binary.getRight(), c));
+            } else {
+                visits += e.getChildrenCount();
+                value = e.evaluateShort(c);
+            }
+            if (value) {
+                profile.trueCount++;
+            }
+            completed = true;
+            return value;
+        } finally {
+            profile.calls++;
+            profile.cost += visits - start;
+            if (!completed) {
+                profile.missingCount++;
+            }
+        }
+    }
+
+    /**
+     * Die Messwerte eines Knotens.
+     */
+    public static final class Profile {
+
+        /** die Anzahl der Auswertungen */
+        private long calls;
+
+        /** die Anzahl der Auswertungen mit dem Ergebnis true */
+        private long trueCount;
+
+        /** die Anzahl der Auswertungen, die an einer fehlenden Variablen gescheitert sind */
+        private long missingCount;
+
+        /** die Summe der ausgewerteten Knoten über alle Auswertungen */
+        private long cost;
+
+        /**
+         * Konstruktor.
+         */
+        private Profile() {
+        }
+
+        /**
+         * Liefert die Anzahl der Auswertungen.
+         *
+         * @return die Anzahl
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Liefert die Anzahl der Auswertungen mit dem Ergebnis true.
+         *
+         * @return die Anzahl
+         */
+        public long getTrueCount() {
+            return trueCount;
+        }
+
+        /**
+         * Liefert die Anzahl der Auswertungen mit dem Ergebnis false.
+         *
+         * @return die Anzahl
+         */
+        public long getFalseCount() {
+            return calls - trueCount - missingCount;
+        }
+
+        /**
+         * Liefert die Anzahl der Auswertungen, die an einer fehlenden Variablen gescheitert
+         * sind.
+         *
+         * @return die Anzahl
+         */
+        public long getMissingCount() {
+            return missingCount;
+        }
+
+        /**
+         * Liefert die Summe der ausgewerteten Knoten über alle Auswertungen.
+         *
+         * @return die Summe
+         */
+        public long getTotalCost() {
+            return cost;
+        }
+
+        /**
+         * Liefert die mittlere Anzahl ausgewerteter Knoten pro Auswertung.
+         *
+         * @return der Mittelwert, 0 ohne Auswertungen
+         */
+        public double getMeanCost() {
+            return calls == 0 ? 0 : (double) cost / calls;
+        }
+
+        /**
+         * Schätzt die Wahrscheinlichkeit, dass der Knoten wahr ist, aus den Auswertungen mit
+         * Ergebnis. Jedes Ergebnis wird dabei einmal zusätzlich gezählt, sodass wenige
+         * Beobachtungen nicht sofort 0 oder 1 ergeben.
+         *
+         * @return die geschätzte Wahrscheinlichkeit
+         */
+        public double getTrueProbability() {
+            return (trueCount + 1.0) / (trueCount + getFalseCount() + 2.0);
+        }
+
+        @Override
+        public String toString() {
+            return calls + " Auswertungen, " + trueCount + " wahr, " + getFalseCount()
+                + " falsch, " + missingCount + " unvollständig, " + getMeanCost() + " Knoten";
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package evaluation;
+
+import java.util.concurrent.ForkJoinPool;
+
+import expression.Context;
+import expression.Counter;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Parallele, verkürzte Auswertung von Ausdrücken auf einem ForkJoinPool. Wie beim
+ * {@link ForkJoinEvaluator} wird der rechte Teilbaum oberhalb der Grenze abgespalten, beide
+ * Operanden laufen also gleichzeitig. Sobald einer von ihnen die Operation entscheidet, etwa
+ * false unter Und oder true unter Oder, wird der andere kooperativ abgebrochen und nicht mehr
+ * abgewartet. Die Laufzeit einer Operation richtet sich so nach dem schnellsten
+ * entscheidenden Operanden.
+ *
+ * Weil nicht feststeht, welcher Operand zuerst fertig ist, entscheidet jeder von beiden: eine
+ * fehlende Variable wird nur gemeldet, wenn das Ergebnis ohne sie nicht feststeht. Liefert
+ * evaluateShort einen Wert, ist er derselbe; "(a &amp;&amp; F)" ist hier aber auch ohne a
+ * falsch. Das Ergebnis hängt weder von der Grenze noch von der Reihenfolge der Threads ab.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class ShortCircuitEvaluator {
+
+    /** Standard-Auswerter auf dem Common-Pool, der die Abspaltungen im Counter zählt */
+    private static final ShortCircuitEvaluator DEFAULT =
+            new ShortCircuitEvaluator(ForkJoinPool.commonPool(), Counter::increment);
+
+    /** der Pool, auf dem die Teilaufgaben ausgeführt werden */
+    private final ForkJoinPool pool;
+
+    /** wird für jede abgespaltene Teilaufgabe einmal aufgerufen */
+    private final Runnable forkListener;
+
+    /**
+     * Konstruktor für einen Auswerter, der die Abspaltungen im Counter zählt.
+     *
+     * @param pool der Pool, auf dem die Teilaufgaben ausgeführt werden
+     * @pre pool != null
+     */
+    public ShortCircuitEvaluator(ForkJoinPool pool) {
+        this(pool, Counter::increment);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param pool der Pool, auf dem die Teilaufgaben ausgeführt werden
+     * @param forkListener wird für jede abgespaltene Teilaufgabe einmal aufgerufen
+     * @pre pool != null
+     * @pre forkListener != null
+     */
+    public ShortCircuitEvaluator(ForkJoinPool pool, Runnable forkListener) {
+        assert pool != null;
+        assert forkListener != null;
+
+        this.pool = pool;
+        this.forkListener = forkListener;
+    }
+
+    /**
+     * Liefert den gemeinsam genutzten Auswerter auf dem Common-Pool.
+     *
+     * @return der Standard-Auswerter
+     */
+    public static ShortCircuitEvaluator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Liefert den Pool, auf dem die Teilaufgaben ausgeführt werden.
+     *
+     * @return der Pool
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Wertet den Ausdruck parallel und verkürzt aus. Der rechte Teilbaum einer binären
+     * Operation wird genau dann als eigene Teilaufgabe abgespalten, wenn die Anzahl der
+     * Unterknoten beider Operanden größer gleich der übergebenen Grenze ist. Abgebrochene
+     * Teilaufgaben können den Aufruf kurz überdauern, bis sie den Abbruch bemerken.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @param bound Die Grenze, ab der parallelisiert werden soll.
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException wenn das Ergebnis ohne eine fehlende Variable nicht
+     *             feststeht
+     * @pre expression != null
+     */
+    public boolean evaluate(Expression expression, Context c, int bound)
+            throws IncompleteContextException {
+        assert expression != null;
+
+        ShortCircuitTask task = new ShortCircuitTask(expression, c, bound,
+                new ShortCircuitTask.Token(null), null, null, forkListener);
+        pool.invoke(task);
+        if (task.getMissing() != null) {
+            throw task.getMissing();
+        }
+        return task.getResult();
+    }
+}
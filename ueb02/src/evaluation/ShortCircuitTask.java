@@ -0,0 +1,318 @@
+package evaluation;
+
+import java.util.concurrent.RecursiveAction;
+
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Or;
+import tree.UnaryOperation;
+
+/**
+ * Teilaufgabe des ShortCircuitEvaluator. Bei binären Operationen oberhalb der Grenze wird der
+ * rechte Operand abgespalten, während der linke im aktuellen Worker ausgewertet wird. Sobald
+ * einer der beiden Operanden die Operation entscheidet, wird der andere über sein
+ * {@link Token} abgebrochen; die abgebrochene Seite bemerkt das spätestens nach
+ * {@link #CHECK_INTERVAL} binären Knoten und gibt auf.
+ *
+ * Die Aufgabe wirft keine Exceptions durch den Pool, ihr Ergebnis liefern nach dem Join
+ * {@link #getResult()} und {@link #getMissing()}.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+final class ShortCircuitTask extends RecursiveAction {
+
+    /**
+     * Aus Konformitätsgründen, wird von einigen IDEs erwartet.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /** Anzahl der binären Knoten zwischen zwei Abfragen des Abbruchs */
+    private static final int CHECK_INTERVAL = 256;
+
+    /** Signal für eine abgebrochene Auswertung, ohne Stacktrace und nur einmal angelegt */
+    private static final Cancelled CANCELLED = new Cancelled();
+
+    /** der auszuwertende Ausdruck */
+    private final transient Expression expression;
+
+    /** der Kontext für die Auswertung */
+    private final transient Context context;
+
+    /** die Anzahl der Unterknoten, ab der abgespalten wird */
+    private final int bound;
+
+    /** der Abbruch dieser Aufgabe */
+    private final transient Token token;
+
+    /** die Operation, deren rechter Operand diese Aufgabe ist, oder null */
+    private final transient BinaryOperation parent;
+
+    /** der Abbruch des linken Geschwisters oder null */
+    private final transient Token sibling;
+
+    /** wird für jede abgespaltene Teilaufgabe einmal aufgerufen */
+    private final transient Runnable forkListener;
+
+    /** die binären Knoten bis zur nächsten Abfrage des Abbruchs */
+    private int budget = CHECK_INTERVAL;
+
+    /** der Wahrheitswert, wenn weder missing gesetzt noch cancelled ist */
+    private boolean result;
+
+    /** die fehlende Variable oder null */
+    private transient IncompleteContextException missing;
+
+    /** true, wenn die Aufgabe abgebrochen wurde */
+    private boolean cancelled;
+
+    /**
+     * Konstruktor.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param context der Kontext für die Auswertung, oder null
+     * @param bound die Anzahl der Unterknoten, ab der abgespalten wird
+     * @param token der Abbruch dieser Aufgabe
+     * @param parent die Operation, deren rechter Operand diese Aufgabe ist, oder null
+     * @param sibling der Abbruch des linken Geschwisters oder null
+     * @param forkListener wird für jede abgespaltene Teilaufgabe einmal aufgerufen
+     */
+    ShortCircuitTask(Expression expression, Context context, int bound, Token token,
+            BinaryOperation parent, Token sibling, Runnable forkListener) {
+        this.expression = expression;
+        this.context = context;
+        this.bound = bound;
+        this.token = token;
+        this.parent = parent;
+        this.sibling = sibling;
+        this.forkListener = forkListener;
+    }
+
+    @Override
+    protected void compute() {
+        try {
+            result = evaluate(expression, token);
+            if (parent != null && decidesRight(parent, result)) {
+                sibling.cancel();
+            }
+        } catch (IncompleteContextException e) {
+            missing = e;
+        } catch (Cancelled e) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Liefert den Wahrheitswert der beendeten Aufgabe.
+     *
+     * @return der Wahrheitswert, sofern keine Variable fehlt
+     */
+    boolean getResult() {
+        return result;
+    }
+
+    /**
+     * Liefert die fehlende Variable der beendeten Aufgabe.
+     *
+     * @return die Exception oder null, wenn das Ergebnis feststeht
+     */
+    IncompleteContextException getMissing() {
+        return missing;
+    }
+
+    /**
+     * Prüft, ob der rechte Operand das Ergebnis bereits festlegt.
+     *
+     * @param binary die binäre Operation
+     * @param right der Wahrheitswert des rechten Operanden
+     * @return true, wenn der linke Operand nicht benötigt wird
+     */
+    static boolean decidesRight(BinaryOperation binary, boolean right) {
+        return binary instanceof And && !right
+                || (binary instanceof Or || binary instanceof Consequence) && right;
+    }
+
+    /**
+     * Wertet einen Teilausdruck aus. Eine fehlende Variable in einem Operanden wird nur dann
+     * gemeldet, wenn der andere Operand die Operation nicht entscheidet.
+     *
+     * @param e der auszuwertende Teilausdruck
+     * @param own der Abbruch, unter dem der Teilausdruck ausgewertet wird
+     * @return der Wahrheitswert des Teilausdrucks
+     * @throws IncompleteContextException wenn das Ergebnis ohne eine fehlende Variable nicht
+     *             feststeht
+     */
+    private boolean evaluate(Expression e, Token own) throws IncompleteContextException {
+        if (e instanceof UnaryOperation unary) {
+            return unary.evaluate(evaluate(unary.getOperand(), own));
+        }
+        if (!(e instanceof BinaryOperation binary)) {
+            return e.evaluateShort(context);
+        }
+        Expression left = binary.getLeft();
+        Expression right = binary.getRight();
+        if (left.getChildrenCount() + right.getChildrenCount() >= bound) {
+            return fork(binary, own);
+        }
+        if (--budget < 0) {
+            budget = CHECK_INTERVAL;
+            if (own.isCancelled()) {
+                throw CANCELLED;
+            }
+        }
+        boolean leftValue = false;
+        IncompleteContextException leftMissing = null;
+        try {
+            leftValue = evaluate(left, own);
+        } catch (IncompleteContextException ex) {
+            leftMissing = ex;
+        }
+        if (leftMissing == null && IterativeEvaluator.decides(binary, leftValue)) {
+            return binary.evaluate(leftValue, leftValue);
+        }
+        boolean rightValue;
+        try {
+            rightValue = evaluate(right, own);
+        } catch (IncompleteContextException ex) {
+            throw leftMissing != null ? leftMissing : ex;
+        }
+        return combine(binary, leftValue, leftMissing, rightValue);
+    }
+
+    /**
+     * Wertet eine binäre Operation mit abgespaltenem rechten Operanden aus. Entscheidet der
+     * linke Operand, wird der rechte abgebrochen und nicht abgewartet; entscheidet der rechte
+     * zuerst, bricht er den linken ab.
+     *
+     * @param binary die binäre Operation
+     * @param own der Abbruch, unter dem die Operation ausgewertet wird
+     * @return der Wahrheitswert der Operation
+     * @throws IncompleteContextException wenn das Ergebnis ohne eine fehlende Variable nicht
+     *             feststeht
+     */
+    private boolean fork(BinaryOperation binary, Token own) throws IncompleteContextException {
+        if (own.isCancelled()) {
+            throw CANCELLED;
+        }
+        Token leftToken = new Token(own);
+        Token rightToken = new Token(own);
+        ShortCircuitTask rightTask = new ShortCircuitTask(binary.getRight(), context, bound,
+                rightToken, binary, leftToken, forkListener);
+        rightTask.fork();
+        forkListener.run();
+
+        boolean leftValue = false;
+        IncompleteContextException leftMissing = null;
+        try {
+            leftValue = evaluate(binary.getLeft(), leftToken);
+        } catch (IncompleteContextException ex) {
+            leftMissing = ex;
+        } catch (Cancelled ex) {
+            if (own.isCancelled()) {
+                throw ex;
+            }
+            //der rechte Operand hat entschieden und ist damit fertig
+            rightTask.join();
+            return binary.evaluate(rightTask.result, rightTask.result);
+        }
+        if (leftMissing == null && IterativeEvaluator.decides(binary, leftValue)) {
+            rightToken.cancel();
+            rightTask.tryUnfork();
+            return binary.evaluate(leftValue, leftValue);
+        }
+        rightTask.join();
+        if (rightTask.cancelled) {
+            throw CANCELLED;
+        } else if (rightTask.missing != null) {
+            throw leftMissing != null ? leftMissing : rightTask.missing;
+        }
+        return combine(binary, leftValue, leftMissing, rightTask.result);
+    }
+
+    /**
+     * Verknüpft die Werte beider Operanden, nachdem der linke die Operation nicht entschieden
+     * hat.
+     *
+     * @param binary die binäre Operation
+     * @param left der Wert des linken Operanden
+     * @param leftMissing die fehlende Variable des linken Operanden oder null
+     * @param right der Wert des rechten Operanden
+     * @return der Wahrheitswert der Operation
+     * @throws IncompleteContextException wenn der linke Operand fehlt und der rechte die
+     *             Operation nicht entscheidet
+     */
+    private static boolean combine(BinaryOperation binary, boolean left,
+            IncompleteContextException leftMissing, boolean right)
+            throws IncompleteContextException {
+        if (decidesRight(binary, right)) {
+            return binary.evaluate(right, right);
+        } else if (leftMissing != null) {
+            throw leftMissing;
+        }
+        return binary.evaluate(left, right);
+    }
+
+    /**
+     * Abbruch einer Teilaufgabe. Ein Token gilt auch dann als abgebrochen, wenn einer seiner
+     * Vorfahren abgebrochen wurde, so erreicht ein Abbruch alle Aufgaben darunter.
+     */
+    static final class Token {
+
+        /** der Abbruch der umgebenden Aufgabe oder null */
+        private final Token parent;
+
+        /** true, wenn genau dieses Token abgebrochen wurde */
+        private volatile boolean cancelled;
+
+        /**
+         * Konstruktor.
+         *
+         * @param parent der Abbruch der umgebenden Aufgabe oder null
+         */
+        Token(Token parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * Bricht alle Aufgaben unter diesem Token ab.
+         */
+        void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Prüft, ob dieses Token oder einer seiner Vorfahren abgebrochen wurde.
+         *
+         * @return true, wenn abgebrochen
+         */
+        boolean isCancelled() {
+            for (Token t = this; t != null; t = t.parent) {
+                if (t.cancelled) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Signal, mit dem eine abgebrochene Auswertung den Stapel verlässt.
+     */
+    private static final class Cancelled extends RuntimeException {
+
+        /**
+         * Aus Konformitätsgründen, wird von einigen IDEs erwartet.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Konstruktor.
+         */
+        private Cancelled() {
+            super("abgebrochen", null, false, false);
+        }
+    }
+}
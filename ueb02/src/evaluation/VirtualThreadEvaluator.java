@@ -0,0 +1,198 @@
+package evaluation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import expression.Context;
+import expression.Counter;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.BinaryOperation;
+import tree.UnaryOperation;
+
+/**
+ * Parallele, vollständige Auswertung von Ausdrücken, bei der der rechte Teilbaum jeder
+ * binären Operation oberhalb der Grenze in einem eigenen virtuellen Thread ausgewertet wird.
+ * Virtuelle Threads stehen erst ab Java 21 zur Verfügung (siehe Build-Profil "jdk21"). Unter
+ * Java 17 wird wie bisher auf Plattform-Threads zurückgegriffen.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class VirtualThreadEvaluator {
+
+    /** Fabrik für virtuelle Threads oder null, wenn die Laufzeitumgebung diese nicht kennt */
+    private static final ThreadFactory VIRTUAL_FACTORY = lookupFactory("ofVirtual");
+
+    /** erzeugt die Threads für die abgespaltenen Teilbäume */
+    private final ThreadFactory factory;
+
+    /** wird für jeden gestarteten Thread einmal aufgerufen */
+    private final Runnable forkListener;
+
+    /**
+     * Konstruktor für einen Auswerter, der virtuelle Threads nutzt, sofern verfügbar, und die
+     * gestarteten Threads im Counter zählt.
+     */
+    public VirtualThreadEvaluator() {
+        this(VIRTUAL_FACTORY != null ? VIRTUAL_FACTORY : Thread::new, Counter::increment);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param factory erzeugt die Threads für die abgespaltenen Teilbäume
+     * @param forkListener wird für jeden gestarteten Thread einmal aufgerufen
+     * @pre factory != null
+     * @pre forkListener != null
+     */
+    public VirtualThreadEvaluator(ThreadFactory factory, Runnable forkListener) {
+        assert factory != null;
+        assert forkListener != null;
+
+        this.factory = factory;
+        this.forkListener = forkListener;
+    }
+
+    /**
+     * Prüft, ob die Laufzeitumgebung virtuelle Threads unterstützt.
+     *
+     * @return true ab Java 21, sonst false
+     */
+    public static boolean isVirtualAvailable() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * Ermittelt per Reflection die Fabrik eines Thread-Builders, etwa von Thread.ofVirtual(),
+     * damit die Klasse auch mit java.release=17 übersetzt werden kann.
+     *
+     * @param builder der Name der statischen Methode von Thread, die den Builder liefert
+     * @return die Fabrik oder null, wenn die Laufzeitumgebung den Builder nicht kennt
+     * @pre builder != null
+     */
+    public static ThreadFactory lookupFactory(String builder) {
+        assert builder != null;
+
+        try {
+            Method of = Thread.class.getMethod(builder);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(of.invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Wertet den Ausdruck parallel und vollständig aus. Der rechte Teilbaum einer binären
+     * Operation wird genau dann in einem eigenen Thread ausgewertet, wenn die Anzahl der
+     * Unterknoten beider Operanden größer gleich der übergebenen Grenze ist.
+     *
+     * @param expression der auszuwertende Ausdruck
+     * @param c Der Kontext, in dem der Ausdruck ausgewertet werden soll, oder null
+     * @param bound Die Grenze, ab der parallelisiert werden soll.
+     * @return Der Wahrheitswert des Ausdrucks.
+     * @throws IncompleteContextException Sofern eine der Variablen innerhalb des Ausdrucks nicht
+     *             im Kontext definiert ist
+     * @pre expression != null
+     */
+    public boolean evaluate(Expression expression, Context c, int bound)
+            throws IncompleteContextException {
+        assert expression != null;
+
+        if (expression instanceof UnaryOperation unary) {
+            return unary.evaluate(evaluate(unary.getOperand(), c, bound));
+        }
+        if (expression instanceof BinaryOperation binary) {
+            Expression left = binary.getLeft();
+            Expression right = binary.getRight();
+            if ((left.getChildrenCount() + right.getChildrenCount()) >= bound) {
+                //neuen Thread starten
+                SubtreeRunner runner = new SubtreeRunner(right, c, bound);
+                Thread thread = factory.newThread(runner);
+                //Laufzeitfehler landen im Handler und werden nach dem Join weitergeworfen
+                thread.setUncaughtExceptionHandler(runner);
+                thread.start();
+                forkListener.run();
+                boolean leftResult;
+                try {
+                    leftResult = evaluate(left, c, bound);
+                } finally {
+                    join(thread);
+                }
+
+                //Fehler des anderen Threads hier weiterwerfen, sonst gilt das Ergebnis false
+                if (runner.failure instanceof IncompleteContextException missing) {
+                    throw missing;
+                } else if (runner.failure instanceof RuntimeException unchecked) {
+                    throw unchecked;
+                } else if (runner.failure instanceof Error error) {
+                    throw error;
+                }
+                return binary.evaluate(leftResult, runner.result);
+            }
+        }
+        //Wenn keine Parallelisierung benoetigt wird
+        return expression.evaluateComplete(c);
+    }
+
+    /**
+     * Wartet auf das Ende des übergebenen Threads.
+     *
+     * @param thread der Thread
+     */
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Wertet einen abgespaltenen Teilbaum im eigenen Thread aus.
+     */
+    private final class SubtreeRunner implements Runnable, Thread.UncaughtExceptionHandler {
+
+        /** der auszuwertende Teilbaum */
+        private final Expression expression;
+
+        /** der Kontext für die Auswertung */
+        private final Context context;
+
+        /** die Anzahl der Unterknoten, ab der eine parallele Auswertung stattfindet */
+        private final int bound;
+
+        /** das Ergebnis der Auswertung */
+        private boolean result;
+
+        /** die aufgetretene Exception bzw. der aufgetretene Fehler oder null */
+        private Throwable failure;
+
+        /**
+         * Konstruktor.
+         *
+         * @param expression der auszuwertende Teilbaum
+         * @param context der Kontext für die Auswertung
+         * @param bound die Anzahl der Unterknoten, ab der parallelisiert wird
+         */
+        private SubtreeRunner(Expression expression, Context context, int bound) {
+            this.expression = expression;
+            this.context = context;
+            this.bound = bound;
+        }
+
+        @Override
+        public void uncaughtException(Thread thread, Throwable e) {
+            failure = e;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = evaluate(expression, context, bound);
+            } catch (IncompleteContextException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package expression;
+
+import java.util.Arrays;
+
+/**
+ * Ein Kontext, der die Werte der Variablen nicht über ihre Bezeichner, sondern über die Slots
+ * einer VariableTable ablegt. Werte und Belegung liegen jeweils als Bitfeld in einem long[],
+ * sodass ein Zugriff über den Slot ohne Hashing, Boxing und Prüfung des Bezeichners auskommt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class SlotContext {
+
+    /** Anzahl der Bit, um die ein Slot für den Index seines Worts verschoben wird */
+    private static final int WORD_SHIFT = 6;
+
+    /** die Zuordnung von Bezeichnern zu Slots */
+    private final VariableTable table;
+
+    /** die Werte der Variablen, ein Bit pro Slot */
+    private long[] values;
+
+    /** die belegten Slots, ein Bit pro Slot */
+    private long[] defined;
+
+    /**
+     * Konstruktor für einen leeren Kontext.
+     *
+     * @param table die Zuordnung von Bezeichnern zu Slots
+     * @pre table != null
+     */
+    public SlotContext(VariableTable table) {
+        assert table != null;
+
+        this.table = table;
+        int words = words(table.size());
+        this.values = new long[words];
+        this.defined = new long[words];
+    }
+
+    /**
+     * Erzeugt einen Kontext mit den Werten eines herkömmlichen Kontexts für alle Bezeichner der
+     * Tabelle.
+     *
+     * @param table die Zuordnung von Bezeichnern zu Slots
+     * @param c der herkömmliche Kontext oder null
+     * @return der neue Kontext
+     * @pre table != null
+     */
+    public static SlotContext of(VariableTable table, Context c) {
+        SlotContext result = new SlotContext(table);
+        if (c != null) {
+            for (int slot = 0; slot < table.size(); slot++) {
+                Boolean value = c.get(table.getName(slot));
+                if (value != null) {
+                    result.set(slot, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert die Anzahl der long-Worte für die übergebene Anzahl an Slots.
+     *
+     * @param slots die Anzahl der Slots
+     * @return die Anzahl der Worte
+     */
+    private static int words(int slots) {
+        return (slots + Long.SIZE - 1) >>> WORD_SHIFT;
+    }
+
+    /**
+     * Liefert die Zuordnung von Bezeichnern zu Slots.
+     *
+     * @return die Tabelle
+     */
+    public VariableTable getTable() {
+        return table;
+    }
+
+    /**
+     * Prüft, ob ein Slot belegt ist.
+     *
+     * @param slot der Slot
+     * @return true, wenn der Slot belegt ist
+     * @pre slot &ge; 0
+     */
+    public boolean has(int slot) {
+        int word = slot >>> WORD_SHIFT;
+        return word < defined.length && (defined[word] & (1L << slot)) != 0L;
+    }
+
+    /**
+     * Liefert den Wert eines Slots.
+     *
+     * @param slot der Slot
+     * @return der Wert des Slots
+     * @pre has(slot)
+     */
+    public boolean get(int slot) {
+        assert has(slot);
+
+        return (values[slot >>> WORD_SHIFT] & (1L << slot)) != 0L;
+    }
+
+    /**
+     * Setzt den Wert eines Slots. Wenn der Slot bereits belegt ist, wird der alte Wert
+     * überschrieben.
+     *
+     * @param slot der Slot
+     * @param val der Wert
+     * @pre 0 &le; slot &lt; getTable().size()
+     */
+    public void set(int slot, boolean val) {
+        assert slot >= 0 && slot < table.size();
+
+        int word = slot >>> WORD_SHIFT;
+        if (word >= values.length) {
+            int words = words(table.size());
+            values = Arrays.copyOf(values, words);
+            defined = Arrays.copyOf(defined, words);
+        }
+        long bit = 1L << slot;
+        defined[word] |= bit;
+        if (val) {
+            values[word] |= bit;
+        } else {
+            values[word] &= ~bit;
+        }
+    }
+
+    /**
+     * Setzt den Wert eines Bezeichners und legt seinen Slot bei Bedarf an.
+     *
+     * @param id der Bezeichner
+     * @param val der Wert
+     * @pre id != null
+     */
+    public void set(String id, boolean val) {
+        set(table.slotOf(id), val);
+    }
+
+    /**
+     * Entfernt die Belegung eines Slots.
+     *
+     * @param slot der Slot
+     * @pre slot &ge; 0
+     */
+    public void remove(int slot) {
+        int word = slot >>> WORD_SHIFT;
+        if (word < defined.length) {
+            defined[word] &= ~(1L << slot);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package expression;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ordnet Bezeichnern von Variablen fortlaufende Slots zu. Die Zuordnung erfolgt einmal beim
+ * Binden eines Ausdrucks, danach wird nur noch über die Slots zugegriffen. Die Tabelle ist
+ * nicht threadsicher und sollte vor der nebenläufigen Nutzung vollständig aufgebaut sein.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class VariableTable {
+
+    /** Anfangsgröße des Namensfelds */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** die Slots der Bezeichner */
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    /** die Bezeichner, Index ist der Slot */
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    /**
+     * Konstruktor für eine leere Tabelle.
+     */
+    public VariableTable() {
+    }
+
+    /**
+     * Liefert den Slot eines Bezeichners und legt ihn an, falls er noch nicht vorhanden ist.
+     *
+     * @param name der Bezeichner
+     * @return der Slot
+     * @pre name != null
+     * @pre Der Bezeichner darf nur Buchstaben enthalten.
+     */
+    public int slotOf(String name) {
+        assert name != null;
+
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            assert name.matches("^[a-zA-Z]+$");
+            slot = slots.size();
+            if (slot == names.length) {
+                names = Arrays.copyOf(names, 2 * slot);
+            }
+            names[slot] = name;
+            slots.put(name, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Liefert den Slot eines Bezeichners, ohne ihn anzulegen.
+     *
+     * @param name der Bezeichner
+     * @return der Slot oder -1, wenn der Bezeichner nicht vorhanden ist
+     * @pre name != null
+     */
+    public int indexOf(String name) {
+        assert name != null;
+
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Liefert den Bezeichner eines Slots.
+     *
+     * @param slot der Slot
+     * @return der Bezeichner
+     * @pre 0 &le; slot &lt; size()
+     */
+    public String getName(int slot) {
+        assert slot >= 0 && slot < size();
+
+        return names[slot];
+    }
+
+    /**
+     * Liefert die Anzahl der vergebenen Slots.
+     *
+     * @return die Anzahl der Slots
+     */
+    public int size() {
+        return slots.size();
+    }
+}
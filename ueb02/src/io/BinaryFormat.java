@@ -0,0 +1,76 @@
+package io;
+
+/**
+ * Konstanten des Binärformats für Ausdrücke. Eine Datei besteht aus
+ * <ul>
+ * <li>der Kennung "AuDE" und einem Byte Version,</li>
+ * <li>der Anzahl der Bezeichner und den Bezeichnern, jeweils Länge und ASCII-Zeichen,</li>
+ * <li>der Anzahl der Regeln und den Regeln.</li>
+ * </ul>
+ * Eine Regel beginnt mit ihrem getChildrenCount, also der Anzahl ihrer Knoten, gefolgt von
+ * einem Befehl pro Knoten in Postfix-Reihenfolge. Ein Befehl ist ein Byte; Variablen, deren
+ * Index in der Bezeichnertabelle kleiner als {@link #MAX_INLINE_INDEX} ist, stehen direkt im
+ * Befehl, alle anderen folgen als Zahl auf {@link #VARIABLE}. Alle Zahlen sind vorzeichenlose
+ * Varints mit sieben Bit pro Byte, das höchste Bit markiert ein folgendes Byte.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+final class BinaryFormat {
+
+    /** die Kennung am Dateianfang */
+    static final int MAGIC = 0x41754445;
+
+    /** die aktuelle Version */
+    static final byte VERSION = 1;
+
+    /** Konstante false */
+    static final int FALSE = 0;
+
+    /** Konstante true */
+    static final int TRUE = 1;
+
+    /** Variable, der Index folgt als Varint */
+    static final int VARIABLE = 2;
+
+    /** Negation */
+    static final int NOT = 3;
+
+    /** Identität */
+    static final int IDENTITY = 4;
+
+    /** Konjunktion */
+    static final int AND = 5;
+
+    /** Disjunktion */
+    static final int OR = 6;
+
+    /** Alternative */
+    static final int XOR = 7;
+
+    /** Äquivalenz */
+    static final int EQUIV = 8;
+
+    /** Implikation */
+    static final int IMPL = 9;
+
+    /** erster Befehl mit eingebettetem Variablenindex */
+    static final int INLINE_VARIABLE = 10;
+
+    /** Grenze der eingebetteten Variablenindizes */
+    static final int MAX_INLINE_INDEX = 256 - INLINE_VARIABLE;
+
+    /** Nutzbits pro Varint-Byte */
+    static final int VARINT_BITS = 7;
+
+    /** Maske der Nutzbits eines Varint-Bytes */
+    static final int VARINT_MASK = 0x7F;
+
+    /** Markierung eines folgenden Varint-Bytes */
+    static final int VARINT_MORE = 0x80;
+
+    /**
+     * Kein Konstruktor, die Klasse enthält nur Konstanten.
+     */
+    private BinaryFormat() {
+    }
+}
@@ -0,0 +1,278 @@
+package io;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import api.ExpressionAPI;
+import expression.Expression;
+
+/**
+ * Baut Regeln aus dem Binärformat aus {@link BinaryFormat} wieder auf. Gelesen wird direkt aus
+ * dem Puffer; außer den Knoten selbst entstehen dabei keine Objekte. Für jeden Bezeichner und
+ * jede Konstante wird genau ein Knoten erzeugt und in allen Regeln wiederverwendet, die
+ * Operationen werden auf einem einzigen Stapel zusammengesetzt, dessen Größe aus der
+ * Knotenzahl der Regel folgt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class BinaryReader {
+
+    /** Anfangsgröße des Stapels */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** die API, mit der die Knoten erzeugt werden */
+    private final ExpressionAPI api;
+
+    /** die Eingabe */
+    private final ByteBuffer in;
+
+    /** die Variablenknoten in der Reihenfolge der Bezeichnertabelle */
+    private final Expression[] variables;
+
+    /** die Konstante false */
+    private final Expression falseConstant;
+
+    /** die Konstante true */
+    private final Expression trueConstant;
+
+    /** die Anzahl der Regeln */
+    private final int ruleCount;
+
+    /** die Anzahl der bereits gelesenen Regeln */
+    private int read;
+
+    /** der Stapel der Operanden */
+    private Expression[] stack = new Expression[INITIAL_CAPACITY];
+
+    /**
+     * Konstruktor, liest Kopf und Bezeichnertabelle. Der Puffer wird ab seiner Position gelesen
+     * und dabei weitergesetzt.
+     *
+     * @param api die API, mit der die Knoten erzeugt werden
+     * @param in der Puffer
+     * @throws IOException wenn der Kopf oder die Bezeichnertabelle fehlerhaft ist
+     * @pre api != null
+     * @pre in != null
+     */
+    public BinaryReader(ExpressionAPI api, ByteBuffer in) throws IOException {
+        assert api != null;
+        assert in != null;
+
+        this.api = api;
+        this.in = in;
+        try {
+            if (in.getInt() != BinaryFormat.MAGIC) {
+                throw new IOException("keine Ausdrucksdatei");
+            }
+            byte version = in.get();
+            if (version != BinaryFormat.VERSION) {
+                throw new IOException("nicht unterstützte Version " + version);
+            }
+            variables = new Expression[count(Byte.BYTES)];
+            for (int i = 0; i < variables.length; i++) {
+                variables[i] = api.makeVariableExpression(name());
+            }
+            ruleCount = count(Byte.BYTES);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("unerwartetes Ende der Eingabe", e);
+        }
+        falseConstant = api.makeConstantExpression(false);
+        trueConstant = api.makeConstantExpression(true);
+    }
+
+    /**
+     * Liefert die Anzahl der Regeln in der Eingabe.
+     *
+     * @return die Anzahl der Regeln
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Liest die nächste Regel.
+     *
+     * @return die Regel oder null, wenn alle Regeln gelesen sind
+     * @throws IOException wenn die Regel fehlerhaft ist
+     */
+    public Expression next() throws IOException {
+        if (read == ruleCount) {
+            return null;
+        }
+        try {
+            Expression rule = rule();
+            read++;
+            return rule;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("unerwartetes Ende der Eingabe", e);
+        }
+    }
+
+    /**
+     * Liest alle übrigen Regeln.
+     *
+     * @return die Regeln in der Reihenfolge der Eingabe
+     * @throws IOException wenn eine Regel fehlerhaft ist
+     */
+    public List<Expression> readAll() throws IOException {
+        List<Expression> rules = new ArrayList<>(ruleCount - read);
+        for (Expression rule = next(); rule != null; rule = next()) {
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    /**
+     * Liest eine Regel. Die Knotenzahl begrenzt die Stapeltiefe und wird am Ende mit der des
+     * aufgebauten Baums verglichen.
+     *
+     * @return die Regel
+     * @throws IOException wenn die Regel fehlerhaft ist
+     */
+    private Expression rule() throws IOException {
+        int nodes = count(1);
+        if (nodes > stack.length) {
+            stack = new Expression[Math.max(nodes, stack.length * 2)];
+        }
+        Expression[] s = stack;
+        int top = 0;
+        for (int i = 0; i < nodes; i++) {
+            int op = Byte.toUnsignedInt(in.get());
+            if (op >= BinaryFormat.INLINE_VARIABLE) {
+                s[top++] = variable(op - BinaryFormat.INLINE_VARIABLE);
+                continue;
+            }
+            if (op >= BinaryFormat.AND) {
+                if (top < 2) {
+                    throw new IOException("fehlender Operand");
+                }
+                Expression right = s[--top];
+                s[top - 1] = binary(op, s[top - 1], right);
+                continue;
+            }
+            if (op >= BinaryFormat.NOT) {
+                if (top == 0) {
+                    throw new IOException("fehlender Operand");
+                }
+                s[top - 1] = op == BinaryFormat.NOT
+                        ? api.makeNotExpression(s[top - 1])
+                        : api.makeIdExpression(s[top - 1]);
+            } else {
+                s[top++] = leaf(op);
+            }
+        }
+        if (top != 1 || s[0].getChildrenCount() != nodes) {
+            throw new IOException("fehlerhafte Regel " + (read + 1));
+        }
+        Expression rule = s[0];
+        s[0] = null;
+        return rule;
+    }
+
+    /**
+     * Liefert das Blatt zu einem Befehl.
+     *
+     * @param op der Befehl
+     * @return das Blatt
+     * @throws IOException wenn der Variablenindex ungültig ist
+     */
+    private Expression leaf(int op) throws IOException {
+        return switch (op) {
+            case BinaryFormat.FALSE -> falseConstant;
+            case BinaryFormat.TRUE -> trueConstant;
+            default -> variable(varint());
+        };
+    }
+
+    /**
+     * Erzeugt eine binäre Operation.
+     *
+     * @param op der Befehl
+     * @param left der linke Operand
+     * @param right der rechte Operand
+     * @return die Operation
+     */
+    private Expression binary(int op, Expression left, Expression right) {
+        return switch (op) {
+            case BinaryFormat.AND -> api.makeAndExpression(left, right);
+            case BinaryFormat.OR -> api.makeOrExpression(left, right);
+            case BinaryFormat.XOR -> api.makeXorExpression(left, right);
+            case BinaryFormat.EQUIV -> api.makeEquivalenceExpression(left, right);
+            default -> api.makeConsequenceExpression(left, right);
+        };
+    }
+
+    /**
+     * Liefert den Variablenknoten zu einem Index der Bezeichnertabelle.
+     *
+     * @param index der Index
+     * @return der Knoten
+     * @throws IOException wenn der Index außerhalb der Tabelle liegt
+     */
+    private Expression variable(int index) throws IOException {
+        if (index >= variables.length) {
+            throw new IOException("unbekannter Bezeichner " + index);
+        }
+        return variables[index];
+    }
+
+    /**
+     * Liest einen Bezeichner.
+     *
+     * @return der Bezeichner
+     * @throws IOException wenn der Bezeichner leer ist oder andere Zeichen als Buchstaben enthält
+     */
+    private String name() throws IOException {
+        char[] chars = new char[count(1)];
+        if (chars.length == 0) {
+            throw new IOException("leerer Bezeichner");
+        }
+        for (int i = 0; i < chars.length; i++) {
+            char ch = (char) in.get();
+            if ((ch < 'a' || ch > 'z') && (ch < 'A' || ch > 'Z')) {
+                throw new IOException("ungültiges Zeichen in Bezeichner");
+            }
+            chars[i] = ch;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Liest eine Anzahl und prüft, ob die Eingabe für so viele Elemente reichen kann.
+     *
+     * @param minBytes die Mindestgröße eines Elements in Bytes
+     * @return die Anzahl
+     * @throws IOException wenn die Anzahl die übrige Eingabe übersteigt
+     */
+    private int count(int minBytes) throws IOException {
+        int n = varint();
+        if ((long) n * minBytes > in.remaining()) {
+            throw new IOException("Anzahl " + n + " übersteigt die Eingabe");
+        }
+        return n;
+    }
+
+    /**
+     * Liest eine Zahl als Varint.
+     *
+     * @return die Zahl
+     * @throws IOException wenn die Zahl nicht in ein int passt
+     */
+    private int varint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += BinaryFormat.VARINT_BITS) {
+            int b = in.get();
+            value |= (b & BinaryFormat.VARINT_MASK) << shift;
+            if ((b & BinaryFormat.VARINT_MORE) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("ungültige Zahl");
+    }
+}
@@ -0,0 +1,248 @@
+package io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import expression.Expression;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Identity;
+import tree.Negation;
+import tree.Or;
+import tree.UnaryOperation;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * Schreibt Regeln im Binärformat aus {@link BinaryFormat}. Die Bäume werden ohne Rekursion
+ * durchlaufen, die Bezeichner beim Durchlauf gesammelt und dedupliziert.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class BinaryWriter {
+
+    /** Anfangsgröße der Puffer */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** die Indizes der bisher gefundenen Bezeichner */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /** die bisher gefundenen Bezeichner in der Reihenfolge ihrer Indizes */
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    /** die kodierten Regeln */
+    private byte[] code = new byte[INITIAL_CAPACITY];
+
+    /** die Anzahl der Bytes in code */
+    private int size;
+
+    /** die offenen Knoten des Durchlaufs */
+    private Expression[] nodes = new Expression[INITIAL_CAPACITY];
+
+    /** true, wenn die Operanden des Knotens schon geschrieben sind */
+    private boolean[] visited = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * Konstruktor.
+     */
+    private BinaryWriter() {
+    }
+
+    /**
+     * Kodiert Regeln in einen Puffer.
+     *
+     * @param rules die Regeln
+     * @return ein Puffer von Position 0 bis zum Ende der Kodierung
+     * @pre rules != null
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt oder ein
+     *         Bezeichner nicht nur aus Buchstaben besteht
+     */
+    public static ByteBuffer encode(Collection<? extends Expression> rules) {
+        assert rules != null;
+
+        BinaryWriter writer = new BinaryWriter();
+        for (Expression rule : rules) {
+            writer.rule(rule);
+        }
+        return ByteBuffer.wrap(writer.finish(rules.size()));
+    }
+
+    /**
+     * Schreibt Regeln in einen Stream, der Stream wird nicht geschlossen.
+     *
+     * @param rules die Regeln
+     * @param out der Stream
+     * @throws IOException wenn der Stream nicht beschrieben werden kann
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre rules != null
+     * @pre out != null
+     */
+    public static void write(Collection<? extends Expression> rules, OutputStream out)
+            throws IOException {
+        assert out != null;
+
+        ByteBuffer buffer = encode(rules);
+        out.write(buffer.array(), 0, buffer.limit());
+    }
+
+    /**
+     * Setzt Kopf, Bezeichnertabelle und Regeln zusammen.
+     *
+     * @param ruleCount die Anzahl der Regeln
+     * @return die Kodierung
+     */
+    private byte[] finish(int ruleCount) {
+        byte[] rules = Arrays.copyOf(code, size);
+        code = new byte[INITIAL_CAPACITY + rules.length];
+        size = 0;
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            put(BinaryFormat.MAGIC >>> shift);
+        }
+        put(BinaryFormat.VERSION);
+        varint(indices.size());
+        for (int i = 0; i < indices.size(); i++) {
+            byte[] bytes = names[i].getBytes(StandardCharsets.US_ASCII);
+            varint(bytes.length);
+            for (byte b : bytes) {
+                put(b);
+            }
+        }
+        varint(ruleCount);
+        for (byte b : rules) {
+            put(b);
+        }
+        return Arrays.copyOf(code, size);
+    }
+
+    /**
+     * Kodiert eine Regel, Operanden vor ihrer Operation.
+     *
+     * @param rule die Regel
+     */
+    private void rule(Expression rule) {
+        varint(rule.getChildrenCount());
+        int top = 0;
+        push(rule, 0);
+        while (top >= 0) {
+            Expression e = nodes[top];
+            if (e instanceof BinaryOperation binary && !visited[top]) {
+                visited[top] = true;
+                push(binary.getRight(), ++top);
+                push(binary.getLeft(), ++top);
+            } else if (e instanceof UnaryOperation unary && !visited[top]) {
+                visited[top] = true;
+                push(unary.getOperand(), ++top);
+            } else {
+                nodes[top--] = null;
+                node(e);
+            }
+        }
+    }
+
+    /**
+     * Legt einen Knoten auf den Stapel des Durchlaufs.
+     *
+     * @param e der Knoten
+     * @param index die Position auf dem Stapel
+     */
+    private void push(Expression e, int index) {
+        if (index == nodes.length) {
+            nodes = Arrays.copyOf(nodes, index * 2);
+            visited = Arrays.copyOf(visited, index * 2);
+        }
+        nodes[index] = e;
+        visited[index] = false;
+    }
+
+    /**
+     * Schreibt den Befehl eines Knotens.
+     *
+     * @param e der Knoten
+     */
+    private void node(Expression e) {
+        if (e instanceof Variable variable) {
+            int index = indexOf(variable.getName());
+            if (index < BinaryFormat.MAX_INLINE_INDEX) {
+                put(BinaryFormat.INLINE_VARIABLE + index);
+            } else {
+                put(BinaryFormat.VARIABLE);
+                varint(index);
+            }
+        } else if (e instanceof Constant constant) {
+            put(constant.getValue() ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+        } else if (e instanceof Negation) {
+            put(BinaryFormat.NOT);
+        } else if (e instanceof Identity) {
+            put(BinaryFormat.IDENTITY);
+        } else if (e instanceof And) {
+            put(BinaryFormat.AND);
+        } else if (e instanceof Or) {
+            put(BinaryFormat.OR);
+        } else if (e instanceof Xor) {
+            put(BinaryFormat.XOR);
+        } else if (e instanceof Equivalence) {
+            put(BinaryFormat.EQUIV);
+        } else if (e instanceof Consequence) {
+            put(BinaryFormat.IMPL);
+        } else {
+            throw new IllegalArgumentException("unbekannter Knoten " + e.getClass().getName());
+        }
+    }
+
+    /**
+     * Liefert den Index eines Bezeichners und vergibt beim ersten Auftreten den nächsten.
+     *
+     * @param name der Bezeichner
+     * @return der Index
+     */
+    private int indexOf(String name) {
+        Integer index = indices.get(name);
+        if (index == null) {
+            if (!name.matches("^[a-zA-Z]+$")) {
+                throw new IllegalArgumentException("ungültiger Bezeichner " + name);
+            }
+            index = indices.size();
+            indices.put(name, index);
+            if (index == names.length) {
+                names = Arrays.copyOf(names, index * 2);
+            }
+            names[index] = name;
+        }
+        return index;
+    }
+
+    /**
+     * Schreibt eine Zahl als Varint.
+     *
+     * @param value die Zahl, nicht negativ
+     */
+    private void varint(int value) {
+        int v = value;
+        while ((v & ~BinaryFormat.VARINT_MASK) != 0) {
+            put(v & BinaryFormat.VARINT_MASK | BinaryFormat.VARINT_MORE);
+            v >>>= BinaryFormat.VARINT_BITS;
+        }
+        put(v);
+    }
+
+    /**
+     * Schreibt ein Byte.
+     *
+     * @param b das Byte in den unteren acht Bit
+     */
+    private void put(int b) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, size * 2);
+        }
+        code[size++] = (byte) b;
+    }
+}
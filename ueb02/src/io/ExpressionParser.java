@@ -0,0 +1,602 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import api.ExpressionAPI;
+import expression.Expression;
+
+/**
+ * Liest Ausdrücke in der Syntax von toString ein und baut sie mit einer ExpressionAPI auf. Die
+ * Eingabe wird in einem Durchgang ohne Rekursion verarbeitet (Shunting-Yard mit Operator- und
+ * Operandenstapel), die Laufzeit ist linear und die Schachtelungstiefe nur durch den Speicher
+ * begrenzt.
+ *
+ * Erkannt werden die Konstanten T und F, Bezeichner aus Buchstaben, die Negation !, die binären
+ * Operatoren &amp;&amp;, ^, ||, -&gt; und &lt;-&gt; (in absteigender Bindungsstärke, die
+ * Implikation ist rechtsassoziativ) sowie Klammern. Eine Klammer, in der kein Operator steht,
+ * wird wie in toString als Identität gelesen, "(a)" ergibt also Identität von a. Damit liefert
+ * das Einlesen von e.toString() wieder einen Ausdruck mit derselben Darstellung. Leerzeichen
+ * und Tabulatoren zwischen den Symbolen sind beliebig.
+ *
+ * Neben dem Einlesen einzelner Texte gibt es einen Modus, der Regeln aus einem Reader liest,
+ * eine pro Zeile. Ein Zeilenumbruch beendet eine Regel nur, wenn sie vollständig ist, innerhalb
+ * offener Klammern und nach einem Operator darf umgebrochen werden. Leere Zeilen werden
+ * übersprungen. Variablenknoten werden pro Bezeichner nur einmal erzeugt und wiederverwendet.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class ExpressionParser implements Closeable {
+
+    /** Größe des Lesepuffers */
+    private static final int BUFFER_SIZE = 65536;
+
+    /** Anfangsgröße der Stapel */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Größe des Caches für Variablenknoten, eine Zweierpotenz */
+    private static final int CACHE_SIZE = 1024;
+
+    /** Faktor des Hashwerts von Bezeichnern, wie bei String */
+    private static final int HASH_FACTOR = 31;
+
+    /** Länge des Operators &lt;-&gt; */
+    private static final int EQUIV_LENGTH = 3;
+
+    /** öffnende Klammer auf dem Operatorstapel */
+    private static final int OPEN = 0;
+
+    /** Negation */
+    private static final int NOT = 1;
+
+    /** Konjunktion */
+    private static final int AND = 2;
+
+    /** Alternative */
+    private static final int XOR = 3;
+
+    /** Disjunktion */
+    private static final int OR = 4;
+
+    /** Implikation */
+    private static final int IMPL = 5;
+
+    /** Äquivalenz */
+    private static final int EQUIV = 6;
+
+    /** Bindungsstärke der Operatoren, indiziert mit deren Code */
+    private static final int[] PRECEDENCE = {0, 6, 5, 4, 3, 2, 1};
+
+    /** die API, mit der die Knoten erzeugt werden */
+    private final ExpressionAPI api;
+
+    /** die Eingabe im Lesemodus, sonst null */
+    private final Reader in;
+
+    /** der Puffer */
+    private char[] buf;
+
+    /** die Position des nächsten Zeichens im Puffer */
+    private int pos;
+
+    /** das Ende der gültigen Zeichen im Puffer */
+    private int limit;
+
+    /** der Offset von buf[0] in der Eingabe */
+    private long base;
+
+    /** die aktuelle Zeile, ab 1 */
+    private long line = 1;
+
+    /** der Offset des ersten Zeichens der aktuellen Zeile */
+    private long lineStart;
+
+    /** der Operatorstapel */
+    private int[] ops = new int[INITIAL_CAPACITY];
+
+    /** die Offsets der Operatoren, für Fehlermeldungen */
+    private long[] opOffsets = new long[INITIAL_CAPACITY];
+
+    /** die Anzahl der Operatoren */
+    private int opCount;
+
+    /** der Operandenstapel */
+    private Expression[] operands = new Expression[INITIAL_CAPACITY];
+
+    /** die Anzahl der Operanden */
+    private int operandCount;
+
+    /** pro Klammerebene die Anzahl der Operatoren direkt in dieser Ebene */
+    private int[] opsInParen = new int[INITIAL_CAPACITY];
+
+    /** die aktuelle Klammerebene */
+    private int depth;
+
+    /** die Bezeichner im Cache */
+    private final String[] names = new String[CACHE_SIZE];
+
+    /** die Hashwerte der Bezeichner im Cache */
+    private final int[] hashes = new int[CACHE_SIZE];
+
+    /** die Variablenknoten im Cache */
+    private final Expression[] variables = new Expression[CACHE_SIZE];
+
+    /** die Anzahl der Einträge im Cache */
+    private int cached;
+
+    /**
+     * Konstruktor zum Einlesen einzelner Texte mit {@link #parse(CharSequence)}.
+     *
+     * @param api die API, mit der die Knoten erzeugt werden
+     * @pre api != null
+     */
+    public ExpressionParser(ExpressionAPI api) {
+        this(api, null);
+    }
+
+    /**
+     * Konstruktor zum Einlesen von Regeln aus einem Reader mit {@link #next()}.
+     *
+     * @param api die API, mit der die Knoten erzeugt werden
+     * @param in die Eingabe, wird nicht zusätzlich gepuffert
+     * @pre api != null
+     */
+    public ExpressionParser(ExpressionAPI api, Reader in) {
+        assert api != null;
+
+        this.api = api;
+        this.in = in;
+        this.buf = new char[in == null ? 0 : BUFFER_SIZE];
+    }
+
+    /**
+     * Liest einen vollständigen Text als einen Ausdruck ein, Zeilenumbrüche gelten als
+     * Leerraum.
+     *
+     * @param text der Text
+     * @return der Ausdruck
+     * @throws SyntaxException wenn der Text kein gültiger Ausdruck ist
+     * @pre text != null
+     * @pre der Parser wurde ohne Reader erzeugt
+     */
+    public Expression parse(CharSequence text) throws SyntaxException {
+        assert text != null;
+        assert in == null;
+
+        buf = text.toString().toCharArray();
+        pos = 0;
+        limit = buf.length;
+        base = 0;
+        line = 1;
+        lineStart = 0;
+        try {
+            Expression e = parseRule(false);
+            if (e == null) {
+                throw error("leere Eingabe", offset());
+            }
+            return e;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Liest die nächste Regel aus dem Reader.
+     *
+     * @return die Regel oder null am Ende der Eingabe
+     * @throws IOException wenn der Reader nicht gelesen werden kann
+     * @throws SyntaxException wenn die Regel kein gültiger Ausdruck ist
+     * @pre der Parser wurde mit Reader erzeugt
+     */
+    public Expression next() throws IOException, SyntaxException {
+        assert in != null;
+
+        return parseRule(true);
+    }
+
+    /**
+     * Liefert die aktuelle Zeile, nach {@link #next()} die Zeile hinter der gelesenen Regel.
+     *
+     * @return die Zeile, ab 1
+     */
+    public long getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    /**
+     * Liest einen Ausdruck.
+     *
+     * @param stopAtNewline true, wenn ein Zeilenumbruch einen vollständigen Ausdruck beendet
+     * @return der Ausdruck oder null, wenn bis zum Ende der Eingabe kein Symbol folgt
+     * @throws IOException wenn der Reader nicht gelesen werden kann
+     * @throws SyntaxException wenn die Eingabe kein gültiger Ausdruck ist
+     */
+    private Expression parseRule(boolean stopAtNewline) throws IOException, SyntaxException {
+        opCount = 0;
+        operandCount = 0;
+        depth = 0;
+        opsInParen[0] = 0;
+        boolean expectOperand = true;
+        while (pos < limit || fill(1)) {
+            char c = buf[pos];
+            switch (c) {
+                case ' ':
+                case '\t':
+                    pos++;
+                    break;
+                case '\n':
+                case '\r':
+                    boolean complete = !expectOperand && depth == 0;
+                    pos++;
+                    if (c == '\r' && peek(0) == '\n') {
+                        pos++;
+                    }
+                    line++;
+                    lineStart = offset();
+                    if (stopAtNewline && complete) {
+                        return finish(false);
+                    }
+                    break;
+                case '(':
+                    if (!expectOperand) {
+                        throw error("Operator oder ')' erwartet", offset());
+                    }
+                    pushOp(OPEN);
+                    pos++;
+                    depth++;
+                    if (depth == opsInParen.length) {
+                        opsInParen = Arrays.copyOf(opsInParen, depth * 2);
+                    }
+                    opsInParen[depth] = 0;
+                    break;
+                case '!':
+                    if (!expectOperand) {
+                        throw error("Operator oder ')' erwartet", offset());
+                    }
+                    opsInParen[depth]++;
+                    pushOp(NOT);
+                    pos++;
+                    break;
+                case ')':
+                    if (expectOperand) {
+                        throw error("Operand erwartet", offset());
+                    }
+                    closeParen();
+                    break;
+                default:
+                    if (expectOperand) {
+                        if (!isLetter(c)) {
+                            throw error("Operand erwartet", offset());
+                        }
+                        pushOperand(identifier());
+                        expectOperand = false;
+                    } else {
+                        int op = binaryOperator(c);
+                        reduce(op);
+                        opsInParen[depth]++;
+                        pushOp(op);
+                        expectOperand = true;
+                    }
+                    break;
+            }
+        }
+        if (expectOperand && opCount == 0) {
+            return null;
+        }
+        return finish(expectOperand);
+    }
+
+    /**
+     * Schließt einen Ausdruck am Ende der Regel ab und wendet die restlichen Operatoren an.
+     *
+     * @param expectOperand true, wenn nach dem letzten Symbol ein Operand fehlt
+     * @return der Ausdruck
+     * @throws SyntaxException wenn ein Operand oder eine schließende Klammer fehlt
+     */
+    private Expression finish(boolean expectOperand) throws SyntaxException {
+        if (expectOperand) {
+            throw error("Operand erwartet", offset());
+        }
+        while (opCount > 0) {
+            if (ops[opCount - 1] == OPEN) {
+                throw error("')' erwartet zu dieser Klammer", opOffsets[opCount - 1]);
+            }
+            apply(ops[--opCount]);
+        }
+        return operands[0];
+    }
+
+    /**
+     * Liest einen binären Operator.
+     *
+     * @param c das erste Zeichen
+     * @return der Code des Operators
+     * @throws IOException wenn der Reader nicht gelesen werden kann
+     * @throws SyntaxException wenn an der Position kein binärer Operator steht
+     */
+    private int binaryOperator(int c) throws IOException, SyntaxException {
+        int op;
+        int length = 2;
+        if (c == '&' && peek(1) == '&') {
+            op = AND;
+        } else if (c == '|' && peek(1) == '|') {
+            op = OR;
+        } else if (c == '-' && peek(1) == '>') {
+            op = IMPL;
+        } else if (c == '<' && peek(1) == '-' && peek(2) == '>') {
+            op = EQUIV;
+            length = EQUIV_LENGTH;
+        } else if (c == '^') {
+            op = XOR;
+            length = 1;
+        } else {
+            throw error("Operator oder ')' erwartet", offset());
+        }
+        pos += length;
+        return op;
+    }
+
+    /**
+     * Verarbeitet eine schließende Klammer. Stand in der Klammer kein Operator, wird der Inhalt
+     * in eine Identität gehüllt.
+     *
+     * @throws SyntaxException wenn es keine passende öffnende Klammer gibt
+     */
+    private void closeParen() throws SyntaxException {
+        while (opCount > 0 && ops[opCount - 1] != OPEN) {
+            apply(ops[--opCount]);
+        }
+        if (opCount == 0) {
+            throw error("')' ohne passende '('", offset());
+        }
+        opCount--;
+        if (opsInParen[depth] == 0) {
+            operands[operandCount - 1] = api.makeIdExpression(operands[operandCount - 1]);
+        }
+        depth--;
+        pos++;
+    }
+
+    /**
+     * Wendet die Operatoren auf dem Stapel an, die stärker binden als ein neuer binärer
+     * Operator.
+     *
+     * @param op der neue Operator
+     */
+    private void reduce(int op) {
+        while (opCount > 0) {
+            int top = ops[opCount - 1];
+            if (top == OPEN || PRECEDENCE[top] < PRECEDENCE[op]
+                    || top == op && op == IMPL) {
+                return;
+            }
+            opCount--;
+            apply(top);
+        }
+    }
+
+    /**
+     * Wendet einen Operator auf die obersten Operanden an.
+     *
+     * @param op der Operator
+     */
+    private void apply(int op) {
+        if (op == NOT) {
+            operands[operandCount - 1] = api.makeNotExpression(operands[operandCount - 1]);
+            return;
+        }
+        Expression right = operands[--operandCount];
+        operands[operandCount] = null;
+        Expression left = operands[operandCount - 1];
+        Expression result;
+        switch (op) {
+            case AND:
+                result = api.makeAndExpression(left, right);
+                break;
+            case XOR:
+                result = api.makeXorExpression(left, right);
+                break;
+            case OR:
+                result = api.makeOrExpression(left, right);
+                break;
+            case IMPL:
+                result = api.makeConsequenceExpression(left, right);
+                break;
+            default:
+                result = api.makeEquivalenceExpression(left, right);
+                break;
+        }
+        operands[operandCount - 1] = result;
+    }
+
+    /**
+     * Liest einen Bezeichner oder eine Konstante.
+     *
+     * @return der Knoten
+     * @throws IOException wenn der Reader nicht gelesen werden kann
+     */
+    private Expression identifier() throws IOException {
+        int length = 0;
+        int hash = 0;
+        while (true) {
+            int end = pos + length;
+            while (end < limit && isLetter(buf[end])) {
+                hash = hash * HASH_FACTOR + buf[end];
+                end++;
+            }
+            length = end - pos;
+            //am Pufferende kann der Bezeichner weitergehen
+            if (end < limit || !fill(length + 1)) {
+                break;
+            }
+        }
+        Expression e;
+        if (length == 1 && (buf[pos] == 'T' || buf[pos] == 'F')) {
+            e = api.makeConstantExpression(buf[pos] == 'T');
+        } else {
+            e = variable(length, hash);
+        }
+        pos += length;
+        return e;
+    }
+
+    /**
+     * Liefert den Variablenknoten zu einem Bezeichner im Puffer, aus dem Cache oder neu erzeugt.
+     *
+     * @param length die Länge des Bezeichners ab pos
+     * @param hash der Hashwert des Bezeichners
+     * @return der Variablenknoten
+     */
+    private Expression variable(int length, int hash) {
+        int mask = CACHE_SIZE - 1;
+        int i = (hash ^ (hash >>> Short.SIZE)) & mask;
+        for (; names[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == hash && matches(names[i], length)) {
+                return variables[i];
+            }
+        }
+        String name = new String(buf, pos, length);
+        Expression e = api.makeVariableExpression(name);
+        if (cached == CACHE_SIZE / 2) {
+            //voll: verwerfen statt wachsen, der Cache beschleunigt nur
+            Arrays.fill(names, null);
+            Arrays.fill(variables, null);
+            cached = 0;
+            i = (hash ^ (hash >>> Short.SIZE)) & mask;
+        }
+        names[i] = name;
+        hashes[i] = hash;
+        variables[i] = e;
+        cached++;
+        return e;
+    }
+
+    /**
+     * Vergleicht einen Bezeichner mit dem Puffer.
+     *
+     * @param name der Bezeichner
+     * @param length die Länge des Bezeichners im Puffer ab pos
+     * @return true bei Gleichheit
+     */
+    private boolean matches(String name, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != buf[pos + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prüft, ob ein Zeichen ein Buchstabe eines Bezeichners ist.
+     *
+     * @param c das Zeichen
+     * @return true für a bis z und A bis Z
+     */
+    private static boolean isLetter(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    /**
+     * Liefert ein Zeichen, ohne es zu verbrauchen.
+     *
+     * @param ahead der Abstand zur aktuellen Position
+     * @return das Zeichen oder -1 hinter dem Ende der Eingabe
+     * @throws IOException wenn der Reader nicht gelesen werden kann
+     */
+    private int peek(int ahead) throws IOException {
+        if (pos + ahead < limit || fill(ahead + 1)) {
+            return buf[pos + ahead];
+        }
+        return -1;
+    }
+
+    /**
+     * Liest weitere Zeichen, bis ab pos mindestens needed Zeichen im Puffer stehen. Die Zeichen
+     * vor pos werden dabei verworfen.
+     *
+     * @param needed die benötigte Anzahl
+     * @return false, wenn die Eingabe vorher endet
+     * @throws IOException wenn der Reader nicht gelesen werden kann
+     */
+    private boolean fill(int needed) throws IOException {
+        if (in == null) {
+            return false;
+        }
+        int kept = limit - pos;
+        System.arraycopy(buf, pos, buf, 0, kept);
+        base += pos;
+        pos = 0;
+        limit = kept;
+        if (needed > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(needed, buf.length * 2));
+        }
+        while (limit < needed) {
+            int read = in.read(buf, limit, buf.length - limit);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+    /**
+     * Liefert den Offset der aktuellen Position.
+     *
+     * @return der Offset in Zeichen ab dem Anfang der Eingabe
+     */
+    private long offset() {
+        return base + pos;
+    }
+
+    /**
+     * Erzeugt eine SyntaxException.
+     *
+     * @param message die Beschreibung des Fehlers
+     * @param offset der Offset des Fehlers, in der aktuellen Zeile
+     * @return die Exception
+     */
+    private SyntaxException error(String message, long offset) {
+        return new SyntaxException(message, line, offset - lineStart + 1, offset);
+    }
+
+    /**
+     * Legt einen Operator an der aktuellen Position auf den Stapel.
+     *
+     * @param op der Operator
+     */
+    private void pushOp(int op) {
+        if (opCount == ops.length) {
+            ops = Arrays.copyOf(ops, opCount * 2);
+            opOffsets = Arrays.copyOf(opOffsets, opCount * 2);
+        }
+        ops[opCount] = op;
+        opOffsets[opCount] = offset();
+        opCount++;
+    }
+
+    /**
+     * Legt einen Operanden auf den Stapel.
+     *
+     * @param e der Operand
+     */
+    private void pushOperand(Expression e) {
+        if (operandCount == operands.length) {
+            operands = Arrays.copyOf(operands, operandCount * 2);
+        }
+        operands[operandCount++] = e;
+    }
+}
@@ -0,0 +1,183 @@
+package io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import expression.Expression;
+import tree.BinaryOperation;
+import tree.Constant;
+import tree.UnaryOperation;
+import tree.Variable;
+
+/**
+ * Schreibt die Graphviz-Darstellung eines Ausdrucks direkt in einen Appendable oder
+ * OutputStream, ohne das Dokument im Speicher aufzubauen. Der Baum wird iterativ mit einem
+ * eigenen Stapel durchlaufen, auch entartete Ketten sprengen daher nicht den Aufrufstapel.
+ *
+ * Knoten und Kanten werden in derselben Reihenfolge und mit denselben Beschriftungen
+ * geschrieben wie von toGraphviz. Als Knotenbezeichner dienen wahlweise fortlaufende Nummern
+ * oder die Pfade aus toGraphviz ("_", "_l", "_lr", ...), deren Länge mit der Tiefe wächst.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class GraphvizWriter {
+
+    /**
+     * Schema für die Knotenbezeichner.
+     */
+    public enum NodeIds {
+        /**
+         * fortlaufende Nummern in der Reihenfolge, in der die Knoten zuerst genannt werden: die
+         * Wurzel ist 0, ein Knoten vergibt beim Schreiben seiner Kanten die nächsten Nummern an
+         * seine Operanden. Das ist keine Präordnung, in ((a &amp;&amp; b) || c) hat c die
+         * Nummer 2 und a die Nummer 3.
+         */
+        NUMERIC,
+        /** Pfade von der Wurzel wie in toGraphviz */
+        PATH
+    }
+
+    /** das Ziel */
+    private final Appendable out;
+
+    /** das Schema für die Knotenbezeichner */
+    private final NodeIds ids;
+
+    /** der Writer, der nach jedem Dokument geleert wird, oder null */
+    private final Writer flushable;
+
+    /**
+     * Konstruktor für fortlaufende Nummern als Knotenbezeichner.
+     *
+     * @param out das Ziel
+     * @pre out != null
+     */
+    public GraphvizWriter(Appendable out) {
+        this(out, NodeIds.NUMERIC);
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param out das Ziel
+     * @param ids das Schema für die Knotenbezeichner
+     * @pre out != null
+     * @pre ids != null
+     */
+    public GraphvizWriter(Appendable out, NodeIds ids) {
+        assert out != null;
+        assert ids != null;
+
+        this.out = out;
+        this.ids = ids;
+        this.flushable = out instanceof Writer writer ? writer : null;
+    }
+
+    /**
+     * Konstruktor für einen OutputStream, geschrieben wird UTF-8. Der Stream wird nach jedem
+     * Dokument geleert, aber nicht geschlossen.
+     *
+     * @param out das Ziel
+     * @param ids das Schema für die Knotenbezeichner
+     * @pre out != null
+     * @pre ids != null
+     */
+    public GraphvizWriter(OutputStream out, NodeIds ids) {
+        this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), ids);
+    }
+
+    /**
+     * Schreibt das vollständige Dokument "digraph G { ... }" für einen Ausdruck.
+     *
+     * @param e der Ausdruck
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     * @pre e != null
+     */
+    public void write(Expression e) throws IOException {
+        assert e != null;
+
+        out.append("digraph G {\n");
+        writeNodes(e);
+        out.append("}\n");
+        if (flushable != null) {
+            flushable.flush();
+        }
+    }
+
+    /**
+     * Schreibt die Knoten und Kanten eines Ausdrucks, die Knoten in Präordnung; die Operanden
+     * eines Knotens folgen jeweils direkt auf seine Kanten. Die Bezeichner der Operanden werden
+     * schon mit den Kanten vergeben, fortlaufende Nummern folgen also nicht der Präordnung.
+     *
+     * @param root der Ausdruck
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     */
+    private void writeNodes(Expression root) throws IOException {
+        Deque<Expression> nodes = new ArrayDeque<>();
+        Deque<String> nodeIds = new ArrayDeque<>();
+        long next = 0;
+        nodes.push(root);
+        nodeIds.push(ids == NodeIds.NUMERIC ? Long.toString(next++) : "_");
+        while (!nodes.isEmpty()) {
+            Expression e = nodes.pop();
+            String id = nodeIds.pop();
+            if (e instanceof BinaryOperation binary) {
+                String left = ids == NodeIds.NUMERIC ? Long.toString(next++) : id + "l";
+                String right = ids == NodeIds.NUMERIC ? Long.toString(next++) : id + "r";
+                label(id, binary.getOperator(), e.getChildrenCount() - 1);
+                edge(id, left);
+                edge(id, right);
+                nodes.push(binary.getRight());
+                nodeIds.push(right);
+                nodes.push(binary.getLeft());
+                nodeIds.push(left);
+            } else if (e instanceof UnaryOperation unary) {
+                String operand = ids == NodeIds.NUMERIC ? Long.toString(next++) : id + "_";
+                label(id, unary.getOperator(), e.getChildrenCount() - 1);
+                edge(id, operand);
+                nodes.push(unary.getOperand());
+                nodeIds.push(operand);
+            } else if (e instanceof Constant constant) {
+                out.append(id).append(" [label=\"").append(constant.getValue() ? "T" : "F")
+                        .append("\"]\n");
+            } else if (e instanceof Variable variable) {
+                out.append(id).append(" [label=\"").append(variable.getName()).append("\"]\n");
+            } else {
+                //fremde Knoten schreiben sich selbst, mit Pfaden ab ihrem Bezeichner
+                StringBuilder builder = new StringBuilder();
+                e.toGraphviz(builder, id);
+                out.append(builder);
+            }
+        }
+    }
+
+    /**
+     * Schreibt die Beschriftung eines Operationsknotens.
+     *
+     * @param id der Bezeichner
+     * @param operator der Operator
+     * @param children die Anzahl der Unterknoten
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     */
+    private void label(String id, String operator, int children) throws IOException {
+        out.append(id).append(" [label=\"").append(operator).append(" [")
+                .append(Integer.toString(children)).append("]\"]\n");
+    }
+
+    /**
+     * Schreibt eine Kante.
+     *
+     * @param from der Bezeichner des Elternknotens
+     * @param to der Bezeichner des Kindknotens
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     */
+    private void edge(String from, String to) throws IOException {
+        out.append(from).append(" -> ").append(to).append(" [label=\"\"]\n");
+    }
+}
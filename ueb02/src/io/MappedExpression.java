@@ -0,0 +1,63 @@
+package io;
+
+import expression.AbstractExpression;
+import expression.Context;
+import expression.IncompleteContextException;
+
+/**
+ * Ausdruck, dessen Knoten in einem {@link MappedRuleStore} liegen. Das Objekt hält nur den
+ * Index seines Wurzelknotens; Operanden werden bei jedem Zugriff aus der eingeblendeten Datei
+ * gelesen und nicht als Objekte erzeugt. Auswertung und Darstellungen verhalten sich wie bei
+ * den Klassen aus tree.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+final class MappedExpression extends AbstractExpression {
+
+    /** der Regelspeicher */
+    private final MappedRuleStore store;
+
+    /** der Index des Knotens */
+    private final int node;
+
+    /**
+     * Konstruktor.
+     *
+     * @param store der Regelspeicher
+     * @param node der Index des Knotens
+     * @param childrenCount die Anzahl der Knoten des Teilbaums
+     */
+    MappedExpression(MappedRuleStore store, int node, int childrenCount) {
+        super(childrenCount);
+        this.store = store;
+        this.node = node;
+    }
+
+    @Override
+    public boolean evaluateShort(Context c) throws IncompleteContextException {
+        return store.evaluateShort(node, c);
+    }
+
+    @Override
+    public boolean evaluateComplete(Context c) throws IncompleteContextException {
+        return store.evaluateComplete(node, c);
+    }
+
+    @Override
+    public boolean evaluateParallel(Context c, int bound) throws IncompleteContextException {
+        return store.evaluateParallel(node, c, bound);
+    }
+
+    @Override
+    public void toString(StringBuilder builder) {
+        assert (builder != null);
+        store.toString(node, builder);
+    }
+
+    @Override
+    public void toGraphviz(StringBuilder builder, String prefix) {
+        assert (builder != null);
+        assert (prefix != null);
+        store.toGraphviz(node, builder, prefix);
+    }
+}
@@ -0,0 +1,956 @@
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import expression.Context;
+import expression.Counter;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Negation;
+import tree.Or;
+import tree.UnaryOperation;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * Regelspeicher in einer Datei, die nur lesend in den Speicher eingeblendet wird. Die Knoten
+ * liegen als Sätze fester Größe hintereinander, ein Knoten wird erst gelesen, wenn eine
+ * Auswertung oder Darstellung ihn erreicht. Beim Öffnen wird nur der Kopf gelesen; der Heap
+ * enthält danach nichts außer den bereits benutzten Bezeichnern, die Datei selbst liegt im
+ * Seitencache des Betriebssystems und wird von allen Prozessen geteilt, die sie einblenden.
+ *
+ * Aufbau der Datei, alle Zahlen big-endian:
+ * <ul>
+ * <li>Kopf mit Kennung "AuDM", Version, Anzahl der Knoten, Regeln und Bezeichner sowie den
+ * Positionen von Wurzel- und Bezeichnertabelle,</li>
+ * <li>die Knoten in Postfix-Reihenfolge, je Befehl aus {@link BinaryFormat}, getChildrenCount
+ * und zwei Operanden (Indizes von Knoten, bei Variablen der Index des Bezeichners),</li>
+ * <li>der Index des Wurzelknotens jeder Regel,</li>
+ * <li>Anfangspositionen der Bezeichner und die Bezeichner als ASCII-Zeichen.</li>
+ * </ul>
+ * Gemeinsame Teilbäume werden nur einmal gespeichert. Da jeder Operand vor seiner Operation
+ * steht, hat er einen kleineren Index; das wird beim Lesen geprüft, sodass auch eine
+ * beschädigte Datei keine Zyklen erzeugen kann. Beschädigte Knoten und Bezeichner werden beim
+ * Zugriff mit einer IllegalStateException gemeldet.
+ *
+ * Die Datei kann größer als der Heap sein, die Abschnitte belegen nur Adressraum und
+ * Seitencache. Java bietet keine Möglichkeit, eine Einblendung ausdrücklich aufzuheben: sie
+ * bleibt bestehen, bis der Regelspeicher und alle von ihm gelieferten Regeln nicht mehr
+ * erreichbar sind und der Garbage Collector die Abschnitte abräumt. Solange kann die Datei
+ * unter Windows weder gelöscht noch überschrieben werden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class MappedRuleStore {
+
+    /** die Kennung am Dateianfang */
+    private static final int MAGIC = 0x4175444D;
+
+    /** die aktuelle Version */
+    private static final int VERSION = 1;
+
+    /** Größe des Kopfs, ein Vielfaches der Satzgröße */
+    private static final int HEADER_SIZE = 48;
+
+    /** Position der Knotenzahl im Kopf */
+    private static final int NODE_COUNT = 8;
+
+    /** Position der Regelzahl im Kopf */
+    private static final int RULE_COUNT = 12;
+
+    /** Position der Bezeichnerzahl im Kopf */
+    private static final int NAME_COUNT = 16;
+
+    /** Position der Wurzeltabelle im Kopf */
+    private static final int ROOTS = 24;
+
+    /** Position der Bezeichnertabelle im Kopf */
+    private static final int NAMES = 32;
+
+    /** Größe eines Knotensatzes */
+    private static final int NODE_SIZE = 16;
+
+    /** Position von getChildrenCount im Satz */
+    private static final int COUNT = 4;
+
+    /** Position des ersten Operanden im Satz */
+    private static final int FIRST = 8;
+
+    /** Position des zweiten Operanden im Satz */
+    private static final int SECOND = 12;
+
+    /** Bits der Position innerhalb eines eingeblendeten Abschnitts */
+    private static final int CHUNK_BITS = 30;
+
+    /** Größe eines eingeblendeten Abschnitts, ein Vielfaches der Satzgröße */
+    private static final long CHUNK_SIZE = 0x40000000L;
+
+    /** Größe des Schreibpuffers */
+    private static final int BUFFER_SIZE = 65536;
+
+    /** Anfangsgröße des Stapels beim Schreiben */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** die eingeblendeten Abschnitte der Datei */
+    private final ByteBuffer[] chunks;
+
+    /** die Anzahl der Knoten */
+    private final int nodeCount;
+
+    /** die Anzahl der Regeln */
+    private final int ruleCount;
+
+    /** die Position der Wurzeltabelle */
+    private final long roots;
+
+    /** die Position der Bezeichnertabelle */
+    private final long nameTable;
+
+    /** die Größe der Datei */
+    private final long size;
+
+    /** die bereits gelesenen Bezeichner */
+    private final String[] names;
+
+    /**
+     * Konstruktor.
+     *
+     * @param chunks die eingeblendeten Abschnitte der Datei
+     * @param size die Größe der Datei
+     * @throws IOException wenn der Kopf nicht zur Datei passt
+     */
+    private MappedRuleStore(ByteBuffer[] chunks, long size) throws IOException {
+        this.chunks = chunks;
+        this.size = size;
+        if (size < HEADER_SIZE || getInt(0) != MAGIC) {
+            throw new IOException("keine Regeldatei");
+        }
+        if (getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("nicht unterstützte Version " + getInt(Integer.BYTES));
+        }
+        nodeCount = getInt(NODE_COUNT);
+        ruleCount = getInt(RULE_COUNT);
+        int nameCount = getInt(NAME_COUNT);
+        roots = getLong(ROOTS);
+        nameTable = getLong(NAMES);
+        if (nodeCount < 0 || ruleCount < 0 || nameCount < 0
+                || roots < HEADER_SIZE + (long) nodeCount * NODE_SIZE
+                || nameTable < roots + (long) ruleCount * Integer.BYTES
+                || nameTable % Long.BYTES != 0
+                || size < nameTable + (nameCount + 1L) * Long.BYTES
+                || size < getLong(nameTable + (long) nameCount * Long.BYTES)) {
+            throw new IOException("beschädigte Regeldatei");
+        }
+        names = new String[nameCount];
+    }
+
+    /**
+     * Blendet eine Regeldatei ein. Gelesen wird dabei nur der Kopf.
+     *
+     * @param file die Datei
+     * @return der Regelspeicher
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder keine Regeldatei ist
+     * @pre file != null
+     */
+    public static MappedRuleStore open(Path file) throws IOException {
+        assert file != null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS)];
+            for (int i = 0; i < chunks.length; i++) {
+                long from = i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, from,
+                        Math.min(CHUNK_SIZE, size - from));
+            }
+            return new MappedRuleStore(chunks, size);
+        }
+    }
+
+    /**
+     * Schreibt Regeln in eine Regeldatei, eine vorhandene Datei wird überschrieben.
+     *
+     * @param rules die Regeln
+     * @param file die Datei
+     * @throws IOException wenn die Datei nicht geschrieben werden kann
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre rules != null
+     * @pre file != null
+     */
+    public static void write(Collection<? extends Expression> rules, Path file)
+            throws IOException {
+        assert rules != null;
+        assert file != null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            new Output(channel).write(rules);
+        }
+    }
+
+    /**
+     * Liefert die Anzahl der Regeln.
+     *
+     * @return die Anzahl der Regeln
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Liefert die Anzahl der gespeicherten Knoten, gemeinsame Teilbäume zählen einmal.
+     *
+     * @return die Anzahl der Knoten
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Liefert eine Regel. Der Ausdruck liest seine Knoten bei jedem Zugriff aus der Datei.
+     *
+     * @param index der Index der Regel
+     * @return die Regel
+     * @pre 0 &lt;= index &lt; getRuleCount()
+     */
+    public Expression getRule(int index) {
+        assert index >= 0 && index < ruleCount;
+
+        int root = getInt(roots + (long) index * Integer.BYTES);
+        if (root < 0 || root >= nodeCount) {
+            throw new IllegalStateException("beschädigte Regel " + index);
+        }
+        return new MappedExpression(this, root, count(root));
+    }
+
+    /**
+     * Liefert getChildrenCount eines Knotens.
+     *
+     * @param node der Index des Knotens
+     * @return die Anzahl der Knoten des Teilbaums
+     */
+    int count(int node) {
+        return getInt(record(node) + COUNT);
+    }
+
+    /**
+     * Wertet einen Knoten wie evaluateShort der Klassen in tree aus.
+     *
+     * @param node der Index des Knotens
+     * @param c der Kontext
+     * @return der Wahrheitswert
+     * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+     */
+    boolean evaluateShort(int node, Context c) throws IncompleteContextException {
+        long record = record(node);
+        int op = getInt(record);
+        if (op <= BinaryFormat.VARIABLE) {
+            return leaf(node, op, record, c);
+        }
+        int first = operand(node, record + FIRST);
+        return switch (op) {
+            case BinaryFormat.NOT -> !evaluateShort(first, c);
+            case BinaryFormat.IDENTITY -> evaluateShort(first, c);
+            case BinaryFormat.AND -> evaluateShort(first, c)
+                    && evaluateShort(operand(node, record + SECOND), c);
+            case BinaryFormat.OR -> evaluateShort(first, c)
+                    || evaluateShort(operand(node, record + SECOND), c);
+            case BinaryFormat.IMPL -> !evaluateShort(first, c)
+                    || evaluateShort(operand(node, record + SECOND), c);
+            default -> combine(node, op, evaluateShort(first, c),
+                    evaluateShort(operand(node, record + SECOND), c));
+        };
+    }
+
+    /**
+     * Wertet einen Knoten wie evaluateComplete der Klassen in tree aus.
+     *
+     * @param node der Index des Knotens
+     * @param c der Kontext
+     * @return der Wahrheitswert
+     * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+     */
+    boolean evaluateComplete(int node, Context c) throws IncompleteContextException {
+        long record = record(node);
+        int op = getInt(record);
+        if (op <= BinaryFormat.VARIABLE) {
+            return leaf(node, op, record, c);
+        }
+        boolean first = evaluateComplete(operand(node, record + FIRST), c);
+        if (op == BinaryFormat.NOT) {
+            return !first;
+        }
+        if (op == BinaryFormat.IDENTITY) {
+            return first;
+        }
+        return combine(node, op, first, evaluateComplete(operand(node, record + SECOND), c));
+    }
+
+    /**
+     * Wertet einen Knoten wie evaluateParallel der Klassen in tree auf dem gemeinsamen
+     * ForkJoinPool aus, abgespaltene Teilaufgaben werden im Counter gezählt.
+     *
+     * @param node der Index des Knotens
+     * @param c der Kontext
+     * @param bound die Grenze ab der parallelisiert werden soll
+     * @return der Wahrheitswert
+     * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+     */
+    boolean evaluateParallel(int node, Context c, int bound) throws IncompleteContextException {
+        try {
+            return ForkJoinPool.commonPool().invoke(new Task(this, node, c, bound));
+        } catch (Task.UncheckedContextException e) {
+            return e.rethrow();
+        }
+    }
+
+    /**
+     * Schreibt die Darstellung eines Knotens wie toString der Klassen in tree.
+     *
+     * @param node der Index des Knotens
+     * @param builder der StringBuilder
+     */
+    void toString(int node, StringBuilder builder) {
+        long record = record(node);
+        int op = getInt(record);
+        switch (op) {
+            case BinaryFormat.FALSE -> builder.append('F');
+            case BinaryFormat.TRUE -> builder.append('T');
+            case BinaryFormat.VARIABLE -> builder.append(name(node, record));
+            case BinaryFormat.NOT, BinaryFormat.IDENTITY -> {
+                builder.append('(').append(op == BinaryFormat.NOT ? "!" : "");
+                toString(operand(node, record + FIRST), builder);
+                builder.append(')');
+            }
+            default -> {
+                builder.append('(');
+                toString(operand(node, record + FIRST), builder);
+                builder.append(' ').append(operator(node, op)).append(' ');
+                toString(operand(node, record + SECOND), builder);
+                builder.append(')');
+            }
+        }
+    }
+
+    /**
+     * Schreibt die Graphviz-Darstellung eines Knotens wie toGraphviz der Klassen in tree.
+     *
+     * @param node der Index des Knotens
+     * @param builder der StringBuilder
+     * @param prefix das Präfix des Knotens
+     */
+    void toGraphviz(int node, StringBuilder builder, String prefix) {
+        long record = record(node);
+        int op = getInt(record);
+        builder.append(prefix).append(" [label=\"");
+        if (op <= BinaryFormat.VARIABLE) {
+            builder.append(op == BinaryFormat.VARIABLE ? name(node, record)
+                    : op == BinaryFormat.TRUE ? "T" : "F").append("\"]\n");
+            return;
+        }
+        builder.append(operator(node, op)).append(" [").append(count(node) - 1)
+                .append("]\"]\n");
+        if (op == BinaryFormat.NOT || op == BinaryFormat.IDENTITY) {
+            String operand = prefix + "_";
+            builder.append(prefix).append(" -> ").append(operand).append(" [label=\"\"]\n");
+            toGraphviz(operand(node, record + FIRST), builder, operand);
+            return;
+        }
+        String left = prefix + "l";
+        String right = prefix + "r";
+        builder.append(prefix).append(" -> ").append(left).append(" [label=\"\"]\n");
+        builder.append(prefix).append(" -> ").append(right).append(" [label=\"\"]\n");
+        toGraphviz(operand(node, record + FIRST), builder, left);
+        toGraphviz(operand(node, record + SECOND), builder, right);
+    }
+
+    /**
+     * Wertet ein Blatt aus.
+     *
+     * @param node der Index des Knotens
+     * @param op der Befehl des Blatts
+     * @param record die Position des Satzes
+     * @param c der Kontext
+     * @return der Wahrheitswert
+     * @throws IncompleteContextException wenn die Variable nicht im Kontext ist
+     */
+    private boolean leaf(int node, int op, long record, Context c)
+            throws IncompleteContextException {
+        if (op != BinaryFormat.VARIABLE) {
+            return op == BinaryFormat.TRUE;
+        }
+        String name = name(node, record);
+        Boolean value = c == null ? null : c.get(name);
+        if (value == null) {
+            throw new IncompleteContextException(name);
+        }
+        return value;
+    }
+
+    /**
+     * Verknüpft die Werte der Operanden einer binären Operation.
+     *
+     * @param node der Index des Knotens
+     * @param op der Befehl
+     * @param left der Wert des linken Operanden
+     * @param right der Wert des rechten Operanden
+     * @return der Wahrheitswert
+     */
+    private static boolean combine(int node, int op, boolean left, boolean right) {
+        return switch (op) {
+            case BinaryFormat.AND -> left & right;
+            case BinaryFormat.OR -> left | right;
+            case BinaryFormat.XOR -> left ^ right;
+            case BinaryFormat.EQUIV -> left == right;
+            case BinaryFormat.IMPL -> !left | right;
+            default -> throw new IllegalStateException("beschädigter Knoten " + node);
+        };
+    }
+
+    /**
+     * Liefert die Darstellung des Operators wie getOperator der Klassen in tree.
+     *
+     * @param node der Index des Knotens
+     * @param op der Befehl
+     * @return der Operator
+     */
+    private static String operator(int node, int op) {
+        return switch (op) {
+            case BinaryFormat.NOT -> "!";
+            case BinaryFormat.IDENTITY -> "()";
+            case BinaryFormat.AND -> "&&";
+            case BinaryFormat.OR -> "||";
+            case BinaryFormat.XOR -> "^";
+            case BinaryFormat.EQUIV -> "<->";
+            case BinaryFormat.IMPL -> "->";
+            default -> throw new IllegalStateException("beschädigter Knoten " + node);
+        };
+    }
+
+    /**
+     * Liefert die Position des Satzes eines Knotens.
+     *
+     * @param node der Index des Knotens
+     * @return die Position in der Datei
+     */
+    private static long record(int node) {
+        return HEADER_SIZE + (long) node * NODE_SIZE;
+    }
+
+    /**
+     * Liest einen Operanden und prüft, dass er vor seiner Operation steht.
+     *
+     * @param node der Index der Operation
+     * @param position die Position des Operanden im Satz
+     * @return der Index des Operanden
+     */
+    private int operand(int node, long position) {
+        int operand = getInt(position);
+        if (operand < 0 || operand >= node) {
+            throw new IllegalStateException("beschädigter Knoten " + node);
+        }
+        return operand;
+    }
+
+    /**
+     * Liefert den Bezeichner einer Variablen und liest ihn beim ersten Zugriff.
+     *
+     * @param node der Index des Knotens für Fehlermeldungen
+     * @param record die Position des Satzes
+     * @return der Bezeichner
+     */
+    private String name(int node, long record) {
+        int index = getInt(record + FIRST);
+        if (index < 0 || index >= names.length) {
+            throw new IllegalStateException("beschädigter Knoten " + node);
+        }
+        String name = names[index];
+        if (name == null) {
+            long from = getLong(nameTable + (long) index * Long.BYTES);
+            long to = getLong(nameTable + (index + 1L) * Long.BYTES);
+            if (from < nameTable + (names.length + 1L) * Long.BYTES || from > to || to > size
+                    || to - from > Integer.MAX_VALUE) {
+                throw new IllegalStateException("beschädigter Knoten " + node);
+            }
+            char[] chars = new char[(int) (to - from)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) chunks[(int) ((from + i) >>> CHUNK_BITS)]
+                        .get((int) ((from + i) & (CHUNK_SIZE - 1)));
+            }
+            name = new String(chars);
+            names[index] = name;
+        }
+        return name;
+    }
+
+    /**
+     * Liest ein int, das nicht über eine Abschnittsgrenze reicht.
+     *
+     * @param position die Position in der Datei
+     * @return der Wert
+     */
+    private int getInt(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)]
+                .getInt((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * Liest ein long, das nicht über eine Abschnittsgrenze reicht.
+     *
+     * @param position die Position in der Datei
+     * @return der Wert
+     */
+    private long getLong(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)]
+                .getLong((int) (position & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * Aufgabe für evaluateParallel, spaltet wie EvaluationTask den rechten Operanden ab, wenn
+     * beide Operanden zusammen mindestens bound Knoten haben.
+     */
+    private static final class Task extends RecursiveTask<Boolean> {
+
+        /** Version für die Serialisierung */
+        private static final long serialVersionUID = 1L;
+
+        /** der Regelspeicher */
+        private final transient MappedRuleStore store;
+
+        /** der Index des Knotens */
+        private final int node;
+
+        /** der Kontext */
+        private final transient Context context;
+
+        /** die Grenze ab der parallelisiert wird */
+        private final int bound;
+
+        /**
+         * Konstruktor.
+         *
+         * @param store der Regelspeicher
+         * @param node der Index des Knotens
+         * @param context der Kontext
+         * @param bound die Grenze ab der parallelisiert wird
+         */
+        Task(MappedRuleStore store, int node, Context context, int bound) {
+            this.store = store;
+            this.node = node;
+            this.context = context;
+            this.bound = bound;
+        }
+
+        @Override
+        protected Boolean compute() {
+            try {
+                return evaluate(node);
+            } catch (IncompleteContextException e) {
+                throw new UncheckedContextException(e);
+            }
+        }
+
+        /**
+         * Wertet einen Knoten aus und spaltet dabei große rechte Operanden ab.
+         *
+         * @param n der Index des Knotens
+         * @return der Wahrheitswert
+         * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
+         */
+        private boolean evaluate(int n) throws IncompleteContextException {
+            long record = record(n);
+            int op = store.getInt(record);
+            if (op == BinaryFormat.NOT || op == BinaryFormat.IDENTITY) {
+                boolean value = evaluate(store.operand(n, record + FIRST));
+                return op == BinaryFormat.NOT ? !value : value;
+            }
+            if (op > BinaryFormat.IDENTITY) {
+                int left = store.operand(n, record + FIRST);
+                int right = store.operand(n, record + SECOND);
+                if (store.count(left) + store.count(right) >= bound) {
+                    Task rightTask = new Task(store, right, context, bound);
+                    rightTask.fork();
+                    Counter.increment();
+                    boolean leftResult;
+                    try {
+                        leftResult = evaluate(left);
+                    } catch (IncompleteContextException e) {
+                        rightTask.quietlyJoin();
+                        throw e;
+                    }
+                    boolean rightResult;
+                    try {
+                        rightResult = rightTask.join();
+                    } catch (UncheckedContextException e) {
+                        throw e.getCause();
+                    }
+                    return combine(n, op, leftResult, rightResult);
+                }
+            }
+            return store.evaluateComplete(n, context);
+        }
+
+        /**
+         * Trägt eine IncompleteContextException aus compute heraus.
+         */
+        private static final class UncheckedContextException extends RuntimeException {
+
+            /** Version für die Serialisierung */
+            private static final long serialVersionUID = 1L;
+
+            /**
+             * Konstruktor.
+             *
+             * @param cause die Ausnahme
+             */
+            UncheckedContextException(IncompleteContextException cause) {
+                super(cause);
+            }
+
+            @Override
+            public synchronized IncompleteContextException getCause() {
+                Throwable t = super.getCause();
+                while (!(t instanceof IncompleteContextException)) {
+                    t = t.getCause();
+                }
+                return (IncompleteContextException) t;
+            }
+
+            /**
+             * Wirft die getragene Ausnahme.
+             *
+             * @return nie
+             * @throws IncompleteContextException immer
+             */
+            boolean rethrow() throws IncompleteContextException {
+                throw getCause();
+            }
+        }
+    }
+
+    /**
+     * Schreibt eine Regeldatei über einen Puffer fester Größe.
+     */
+    private static final class Output {
+
+        /** das Ziel */
+        private final FileChannel channel;
+
+        /** der Puffer */
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /** die Indizes der bereits geschriebenen Operationen */
+        private final Map<Expression, Integer> operations = new IdentityHashMap<>();
+
+        /** die Indizes der Variablenknoten nach Bezeichnerindex, -1 wenn noch nicht geschrieben */
+        private int[] variables = new int[INITIAL_CAPACITY];
+
+        /** die Indizes der Konstanten false und true, -1 wenn noch nicht geschrieben */
+        private final int[] constants = {-1, -1};
+
+        /** die Anzahl der geschriebenen Knoten */
+        private int nodeCount;
+
+        /** die Indizes der Bezeichner */
+        private final Map<String, Integer> nameIndices = new HashMap<>();
+
+        /** die Bezeichner in der Reihenfolge ihrer Indizes */
+        private String[] names = new String[INITIAL_CAPACITY];
+
+        /** die offenen Knoten des Durchlaufs */
+        private Expression[] stack = new Expression[INITIAL_CAPACITY];
+
+        /** true, wenn die Operanden des Knotens schon auf dem Stapel liegen */
+        private boolean[] visited = new boolean[INITIAL_CAPACITY];
+
+        /** die Indizes der geschriebenen Operanden, die noch auf ihre Operation warten */
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        /** die Position in der Datei hinter dem Puffer */
+        private long position;
+
+        /**
+         * Konstruktor.
+         *
+         * @param channel das Ziel
+         */
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Schreibt die Datei.
+         *
+         * @param rules die Regeln
+         * @throws IOException wenn die Datei nicht geschrieben werden kann
+         */
+        void write(Collection<? extends Expression> rules) throws IOException {
+            buffer.position(HEADER_SIZE);
+            int[] roots = new int[rules.size()];
+            int r = 0;
+            for (Expression rule : rules) {
+                roots[r++] = rule(rule);
+            }
+            long rootsPosition = position();
+            for (int root : roots) {
+                ensure(Integer.BYTES).putInt(root);
+            }
+            while (position() % Long.BYTES != 0) {
+                ensure(1).put((byte) 0);
+            }
+            long namesPosition = position();
+            int nameCount = nameIndices.size();
+            long offset = namesPosition + (nameCount + 1L) * Long.BYTES;
+            for (int i = 0; i <= nameCount; i++) {
+                ensure(Long.BYTES).putLong(offset);
+                offset += i < nameCount ? names[i].length() : 0;
+            }
+            for (int i = 0; i < nameCount; i++) {
+                for (byte b : names[i].getBytes(StandardCharsets.US_ASCII)) {
+                    ensure(1).put(b);
+                }
+            }
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(rules.size())
+                    .putInt(nameCount).putInt(0).putLong(rootsPosition).putLong(namesPosition);
+            header.flip();
+            long at = 0;
+            while (header.hasRemaining()) {
+                at += channel.write(header, at);
+            }
+        }
+
+        /**
+         * Schreibt die noch nicht geschriebenen Knoten einer Regel in Postfix-Reihenfolge.
+         * Die Indizes fertiger Operanden liegen auf einem eigenen Stapel, nachgeschlagen werden
+         * nur Operationen, um gemeinsame Teilbäume zu erkennen.
+         *
+         * @param rule die Regel
+         * @return der Index der Wurzel
+         * @throws IOException wenn die Datei nicht geschrieben werden kann
+         */
+        private int rule(Expression rule) throws IOException {
+            int top = 0;
+            int done = 0;
+            push(rule, 0);
+            while (top >= 0) {
+                Expression e = stack[top];
+                if (visited[top]) {
+                    stack[top--] = null;
+                    done = operation(e, done);
+                    continue;
+                }
+                if (e instanceof Variable || e instanceof Constant) {
+                    stack[top--] = null;
+                    done = value(leaf(e), done);
+                    continue;
+                }
+                Integer written = operations.get(e);
+                if (written != null) {
+                    stack[top--] = null;
+                    done = value(written, done);
+                } else if (e instanceof BinaryOperation binary) {
+                    visited[top] = true;
+                    push(binary.getRight(), ++top);
+                    push(binary.getLeft(), ++top);
+                } else if (e instanceof UnaryOperation unary) {
+                    visited[top] = true;
+                    push(unary.getOperand(), ++top);
+                } else {
+                    throw new IllegalArgumentException(
+                            "unbekannter Knoten " + e.getClass().getName());
+                }
+            }
+            return values[0];
+        }
+
+        /**
+         * Legt einen Knoten auf den Stapel des Durchlaufs.
+         *
+         * @param e der Knoten
+         * @param index die Position auf dem Stapel
+         */
+        private void push(Expression e, int index) {
+            if (index == stack.length) {
+                stack = Arrays.copyOf(stack, index * 2);
+                visited = Arrays.copyOf(visited, index * 2);
+            }
+            stack[index] = e;
+            visited[index] = false;
+        }
+
+        /**
+         * Legt den Index eines fertigen Operanden ab.
+         *
+         * @param index der Index
+         * @param done die Anzahl der abgelegten Indizes
+         * @return die neue Anzahl der abgelegten Indizes
+         */
+        private int value(int index, int done) {
+            if (done == values.length) {
+                values = Arrays.copyOf(values, done * 2);
+            }
+            values[done] = index;
+            return done + 1;
+        }
+
+        /**
+         * Liefert den Index eines Blatts und schreibt es beim ersten Auftreten.
+         *
+         * @param e das Blatt
+         * @return der Index
+         * @throws IOException wenn die Datei nicht geschrieben werden kann
+         */
+        private int leaf(Expression e) throws IOException {
+            if (e instanceof Variable variable) {
+                int name = nameIndex(variable.getName());
+                if (variables[name] < 0) {
+                    variables[name] = record(BinaryFormat.VARIABLE, 1, name, 0);
+                }
+                return variables[name];
+            }
+            int op = ((Constant) e).getValue() ? BinaryFormat.TRUE : BinaryFormat.FALSE;
+            if (constants[op] < 0) {
+                constants[op] = record(op, 1, 0, 0);
+            }
+            return constants[op];
+        }
+
+        /**
+         * Schreibt eine Operation, deren Operanden oben auf dem Stapel der Indizes liegen.
+         *
+         * @param e die Operation
+         * @param done die Anzahl der abgelegten Indizes
+         * @return die neue Anzahl der abgelegten Indizes
+         * @throws IOException wenn die Datei nicht geschrieben werden kann
+         */
+        private int operation(Expression e, int done) throws IOException {
+            int index;
+            if (e instanceof UnaryOperation) {
+                int op = e instanceof Negation ? BinaryFormat.NOT : BinaryFormat.IDENTITY;
+                index = record(op, e.getChildrenCount(), values[done - 1], 0);
+            } else {
+                index = record(binaryOp(e), e.getChildrenCount(), values[done - 2],
+                        values[done - 1]);
+                done--;
+            }
+            operations.put(e, index);
+            values[done - 1] = index;
+            return done;
+        }
+
+        /**
+         * Schreibt einen Knotensatz.
+         *
+         * @param op der Befehl
+         * @param count getChildrenCount des Knotens
+         * @param first der erste Operand
+         * @param second der zweite Operand
+         * @return der Index des Knotens
+         * @throws IOException wenn die Datei nicht geschrieben werden kann
+         */
+        private int record(int op, int count, int first, int second) throws IOException {
+            ensure(NODE_SIZE).putInt(op).putInt(count).putInt(first).putInt(second);
+            return nodeCount++;
+        }
+
+        /**
+         * Liefert den Befehl einer binären Operation.
+         *
+         * @param e der Knoten
+         * @return der Befehl
+         */
+        private static int binaryOp(Expression e) {
+            if (e instanceof And) {
+                return BinaryFormat.AND;
+            } else if (e instanceof Or) {
+                return BinaryFormat.OR;
+            } else if (e instanceof Xor) {
+                return BinaryFormat.XOR;
+            } else if (e instanceof Equivalence) {
+                return BinaryFormat.EQUIV;
+            } else if (e instanceof Consequence) {
+                return BinaryFormat.IMPL;
+            }
+            throw new IllegalArgumentException("unbekannter Knoten " + e.getClass().getName());
+        }
+
+        /**
+         * Liefert den Index eines Bezeichners und vergibt beim ersten Auftreten den nächsten.
+         *
+         * @param name der Bezeichner
+         * @return der Index
+         */
+        private int nameIndex(String name) {
+            Integer index = nameIndices.get(name);
+            if (index == null) {
+                if (!name.matches("^[a-zA-Z]+$")) {
+                    throw new IllegalArgumentException("ungültiger Bezeichner " + name);
+                }
+                index = nameIndices.size();
+                nameIndices.put(name, index);
+                if (index == names.length) {
+                    names = Arrays.copyOf(names, index * 2);
+                    variables = Arrays.copyOf(variables, index * 2);
+                }
+                names[index] = name;
+                variables[index] = -1;
+            }
+            return index;
+        }
+
+        /**
+         * Liefert die Position in der Datei, an der als Nächstes geschrieben wird.
+         *
+         * @return die Position
+         */
+        private long position() {
+            return position + buffer.position();
+        }
+
+        /**
+         * Stellt sicher, dass der Puffer Platz für eine Anzahl Bytes hat.
+         *
+         * @param bytes die Anzahl der Bytes
+         * @return der Puffer
+         * @throws IOException wenn die Datei nicht geschrieben werden kann
+         */
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        /**
+         * Schreibt den Puffer in die Datei.
+         *
+         * @throws IOException wenn die Datei nicht geschrieben werden kann
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
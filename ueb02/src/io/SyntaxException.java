@@ -0,0 +1,67 @@
+package io;
+
+/**
+ * Exception für Syntaxfehler beim Einlesen von Ausdrücken. Sie enthält die Position des
+ * Fehlers als Zeile und Spalte, jeweils ab 1 gezählt, sowie als Offset in Zeichen ab dem
+ * Anfang der Eingabe.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class SyntaxException extends Exception {
+
+    /**
+     * Aus Konformitätsgründen, wird von einigen IDEs erwartet.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /** die Zeile des Fehlers */
+    private final long line;
+
+    /** die Spalte des Fehlers */
+    private final long column;
+
+    /** der Offset des Fehlers */
+    private final long offset;
+
+    /**
+     * Konstruktor.
+     *
+     * @param message die Beschreibung des Fehlers
+     * @param line die Zeile des Fehlers, ab 1
+     * @param column die Spalte des Fehlers, ab 1
+     * @param offset der Offset des Fehlers, ab 0
+     */
+    public SyntaxException(String message, long line, long column, long offset) {
+        super("Zeile " + line + ", Spalte " + column + ": " + message);
+        this.line = line;
+        this.column = column;
+        this.offset = offset;
+    }
+
+    /**
+     * Liefert die Zeile des Fehlers.
+     *
+     * @return die Zeile, ab 1
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Liefert die Spalte des Fehlers.
+     *
+     * @return die Spalte, ab 1
+     */
+    public long getColumn() {
+        return column;
+    }
+
+    /**
+     * Liefert den Offset des Fehlers.
+     *
+     * @return der Offset in Zeichen ab dem Anfang der Eingabe
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,132 @@
+package logic;
+
+import expression.Context;
+import expression.IncompleteContextException;
+
+/**
+ * Ein Diagramm eines {@link BddManager}, also ein Verweis auf einen Wurzelknoten. Zwei Diagramme
+ * desselben Managers stellen genau dann dieselbe Funktion dar, wenn sie denselben Knoten
+ * haben; equals vergleicht deshalb nur Manager und Knoten.
+ *
+ * Das Diagramm hält seinen Wurzelknoten, bis es mit {@link #release()} freigegeben wird; erst
+ * danach kann {@link BddManager#collectGarbage()} seine Knoten entfernen.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class Bdd {
+
+    /** der Manager */
+    private final BddManager manager;
+
+    /** der Wurzelknoten */
+    private final int root;
+
+    /** true nach release */
+    private boolean released;
+
+    /**
+     * Konstruktor, zählt einen Verweis auf den Knoten.
+     *
+     * @param manager der Manager
+     * @param root der Wurzelknoten
+     */
+    Bdd(BddManager manager, int root) {
+        this.manager = manager;
+        this.root = root;
+        manager.reference(root);
+    }
+
+    /**
+     * Wertet das Diagramm auf einem Pfad von der Wurzel zu einem Terminal aus, gelesen werden
+     * höchstens so viele Variablen, wie der Manager kennt. Anders als bei evaluateShort werden
+     * nur die Variablen auf diesem Pfad benötigt.
+     *
+     * @param c der Kontext
+     * @return der Wahrheitswert
+     * @throws IncompleteContextException wenn eine Variable auf dem Pfad nicht im Kontext ist
+     * @pre das Diagramm ist nicht freigegeben
+     */
+    public boolean evaluate(Context c) throws IncompleteContextException {
+        assert !released;
+
+        int node = root;
+        while (node > BddManager.TRUE) {
+            String name = manager.getName(manager.getVar(node));
+            Boolean value = c == null ? null : c.get(name);
+            if (value == null) {
+                throw new IncompleteContextException(name);
+            }
+            node = manager.getChild(node, value);
+        }
+        return node == BddManager.TRUE;
+    }
+
+    /**
+     * Prüft, ob das Diagramm konstant ist.
+     *
+     * @return true, wenn das Diagramm ein Terminal ist
+     */
+    public boolean isConstant() {
+        return root <= BddManager.TRUE;
+    }
+
+    /**
+     * Prüft, ob das Diagramm für alle Belegungen wahr ist.
+     *
+     * @return true, wenn das Diagramm das Terminal true ist
+     */
+    public boolean isTautology() {
+        return root == BddManager.TRUE;
+    }
+
+    /**
+     * Prüft, ob das Diagramm für keine Belegung wahr ist.
+     *
+     * @return true, wenn das Diagramm das Terminal false ist
+     */
+    public boolean isUnsatisfiable() {
+        return root == BddManager.FALSE;
+    }
+
+    /**
+     * Liefert die Anzahl der Knoten ohne Terminale.
+     *
+     * @return die Anzahl der Knoten
+     * @pre das Diagramm ist nicht freigegeben
+     */
+    public int nodeCount() {
+        assert !released;
+
+        return manager.countNodes(root);
+    }
+
+    /**
+     * Gibt den Verweis auf den Wurzelknoten frei. Danach darf das Diagramm nicht mehr
+     * ausgewertet werden; ein weiterer Aufruf hat keine Wirkung.
+     */
+    public void release() {
+        if (!released) {
+            released = true;
+            manager.release(root);
+        }
+    }
+
+    /**
+     * Liefert den Manager.
+     *
+     * @return der Manager
+     */
+    public BddManager getManager() {
+        return manager;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Bdd other && other.manager == manager && other.root == root;
+    }
+
+    @Override
+    public int hashCode() {
+        return root;
+    }
+}
@@ -0,0 +1,734 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import expression.Expression;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Identity;
+import tree.Negation;
+import tree.Or;
+import tree.UnaryOperation;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * Verwaltet reduzierte geordnete binäre Entscheidungsdiagramme (ROBDD). Alle Diagramme eines
+ * Managers teilen sich die Knoten: eine Unique-Tabelle sorgt dafür, dass es zu jeder Variablen
+ * und jedem Paar von Nachfolgern höchstens einen Knoten gibt, und ein direkt adressierter
+ * Operations-Cache speichert die Ergebnisse der Verknüpfungen. Zwei Ausdrücke sind daher genau
+ * dann gleichwertig, wenn ihre Diagramme denselben Wurzelknoten haben.
+ *
+ * Die Knoten liegen in parallelen int-Feldern, 0 und 1 sind die Terminale false und true. Jeder
+ * Knoten zählt die Verweise von anderen Knoten und von {@link Bdd}-Objekten. Die Reihenfolge der
+ * Variablen kann beim Anlegen vorgegeben, mit {@link #setOrder(List)} geändert oder mit
+ * {@link #sift()} heuristisch verbessert werden. Beides geschieht durch Vertauschen
+ * benachbarter Ebenen an Ort und Stelle, die Nummern der Knoten und damit alle Bdd-Objekte
+ * bleiben dabei gültig.
+ *
+ * Knoten, die von einem Bdd-Objekt erreichbar sind, bleiben erhalten, bis es mit
+ * {@link Bdd#release()} freigegeben wird. Zwischenergebnisse und Knoten freigegebener Diagramme
+ * entfernt {@link #collectGarbage()}. Ein Manager darf nicht von mehreren Threads gleichzeitig
+ * verwendet werden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class BddManager {
+
+    /** das Terminal false */
+    static final int FALSE = 0;
+
+    /** das Terminal true */
+    static final int TRUE = 1;
+
+    /** Wahrheitstafel der Konjunktion, Bit (f &lt;&lt; 1 | g) ist der Wert für f und g */
+    private static final int AND = 0b1000;
+
+    /** Wahrheitstafel der Disjunktion */
+    private static final int OR = 0b1110;
+
+    /** Wahrheitstafel der Alternative */
+    private static final int XOR = 0b0110;
+
+    /** Wahrheitstafel der Äquivalenz */
+    private static final int EQUIV = 0b1001;
+
+    /** Wahrheitstafel der Implikation */
+    private static final int IMPL = 0b1011;
+
+    /** Variable freier Knoten */
+    private static final int FREE = -1;
+
+    /** Variable der Terminale */
+    private static final int TERMINAL = -2;
+
+    /** Anfangsgröße der Knotenfelder, eine Zweierpotenz */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Größe des Operations-Caches, eine Zweierpotenz */
+    private static final int CACHE_SIZE = 0x40000;
+
+    /** erster Faktor der Hashfunktionen */
+    private static final int HASH_A = 0x9E3779B1;
+
+    /** zweiter Faktor der Hashfunktionen */
+    private static final int HASH_B = 0x85EBCA77;
+
+    /** Faktor, um den ein Diagramm beim Verschieben einer Variablen höchstens wachsen darf */
+    private static final double MAX_GROWTH = 1.2;
+
+    /** die Variable jedes Knotens, FREE für freie Knoten */
+    private int[] var = new int[INITIAL_CAPACITY];
+
+    /** der Nachfolger für false */
+    private int[] low = new int[INITIAL_CAPACITY];
+
+    /** der Nachfolger für true */
+    private int[] high = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der Verweise auf jeden Knoten */
+    private int[] refs = new int[INITIAL_CAPACITY];
+
+    /** der nächste Knoten in derselben Kette der Unique-Tabelle oder der Freiliste */
+    private int[] next = new int[INITIAL_CAPACITY];
+
+    /** die Anfänge der Ketten der Unique-Tabelle, -1 für leere Ketten */
+    private int[] buckets = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der benutzten Knotennummern */
+    private int allocated = 2;
+
+    /** der erste freie Knoten oder -1 */
+    private int freeList = -1;
+
+    /** die Anzahl der Knoten ohne Terminale */
+    private int size;
+
+    /** die Operationen der Cache-Einträge, 0 für leere Einträge */
+    private final int[] cacheOp = new int[CACHE_SIZE];
+
+    /** die ersten Operanden der Cache-Einträge */
+    private final int[] cacheF = new int[CACHE_SIZE];
+
+    /** die zweiten Operanden der Cache-Einträge */
+    private final int[] cacheG = new int[CACHE_SIZE];
+
+    /** die Ergebnisse der Cache-Einträge */
+    private final int[] cacheResult = new int[CACHE_SIZE];
+
+    /** die Bezeichner der Variablen */
+    private final List<String> names = new ArrayList<>();
+
+    /** die Variablen zu den Bezeichnern */
+    private final Map<String, Integer> variables = new HashMap<>();
+
+    /** die Ebene jeder Variablen, 0 ist die Wurzel */
+    private int[] levelOf = new int[INITIAL_CAPACITY];
+
+    /** die Variable auf jeder Ebene */
+    private int[] varAt = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der Knoten je Variable */
+    private int[] varNodes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Konstruktor, Variablen werden in der Reihenfolge ihres ersten Auftretens angelegt.
+     */
+    public BddManager() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Konstruktor mit einer Reihenfolge für die Variablen. Weitere Variablen werden beim ersten
+     * Auftreten unterhalb der vorhandenen angelegt.
+     *
+     * @param order die Bezeichner von der Wurzel zu den Blättern
+     * @pre order != null
+     */
+    public BddManager(List<String> order) {
+        assert order != null;
+
+        Arrays.fill(buckets, -1);
+        var[FALSE] = TERMINAL;
+        var[TRUE] = TERMINAL;
+        for (String name : order) {
+            variable(name);
+        }
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in ein Diagramm. Der Baum wird ohne Rekursion durchlaufen,
+     * gemeinsame Teilausdrücke werden nur einmal übersetzt.
+     *
+     * @param e der Ausdruck
+     * @return das Diagramm
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre e != null
+     */
+    public Bdd compile(Expression e) {
+        assert e != null;
+
+        Map<Expression, Integer> done = new IdentityHashMap<>();
+        Expression[] stack = new Expression[INITIAL_CAPACITY];
+        boolean[] visited = new boolean[INITIAL_CAPACITY];
+        int[] values = new int[INITIAL_CAPACITY];
+        int top = 0;
+        int count = 0;
+        stack[0] = e;
+        while (top >= 0) {
+            Expression node = stack[top];
+            Integer known = visited[top] ? null : done.get(node);
+            int result;
+            if (known != null) {
+                result = known;
+            } else if (!visited[top] && (node instanceof BinaryOperation
+                    || node instanceof UnaryOperation)) {
+                visited[top] = true;
+                if (top + 2 >= stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    visited = Arrays.copyOf(visited, stack.length);
+                }
+                if (node instanceof BinaryOperation binary) {
+                    stack[++top] = binary.getRight();
+                    visited[top] = false;
+                    stack[++top] = binary.getLeft();
+                } else {
+                    stack[++top] = ((UnaryOperation) node).getOperand();
+                }
+                visited[top] = false;
+                continue;
+            } else if (node instanceof BinaryOperation) {
+                count--;
+                result = apply(operator(node), values[count - 1], values[count]);
+                count--;
+            } else if (node instanceof Negation) {
+                result = apply(XOR, values[--count], TRUE);
+            } else if (node instanceof Identity) {
+                result = values[--count];
+            } else if (node instanceof Variable variable) {
+                result = mk(variable(variable.getName()), FALSE, TRUE);
+            } else if (node instanceof Constant constant) {
+                result = constant.getValue() ? TRUE : FALSE;
+            } else {
+                throw new IllegalArgumentException(
+                        "unbekannter Knoten " + node.getClass().getName());
+            }
+            if (known == null) {
+                done.put(node, result);
+            }
+            stack[top--] = null;
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = result;
+        }
+        return new Bdd(this, values[0]);
+    }
+
+    /**
+     * Liefert das Diagramm einer Konstanten.
+     *
+     * @param value der Wert
+     * @return das Terminal
+     */
+    public Bdd constant(boolean value) {
+        return new Bdd(this, value ? TRUE : FALSE);
+    }
+
+    /**
+     * Liefert die Anzahl der Variablen.
+     *
+     * @return die Anzahl der Variablen
+     */
+    public int getVariableCount() {
+        return names.size();
+    }
+
+    /**
+     * Liefert die aktuelle Reihenfolge der Variablen.
+     *
+     * @return die Bezeichner von der Wurzel zu den Blättern
+     */
+    public List<String> getOrder() {
+        List<String> order = new ArrayList<>(names.size());
+        for (int level = 0; level < names.size(); level++) {
+            order.add(names.get(varAt[level]));
+        }
+        return order;
+    }
+
+    /**
+     * Ordnet die Variablen um. Bezeichner, die noch nicht vorkommen, werden angelegt; nicht
+     * genannte Variablen folgen in ihrer bisherigen Reihenfolge.
+     *
+     * @param order die Bezeichner von der Wurzel zu den Blättern
+     * @pre order != null
+     * @pre order enthält keinen Bezeichner doppelt
+     */
+    public void setOrder(List<String> order) {
+        assert order != null;
+        assert order.stream().distinct().count() == order.size();
+
+        collectGarbage();
+        for (int target = 0; target < order.size(); target++) {
+            int v = variable(order.get(target));
+            for (int level = levelOf[v]; level > target; level--) {
+                swap(level - 1);
+            }
+        }
+    }
+
+    /**
+     * Verbessert die Reihenfolge der Variablen durch Sifting: Jede Variable wird, beginnend mit
+     * der mit den meisten Knoten, nacheinander auf alle Ebenen verschoben und auf der Ebene
+     * belassen, auf der das Diagramm am kleinsten war. Eine Richtung wird abgebrochen, sobald
+     * das Diagramm um mehr als {@link #MAX_GROWTH} gewachsen ist.
+     *
+     * @return die Anzahl der Knoten danach
+     */
+    public int sift() {
+        collectGarbage();
+        Integer[] byNodes = new Integer[names.size()];
+        for (int v = 0; v < byNodes.length; v++) {
+            byNodes[v] = v;
+        }
+        Arrays.sort(byNodes, (a, b) -> Integer.compare(varNodes[b], varNodes[a]));
+        for (int v : byNodes) {
+            int start = levelOf[v];
+            int best = size;
+            int bestLevel = start;
+            while (levelOf[v] < names.size() - 1 && size <= best * MAX_GROWTH) {
+                swap(levelOf[v]);
+                if (size < best) {
+                    best = size;
+                    bestLevel = levelOf[v];
+                }
+            }
+            while (levelOf[v] > 0 && (levelOf[v] > start || size <= best * MAX_GROWTH)) {
+                swap(levelOf[v] - 1);
+                if (size < best) {
+                    best = size;
+                    bestLevel = levelOf[v];
+                }
+            }
+            while (levelOf[v] < bestLevel) {
+                swap(levelOf[v]);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Entfernt alle Knoten, die weder von einem Bdd-Objekt noch von einem anderen Knoten
+     * erreichbar sind, und leert den Operations-Cache.
+     *
+     * @return die Anzahl der Knoten danach
+     */
+    public int collectGarbage() {
+        for (int node = 2; node < allocated; node++) {
+            if (var[node] >= 0 && refs[node] == 0) {
+                free(node);
+            }
+        }
+        Arrays.fill(cacheOp, 0);
+        return size;
+    }
+
+    /**
+     * Liefert die Anzahl der Knoten ohne Terminale.
+     *
+     * @return die Anzahl der Knoten
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Liefert den Bezeichner einer Variablen.
+     *
+     * @param v die Variable
+     * @return der Bezeichner
+     */
+    String getName(int v) {
+        return names.get(v);
+    }
+
+    /**
+     * Liefert die Variable eines Knotens.
+     *
+     * @param node der Knoten, kein Terminal
+     * @return die Variable
+     */
+    int getVar(int node) {
+        return var[node];
+    }
+
+    /**
+     * Liefert den Nachfolger eines Knotens.
+     *
+     * @param node der Knoten, kein Terminal
+     * @param value der Wert der Variablen
+     * @return der Nachfolger
+     */
+    int getChild(int node, boolean value) {
+        return value ? high[node] : low[node];
+    }
+
+    /**
+     * Zählt einen Verweis von außen auf einen Knoten.
+     *
+     * @param node der Knoten
+     */
+    void reference(int node) {
+        refs[node]++;
+    }
+
+    /**
+     * Nimmt einen Verweis von außen zurück. Der Knoten bleibt liegen, bis ihn
+     * {@link #collectGarbage()} entfernt.
+     *
+     * @param node der Knoten
+     */
+    void release(int node) {
+        refs[node]--;
+    }
+
+    /**
+     * Zählt die Knoten ohne Terminale, die von einem Knoten erreichbar sind.
+     *
+     * @param root der Knoten
+     * @return die Anzahl der Knoten
+     */
+    int countNodes(int root) {
+        boolean[] seen = new boolean[allocated];
+        int[] stack = new int[names.size() + 1];
+        int top = 0;
+        int count = 0;
+        stack[0] = root;
+        seen[FALSE] = true;
+        seen[TRUE] = true;
+        while (top >= 0) {
+            int node = stack[top--];
+            if (!seen[node]) {
+                seen[node] = true;
+                count++;
+                if (top + 2 >= stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[++top] = low[node];
+                stack[++top] = high[node];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Liefert die Variable zu einem Bezeichner und legt sie beim ersten Auftreten auf der
+     * untersten Ebene an.
+     *
+     * @param name der Bezeichner
+     * @return die Variable
+     */
+    private int variable(String name) {
+        Integer v = variables.get(name);
+        if (v == null) {
+            v = names.size();
+            names.add(name);
+            variables.put(name, v);
+            if (v == levelOf.length) {
+                levelOf = Arrays.copyOf(levelOf, v * 2);
+                varAt = Arrays.copyOf(varAt, v * 2);
+                varNodes = Arrays.copyOf(varNodes, v * 2);
+            }
+            levelOf[v] = v;
+            varAt[v] = v;
+        }
+        return v;
+    }
+
+    /**
+     * Liefert die Ebene eines Knotens, Terminale liegen unter allen Variablen.
+     *
+     * @param node der Knoten
+     * @return die Ebene
+     */
+    private int level(int node) {
+        return node <= TRUE ? Integer.MAX_VALUE : levelOf[var[node]];
+    }
+
+    /**
+     * Liefert die Wahrheitstafel einer binären Operation.
+     *
+     * @param e die Operation
+     * @return die Wahrheitstafel
+     */
+    private static int operator(Expression e) {
+        if (e instanceof And) {
+            return AND;
+        } else if (e instanceof Or) {
+            return OR;
+        } else if (e instanceof Xor) {
+            return XOR;
+        } else if (e instanceof Equivalence) {
+            return EQUIV;
+        } else if (e instanceof Consequence) {
+            return IMPL;
+        }
+        throw new IllegalArgumentException("unbekannter Knoten " + e.getClass().getName());
+    }
+
+    /**
+     * Verknüpft zwei Diagramme mit einer Operation (Shannon-Zerlegung nach der obersten
+     * Variablen). Die Rekursionstiefe ist durch die Anzahl der Variablen begrenzt.
+     *
+     * @param op die Wahrheitstafel der Operation
+     * @param f der erste Operand
+     * @param g der zweite Operand
+     * @return das Ergebnis
+     */
+    private int apply(int op, int f, int g) {
+        if (f <= TRUE && g <= TRUE) {
+            return op >>> (f << 1 | g) & 1;
+        }
+        if (f <= TRUE || f == g) {
+            //Wert hängt nur von g ab
+            int onFalse = op >>> (f == g ? 0 : f << 1) & 1;
+            int onTrue = op >>> (f == g ? TRUE << 1 | TRUE : f << 1 | 1) & 1;
+            if (onFalse == onTrue) {
+                return onFalse;
+            } else if (onTrue == 1) {
+                return g;
+            }
+        } else if (g <= TRUE) {
+            int onFalse = op >>> g & 1;
+            int onTrue = op >>> (2 | g) & 1;
+            if (onFalse == onTrue) {
+                return onFalse;
+            } else if (onTrue == 1) {
+                return f;
+            }
+        }
+        int a = f;
+        int b = g;
+        if ((op == AND || op == OR || op == XOR || op == EQUIV) && a > b) {
+            a = g;
+            b = f;
+        }
+        int slot = (op * HASH_A + a) * HASH_B + b >>> 1 & CACHE_SIZE - 1;
+        if (cacheOp[slot] == op && cacheF[slot] == a && cacheG[slot] == b) {
+            return cacheResult[slot];
+        }
+        int levelA = level(a);
+        int levelB = level(b);
+        int top = Math.min(levelA, levelB);
+        int lo = apply(op, levelA == top ? low[a] : a, levelB == top ? low[b] : b);
+        int hi = apply(op, levelA == top ? high[a] : a, levelB == top ? high[b] : b);
+        int result = mk(varAt[top], lo, hi);
+        cacheOp[slot] = op;
+        cacheF[slot] = a;
+        cacheG[slot] = b;
+        cacheResult[slot] = result;
+        return result;
+    }
+
+    /**
+     * Liefert den Kettenanfang eines Knotens in der Unique-Tabelle.
+     *
+     * @param v die Variable
+     * @param lo der Nachfolger für false
+     * @param hi der Nachfolger für true
+     * @return der Index in buckets
+     */
+    private int bucket(int v, int lo, int hi) {
+        return ((v * HASH_A + lo) * HASH_B + hi) >>> 1 & buckets.length - 1;
+    }
+
+    /**
+     * Liefert den eindeutigen Knoten zu Variable und Nachfolgern und legt ihn bei Bedarf an.
+     *
+     * @param v die Variable
+     * @param lo der Nachfolger für false
+     * @param hi der Nachfolger für true
+     * @return der Knoten
+     */
+    private int mk(int v, int lo, int hi) {
+        if (lo == hi) {
+            return lo;
+        }
+        int b = bucket(v, lo, hi);
+        for (int node = buckets[b]; node >= 0; node = next[node]) {
+            if (var[node] == v && low[node] == lo && high[node] == hi) {
+                return node;
+            }
+        }
+        if (size == buckets.length) {
+            rehash();
+            b = bucket(v, lo, hi);
+        }
+        int node = allocate();
+        var[node] = v;
+        low[node] = lo;
+        high[node] = hi;
+        refs[node] = 0;
+        refs[lo]++;
+        refs[hi]++;
+        varNodes[v]++;
+        size++;
+        next[node] = buckets[b];
+        buckets[b] = node;
+        return node;
+    }
+
+    /**
+     * Liefert eine freie Knotennummer und vergrößert die Felder bei Bedarf.
+     *
+     * @return die Knotennummer
+     */
+    private int allocate() {
+        if (freeList >= 0) {
+            int node = freeList;
+            freeList = next[node];
+            return node;
+        }
+        if (allocated == var.length) {
+            int capacity = allocated * 2;
+            var = Arrays.copyOf(var, capacity);
+            low = Arrays.copyOf(low, capacity);
+            high = Arrays.copyOf(high, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return allocated++;
+    }
+
+    /**
+     * Verdoppelt die Unique-Tabelle.
+     */
+    private void rehash() {
+        buckets = new int[buckets.length * 2];
+        Arrays.fill(buckets, -1);
+        for (int node = 2; node < allocated; node++) {
+            if (var[node] >= 0) {
+                int b = bucket(var[node], low[node], high[node]);
+                next[node] = buckets[b];
+                buckets[b] = node;
+            }
+        }
+    }
+
+    /**
+     * Entfernt einen Knoten aus seiner Kette der Unique-Tabelle.
+     *
+     * @param node der Knoten
+     */
+    private void unlink(int node) {
+        int b = bucket(var[node], low[node], high[node]);
+        if (buckets[b] == node) {
+            buckets[b] = next[node];
+            return;
+        }
+        int prev = buckets[b];
+        while (next[prev] != node) {
+            prev = next[prev];
+        }
+        next[prev] = next[node];
+    }
+
+    /**
+     * Gibt einen Knoten ohne Verweise frei und nimmt den Nachfolgern je einen Verweis; Knoten,
+     * die dadurch keine Verweise mehr haben, werden ebenfalls freigegeben.
+     *
+     * @param root der Knoten
+     */
+    private void free(int root) {
+        int[] stack = new int[names.size() + 1];
+        int top = 0;
+        stack[0] = root;
+        while (top >= 0) {
+            int node = stack[top--];
+            unlink(node);
+            varNodes[var[node]]--;
+            size--;
+            var[node] = FREE;
+            next[node] = freeList;
+            freeList = node;
+            for (int child : new int[] {low[node], high[node]}) {
+                if (--refs[child] == 0 && child > TRUE) {
+                    if (top + 1 == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[++top] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Nimmt einem Knoten einen Verweis und gibt ihn frei, wenn keiner bleibt.
+     *
+     * @param node der Knoten
+     */
+    private void dereference(int node) {
+        if (--refs[node] == 0 && node > TRUE) {
+            free(node);
+        }
+    }
+
+    /**
+     * Vertauscht die Variablen zweier benachbarter Ebenen. Jeder Knoten x der oberen Ebene,
+     * dessen Nachfolger von der Variablen y der unteren Ebene abhängen, wird an Ort und Stelle
+     * zu einem y-Knoten mit zwei neuen x-Knoten als Nachfolgern umgebaut. Er stellt danach
+     * dieselbe Funktion dar, alle Verweise auf ihn bleiben gültig.
+     *
+     * @param level die obere Ebene
+     */
+    private void swap(int level) {
+        int x = varAt[level];
+        int y = varAt[level + 1];
+        int[] upper = new int[varNodes[x]];
+        int count = 0;
+        for (int node = 2; node < allocated && count < upper.length; node++) {
+            if (var[node] == x) {
+                upper[count++] = node;
+            }
+        }
+        for (int node : upper) {
+            int f0 = low[node];
+            int f1 = high[node];
+            boolean y0 = f0 > TRUE && var[f0] == y;
+            boolean y1 = f1 > TRUE && var[f1] == y;
+            if (!y0 && !y1) {
+                continue;
+            }
+            int newLow = mk(x, y0 ? low[f0] : f0, y1 ? low[f1] : f1);
+            refs[newLow]++;
+            int newHigh = mk(x, y0 ? high[f0] : f0, y1 ? high[f1] : f1);
+            refs[newHigh]++;
+            unlink(node);
+            varNodes[x]--;
+            varNodes[y]++;
+            var[node] = y;
+            low[node] = newLow;
+            high[node] = newHigh;
+            int b = bucket(y, newLow, newHigh);
+            next[node] = buckets[b];
+            buckets[b] = node;
+            dereference(f0);
+            dereference(f1);
+        }
+        varAt[level] = y;
+        varAt[level + 1] = x;
+        levelOf[x] = level + 1;
+        levelOf[y] = level;
+        Arrays.fill(cacheOp, 0);
+    }
+}
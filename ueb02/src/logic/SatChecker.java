@@ -0,0 +1,111 @@
+package logic;
+
+import expression.Context;
+import expression.Expression;
+
+/**
+ * Beantwortet Fragen nach Erfüllbarkeit, Allgemeingültigkeit und Äquivalenz von Ausdrücken mit
+ * einem {@link SatSolver}. Anders als ein {@link BddManager} braucht der Checker keinen Speicher,
+ * der mit der Anzahl der Variablen exponentiell wachsen kann, und eignet sich daher für Regeln
+ * mit Hunderten von Variablen.
+ *
+ * Alle Ausdrücke werden mit einer gemeinsamen {@link Tseitin}-Übersetzung in denselben Solver
+ * geschrieben, jede Frage wird als Annahme gestellt. Gemeinsame Teilausdrücke und gelernte
+ * Klauseln kommen so auch späteren Fragen zugute.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class SatChecker {
+
+    /** der Solver */
+    private final SatSolver solver = new SatSolver();
+
+    /** die Übersetzung in Klauseln */
+    private final Tseitin tseitin = new Tseitin(solver);
+
+    /** true, wenn die letzte Frage eine Belegung geliefert hat */
+    private boolean hasModel;
+
+    /**
+     * Konstruktor für einen Checker mit leerem Solver.
+     */
+    public SatChecker() {
+    }
+
+    /**
+     * Prüft, ob ein Ausdruck erfüllbar ist. Wenn ja, liefert {@link #getModel()} eine erfüllende
+     * Belegung.
+     *
+     * @param e der Ausdruck
+     * @return true, wenn es eine Belegung gibt, unter der der Ausdruck wahr ist
+     * @pre e != null
+     */
+    public boolean isSatisfiable(Expression e) {
+        assert e != null;
+
+        return solve(tseitin.encode(e));
+    }
+
+    /**
+     * Prüft, ob ein Ausdruck allgemeingültig ist. Wenn nicht, liefert {@link #getModel()} eine
+     * Belegung, unter der er falsch ist.
+     *
+     * @param e der Ausdruck
+     * @return true, wenn der Ausdruck unter jeder Belegung wahr ist
+     * @pre e != null
+     */
+    public boolean isTautology(Expression e) {
+        assert e != null;
+
+        return !solve(-tseitin.encode(e));
+    }
+
+    /**
+     * Prüft, ob zwei Ausdrücke äquivalent sind. Wenn nicht, liefert {@link #getModel()} eine
+     * Belegung, unter der sie sich unterscheiden.
+     *
+     * @param a der erste Ausdruck
+     * @param b der zweite Ausdruck
+     * @return true, wenn beide Ausdrücke unter jeder Belegung denselben Wert haben
+     * @pre a != null
+     * @pre b != null
+     */
+    public boolean areEquivalent(Expression a, Expression b) {
+        assert a != null;
+        assert b != null;
+
+        int left = tseitin.encode(a);
+        int right = tseitin.encode(b);
+        return !solve(tseitin.xor(left, right));
+    }
+
+    /**
+     * Liefert die Belegung der letzten Frage. Sie enthält alle Variablen, die der Checker
+     * bisher gesehen hat.
+     *
+     * @return die Belegung oder null, wenn die letzte Frage keine Belegung geliefert hat
+     */
+    public Context getModel() {
+        return hasModel ? tseitin.getModel() : null;
+    }
+
+    /**
+     * Liefert den Solver, etwa für seine Statistiken.
+     *
+     * @return der Solver
+     */
+    public SatSolver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Sucht eine Belegung, unter der ein Literal wahr ist.
+     *
+     * @param literal das Literal
+     * @return true, wenn es eine Belegung gibt
+     */
+    private boolean solve(int literal) {
+        hasModel = solver.solve(literal);
+        return hasModel;
+    }
+}
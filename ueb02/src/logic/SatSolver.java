@@ -0,0 +1,853 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Ein SAT-Solver nach dem Verfahren des konfliktgetriebenen Klausellernens (CDCL).
+ *
+ * Variablen sind die Zahlen ab 1, ein Literal ist eine Variable v oder ihre Negation -v wie im
+ * DIMACS-Format. Jede Klausel beobachtet zwei ihrer Literale (watched literals), so dass beim
+ * Propagieren nur die Klauseln angefasst werden, deren beobachtetes Literal falsch wird.
+ * Entschieden wird nach der Aktivität der Variablen (VSIDS) mit dem zuletzt gewählten
+ * Wahrheitswert, neu gestartet nach der Luby-Folge. Gelernte Klauseln werden bei Neustarts nach
+ * der Anzahl ihrer Entscheidungsebenen (LBD) ausgedünnt.
+ *
+ * {@link #solve(int...)} nimmt Annahmen entgegen, die nur für diesen Aufruf gelten; Klauseln
+ * und gelernte Klauseln bleiben zwischen den Aufrufen erhalten.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class SatSolver {
+
+    /** Anfangsgröße der Felder */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Wert eines wahren Literals */
+    private static final byte TRUE = 1;
+
+    /** Wert eines falschen Literals */
+    private static final byte FALSE = -1;
+
+    /** Kein Grund, das Literal ist eine Entscheidung oder eine Einheitsklausel */
+    private static final int NO_REASON = -1;
+
+    /** Abklingfaktor der Aktivitäten */
+    private static final double DECAY = 0.95;
+
+    /** Grenze, ab der alle Aktivitäten verkleinert werden */
+    private static final double RESCALE_LIMIT = 1e100;
+
+    /** Faktor beim Verkleinern der Aktivitäten */
+    private static final double RESCALE_FACTOR = 1e-100;
+
+    /** Konflikte im kürzesten Abschnitt zwischen zwei Neustarts */
+    private static final int RESTART_UNIT = 100;
+
+    /** Anzahl gelernter Klauseln, ab der zum ersten Mal ausgedünnt wird */
+    private static final int FIRST_REDUCE = 2000;
+
+    /** Zuwachs der Grenze nach jedem Ausdünnen */
+    private static final int REDUCE_INCREMENT = 300;
+
+    /** gelernte Klauseln mit höchstens so vielen Ebenen bleiben immer erhalten */
+    private static final int GLUE = 2;
+
+    /** Ergebnis einer Suche: erfüllbar */
+    private static final int SATISFIABLE = 1;
+
+    /** Ergebnis einer Suche: unerfüllbar */
+    private static final int UNSATISFIABLE = -1;
+
+    /** Ergebnis einer Suche: Neustart */
+    private static final int UNKNOWN = 0;
+
+    /** die Anzahl der Variablen */
+    private int variables;
+
+    /** der Wert jedes Literals, TRUE, FALSE oder 0 */
+    private byte[] values = new byte[INITIAL_CAPACITY * 2];
+
+    /** die Entscheidungsebene jeder Variablen */
+    private int[] level = new int[INITIAL_CAPACITY];
+
+    /** die Klausel, die eine Variable gesetzt hat, oder NO_REASON */
+    private int[] reason = new int[INITIAL_CAPACITY];
+
+    /** der zuletzt gesetzte Wahrheitswert jeder Variablen */
+    private boolean[] phase = new boolean[INITIAL_CAPACITY];
+
+    /** die Aktivität jeder Variablen */
+    private double[] activity = new double[INITIAL_CAPACITY];
+
+    /** die aktuelle Erhöhung der Aktivität */
+    private double increment = 1;
+
+    /** Max-Heap der Variablen nach Aktivität */
+    private int[] heap = new int[INITIAL_CAPACITY];
+
+    /** die Position jeder Variablen im Heap oder -1 */
+    private int[] heapIndex = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der Variablen im Heap */
+    private int heapSize;
+
+    /** die gesetzten Literale in der Reihenfolge ihrer Belegung */
+    private int[] trail = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der gesetzten Literale */
+    private int trailSize;
+
+    /** die Position des ersten Literals jeder Entscheidungsebene im Trail */
+    private int[] trailLimits = new int[INITIAL_CAPACITY];
+
+    /** die aktuelle Entscheidungsebene */
+    private int levels;
+
+    /** das nächste zu propagierende Literal im Trail */
+    private int head;
+
+    /** die Klauseln, die ersten beiden Literale werden beobachtet */
+    private int[][] clauses = new int[INITIAL_CAPACITY][];
+
+    /** die LBD jeder Klausel, 0 für nicht gelernte Klauseln */
+    private int[] lbd = new int[INITIAL_CAPACITY];
+
+    /** die Anzahl der Klauseln */
+    private int clauseCount;
+
+    /** die Anzahl der gelernten Klauseln */
+    private int learnedCount;
+
+    /** die Anzahl gelernter Klauseln, ab der ausgedünnt wird */
+    private int reduceLimit = FIRST_REDUCE;
+
+    /** die Klauseln, die ein Literal beobachten */
+    private int[][] watches = new int[INITIAL_CAPACITY * 2][];
+
+    /** die Anzahl der Klauseln, die ein Literal beobachten */
+    private int[] watchCount = new int[INITIAL_CAPACITY * 2];
+
+    /** Markierungen der Variablen bei der Konfliktanalyse */
+    private boolean[] seen = new boolean[INITIAL_CAPACITY];
+
+    /** Markierungen der Ebenen beim Berechnen der LBD */
+    private int[] levelStamp = new int[INITIAL_CAPACITY];
+
+    /** die aktuelle Markierung der Ebenen */
+    private int stamp;
+
+    /** die gelernte Klausel der letzten Konfliktanalyse */
+    private int[] learned = new int[INITIAL_CAPACITY];
+
+    /** die Länge der gelernten Klausel */
+    private int learnedSize;
+
+    /** true, wenn die Klauseln ohne Annahmen unerfüllbar sind */
+    private boolean inconsistent;
+
+    /** die Belegung der letzten erfolgreichen Suche oder null */
+    private boolean[] model;
+
+    /** die Anzahl der Konflikte */
+    private long conflicts;
+
+    /** die Anzahl der Entscheidungen */
+    private long decisions;
+
+    /** die Anzahl der propagierten Literale */
+    private long propagations;
+
+    /** die Anzahl der Neustarts */
+    private long restarts;
+
+    /**
+     * Konstruktor für einen Solver ohne Variablen und Klauseln.
+     */
+    public SatSolver() {
+    }
+
+    /**
+     * Legt eine neue Variable an.
+     *
+     * @return die Variable
+     */
+    public int newVariable() {
+        variables++;
+        if (variables == level.length) {
+            int capacity = level.length * 2;
+            values = Arrays.copyOf(values, capacity * 2);
+            watches = Arrays.copyOf(watches, capacity * 2);
+            watchCount = Arrays.copyOf(watchCount, capacity * 2);
+            level = Arrays.copyOf(level, capacity);
+            reason = Arrays.copyOf(reason, capacity);
+            phase = Arrays.copyOf(phase, capacity);
+            activity = Arrays.copyOf(activity, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            trailLimits = Arrays.copyOf(trailLimits, Math.max(capacity, trailLimits.length));
+            seen = Arrays.copyOf(seen, capacity);
+            levelStamp = Arrays.copyOf(levelStamp, Math.max(capacity, levelStamp.length));
+            learned = Arrays.copyOf(learned, capacity);
+        }
+        reason[variables] = NO_REASON;
+        heapIndex[variables] = -1;
+        heapInsert(variables);
+        return variables;
+    }
+
+    /**
+     * Liefert die Anzahl der Variablen.
+     *
+     * @return die Anzahl der Variablen
+     */
+    public int getVariableCount() {
+        return variables;
+    }
+
+    /**
+     * Fügt eine Klausel hinzu. Doppelte Literale werden entfernt, Klauseln mit einem Literal
+     * und seiner Negation ignoriert.
+     *
+     * @param literals die Literale, eine leere Klausel macht die Formel unerfüllbar
+     * @pre literals != null
+     * @pre jedes Literal ist ungleich 0 und gehört zu einer angelegten Variablen
+     */
+    public void addClause(int... literals) {
+        assert literals != null;
+        assert levels == 0;
+
+        if (inconsistent) {
+            return;
+        }
+        int[] clause = new int[literals.length];
+        int size = 0;
+        boolean satisfied = false;
+        for (int i = 0; i < literals.length && !satisfied; i++) {
+            assert literals[i] != 0 && Math.abs(literals[i]) <= variables;
+            int p = internal(literals[i]);
+            satisfied = values[p] == TRUE || seen[p >>> 1] && contains(clause, size, p ^ 1);
+            if (!satisfied && values[p] != FALSE && !(seen[p >>> 1] && contains(clause, size, p))) {
+                seen[p >>> 1] = true;
+                clause[size++] = p;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            seen[clause[i] >>> 1] = false;
+        }
+        if (satisfied) {
+            return;
+        }
+        if (size == 0) {
+            inconsistent = true;
+        } else if (size == 1) {
+            assign(clause[0], NO_REASON);
+            inconsistent = propagate() != NO_REASON;
+        } else {
+            store(Arrays.copyOf(clause, size), 0);
+        }
+    }
+
+    /**
+     * Sucht eine Belegung, die alle Klauseln und die Annahmen erfüllt.
+     *
+     * @param assumptions Literale, die nur für diese Suche als wahr angenommen werden
+     * @return true, wenn es eine solche Belegung gibt
+     * @pre assumptions != null
+     * @pre jedes Literal ist ungleich 0 und gehört zu einer angelegten Variablen
+     */
+    public boolean solve(int... assumptions) {
+        assert assumptions != null;
+
+        model = null;
+        if (inconsistent || propagate() != NO_REASON) {
+            inconsistent = true;
+            return false;
+        }
+        int[] assumed = new int[assumptions.length];
+        for (int i = 0; i < assumptions.length; i++) {
+            assert assumptions[i] != 0 && Math.abs(assumptions[i]) <= variables;
+            assumed[i] = internal(assumptions[i]);
+        }
+        if (trailLimits.length <= variables + assumed.length) {
+            //jede Annahme kann eine Ebene ohne neue Belegung öffnen
+            trailLimits = Arrays.copyOf(trailLimits, variables + assumed.length + 1);
+            levelStamp = Arrays.copyOf(levelStamp, trailLimits.length);
+        }
+        int result = UNKNOWN;
+        while (result == UNKNOWN) {
+            if (learnedCount >= reduceLimit) {
+                reduce();
+                reduceLimit += REDUCE_INCREMENT;
+            }
+            result = search(luby(restarts) * RESTART_UNIT, assumed);
+            if (result == UNKNOWN) {
+                restarts++;
+            }
+        }
+        return result == SATISFIABLE;
+    }
+
+    /**
+     * Liefert den Wert einer Variablen in der Belegung der letzten erfolgreichen Suche.
+     *
+     * @param variable die Variable
+     * @return der Wert
+     * @pre die letzte Suche war erfolgreich
+     * @pre 0 &lt; variable &lt;= Anzahl der Variablen bei der letzten Suche
+     */
+    public boolean value(int variable) {
+        assert model != null;
+        assert variable > 0 && variable < model.length;
+
+        return model[variable];
+    }
+
+    /**
+     * Liefert die Anzahl der Konflikte aller bisherigen Suchen.
+     *
+     * @return die Anzahl der Konflikte
+     */
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Liefert die Anzahl der Entscheidungen aller bisherigen Suchen.
+     *
+     * @return die Anzahl der Entscheidungen
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Liefert die Anzahl der propagierten Literale aller bisherigen Suchen.
+     *
+     * @return die Anzahl der propagierten Literale
+     */
+    public long getPropagations() {
+        return propagations;
+    }
+
+    /**
+     * Liefert die Anzahl der Neustarts aller bisherigen Suchen.
+     *
+     * @return die Anzahl der Neustarts
+     */
+    public long getRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Liefert die Anzahl der Klauseln einschließlich der gelernten.
+     *
+     * @return die Anzahl der Klauseln
+     */
+    public int getClauseCount() {
+        return clauseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Variablen " + variables + ", Klauseln " + clauseCount + " (" + learnedCount
+            + " gelernt), Konflikte " + conflicts + ", Entscheidungen " + decisions
+            + ", Propagationen " + propagations + ", Neustarts " + restarts;
+    }
+
+    /**
+     * Sucht bis zu einer Anzahl von Konflikten.
+     *
+     * @param limit die Anzahl der Konflikte bis zum Neustart
+     * @param assumed die Annahmen als interne Literale
+     * @return SATISFIABLE, UNSATISFIABLE oder UNKNOWN für einen Neustart
+     */
+    private int search(long limit, int[] assumed) {
+        long found = 0;
+        while (true) {
+            int conflict = propagate();
+            if (conflict != NO_REASON) {
+                conflicts++;
+                found++;
+                if (levels == 0) {
+                    inconsistent = true;
+                    return UNSATISFIABLE;
+                }
+                int back = analyze(conflict);
+                backtrack(back);
+                if (learnedSize == 1) {
+                    assign(learned[0], NO_REASON);
+                } else {
+                    int glue = glue();
+                    assign(learned[0], store(Arrays.copyOf(learned, learnedSize), glue));
+                    learnedCount++;
+                }
+                increment /= DECAY;
+            } else if (found >= limit) {
+                backtrack(0);
+                return UNKNOWN;
+            } else {
+                int next = NO_REASON;
+                while (next == NO_REASON && levels < assumed.length) {
+                    int p = assumed[levels];
+                    if (values[p] == FALSE) {
+                        backtrack(0);
+                        return UNSATISFIABLE;
+                    } else if (values[p] == TRUE) {
+                        trailLimits[levels++] = trailSize;
+                    } else {
+                        next = p;
+                    }
+                }
+                if (next == NO_REASON) {
+                    next = pickBranch();
+                    if (next == NO_REASON) {
+                        model = new boolean[variables + 1];
+                        for (int v = 1; v <= variables; v++) {
+                            model[v] = values[v << 1] == TRUE;
+                        }
+                        backtrack(0);
+                        return SATISFIABLE;
+                    }
+                    decisions++;
+                }
+                trailLimits[levels++] = trailSize;
+                assign(next, NO_REASON);
+            }
+        }
+    }
+
+    /**
+     * Propagiert alle Literale des Trails, die noch nicht propagiert sind.
+     *
+     * @return die verletzte Klausel oder NO_REASON
+     */
+    private int propagate() {
+        while (head < trailSize) {
+            int falseLiteral = trail[head++] ^ 1;
+            int[] list = watches[falseLiteral];
+            int count = watchCount[falseLiteral];
+            int keep = 0;
+            propagations++;
+            for (int i = 0; i < count; i++) {
+                int index = list[i];
+                int[] clause = clauses[index];
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                int first = clause[0];
+                if (values[first] != TRUE && !moveWatch(clause, index)) {
+                    list[keep++] = index;
+                    if (values[first] == FALSE) {
+                        System.arraycopy(list, i + 1, list, keep, count - i - 1);
+                        watchCount[falseLiteral] = keep + count - i - 1;
+                        head = trailSize;
+                        return index;
+                    }
+                    assign(first, index);
+                } else if (values[first] == TRUE) {
+                    list[keep++] = index;
+                }
+            }
+            watchCount[falseLiteral] = keep;
+        }
+        return NO_REASON;
+    }
+
+    /**
+     * Sucht für eine Klausel, deren zweites Literal falsch ist, ein anderes nicht falsches
+     * Literal und beobachtet dieses.
+     *
+     * @param clause die Klausel
+     * @param index der Index der Klausel
+     * @return true, wenn ein Literal gefunden wurde
+     */
+    private boolean moveWatch(int[] clause, int index) {
+        for (int k = 2; k < clause.length; k++) {
+            if (values[clause[k]] != FALSE) {
+                int p = clause[k];
+                clause[k] = clause[1];
+                clause[1] = p;
+                watch(p, index);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Analysiert einen Konflikt bis zum ersten eindeutigen Implikationspunkt (1-UIP). Die
+     * gelernte Klausel steht danach in learned, das zu setzende Literal an erster und ein
+     * Literal der Rücksprungebene an zweiter Stelle.
+     *
+     * @param conflict die verletzte Klausel
+     * @return die Ebene, auf die zurückgesprungen wird
+     */
+    private int analyze(int conflict) {
+        int open = 0;
+        int p = NO_REASON;
+        int index = trailSize - 1;
+        int clauseIndex = conflict;
+        learnedSize = 1;
+        do {
+            int[] clause = clauses[clauseIndex];
+            for (int k = p == NO_REASON ? 0 : 1; k < clause.length; k++) {
+                int q = clause[k];
+                int v = q >>> 1;
+                if (!seen[v] && level[v] > 0) {
+                    seen[v] = true;
+                    bump(v);
+                    if (level[v] >= levels) {
+                        open++;
+                    } else {
+                        learned[learnedSize++] = q;
+                    }
+                }
+            }
+            while (!seen[trail[index] >>> 1]) {
+                index--;
+            }
+            p = trail[index--];
+            clauseIndex = reason[p >>> 1];
+            seen[p >>> 1] = false;
+            open--;
+        } while (open > 0);
+        learned[0] = p ^ 1;
+
+        //Literale entfernen, deren Grund schon vollständig in der Klausel steht
+        int marked = learnedSize;
+        int[] all = Arrays.copyOf(learned, marked);
+        int size = 1;
+        for (int i = 1; i < marked; i++) {
+            if (!redundant(learned[i])) {
+                learned[size++] = learned[i];
+            }
+        }
+        learnedSize = size;
+        for (int i = 1; i < marked; i++) {
+            seen[all[i] >>> 1] = false;
+        }
+
+        int back = 0;
+        for (int i = 1; i < learnedSize; i++) {
+            if (level[learned[i] >>> 1] > back) {
+                back = level[learned[i] >>> 1];
+                int q = learned[i];
+                learned[i] = learned[1];
+                learned[1] = q;
+            }
+        }
+        return back;
+    }
+
+    /**
+     * Prüft, ob ein Literal der gelernten Klausel aus den übrigen folgt, weil alle anderen
+     * Literale seines Grundes markiert oder auf Ebene 0 gesetzt sind.
+     *
+     * @param p das Literal
+     * @return true, wenn das Literal entfernt werden kann
+     */
+    private boolean redundant(int p) {
+        int index = reason[p >>> 1];
+        if (index == NO_REASON) {
+            return false;
+        }
+        int[] clause = clauses[index];
+        for (int k = 1; k < clause.length; k++) {
+            int v = clause[k] >>> 1;
+            if (!seen[v] && level[v] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Berechnet die Anzahl der Entscheidungsebenen der gelernten Klausel.
+     *
+     * @return die LBD
+     */
+    private int glue() {
+        stamp++;
+        int count = 0;
+        for (int i = 0; i < learnedSize; i++) {
+            int l = level[learned[i] >>> 1];
+            if (levelStamp[l] != stamp) {
+                levelStamp[l] = stamp;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Nimmt alle Belegungen oberhalb einer Ebene zurück und merkt sich ihre Wahrheitswerte.
+     *
+     * @param target die Ebene, die erhalten bleibt
+     */
+    private void backtrack(int target) {
+        if (levels <= target) {
+            return;
+        }
+        int limit = trailLimits[target];
+        for (int i = trailSize - 1; i >= limit; i--) {
+            int p = trail[i];
+            int v = p >>> 1;
+            phase[v] = (p & 1) == 0;
+            values[p] = 0;
+            values[p ^ 1] = 0;
+            reason[v] = NO_REASON;
+            if (heapIndex[v] < 0) {
+                heapInsert(v);
+            }
+        }
+        trailSize = limit;
+        head = limit;
+        levels = target;
+    }
+
+    /**
+     * Setzt ein Literal auf wahr.
+     *
+     * @param p das Literal
+     * @param cause die Klausel, die das Literal erzwingt, oder NO_REASON
+     */
+    private void assign(int p, int cause) {
+        int v = p >>> 1;
+        values[p] = TRUE;
+        values[p ^ 1] = FALSE;
+        level[v] = levels;
+        reason[v] = cause;
+        trail[trailSize++] = p;
+    }
+
+    /**
+     * Wählt das nächste Entscheidungsliteral nach der Aktivität.
+     *
+     * @return das Literal oder NO_REASON, wenn alle Variablen belegt sind
+     */
+    private int pickBranch() {
+        while (heapSize > 0) {
+            int v = heapRemoveMax();
+            if (values[v << 1] == 0) {
+                return phase[v] ? v << 1 : v << 1 | 1;
+            }
+        }
+        return NO_REASON;
+    }
+
+    /**
+     * Erhöht die Aktivität einer Variablen.
+     *
+     * @param v die Variable
+     */
+    private void bump(int v) {
+        activity[v] += increment;
+        if (activity[v] > RESCALE_LIMIT) {
+            for (int i = 1; i <= variables; i++) {
+                activity[i] *= RESCALE_FACTOR;
+            }
+            increment *= RESCALE_FACTOR;
+        }
+        if (heapIndex[v] >= 0) {
+            siftUp(heapIndex[v]);
+        }
+    }
+
+    /**
+     * Entfernt die Hälfte der gelernten Klauseln mit der größten LBD, Klauseln mit einer LBD
+     * bis GLUE bleiben erhalten. Läuft auf Ebene 0, dort wird kein Grund mehr gebraucht.
+     */
+    private void reduce() {
+        assert levels == 0;
+
+        long[] candidates = new long[learnedCount];
+        int count = 0;
+        for (int i = 0; i < clauseCount; i++) {
+            if (lbd[i] > GLUE) {
+                //nach LBD aufsteigend, bei gleicher LBD neuere zuerst
+                candidates[count++] = (long) lbd[i] << Integer.SIZE | (Integer.MAX_VALUE - i);
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+        for (int i = count / 2; i < count; i++) {
+            int index = Integer.MAX_VALUE - (int) candidates[i];
+            clauses[index] = null;
+        }
+        for (int i = 0; i < trailSize; i++) {
+            reason[trail[i] >>> 1] = NO_REASON;
+        }
+        int size = 0;
+        learnedCount = 0;
+        for (int i = 0; i < clauseCount; i++) {
+            if (clauses[i] != null) {
+                clauses[size] = clauses[i];
+                lbd[size] = lbd[i];
+                learnedCount += lbd[i] > 0 ? 1 : 0;
+                size++;
+            }
+        }
+        Arrays.fill(clauses, size, clauseCount, null);
+        clauseCount = size;
+        Arrays.fill(watchCount, 0);
+        for (int i = 0; i < clauseCount; i++) {
+            watch(clauses[i][0], i);
+            watch(clauses[i][1], i);
+        }
+    }
+
+    /**
+     * Speichert eine Klausel und beobachtet ihre ersten beiden Literale.
+     *
+     * @param clause die Klausel mit mindestens zwei Literalen
+     * @param glue die LBD, 0 für nicht gelernte Klauseln
+     * @return der Index der Klausel
+     */
+    private int store(int[] clause, int glue) {
+        if (clauseCount == clauses.length) {
+            clauses = Arrays.copyOf(clauses, clauseCount * 2);
+            lbd = Arrays.copyOf(lbd, clauseCount * 2);
+        }
+        clauses[clauseCount] = clause;
+        lbd[clauseCount] = glue;
+        watch(clause[0], clauseCount);
+        watch(clause[1], clauseCount);
+        return clauseCount++;
+    }
+
+    /**
+     * Trägt eine Klausel in die Beobachtungsliste eines Literals ein.
+     *
+     * @param p das Literal
+     * @param index der Index der Klausel
+     */
+    private void watch(int p, int index) {
+        if (watches[p] == null) {
+            watches[p] = new int[INITIAL_CAPACITY];
+        } else if (watchCount[p] == watches[p].length) {
+            watches[p] = Arrays.copyOf(watches[p], watchCount[p] * 2);
+        }
+        watches[p][watchCount[p]++] = index;
+    }
+
+    /**
+     * Fügt eine Variable in den Heap ein.
+     *
+     * @param v die Variable
+     */
+    private void heapInsert(int v) {
+        heap[heapSize] = v;
+        heapIndex[v] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    /**
+     * Entfernt die Variable mit der größten Aktivität aus dem Heap.
+     *
+     * @return die Variable
+     */
+    private int heapRemoveMax() {
+        int max = heap[0];
+        heapIndex[max] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return max;
+    }
+
+    /**
+     * Verschiebt eine Variable im Heap nach oben.
+     *
+     * @param position die Position der Variablen
+     */
+    private void siftUp(int position) {
+        int v = heap[position];
+        int i = position;
+        while (i > 0 && activity[heap[(i - 1) >>> 1]] < activity[v]) {
+            int parent = (i - 1) >>> 1;
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    /**
+     * Verschiebt eine Variable im Heap nach unten.
+     *
+     * @param position die Position der Variablen
+     */
+    private void siftDown(int position) {
+        int v = heap[position];
+        int i = position;
+        int child = 2 * i + 1;
+        while (child < heapSize) {
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) {
+                child++;
+            }
+            if (activity[heap[child]] <= activity[v]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+            child = 2 * i + 1;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    /**
+     * Prüft, ob ein Literal in den ersten Einträgen einer Klausel steht.
+     *
+     * @param clause die Klausel
+     * @param size die Anzahl der Einträge
+     * @param p das Literal
+     * @return true, wenn das Literal enthalten ist
+     */
+    private static boolean contains(int[] clause, int size, int p) {
+        for (int i = 0; i < size; i++) {
+            if (clause[i] == p) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wandelt ein Literal im DIMACS-Format in die interne Darstellung 2v bzw. 2v + 1 um.
+     *
+     * @param literal das Literal
+     * @return das interne Literal
+     */
+    private static int internal(int literal) {
+        return literal > 0 ? literal << 1 : -literal << 1 | 1;
+    }
+
+    /**
+     * Liefert ein Glied der Luby-Folge 1, 1, 2, 1, 1, 2, 4, 1, ...
+     *
+     * @param index der Index ab 0
+     * @return das Glied
+     */
+    private static long luby(long index) {
+        long size = 1;
+        int exponent = 0;
+        while (size < index + 1) {
+            exponent++;
+            size = 2 * size + 1;
+        }
+        long i = index;
+        while (size - 1 != i) {
+            size = (size - 1) >>> 1;
+            exponent--;
+            i = i % size;
+        }
+        return 1L << exponent;
+    }
+}
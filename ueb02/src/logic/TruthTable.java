@@ -0,0 +1,282 @@
+package logic;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+import compiler.Batch;
+import compiler.BatchEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.VariableTable;
+
+/**
+ * Wertet einen Ausdruck für alle 2^n Belegungen seiner n Variablen aus, ohne pro Zeile einen
+ * Kontext anzulegen. Eine Belegung ist ein long, dessen Bit i der Wert der Variablen
+ * {@link #getVariable(int) getVariable(i)} ist.
+ *
+ * Die Tabelle wird in Blöcke zu 4096 Zeilen zerlegt, die mit dem {@link BatchEvaluator}
+ * spaltenweise ausgewertet werden: die unteren zwölf Variablen durchlaufen innerhalb eines
+ * Blocks feste Bitmuster, die übrigen sind im ganzen Block konstant. Die Blöcke werden im
+ * Gray-Code aufgezählt, von einem Block zum nächsten ändert sich also genau eine Spalte. Die
+ * Blöcke werden mit Fork/Join auf die Kerne verteilt; ein Blatt der Zerlegung nutzt eine
+ * einzige Batch, in der es nur die jeweils geänderte Spalte neu setzt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class TruthTable {
+
+    /** Anzahl der Variablen, die innerhalb eines Blocks aufgezählt werden */
+    private static final int INNER_BITS = 12;
+
+    /** Anzahl der Variablen, die innerhalb eines Worts aufgezählt werden */
+    private static final int LANE_BITS = 6;
+
+    /** Bitmuster der Variablen innerhalb eines Worts */
+    private static final long[] LANE_PATTERNS = {0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL,
+        0xF0F0F0F0F0F0F0F0L, 0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L};
+
+    /** Anzahl der Blöcke, ab der eine Aufgabe geteilt wird */
+    private static final int LEAF_BLOCKS = 16;
+
+    /** die Tabelle der Variablen, Slot i ist Variable i */
+    private final VariableTable table = new VariableTable();
+
+    /** der Auswerter */
+    private final BatchEvaluator evaluator;
+
+    /** der Pool für die parallele Aufzählung */
+    private final ForkJoinPool pool;
+
+    /** die Anzahl der Variablen */
+    private final int variables;
+
+    /** die Anzahl der Variablen innerhalb eines Blocks */
+    private final int inner;
+
+    /** die spaltenweisen Bitmuster der Variablen innerhalb eines Blocks */
+    private final long[][] innerColumns;
+
+    /**
+     * Konstruktor für den gemeinsamen ForkJoinPool.
+     *
+     * @param e der Ausdruck
+     * @pre e != null
+     * @pre e hat weniger als 63 Variablen
+     */
+    public TruthTable(Expression e) {
+        this(e, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Konstruktor.
+     *
+     * @param e der Ausdruck
+     * @param pool der Pool für die parallele Aufzählung
+     * @pre e != null
+     * @pre pool != null
+     * @pre e hat weniger als 63 Variablen
+     */
+    public TruthTable(Expression e, ForkJoinPool pool) {
+        assert e != null;
+        assert pool != null;
+
+        this.evaluator = new BatchEvaluator(e, false, table);
+        this.pool = pool;
+        this.variables = table.size();
+        assert variables < Long.SIZE - 1;
+        this.inner = Math.min(variables, INNER_BITS);
+        int words = words();
+        innerColumns = new long[inner][words];
+        for (int v = 0; v < inner; v++) {
+            for (int w = 0; w < words; w++) {
+                innerColumns[v][w] = v < LANE_BITS ? LANE_PATTERNS[v]
+                        : ((w >>> (v - LANE_BITS)) & 1) != 0 ? -1L : 0L;
+            }
+        }
+    }
+
+    /**
+     * Liefert die Anzahl der Variablen.
+     *
+     * @return die Anzahl der Variablen
+     */
+    public int getVariableCount() {
+        return variables;
+    }
+
+    /**
+     * Liefert den Bezeichner einer Variablen.
+     *
+     * @param index der Index der Variablen, zugleich ihr Bit in einer Belegung
+     * @return der Bezeichner
+     * @pre 0 &lt;= index &lt; getVariableCount()
+     */
+    public String getVariable(int index) {
+        return table.getName(index);
+    }
+
+    /**
+     * Zählt die erfüllenden Belegungen.
+     *
+     * @return die Anzahl der Belegungen, für die der Ausdruck wahr ist
+     */
+    public long countSatisfying() {
+        return pool.invoke(new Task(0, blocks(), null, null));
+    }
+
+    /**
+     * Prüft, ob der Ausdruck erfüllbar ist. Die Aufzählung endet, sobald eine erfüllende
+     * Belegung gefunden ist.
+     *
+     * @return true, wenn es eine erfüllende Belegung gibt
+     */
+    public boolean isSatisfiable() {
+        AtomicBoolean found = new AtomicBoolean();
+        pool.invoke(new Task(0, blocks(), null, found));
+        return found.get();
+    }
+
+    /**
+     * Übergibt jede erfüllende Belegung an einen Consumer. Die Aufrufe kommen aus mehreren
+     * Threads und in keiner festen Reihenfolge.
+     *
+     * @param consumer der Consumer, er muss threadsicher sein
+     * @return die Anzahl der erfüllenden Belegungen
+     * @pre consumer != null
+     */
+    public long forEachSatisfying(LongConsumer consumer) {
+        assert consumer != null;
+
+        return pool.invoke(new Task(0, blocks(), consumer, null));
+    }
+
+    /**
+     * Erzeugt den Kontext zu einer Belegung.
+     *
+     * @param assignment die Belegung, Bit i ist der Wert der Variablen i
+     * @return der Kontext
+     */
+    public Context toContext(long assignment) {
+        Context c = new Context();
+        for (int v = 0; v < variables; v++) {
+            c.set(table.getName(v), ((assignment >>> v) & 1L) != 0L);
+        }
+        return c;
+    }
+
+    /**
+     * Liefert die Anzahl der Zeilen eines Blocks.
+     *
+     * @return die Anzahl der Zeilen
+     */
+    private int rows() {
+        return 1 << inner;
+    }
+
+    /**
+     * Liefert die Anzahl der Wörter einer Spalte eines Blocks.
+     *
+     * @return die Anzahl der Wörter
+     */
+    private int words() {
+        return (rows() + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Liefert die Anzahl der Blöcke.
+     *
+     * @return die Anzahl der Blöcke
+     */
+    private long blocks() {
+        return 1L << (variables - inner);
+    }
+
+    /**
+     * Zählt einen Bereich von Blöcken auf.
+     */
+    private final class Task extends RecursiveTask<Long> {
+
+        /** Version für die Serialisierung */
+        private static final long serialVersionUID = 1L;
+
+        /** der erste Block */
+        private final long from;
+
+        /** der Block hinter dem letzten */
+        private final long to;
+
+        /** der Consumer für erfüllende Belegungen oder null */
+        private final transient LongConsumer consumer;
+
+        /** gesetzt, sobald eine erfüllende Belegung gefunden ist, oder null */
+        private final transient AtomicBoolean found;
+
+        /**
+         * Konstruktor.
+         *
+         * @param from der erste Block
+         * @param to der Block hinter dem letzten
+         * @param consumer der Consumer für erfüllende Belegungen oder null
+         * @param found Abbruchsignal für die Suche nach einer Belegung oder null
+         */
+        Task(long from, long to, LongConsumer consumer, AtomicBoolean found) {
+            this.from = from;
+            this.to = to;
+            this.consumer = consumer;
+            this.found = found;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > LEAF_BLOCKS) {
+                long middle = (from + to) >>> 1;
+                Task right = new Task(middle, to, consumer, found);
+                right.fork();
+                long left = new Task(from, middle, consumer, found).compute();
+                return left + right.join();
+            }
+            Batch batch = new Batch(table, rows());
+            for (int v = 0; v < inner; v++) {
+                batch.setColumn(table.getName(v), innerColumns[v]);
+            }
+            long[] zero = new long[words()];
+            long[] one = new long[words()];
+            Arrays.fill(one, -1L);
+            long gray = from ^ (from >>> 1);
+            for (int v = inner; v < variables; v++) {
+                batch.setColumn(table.getName(v), ((gray >>> (v - inner)) & 1L) != 0L ? one
+                        : zero);
+            }
+            long count = 0;
+            for (long block = from; block < to; block++) {
+                if (block > from) {
+                    //genau eine äußere Variable ändert sich
+                    int flip = Long.numberOfTrailingZeros(block);
+                    gray ^= 1L << flip;
+                    batch.setColumn(table.getName(inner + flip),
+                            ((gray >>> flip) & 1L) != 0L ? one : zero);
+                }
+                if (found != null && found.get()) {
+                    return count;
+                }
+                long[] values = evaluator.evaluate(batch).getValues();
+                for (int w = 0; w < values.length; w++) {
+                    long word = values[w];
+                    count += Long.bitCount(word);
+                    if (word != 0L && found != null) {
+                        found.set(true);
+                    }
+                    while (consumer != null && word != 0L) {
+                        long row = (long) w * Long.SIZE + Long.numberOfTrailingZeros(word);
+                        consumer.accept(gray << inner | row);
+                        word &= word - 1;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import expression.Context;
+import expression.Expression;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Constant;
+import tree.Equivalence;
+import tree.Identity;
+import tree.Negation;
+import tree.Or;
+import tree.UnaryOperation;
+import tree.Variable;
+import tree.Xor;
+
+/**
+ * Übersetzt Ausdrücke mit der Tseitin-Transformation in Klauseln eines {@link SatSolver}.
+ * Jede Und- und Xor-Verknüpfung erhält eine eigene Variable, die durch drei bzw. vier Klauseln
+ * mit ihren Operanden verbunden wird; Oder, Implikation und Äquivalenz werden über Negationen
+ * darauf zurückgeführt, Negationen und Identitäten kosten keine Variable. Die Klauselmenge
+ * wächst damit linear mit der Größe des Ausdrucks.
+ *
+ * Gleiche Verknüpfungen gleicher Literale werden nur einmal angelegt, auch über mehrere
+ * Ausdrücke hinweg. Die Klauseln legen nur die Hilfsvariablen fest und schränken die
+ * Variablen der Ausdrücke nicht ein, deshalb kann ein Solver für beliebig viele Anfragen über
+ * Annahmen genutzt werden.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class Tseitin {
+
+    /** Anfangsgröße der Stapel */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** der Solver, der die Klauseln erhält */
+    private final SatSolver solver;
+
+    /** die Variable, die immer wahr ist */
+    private final int truth;
+
+    /** die Variablen der Bezeichner */
+    private final Map<String, Integer> variables = new HashMap<>();
+
+    /** die Bezeichner in der Reihenfolge ihres Auftretens */
+    private final List<String> names = new ArrayList<>();
+
+    /** die Literale der bereits übersetzten Knoten */
+    private final Map<Expression, Integer> done = new IdentityHashMap<>();
+
+    /** die Variablen der Und-Verknüpfungen nach ihren Operanden */
+    private final Map<Long, Integer> ands = new HashMap<>();
+
+    /** die Variablen der Xor-Verknüpfungen nach ihren Operanden */
+    private final Map<Long, Integer> xors = new HashMap<>();
+
+    /**
+     * Konstruktor.
+     *
+     * @param solver der Solver, der die Klauseln erhält
+     * @pre solver != null
+     */
+    public Tseitin(SatSolver solver) {
+        assert solver != null;
+
+        this.solver = solver;
+        this.truth = solver.newVariable();
+        solver.addClause(truth);
+    }
+
+    /**
+     * Übersetzt einen Ausdruck. Der Baum wird ohne Rekursion durchlaufen, gemeinsame
+     * Teilausdrücke werden nur einmal übersetzt.
+     *
+     * @param e der Ausdruck
+     * @return ein Literal, das genau dann wahr ist, wenn der Ausdruck wahr ist
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @pre e != null
+     */
+    public int encode(Expression e) {
+        assert e != null;
+
+        Expression[] stack = new Expression[INITIAL_CAPACITY];
+        boolean[] visited = new boolean[INITIAL_CAPACITY];
+        int[] values = new int[INITIAL_CAPACITY];
+        int top = 0;
+        int count = 0;
+        stack[0] = e;
+        while (top >= 0) {
+            Expression node = stack[top];
+            Integer known = visited[top] ? null : done.get(node);
+            int result;
+            if (known != null) {
+                result = known;
+            } else if (!visited[top] && (node instanceof BinaryOperation
+                    || node instanceof UnaryOperation)) {
+                visited[top] = true;
+                if (top + 2 >= stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    visited = Arrays.copyOf(visited, stack.length);
+                }
+                if (node instanceof BinaryOperation binary) {
+                    stack[++top] = binary.getRight();
+                    visited[top] = false;
+                    stack[++top] = binary.getLeft();
+                } else {
+                    stack[++top] = ((UnaryOperation) node).getOperand();
+                }
+                visited[top] = false;
+                continue;
+            } else if (node instanceof BinaryOperation) {
+                count--;
+                result = binary(node, values[count - 1], values[count]);
+                count--;
+            } else if (node instanceof Negation) {
+                result = -values[--count];
+            } else if (node instanceof Identity) {
+                result = values[--count];
+            } else if (node instanceof Variable variable) {
+                result = variable(variable.getName());
+            } else if (node instanceof Constant constant) {
+                result = constant.getValue() ? truth : -truth;
+            } else {
+                throw new IllegalArgumentException(
+                        "unbekannter Knoten " + node.getClass().getName());
+            }
+            if (known == null) {
+                done.put(node, result);
+            }
+            stack[top--] = null;
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = result;
+        }
+        return values[0];
+    }
+
+    /**
+     * Liefert die Variable eines Bezeichners.
+     *
+     * @param name der Bezeichner
+     * @return die Variable oder 0, wenn der Bezeichner noch nicht vorkam
+     * @pre name != null
+     */
+    public int getVariable(String name) {
+        assert name != null;
+
+        return variables.getOrDefault(name, 0);
+    }
+
+    /**
+     * Liefert die Belegung aller bisher übersetzten Bezeichner aus der letzten erfolgreichen
+     * Suche des Solvers.
+     *
+     * @return der Kontext
+     * @pre die letzte Suche des Solvers war erfolgreich und nach der letzten Übersetzung
+     */
+    public Context getModel() {
+        Context c = new Context();
+        for (String name : names) {
+            c.set(name, solver.value(variables.get(name)));
+        }
+        return c;
+    }
+
+    /**
+     * Liefert ein Literal für die Und-Verknüpfung zweier Literale.
+     *
+     * @param a das erste Literal
+     * @param b das zweite Literal
+     * @return das Literal der Verknüpfung
+     */
+    int and(int a, int b) {
+        if (a == b || b == truth) {
+            return a;
+        } else if (a == truth) {
+            return b;
+        } else if (a == -b || a == -truth || b == -truth) {
+            return -truth;
+        }
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        Long key = (long) low << Integer.SIZE | Integer.toUnsignedLong(high);
+        Integer known = ands.get(key);
+        if (known != null) {
+            return known;
+        }
+        int x = solver.newVariable();
+        solver.addClause(-x, a);
+        solver.addClause(-x, b);
+        solver.addClause(x, -a, -b);
+        ands.put(key, x);
+        return x;
+    }
+
+    /**
+     * Liefert ein Literal für die Xor-Verknüpfung zweier Literale. Negationen der Operanden
+     * werden als Negation des Ergebnisses herausgezogen.
+     *
+     * @param a das erste Literal
+     * @param b das zweite Literal
+     * @return das Literal der Verknüpfung
+     */
+    int xor(int a, int b) {
+        int sign = (a < 0) == (b < 0) ? 1 : -1;
+        int low = Math.min(Math.abs(a), Math.abs(b));
+        int high = Math.max(Math.abs(a), Math.abs(b));
+        if (low == high) {
+            return a == b ? -truth : truth;
+        } else if (low == truth) {
+            return sign * -high;
+        }
+        Long key = (long) low << Integer.SIZE | high;
+        Integer known = xors.get(key);
+        if (known == null) {
+            known = solver.newVariable();
+            solver.addClause(-known, low, high);
+            solver.addClause(-known, -low, -high);
+            solver.addClause(known, -low, high);
+            solver.addClause(known, low, -high);
+            xors.put(key, known);
+        }
+        return sign * known;
+    }
+
+    /**
+     * Übersetzt eine binäre Operation.
+     *
+     * @param e die Operation
+     * @param left das Literal des linken Operanden
+     * @param right das Literal des rechten Operanden
+     * @return das Literal der Operation
+     */
+    private int binary(Expression e, int left, int right) {
+        if (e instanceof And) {
+            return and(left, right);
+        } else if (e instanceof Or) {
+            return -and(-left, -right);
+        } else if (e instanceof Xor) {
+            return xor(left, right);
+        } else if (e instanceof Equivalence) {
+            return -xor(left, right);
+        } else if (e instanceof Consequence) {
+            return -and(left, -right);
+        }
+        throw new IllegalArgumentException("unbekannter Knoten " + e.getClass().getName());
+    }
+
+    /**
+     * Liefert die Variable eines Bezeichners und legt sie bei Bedarf an.
+     *
+     * @param name der Bezeichner
+     * @return die Variable
+     */
+    private int variable(String name) {
+        Integer v = variables.get(name);
+        if (v == null) {
+            v = solver.newVariable();
+            variables.put(name, v);
+            names.add(name);
+        }
+        return v;
+    }
+}
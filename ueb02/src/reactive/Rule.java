@@ -0,0 +1,99 @@
+package reactive;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+import expression.Expression;
+
+/**
+ * Eine bei einer {@link RuleEngine} angemeldete Regel. Abonnenten erhalten den neuen
+ * Wahrheitswert, sobald er sich ändert; solange der Regel eine Variable fehlt, hat sie keinen
+ * Wert und es wird nichts gemeldet. Die Zustellung übernimmt ein {@link SubmissionPublisher},
+ * der jedem Abonnenten nur so viele Werte schickt, wie er angefordert hat, und höchstens
+ * bufferCapacity Werte für ihn puffert.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class Rule implements Flow.Publisher<Boolean> {
+
+    /** der Ausdruck */
+    private final Expression expression;
+
+    /** verteilt die Änderungen an die Abonnenten */
+    private final SubmissionPublisher<Boolean> publisher;
+
+    /** der aktuelle Wert oder null, wenn eine Variable fehlt */
+    private volatile Boolean value;
+
+    /** der zuletzt bekannte Wert oder null */
+    private Boolean lastKnown;
+
+    /**
+     * Konstruktor.
+     *
+     * @param expression der Ausdruck
+     * @param executor der Executor für die Zustellung
+     * @param bufferCapacity die Anzahl der Werte, die pro Abonnent gepuffert werden
+     * @param value der anfängliche Wert oder null
+     */
+    Rule(Expression expression, Executor executor, int bufferCapacity, Boolean value) {
+        this.expression = expression;
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.value = value;
+        this.lastKnown = value;
+    }
+
+    /**
+     * Liefert den Ausdruck.
+     *
+     * @return der Ausdruck
+     */
+    public Expression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Liefert den Wert nach dem letzten Durchlauf der Engine.
+     *
+     * @return der Wert oder null, wenn der Regel eine Variable fehlt
+     */
+    public Boolean getValue() {
+        return value;
+    }
+
+    /**
+     * Liefert die Anzahl der aktuellen Abonnenten.
+     *
+     * @return die Anzahl der Abonnenten
+     */
+    public int getSubscriberCount() {
+        return publisher.getNumberOfSubscribers();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Boolean> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Übernimmt einen neuen Wert und meldet ihn, wenn er bekannt ist und sich vom zuletzt
+     * bekannten unterscheidet. Blockiert, solange der Puffer eines Abonnenten voll ist.
+     *
+     * @param next der neue Wert oder null
+     */
+    void update(Boolean next) {
+        value = next;
+        if (next != null && !next.equals(lastKnown)) {
+            lastKnown = next;
+            publisher.submit(next);
+        }
+    }
+
+    /**
+     * Meldet den Abonnenten das Ende.
+     */
+    void close() {
+        publisher.close();
+    }
+}
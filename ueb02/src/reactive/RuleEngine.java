@@ -0,0 +1,266 @@
+package reactive;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+import evaluation.IncrementalEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Publish/Subscribe-Schicht über Regeln. Aufrufer melden beliebig viele Regeln an, schieben
+ * Variablenänderungen mit {@link #set(String, boolean)} hinein und abonnieren die
+ * {@link Rule Regeln} als {@link Flow.Publisher}; gemeldet wird nur, wenn sich der
+ * Wahrheitswert einer Regel ändert.
+ *
+ * set trägt die Änderung nur in eine Sammlung offener Änderungen ein, spätere Werte derselben
+ * Variablen überschreiben frühere. Ein Durchlauf auf dem Executor übernimmt jeweils alle
+ * offenen Änderungen auf einmal, so dass eine Folge von set-Aufrufen nur einen Durchlauf
+ * auslöst. Alle Regeln liegen in einem gemeinsamen {@link IncrementalEvaluator}: gemeinsame
+ * Teilausdrücke werden einmal berechnet, und Regeln mit gemeinsamen Variablen werden im selben
+ * Durchlauf neu ausgewertet.
+ *
+ * Ist der Puffer eines langsamen Abonnenten voll, wartet der Durchlauf, bis Platz frei wird.
+ * Weitere Änderungen sammeln sich währenddessen und werden im nächsten Durchlauf
+ * zusammengefasst; ein langsamer Abonnent bremst also die Durchläufe, nicht die Aufrufer von
+ * set, und der Speicher für offene Änderungen ist durch die Anzahl der Variablen begrenzt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public final class RuleEngine implements AutoCloseable {
+
+    /** der Executor für Durchläufe und Zustellung */
+    private final Executor executor;
+
+    /** die Anzahl der Werte, die pro Abonnent gepuffert werden */
+    private final int bufferCapacity;
+
+    /** der gemeinsame Auswerter aller Regeln, zugleich Sperre für Durchläufe */
+    private final IncrementalEvaluator evaluator = new IncrementalEvaluator(new Context());
+
+    /** die Regeln nach der Nummer ihrer Wurzel */
+    private final List<Rule> rules = new ArrayList<>();
+
+    /** die offenen Änderungen, geschützt durch this */
+    private Map<String, Boolean> pending = new HashMap<>();
+
+    /** true, solange ein Durchlauf geplant ist oder läuft, geschützt durch this */
+    private boolean scheduled;
+
+    /** true nach close, geschützt durch this */
+    private boolean closed;
+
+    /** true, sobald der letzte Durchlauf die Regeln geschlossen hat, geschützt durch evaluator */
+    private boolean finished;
+
+    /** die Anzahl der set-Aufrufe, geschützt durch this */
+    private long updateCount;
+
+    /** die Anzahl der Durchläufe, geschützt durch evaluator */
+    private long passCount;
+
+    /**
+     * Konstruktor für den gemeinsamen ForkJoinPool und die Standardpuffergröße.
+     */
+    public RuleEngine() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * Konstruktor. Der Executor führt die Durchläufe und die Zustellung an die Abonnenten aus;
+     * da ein Durchlauf auf volle Puffer wartet, muss er mindestens zwei Aufgaben gleichzeitig
+     * ausführen können.
+     *
+     * @param executor der Executor für Durchläufe und Zustellung
+     * @param bufferCapacity die Anzahl der Werte, die pro Abonnent gepuffert werden
+     * @pre executor != null
+     * @pre bufferCapacity &gt; 0
+     */
+    public RuleEngine(Executor executor, int bufferCapacity) {
+        assert executor != null;
+        assert bufferCapacity > 0;
+
+        this.executor = executor;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Meldet eine Regel an. Ihr anfänglicher Wert ergibt sich aus den bereits übernommenen
+     * Änderungen; noch offene Änderungen werden im nächsten Durchlauf gemeldet. Läuft close
+     * gleichzeitig, wird die Regel entweder noch vom letzten Durchlauf geschlossen oder
+     * abgelehnt.
+     *
+     * @param e der Ausdruck der Regel
+     * @return die Regel, die abonniert werden kann
+     * @throws IllegalArgumentException wenn ein Knoten nicht aus dem Paket tree stammt
+     * @throws IllegalStateException wenn die Engine geschlossen ist
+     * @pre e != null
+     */
+    public Rule register(Expression e) {
+        assert e != null;
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("geschlossen");
+            }
+        }
+        synchronized (evaluator) {
+            //close kann seit der Prüfung oben den letzten Durchlauf beendet haben
+            if (finished) {
+                throw new IllegalStateException("geschlossen");
+            }
+            int root = evaluator.addRoot(e);
+            Rule rule = new Rule(e, executor, bufferCapacity, value(root));
+            rules.add(rule);
+            return rule;
+        }
+    }
+
+    /**
+     * Ändert eine Variable. Die Änderung wird gesammelt und im nächsten Durchlauf übernommen.
+     *
+     * @param id der Bezeichner
+     * @param val der neue Wert
+     * @throws IllegalStateException wenn die Engine geschlossen ist
+     * @pre id != null
+     */
+    public synchronized void set(String id, boolean val) {
+        assert id != null;
+
+        if (closed) {
+            throw new IllegalStateException("geschlossen");
+        }
+        pending.put(id, val);
+        updateCount++;
+        if (!scheduled) {
+            scheduled = true;
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Liefert die Anzahl der set-Aufrufe.
+     *
+     * @return die Anzahl der Änderungen
+     */
+    public synchronized long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Liefert die Anzahl der Durchläufe, in denen Änderungen übernommen wurden.
+     *
+     * @return die Anzahl der Durchläufe
+     */
+    public long getPassCount() {
+        synchronized (evaluator) {
+            return passCount;
+        }
+    }
+
+    /**
+     * Schließt die Engine. Offene Änderungen werden noch übernommen und gemeldet, danach
+     * erhalten alle Abonnenten onComplete.
+     */
+    @Override
+    public void close() {
+        boolean drainHere;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            drainHere = !scheduled;
+            scheduled = true;
+        }
+        if (drainHere) {
+            drain();
+        }
+    }
+
+    /**
+     * Übernimmt die offenen Änderungen, bis keine mehr vorliegen. Es läuft immer höchstens ein
+     * Durchlauf, die Änderungen werden also in der Reihenfolge der set-Aufrufe übernommen. Nach
+     * close schließt der letzte Durchlauf die Regeln. Die geänderten Regeln und ihre Werte werden
+     * unter der Sperre des Auswerters gesammelt und erst danach gemeldet, ein voller Puffer hält
+     * also register und getPassCount nicht auf. Bricht ein Durchlauf mit einer Ausnahme ab, kann
+     * der nächste set-Aufruf wieder einen Durchlauf planen.
+     */
+    private void drain() {
+        boolean idle = false;
+        try {
+            idle = drainPasses();
+        } finally {
+            if (!idle) {
+                synchronized (this) {
+                    scheduled = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Führt die Durchläufe aus, bis keine offenen Änderungen mehr vorliegen.
+     *
+     * @return true, wenn scheduled bereits zurückgesetzt ist
+     */
+    private boolean drainPasses() {
+        while (true) {
+            Map<String, Boolean> batch = null;
+            boolean finish = false;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    scheduled = false;
+                    finish = closed;
+                } else {
+                    batch = pending;
+                    pending = new HashMap<>();
+                }
+            }
+            if (batch == null) {
+                if (finish) {
+                    synchronized (evaluator) {
+                        finished = true;
+                        rules.forEach(Rule::close);
+                    }
+                }
+                return true;
+            }
+            Rule[] changed;
+            Boolean[] values;
+            synchronized (evaluator) {
+                passCount++;
+                int[] roots = evaluator.setAll(batch);
+                changed = new Rule[roots.length];
+                values = new Boolean[roots.length];
+                for (int k = 0; k < roots.length; k++) {
+                    changed[k] = rules.get(roots[k]);
+                    values[k] = value(roots[k]);
+                }
+            }
+            for (int k = 0; k < changed.length; k++) {
+                changed[k].update(values[k]);
+            }
+        }
+    }
+
+    /**
+     * Liefert den Wert einer Wurzel.
+     *
+     * @param root die Nummer der Wurzel
+     * @return der Wert oder null, wenn eine Variable fehlt
+     */
+    private Boolean value(int root) {
+        try {
+            return evaluator.getValue(root);
+        } catch (IncompleteContextException e) {
+            return null;
+        }
+    }
+}
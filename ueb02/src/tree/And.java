@@ -36,8 +36,13 @@ public class And extends BinaryOperation {
     }
 
     @Override
-    public boolean evaluate(boolean[] leftRight) {
-        return (leftRight[0] & leftRight[1]);
+    public boolean evaluate(boolean left, boolean right) {
+        return (left & right);
+    }
+
+    @Override
+    public String getOperator() {
+        return operator;
     }
 
     @Override
@@ -1,11 +1,10 @@
 package tree;
 
+import evaluation.ForkJoinEvaluator;
 import expression.AbstractExpression;
 import expression.Expression;
 import expression.IncompleteContextException;
 import expression.Context;
-import expression.ExpressionRunner;
-import expression.Counter;
 
 /**
  * Abstrakte Klasse um Funktionalität von binären Ausdrücken zusammenzufassen.
@@ -39,57 +38,52 @@ public abstract class BinaryOperation extends AbstractExpression {
     }
 
     /**
-     * Hilfsmethode um Codeverdopplung zu vermeiden
+     * Liefert den linken Operanden.
+     *
+     * @return das linke Blatt
+     */
+    public Expression getLeft() {
+        return left;
+    }
+
+    /**
+     * Liefert den rechten Operanden.
+     *
+     * @return das rechte Blatt
+     */
+    public Expression getRight() {
+        return right;
+    }
+
+    /**
+     * Wertet den Ausdruck auf dem gemeinsamen ForkJoinPool aus, abgespaltene Teilaufgaben werden
+     * im Counter gezählt.
      *
      * @param c Der Kontext in dem geprüft werden soll
      * @param bound die Grenze ab der parallelisiert werden soll
-     * @return Ein zwei elementiges Array, welches die booleschen Werte aus den Teilbäumen enthält
+     * @return Der Wahrheitswert des Ausdrucks
      * @throws IncompleteContextException wenn eine Variable nicht im Kontext ist
      */
     public boolean evaluateParallel(Context c, int bound)
             throws IncompleteContextException {
-
-        //Wenn die Anzahl der Unterknoten des aktuellen Ausdrucks groesser gleich bound ist,
-        if ((left.getChildrenCount() + right.getChildrenCount()) >= bound) {
-            //neuen Thread starten
-            ExpressionRunner runner = new ExpressionRunner(right, c, bound);
-            Thread           thread = new Thread(runner);
-            thread.start();
-            //Threadzaehler erhoehen
-            Counter.increment();
-            boolean leftResult = left.evaluateParallel(c, bound);
-
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                throw new AssertionError(e);
-            }
-
-            //IncompleteContextException, wenn diese in dem anderen Thread aufgetreten ist
-            if (runner.getResult() == null) {
-                throw runner.getException();
-            }
-
-            boolean[] leftRight = new boolean[2];
-            leftRight[0] = leftResult;
-            leftRight[1] = runner.getResult();
-
-            return evaluate(leftRight);
-
-        } else {
-            //Wenn keine Parallelisierung benoetigt wurde
-            return evaluateComplete(c);
-        }
-
+        return ForkJoinEvaluator.getDefault().evaluate(this, c, bound);
     }
 
     /**
      * Abstrakte Hilfsmethode zur Auswertung von booleschen Werten
      *
-     * @param leftRight ein Array welches zwei Werte repräsentiert
+     * @param left der Wahrheitswert des linken Operanden
+     * @param right der Wahrheitswert des rechten Operanden
      * @return die Auswertung in der jeweiligen Klasse
      */
-    protected abstract boolean evaluate(boolean[] leftRight);
+    public abstract boolean evaluate(boolean left, boolean right);
+
+    /**
+     * Liefert die Darstellung des Operators, wie sie in toString und toGraphviz verwendet wird.
+     *
+     * @return der Operator
+     */
+    public abstract String getOperator();
 
     /**
      * Hilfsmethode für die String-Methoden von binären Ausdrücken, da diese alle die gleiche
@@ -100,8 +94,11 @@ public abstract class BinaryOperation extends AbstractExpression {
      * @param operator der binäre Operator, des jeweiligen Knotens
      */
     protected void toString(StringBuilder builder, String operator) {
-        builder.append("(").append(left.toString()).append(" ").append(operator).append(" ")
-                .append(right.toString()).append(")");
+        builder.append("(");
+        left.toString(builder);
+        builder.append(" ").append(operator).append(" ");
+        right.toString(builder);
+        builder.append(")");
     }
 
     /**
@@ -122,12 +119,8 @@ public abstract class BinaryOperation extends AbstractExpression {
                 .append(" [").append(this.childrenCount - 1).append("]\"]\n");
         builder.append(prefix).append(" -> ").append(prefixLeft).append(" [label=\"\"]\n");
         builder.append(prefix).append(" -> ").append(prefixRight).append(" [label=\"\"]\n");
-        StringBuilder nextLeft = new StringBuilder();
-        StringBuilder nextRight = new StringBuilder();
-        left.toGraphviz(nextLeft, prefixLeft);
-        builder.append(nextLeft);
-        right.toGraphviz(nextRight, prefixRight);
-        builder.append(nextRight);
+        left.toGraphviz(builder, prefixLeft);
+        right.toGraphviz(builder, prefixRight);
     }
 
 }
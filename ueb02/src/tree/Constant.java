@@ -29,6 +29,15 @@ public class Constant extends AbstractExpression {
     }
 
 
+    /**
+     * Liefert den Wahrheitswert der Konstanten.
+     *
+     * @return der Wahrheitswert
+     */
+    public boolean getValue() {
+        return bool;
+    }
+
     @Override
     public boolean evaluateShort(Context c) throws IncompleteContextException {
         return bool;
@@ -40,10 +40,20 @@ public class Identity extends UnaryOperation {
         return operand.evaluateParallel(c, bound);
     }
 
+    @Override
+    public boolean evaluate(boolean value) {
+        return value;
+    }
+
+    @Override
+    public String getOperator() {
+        return operator;
+    }
+
     @Override
     public void toString(StringBuilder builder) {
         assert (builder != null);
-        builder.insert(0, "(").append(operand).append(")");
+        super.toString(builder, "");
     }
 
     @Override
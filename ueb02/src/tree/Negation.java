@@ -41,6 +41,16 @@ public class Negation extends UnaryOperation {
         return (!operand.evaluateParallel(c, bound));
     }
 
+    @Override
+    public boolean evaluate(boolean value) {
+        return (!value);
+    }
+
+    @Override
+    public String getOperator() {
+        return operator;
+    }
+
     @Override
     public void toString(StringBuilder builder) {
         super.toString(builder, operator);
@@ -26,6 +26,30 @@ public abstract class UnaryOperation extends AbstractExpression {
         this.childrenCount++;
     }
 
+    /**
+     * Liefert den Operanden dieser Operation.
+     *
+     * @return der Operand
+     */
+    public Expression getOperand() {
+        return operand;
+    }
+
+    /**
+     * Wendet die Operation auf den bereits ausgewerteten Operanden an.
+     *
+     * @param value der Wahrheitswert des Operanden
+     * @return die Auswertung in der jeweiligen Klasse
+     */
+    public abstract boolean evaluate(boolean value);
+
+    /**
+     * Liefert die Darstellung des Operators, wie sie in toGraphviz verwendet wird.
+     *
+     * @return der Operator
+     */
+    public abstract String getOperator();
+
     /**
      * String-darstellung der Unären Operatoren
      *
@@ -34,7 +58,9 @@ public abstract class UnaryOperation extends AbstractExpression {
      */
     public void toString(StringBuilder builder, String operator) {
         assert (builder != null);
-        builder.insert(0, "(").append(operator).append(operand).append(")");
+        builder.append("(").append(operator);
+        operand.toString(builder);
+        builder.append(")");
     }
 
     /**
@@ -51,9 +77,7 @@ public abstract class UnaryOperation extends AbstractExpression {
         builder.append(prefix).append(" [label=\"").append(operator).
                 append(" [").append(childrenCount - 1).append("]\"]\n");
         builder.append(prefix).append(" -> ").append(s).append(" [label=\"\"]\n");
-        StringBuilder next = new StringBuilder();
-        operand.toGraphviz(next, s);
-        builder.append(next);
+        operand.toGraphviz(builder, s);
     }
 
 }
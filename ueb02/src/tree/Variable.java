@@ -29,6 +29,15 @@ public class Variable extends AbstractExpression {
         this.childrenCount++;
     }
 
+    /**
+     * Liefert den Bezeichner der Variablen.
+     *
+     * @return der Bezeichner
+     */
+    public String getName() {
+        return variable;
+    }
+
     @Override
     public boolean evaluateShort(Context c) throws IncompleteContextException {
         //Kontext null, obwohl er benoetigt wird oder Wort nicht im Kontext
@@ -38,6 +47,9 @@ public class Variable extends AbstractExpression {
         } else {
             con = c.get(variable);
         }
+        if (con == null) {
+            throw new IncompleteContextException(variable);
+        }
         return con;
     }
 
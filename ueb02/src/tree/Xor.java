@@ -37,8 +37,13 @@ public class Xor extends BinaryOperation {
     }
 
     @Override
-    public boolean evaluate(boolean[] leftRight) {
-        return (leftRight[0] ^ leftRight[1]);
+    public boolean evaluate(boolean left, boolean right) {
+        return (left ^ right);
+    }
+
+    @Override
+    public String getOperator() {
+        return operator;
     }
 
     @Override
@@ -0,0 +1,102 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import evaluation.AdaptiveEvaluator;
+import evaluation.CostModel;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die adaptive Parallelisierung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestAdaptiveEvaluator {
+
+    /**
+     * Erzeugt einen vollständigen Baum aus abwechselnd Xor- und Or-Knoten.
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @param leaves die Anzahl der Blätter, eine Zweierpotenz
+     * @return der Ausdruck
+     */
+    private static Expression balanced(ExpressionAPI api, int leaves) {
+        final Expression[] level = new Expression[leaves];
+        for (int i = 0; i < leaves; i++) {
+            level[i] = api.makeVariableExpression(i % 3 == 0 ? "a" : "b");
+        }
+        for (int size = leaves / 2; size > 0; size /= 2) {
+            for (int i = 0; i < size; i++) {
+                level[i] = i % 2 == 0
+                    ? api.makeXorExpression(level[2 * i], level[2 * i + 1])
+                    : api.makeOrExpression(level[2 * i], level[2 * i + 1]);
+            }
+        }
+        return level[0];
+    }
+
+    /**
+     * Test für {@link AdaptiveEvaluator#evaluate}, das Ergebnis entspricht der vollständigen
+     * Auswertung. Ist die Abspaltung billig, wird auch abgespalten.
+     */
+    @Test
+    public final void testEvaluate() throws IncompleteContextException {
+        final Expression expression = balanced(new ExpressionAPI(), 1 << 10);
+        final Context ctx = new Context();
+        ctx.set("a", true);
+        ctx.set("b", false);
+        final AtomicInteger forks = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final AdaptiveEvaluator cheapForks =
+            new AdaptiveEvaluator(pool, new CostModel(1.0, 0.0), forks::incrementAndGet);
+
+        try {
+            Assert.assertEquals(expression.evaluateComplete(ctx),
+                    cheapForks.evaluate(expression, ctx));
+            Assert.assertTrue(forks.get() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test für {@link AdaptiveEvaluator#evaluate}, sind Abspaltungen teurer als der ganze Baum,
+     * wird nicht abgespalten.
+     */
+    @Test
+    public final void testNoForkForSmallTrees() throws IncompleteContextException {
+        final Expression expression = balanced(new ExpressionAPI(), 1 << 4);
+        final Context ctx = new Context();
+        ctx.set("a", false);
+        ctx.set("b", true);
+        final AtomicInteger forks = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final AdaptiveEvaluator expensiveForks =
+            new AdaptiveEvaluator(pool, new CostModel(1.0, 1e6), forks::incrementAndGet);
+
+        try {
+            Assert.assertEquals(expression.evaluateComplete(ctx),
+                    expensiveForks.evaluate(expression, ctx));
+            Assert.assertEquals(0, forks.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test für {@link CostModel#record}, die Knotenkosten nähern sich den Messungen an.
+     */
+    @Test
+    public final void testRecord() {
+        final CostModel model = new CostModel(10.0, 100.0);
+        for (int i = 0; i < 1000; i++) {
+            model.record(100, 5000);
+        }
+        Assert.assertEquals(50.0, model.getNodeNanos(), 0.01);
+    }
+}
@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.Batch;
+import compiler.BatchEvaluator;
+import compiler.BatchResult;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import expression.VariableTable;
+
+/**
+ * Tests für die bitparallele Auswertung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestBatchEvaluator {
+
+    /**
+     * Baut (a -> c) | (b == !c) ^ (a & c) mit allen Operatoren.
+     *
+     * @return der Ausdruck
+     */
+    private static Expression expression() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression a = api.makeVariableExpression("a");
+        final Expression b = api.makeVariableExpression("b");
+        final Expression c = api.makeVariableExpression("c");
+        return api.makeOrExpression(
+            api.makeConsequenceExpression(a, c),
+            api.makeXorExpression(
+                api.makeEquivalenceExpression(b, api.makeNotExpression(c)),
+                api.makeAndExpression(a, api.makeIdExpression(c))));
+    }
+
+    /**
+     * Erzeugt Kontexte über a, b, c, in jedem fünften fehlt c.
+     *
+     * @param count die Anzahl der Kontexte
+     * @return die Kontexte
+     */
+    private static List<Context> contexts(int count) {
+        final List<Context> contexts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final Context ctx = new Context();
+            ctx.set("a", (i & 1) != 0);
+            ctx.set("b", (i & 2) != 0);
+            if (i % 5 != 0) {
+                ctx.set("c", (i & 4) != 0);
+            }
+            contexts.add(ctx);
+        }
+        return contexts;
+    }
+
+    /**
+     * Vergleicht jede Lane mit der Auswertung des Baums.
+     *
+     * @param shortCircuit true für evaluateShort
+     */
+    private static void check(boolean shortCircuit) {
+        final Expression e = expression();
+        final VariableTable table = new VariableTable();
+        final BatchEvaluator evaluator = new BatchEvaluator(e, shortCircuit, table);
+        final List<Context> contexts = contexts(200);
+        final BatchResult result = evaluator.evaluate(Batch.of(table, contexts));
+
+        Assert.assertEquals(contexts.size(), result.size());
+        for (int i = 0; i < contexts.size(); i++) {
+            try {
+                final boolean expected = shortCircuit
+                    ? e.evaluateShort(contexts.get(i)) : e.evaluateComplete(contexts.get(i));
+                Assert.assertFalse(result.isMissing(i));
+                Assert.assertEquals(expected, result.get(i));
+            } catch (IncompleteContextException ex) {
+                Assert.assertTrue(result.isMissing(i));
+            }
+        }
+    }
+
+    /**
+     * Test für {@link BatchEvaluator#evaluate(Batch)} mit verkürzter Semantik.
+     */
+    @Test
+    public final void testShort() {
+        check(true);
+    }
+
+    /**
+     * Test für {@link BatchEvaluator#evaluate(Batch)} mit vollständiger Semantik.
+     */
+    @Test
+    public final void testComplete() {
+        check(false);
+    }
+
+    /**
+     * Test für {@link Batch#setColumn(String, long[])}, alle 64 Belegungen von sechs Variablen.
+     */
+    @Test
+    public final void testColumns() {
+        final ExpressionAPI api = new ExpressionAPI();
+        Expression e = api.makeVariableExpression("xa");
+        for (int i = 1; i < 6; i++) {
+            e = api.makeAndExpression(e, api.makeVariableExpression("x" + (char) ('a' + i)));
+        }
+        final VariableTable table = new VariableTable();
+        final BatchEvaluator evaluator = new BatchEvaluator(e, false, table);
+        final Batch batch = new Batch(table, Long.SIZE);
+        for (int i = 0; i < 6; i++) {
+            long column = 0;
+            for (int lane = 0; lane < Long.SIZE; lane++) {
+                if ((lane >>> i & 1) != 0) {
+                    column |= 1L << lane;
+                }
+            }
+            batch.setColumn("x" + (char) ('a' + i), new long[] {column});
+        }
+
+        final BatchResult result = evaluator.evaluate(batch);
+        Assert.assertEquals(1, result.countTrue());
+        Assert.assertTrue(result.get(Long.SIZE - 1));
+    }
+
+    /**
+     * Test für {@link BatchEvaluator#BatchEvaluator(Expression, boolean, VariableTable, boolean)},
+     * der Vektorkern muss dieselben Worte liefern wie der skalare Kern.
+     */
+    @Test
+    public final void testKernels() {
+        final Expression e = expression();
+        final int lanes = 64 * 67 + 5;
+        final Random random = new Random(21);
+        for (final boolean shortCircuit : new boolean[] {true, false}) {
+            final VariableTable table = new VariableTable();
+            final BatchEvaluator scalar = new BatchEvaluator(e, shortCircuit, table, false);
+            final BatchEvaluator vector = new BatchEvaluator(e, shortCircuit, table, true);
+            Assert.assertFalse(scalar.isVectorized());
+            Assert.assertEquals(BatchEvaluator.isVectorAvailable(), vector.isVectorized());
+
+            final Batch batch = new Batch(table, lanes);
+            for (int i = 0; i < table.size(); i++) {
+                final long[] column = new long[batch.words()];
+                final long[] mask = new long[batch.words()];
+                for (int w = 0; w < column.length; w++) {
+                    column[w] = random.nextLong();
+                    mask[w] = random.nextLong() | random.nextLong();
+                }
+                batch.setColumn(table.getName(i), column, mask);
+            }
+            final BatchResult expected = scalar.evaluate(batch);
+            final BatchResult actual = vector.evaluate(batch);
+            Assert.assertArrayEquals(expected.getValues(), actual.getValues());
+            Assert.assertArrayEquals(expected.getMissing(), actual.getMissing());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import io.ExpressionParser;
+import io.SyntaxException;
+import logic.Bdd;
+import logic.BddManager;
+
+/**
+ * Tests für die binären Entscheidungsdiagramme.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestBdd {
+
+    /** die Variablen der zufälligen Ausdrücke */
+    private static final String[] NAMES = {"a", "b", "c", "d"};
+
+    /**
+     * Übersetzt einen Ausdruck in der Syntax von toString.
+     *
+     * @param manager der Manager
+     * @param text der Ausdruck
+     * @return das Diagramm
+     */
+    private static Bdd compile(BddManager manager, String text) throws SyntaxException {
+        return manager.compile(new ExpressionParser(new ExpressionAPI()).parse(text));
+    }
+
+    /**
+     * Liefert alle Belegungen der Variablen a bis d.
+     *
+     * @return die Kontexte
+     */
+    private static List<Context> contexts() {
+        final List<Context> contexts = new ArrayList<>();
+        for (int bits = 0; bits < 1 << NAMES.length; bits++) {
+            final Context c = new Context();
+            for (int i = 0; i < NAMES.length; i++) {
+                c.set(NAMES[i], (bits >> i & 1) != 0);
+            }
+            contexts.add(c);
+        }
+        return contexts;
+    }
+
+    /**
+     * Test für {@link Bdd#equals(Object)}, gleichwertige Ausdrücke haben denselben Knoten.
+     */
+    @Test
+    public final void testEquivalence() throws SyntaxException {
+        final BddManager m = new BddManager();
+        Assert.assertEquals(compile(m, "a && b"), compile(m, "!(!a || !b)"));
+        Assert.assertEquals(compile(m, "a -> b"), compile(m, "!a || b"));
+        Assert.assertEquals(compile(m, "a <-> b"), compile(m, "!(a ^ b)"));
+        Assert.assertEquals(compile(m, "(a) ^ T"), compile(m, "!a"));
+        Assert.assertNotEquals(compile(m, "a -> b"), compile(m, "b -> a"));
+        Assert.assertTrue(compile(m, "a || !a").isTautology());
+        Assert.assertTrue(compile(m, "(a && b) && !(b || F)").isUnsatisfiable());
+        Assert.assertEquals(m.constant(true), compile(m, "(a -> b) && (b -> c) -> (a -> c)"));
+    }
+
+    /**
+     * Test für {@link Bdd#evaluate(Context)} mit zufälligen Ausdrücken in allen Belegungen.
+     */
+    @Test
+    public final void testEvaluate() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final BddManager m = new BddManager();
+        final Random r = new Random(18);
+        final List<Context> contexts = contexts();
+        for (int i = 0; i < 300; i++) {
+            final Expression e = TestToolkit.randomExpression(api, r, NAMES, 6);
+            final Bdd bdd = m.compile(e);
+            Assert.assertTrue(bdd.nodeCount() <= NAMES.length * NAMES.length);
+            for (Context c : contexts) {
+                Assert.assertEquals(e.toString(), e.evaluateComplete(c), bdd.evaluate(c));
+            }
+        }
+    }
+
+    /**
+     * Test für {@link Bdd#evaluate(Context)} mit unvollständigem Kontext.
+     */
+    @Test
+    public final void testIncompleteContext() throws SyntaxException, IncompleteContextException {
+        final Bdd bdd = compile(new BddManager(), "a && b");
+        final Context c = new Context();
+        c.set("a", false);
+        Assert.assertFalse(bdd.evaluate(c));
+        c.set("a", true);
+        try {
+            bdd.evaluate(c);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            Assert.assertEquals("b", e.getName());
+        }
+    }
+
+    /**
+     * Test für {@link BddManager#setOrder(List)} und {@link BddManager#sift()} mit
+     * (a &amp;&amp; b) || (c &amp;&amp; d) || (e &amp;&amp; f), das mit getrennten Paaren
+     * exponentiell und mit benachbarten Paaren linear groß ist. Diagramme bleiben beim
+     * Umordnen gültig.
+     */
+    @Test
+    public final void testReorder() throws SyntaxException, IncompleteContextException {
+        final BddManager m = new BddManager(List.of("a", "c", "e", "b", "d", "f"));
+        final Bdd bdd = compile(m, "(a && b) || (c && d) || (e && f)");
+        final Bdd other = compile(m, "a ^ f");
+        m.collectGarbage();
+        Assert.assertEquals(14, bdd.nodeCount());
+        m.setOrder(List.of("a", "b", "c", "d", "e", "f"));
+        Assert.assertEquals(List.of("a", "b", "c", "d", "e", "f"), m.getOrder());
+        Assert.assertEquals(6, bdd.nodeCount());
+        m.setOrder(List.of("a", "c", "e", "b", "d", "f"));
+        Assert.assertEquals(14, bdd.nodeCount());
+        m.sift();
+        Assert.assertEquals(6, bdd.nodeCount());
+        Assert.assertEquals(bdd, compile(m, "(c && d) || (e && f) || (b && a)"));
+        Assert.assertEquals(other, compile(m, "!(a <-> f)"));
+        final Context c = new Context();
+        for (String name : List.of("a", "b", "c", "d", "e", "f")) {
+            c.set(name, true);
+        }
+        c.set("a", false);
+        c.set("c", false);
+        c.set("e", false);
+        Assert.assertFalse(bdd.evaluate(c));
+        Assert.assertTrue(other.evaluate(c));
+    }
+
+    /**
+     * Test für {@link Bdd#release()}, erst nach der Freigabe entfernt
+     * {@link BddManager#collectGarbage()} die Knoten eines Diagramms, gemeinsame Knoten bleiben
+     * für die übrigen Diagramme erhalten.
+     */
+    @Test
+    public final void testRelease() throws SyntaxException, IncompleteContextException {
+        final BddManager m = new BddManager(List.of("a", "b", "c"));
+        final Bdd kept = compile(m, "a && b");
+        final Bdd parity = compile(m, "(a ^ b) ^ c");
+        final Bdd shared = compile(m, "!(!(a && b))");
+        Assert.assertEquals(kept, shared);
+        Assert.assertEquals(2 + 5, m.collectGarbage());
+
+        parity.release();
+        parity.release();
+        Assert.assertEquals(2, m.collectGarbage());
+        shared.release();
+        Assert.assertEquals(2, m.collectGarbage());
+        final Context c = new Context();
+        c.set("a", true);
+        c.set("b", true);
+        Assert.assertTrue(kept.evaluate(c));
+
+        kept.release();
+        Assert.assertEquals(0, m.collectGarbage());
+    }
+}
@@ -0,0 +1,161 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Expression;
+import io.BinaryReader;
+import io.BinaryWriter;
+import tree.UnaryOperation;
+
+/**
+ * Tests für das Binärformat.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestBinaryFormat {
+
+    /**
+     * Erzeugt den Ausdruck ((a -> b) <-> ((!a) || (T))) ^ (F &amp;&amp; b).
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @return der Ausdruck
+     */
+    private static Expression example(ExpressionAPI api) {
+        return api.makeXorExpression(
+            api.makeEquivalenceExpression(
+                api.makeConsequenceExpression(
+                    api.makeVariableExpression("a"),
+                    api.makeVariableExpression("b")),
+                api.makeOrExpression(
+                    api.makeNotExpression(api.makeVariableExpression("a")),
+                    api.makeIdExpression(api.makeConstantExpression(true)))),
+            api.makeAndExpression(
+                api.makeConstantExpression(false),
+                api.makeVariableExpression("b")));
+    }
+
+    /**
+     * Liefert einen Bezeichner aus Buchstaben zu einer Zahl.
+     *
+     * @param i die Zahl
+     * @return der Bezeichner
+     */
+    private static String name(int i) {
+        final StringBuilder builder = new StringBuilder();
+        int n = i;
+        do {
+            builder.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return builder.toString();
+    }
+
+    /**
+     * Test für {@link BinaryWriter#encode} und {@link BinaryReader#readAll()}.
+     */
+    @Test
+    public final void testRoundTrip() throws IOException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final List<Expression> rules = Arrays.asList(example(api),
+            api.makeVariableExpression("c"), api.makeConstantExpression(false));
+        final BinaryReader reader = new BinaryReader(api, BinaryWriter.encode(rules));
+        Assert.assertEquals(3, reader.getRuleCount());
+        final List<Expression> read = reader.readAll();
+        Assert.assertEquals(rules.size(), read.size());
+        for (int i = 0; i < rules.size(); i++) {
+            Assert.assertEquals(rules.get(i).toString(), read.get(i).toString());
+            Assert.assertEquals(rules.get(i).getChildrenCount(), read.get(i).getChildrenCount());
+        }
+        Assert.assertNull(reader.next());
+    }
+
+    /**
+     * Test für {@link BinaryWriter#write} mit so vielen Bezeichnern, dass nicht alle in einen
+     * Befehl passen.
+     */
+    @Test
+    public final void testManyVariables() throws IOException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final int count = 1000;
+        Expression e = api.makeVariableExpression(name(0));
+        for (int i = 1; i < count; i++) {
+            e = api.makeOrExpression(e, api.makeVariableExpression(name(i)));
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryWriter.write(List.of(e, e), out);
+        final BinaryReader reader = new BinaryReader(api, ByteBuffer.wrap(out.toByteArray()));
+        final String text = e.toString();
+        Assert.assertEquals(text, reader.next().toString());
+        Assert.assertEquals(text, reader.next().toString());
+        Assert.assertNull(reader.next());
+    }
+
+    /**
+     * Test für {@link BinaryReader#next()} mit einer Kette aus 100000 Negationen.
+     */
+    @Test
+    public final void testDeepChain() throws IOException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final int depth = 100000;
+        Expression e = api.makeVariableExpression("a");
+        for (int i = 0; i < depth; i++) {
+            e = api.makeNotExpression(e);
+        }
+        Expression read = new BinaryReader(api, BinaryWriter.encode(List.of(e))).next();
+        Assert.assertEquals(depth + 1, read.getChildrenCount());
+        for (int i = 0; i < depth; i++) {
+            read = ((UnaryOperation) read).getOperand();
+        }
+        Assert.assertEquals("a", read.toString());
+    }
+
+    /**
+     * Test für {@link BinaryReader} mit falscher Kennung und falscher Version.
+     */
+    @Test
+    public final void testHeader() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final byte[] bytes = BinaryWriter.encode(List.of(example(api))).array();
+        final byte[] magic = bytes.clone();
+        magic[0] = 'X';
+        final byte[] version = bytes.clone();
+        version[Integer.BYTES] = 2;
+        for (byte[] b : List.of(magic, version)) {
+            try {
+                new BinaryReader(api, ByteBuffer.wrap(b));
+                Assert.fail();
+            } catch (IOException e) {
+                // erwartet
+            }
+        }
+    }
+
+    /**
+     * Test für {@link BinaryReader#next()} mit abgeschnittener oder verfälschter Eingabe.
+     */
+    @Test
+    public final void testMalformed() throws IOException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final byte[] bytes = BinaryWriter.encode(List.of(example(api))).array();
+        final List<byte[]> inputs = new ArrayList<>();
+        inputs.add(Arrays.copyOf(bytes, bytes.length - 1));
+        final byte[] changed = bytes.clone();
+        changed[bytes.length - 1] = 0;
+        inputs.add(changed);
+        for (byte[] b : inputs) {
+            try {
+                new BinaryReader(api, ByteBuffer.wrap(b)).next();
+                Assert.fail();
+            } catch (IOException e) {
+                // erwartet
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Expression;
+import io.ExpressionParser;
+import io.SyntaxException;
+
+/**
+ * Tests für das Einlesen von Ausdrücken.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestExpressionParser {
+
+    /**
+     * Liest einen Text ein und liefert die Darstellung des Ergebnisses.
+     *
+     * @param text der Text
+     * @return die Darstellung
+     * @throws SyntaxException bei Syntaxfehlern
+     */
+    private static String roundTrip(String text) throws SyntaxException {
+        return new ExpressionParser(new ExpressionAPI()).parse(text).toString();
+    }
+
+    /**
+     * Liest einen fehlerhaften Text ein und liefert die Spalte des Fehlers.
+     *
+     * @param text der Text
+     * @return die Spalte
+     */
+    private static long errorColumn(String text) {
+        try {
+            roundTrip(text);
+        } catch (SyntaxException e) {
+            return e.getColumn();
+        }
+        Assert.fail(text);
+        return -1;
+    }
+
+    /**
+     * Test für {@link ExpressionParser#parse(CharSequence)} mit der Ausgabe von toString.
+     */
+    @Test
+    public final void testRoundTrip() throws SyntaxException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression e = api.makeEquivalenceExpression(
+            api.makeConsequenceExpression(
+                api.makeVariableExpression("a"),
+                api.makeIdExpression(api.makeIdExpression(api.makeVariableExpression("bc")))),
+            api.makeXorExpression(
+                api.makeNotExpression(api.makeNotExpression(api.makeConstantExpression(true))),
+                api.makeOrExpression(
+                    api.makeIdExpression(api.makeConstantExpression(false)),
+                    api.makeAndExpression(
+                        api.makeVariableExpression("a"), api.makeVariableExpression("B")))));
+        Assert.assertEquals(e.toString(), roundTrip(e.toString()));
+        Assert.assertEquals("((T || F) <-> T)", roundTrip("((T || F) <-> T)"));
+    }
+
+    /**
+     * Test für {@link ExpressionParser#parse(CharSequence)} ohne Klammern.
+     */
+    @Test
+    public final void testPrecedence() throws SyntaxException {
+        Assert.assertEquals("(a || (b && c))", roundTrip("a || b && c"));
+        Assert.assertEquals("((a ^ b) || c)", roundTrip("a^b||c"));
+        Assert.assertEquals("(a -> (b -> c))", roundTrip("a -> b -> c"));
+        Assert.assertEquals("((a <-> b) <-> c)", roundTrip("a <-> b <-> c"));
+        Assert.assertEquals("((!a) && (!(b)))", roundTrip("!a && !(b)"));
+    }
+
+    /**
+     * Test für {@link SyntaxException#getColumn()}.
+     */
+    @Test
+    public final void testErrors() {
+        Assert.assertEquals(7, errorColumn("(a && )"));
+        Assert.assertEquals(1, errorColumn("(a && b"));
+        Assert.assertEquals(3, errorColumn("a b"));
+        Assert.assertEquals(3, errorColumn("a & b"));
+        Assert.assertEquals(2, errorColumn("a)"));
+        Assert.assertEquals(1, errorColumn(""));
+        Assert.assertEquals(1, errorColumn("1"));
+    }
+
+    /**
+     * Test für {@link ExpressionParser#next()}, Regeln dürfen innerhalb von Klammern und nach
+     * Operatoren umgebrochen werden.
+     */
+    @Test
+    public final void testStream() throws IOException, SyntaxException {
+        final String text = "a && b\r\n\n(c ||\n d)\n  T\n(e -> \n f) ^ )\n";
+        try (ExpressionParser parser =
+                new ExpressionParser(new ExpressionAPI(), new StringReader(text))) {
+            Assert.assertEquals("(a && b)", parser.next().toString());
+            Assert.assertEquals("(c || d)", parser.next().toString());
+            Assert.assertEquals(5, parser.getLine());
+            Assert.assertEquals("T", parser.next().toString());
+            try {
+                parser.next();
+                Assert.fail();
+            } catch (SyntaxException e) {
+                Assert.assertEquals(7, e.getLine());
+                Assert.assertEquals(7, e.getColumn());
+            }
+        }
+    }
+
+    /**
+     * Test für {@link ExpressionParser#parse(CharSequence)} mit 100000 geschachtelten Klammern.
+     */
+    @Test
+    public final void testDeepNesting() throws SyntaxException {
+        final int depth = 100000;
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            text.append("(!");
+        }
+        text.append("x");
+        for (int i = 0; i < depth; i++) {
+            text.append(")");
+        }
+        final Expression e = new ExpressionParser(new ExpressionAPI()).parse(text);
+        Assert.assertEquals(depth + 1, e.getChildrenCount());
+    }
+}
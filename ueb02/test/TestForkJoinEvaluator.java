@@ -0,0 +1,98 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import evaluation.ForkJoinEvaluator;
+import expression.Context;
+import expression.Counter;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die Auswertung auf dem ForkJoinPool.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestForkJoinEvaluator {
+
+    /**
+     * Erzeugt den Ausdruck ((a -> b) <-> ((!a) || (b))).
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @return der Ausdruck
+     */
+    private static Expression almostAll(ExpressionAPI api) {
+        return api.makeEquivalenceExpression(
+            api.makeConsequenceExpression(
+                api.makeVariableExpression("a"),
+                api.makeVariableExpression("b")),
+            api.makeOrExpression(
+                api.makeNotExpression(api.makeVariableExpression("a")),
+                api.makeIdExpression(api.makeVariableExpression("b"))));
+    }
+
+    /**
+     * Test für {@link ForkJoinEvaluator#evaluate} mit eigenem Pool und eigenem Zähler.
+     */
+    @Test
+    public final void testEvaluateOwnPool() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression expression = almostAll(api);
+        final AtomicInteger forks = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        final ForkJoinEvaluator evaluator =
+                new ForkJoinEvaluator(pool, forks::incrementAndGet);
+
+        try {
+            for (int i = 0; i < 4; i++) {
+                final Context ctx = new Context();
+                ctx.set("a", (i & 1) != 0);
+                ctx.set("b", (i & 2) != 0);
+
+                forks.set(0);
+                Assert.assertEquals(expression.evaluateComplete(ctx),
+                        evaluator.evaluate(expression, ctx, 2));
+                Assert.assertEquals(3, forks.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test für {@link Expression#evaluateParallel}, die abgespaltenen Teilaufgaben werden im
+     * Counter gezählt.
+     */
+    @Test
+    public final void testCounter() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Context ctx = new Context();
+        ctx.set("a", true);
+        ctx.set("b", false);
+
+        Counter.initialize();
+        Assert.assertTrue(almostAll(api).evaluateParallel(ctx, 6));
+        Assert.assertEquals(1, Counter.getCounter());
+    }
+
+    /**
+     * Test für {@link Expression#evaluateParallel}, eine fehlende Variable im abgespaltenen
+     * Teilbaum wird als IncompleteContextException gemeldet.
+     */
+    @Test
+    public final void testIncompleteContext() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Context ctx = new Context();
+        ctx.set("a", true);
+
+        try {
+            almostAll(api).evaluateParallel(ctx, 1);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            Assert.assertEquals("b", e.getName());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Expression;
+import io.GraphvizWriter;
+
+/**
+ * Tests für die Graphviz-Ausgabe.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestGraphvizWriter {
+
+    /**
+     * Erzeugt den Ausdruck ((a -> b) <-> ((!a) || (T))).
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @return der Ausdruck
+     */
+    private static Expression example(ExpressionAPI api) {
+        return api.makeEquivalenceExpression(
+            api.makeConsequenceExpression(
+                api.makeVariableExpression("a"),
+                api.makeVariableExpression("b")),
+            api.makeOrExpression(
+                api.makeNotExpression(api.makeVariableExpression("a")),
+                api.makeIdExpression(api.makeConstantExpression(true))));
+    }
+
+    /**
+     * Test für {@link GraphvizWriter#write(Expression)} mit Pfaden, die Ausgabe entspricht
+     * toGraphviz.
+     */
+    @Test
+    public final void testPath() throws IOException {
+        final Expression e = example(new ExpressionAPI());
+        final StringBuilder builder = new StringBuilder();
+        new GraphvizWriter(builder, GraphvizWriter.NodeIds.PATH).write(e);
+        Assert.assertEquals(e.toGraphviz(), builder.toString());
+    }
+
+    /**
+     * Test für {@link GraphvizWriter#write(Expression)} mit Nummern.
+     */
+    @Test
+    public final void testNumeric() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new GraphvizWriter(bytes, GraphvizWriter.NodeIds.NUMERIC)
+            .write(example(new ExpressionAPI()));
+        Assert.assertEquals("digraph G {\n"
+            + "0 [label=\"<-> [8]\"]\n"
+            + "0 -> 1 [label=\"\"]\n"
+            + "0 -> 2 [label=\"\"]\n"
+            + "1 [label=\"-> [2]\"]\n"
+            + "1 -> 3 [label=\"\"]\n"
+            + "1 -> 4 [label=\"\"]\n"
+            + "3 [label=\"a\"]\n"
+            + "4 [label=\"b\"]\n"
+            + "2 [label=\"|| [4]\"]\n"
+            + "2 -> 5 [label=\"\"]\n"
+            + "2 -> 6 [label=\"\"]\n"
+            + "5 [label=\"! [1]\"]\n"
+            + "5 -> 7 [label=\"\"]\n"
+            + "7 [label=\"a\"]\n"
+            + "6 [label=\"() [1]\"]\n"
+            + "6 -> 8 [label=\"\"]\n"
+            + "8 [label=\"T\"]\n"
+            + "}\n", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test für {@link GraphvizWriter#write(Expression)} mit einer Kette aus 100000 Negationen,
+     * die Ausgabe wächst linear.
+     */
+    @Test
+    public final void testDeepChain() throws IOException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final int depth = 100000;
+        Expression e = api.makeVariableExpression("a");
+        for (int i = 0; i < depth; i++) {
+            e = api.makeNotExpression(e);
+        }
+        final StringBuilder builder = new StringBuilder();
+        new GraphvizWriter(builder).write(e);
+        Assert.assertTrue(builder.length() < 60L * depth);
+        Assert.assertTrue(builder.toString().endsWith("100000 [label=\"a\"]\n}\n"));
+    }
+}
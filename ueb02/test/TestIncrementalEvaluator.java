@@ -0,0 +1,291 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.OperandReorderer;
+import evaluation.IncrementalEvaluator;
+import evaluation.ProfilingEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die inkrementelle Auswertung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestIncrementalEvaluator {
+
+    /** die Variablen der zufälligen Ausdrücke */
+    private static final String[] NAMES = {"a", "b", "c", "d", "e", "f"};
+
+    /**
+     * Erzeugt einen zufälligen Ausdruck mit allen Operatoren, der Teilausdrücke aus shared
+     * mehrfach verwendet.
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @param r der Zufallsgenerator
+     * @param depth die maximale Tiefe
+     * @param shared bereits erzeugte Teilausdrücke
+     * @return der Ausdruck
+     */
+    private static Expression random(ExpressionAPI api, Random r, int depth,
+        List<Expression> shared) {
+        final int kind = r.nextInt(depth == 0 ? 2 : 10);
+        Expression result;
+        if (kind == 0) {
+            result = r.nextInt(5) == 0 ? api.makeConstantExpression(r.nextBoolean())
+                : api.makeVariableExpression(NAMES[r.nextInt(NAMES.length)]);
+        } else if (kind == 1) {
+            result = api.makeVariableExpression(NAMES[r.nextInt(NAMES.length)]);
+        } else if (kind == 2) {
+            result = api.makeNotExpression(random(api, r, depth - 1, shared));
+        } else if (kind == 3) {
+            result = api.makeIdExpression(random(api, r, depth - 1, shared));
+        } else if (kind == 4 && !shared.isEmpty()) {
+            return shared.get(r.nextInt(shared.size()));
+        } else {
+            final Expression left = random(api, r, depth - 1, shared);
+            final Expression right = random(api, r, depth - 1, shared);
+            switch (kind) {
+                case 5:
+                    result = api.makeAndExpression(left, right);
+                    break;
+                case 6:
+                    result = api.makeOrExpression(left, right);
+                    break;
+                case 7:
+                    result = api.makeXorExpression(left, right);
+                    break;
+                case 8:
+                    result = api.makeEquivalenceExpression(left, right);
+                    break;
+                default:
+                    result = api.makeConsequenceExpression(left, right);
+            }
+        }
+        shared.add(result);
+        return result;
+    }
+
+    /**
+     * Liefert das Ergebnis von evaluateShort als Text, auch für eine fehlende Variable.
+     *
+     * @param e der Ausdruck
+     * @param c der Kontext
+     * @return "true", "false" oder der fehlende Bezeichner
+     */
+    private static String expected(Expression e, Context c) {
+        try {
+            return String.valueOf(e.evaluateShort(c));
+        } catch (IncompleteContextException ex) {
+            return ex.getName();
+        }
+    }
+
+    /**
+     * Liefert das Ergebnis des inkrementellen Auswerters als Text.
+     *
+     * @param evaluator der Auswerter
+     * @return "true", "false" oder der fehlende Bezeichner
+     */
+    private static String actual(IncrementalEvaluator evaluator) {
+        try {
+            return String.valueOf(evaluator.getValue());
+        } catch (IncompleteContextException ex) {
+            return ex.getName();
+        }
+    }
+
+    /**
+     * Test für {@link IncrementalEvaluator#set(String, boolean)} mit zufälligen Ausdrücken mit
+     * gemeinsamen Teilausdrücken und einem anfangs unvollständigen Kontext. Nach jeder Änderung
+     * muss das Ergebnis dem von evaluateShort entsprechen, auch bei fehlenden Variablen.
+     */
+    @Test
+    public final void testRandom() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Random r = new Random(21);
+        for (int i = 0; i < 200; i++) {
+            final Expression e = random(api, r, 7, new ArrayList<>());
+            final Context c = new Context();
+            final IncrementalEvaluator evaluator = new IncrementalEvaluator(e, c);
+            Assert.assertEquals(e.toString(), expected(e, c), actual(evaluator));
+            for (int step = 0; step < 20; step++) {
+                evaluator.set(NAMES[r.nextInt(NAMES.length)], r.nextBoolean());
+                Assert.assertEquals(e.toString(), expected(e, c), actual(evaluator));
+            }
+        }
+    }
+
+    /**
+     * Test für {@link IncrementalEvaluator#getLastUpdateCount()}: in einem balancierten Baum
+     * mit 4096 Blättern berechnet eine Änderung höchstens den Weg vom Blatt zur Wurzel, und ein
+     * Weg endet, sobald sich ein Wert nicht ändert.
+     */
+    @Test
+    public final void testUpdateCost() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final int depth = 12;
+        final Context c = new Context();
+        List<Expression> level = new ArrayList<>();
+        for (int i = 0; i < 1 << depth; i++) {
+            final String name = "x" + (char) ('a' + i / 26 / 26) + (char) ('a' + i / 26 % 26)
+                + (char) ('a' + i % 26);
+            level.add(api.makeVariableExpression(name));
+            c.set(name, true);
+        }
+        for (int d = 0; d < depth; d++) {
+            final List<Expression> next = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += 2) {
+                next.add(d % 2 == 0 ? api.makeAndExpression(level.get(i), level.get(i + 1))
+                    : api.makeOrExpression(level.get(i), level.get(i + 1)));
+            }
+            level = next;
+        }
+        final Expression root = level.get(0);
+        final IncrementalEvaluator evaluator = new IncrementalEvaluator(root, c);
+        Assert.assertEquals(root.getChildrenCount(), evaluator.getNodeCount());
+        Assert.assertTrue(evaluator.getValue());
+
+        //das Und über dem Blatt wird falsch, das Oder darüber bleibt wahr
+        evaluator.set("xaaa", false);
+        Assert.assertEquals(3, evaluator.getLastUpdateCount());
+        Assert.assertTrue(evaluator.getValue());
+        //das Und ist schon falsch
+        evaluator.set("xaab", false);
+        Assert.assertEquals(2, evaluator.getLastUpdateCount());
+        evaluator.set("xaaa", false);
+        Assert.assertEquals(0, evaluator.getLastUpdateCount());
+        for (int i = 2; i < 1 << depth; i++) {
+            final String name = "x" + (char) ('a' + i / 26 / 26) + (char) ('a' + i / 26 % 26)
+                + (char) ('a' + i % 26);
+            evaluator.set(name, false);
+            Assert.assertTrue(evaluator.getLastUpdateCount() <= depth + 1);
+        }
+        Assert.assertFalse(evaluator.getValue());
+        Assert.assertFalse(root.evaluateShort(c));
+        evaluator.set("xaaa", true);
+        Assert.assertEquals(2, evaluator.getLastUpdateCount());
+        //Und und Oder werden wahr, das Und darüber bleibt falsch
+        evaluator.set("xaab", true);
+        Assert.assertEquals(4, evaluator.getLastUpdateCount());
+        Assert.assertFalse(evaluator.getValue());
+    }
+
+    /**
+     * Test für {@link IncrementalEvaluator#addRoot(Expression)} und
+     * {@link IncrementalEvaluator#setAll(Map)} mit mehreren Wurzeln, die sich Teilausdrücke
+     * teilen.
+     */
+    @Test
+    public final void testRoots() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Random r = new Random(22);
+        final List<Expression> shared = new ArrayList<>();
+        final Context c = new Context();
+        final IncrementalEvaluator evaluator = new IncrementalEvaluator(c);
+        final List<Expression> roots = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            final Expression e = random(api, r, 5, shared);
+            Assert.assertEquals(i, evaluator.addRoot(e));
+            roots.add(e);
+            evaluator.set(NAMES[r.nextInt(NAMES.length)], r.nextBoolean());
+        }
+        Assert.assertEquals(roots.size(), evaluator.getRootCount());
+        for (int step = 0; step < 100; step++) {
+            final String[] before = new String[roots.size()];
+            for (int i = 0; i < roots.size(); i++) {
+                before[i] = expected(roots.get(i), c);
+            }
+            final Map<String, Boolean> updates = new HashMap<>();
+            for (int k = r.nextInt(4); k >= 0; k--) {
+                updates.put(NAMES[r.nextInt(NAMES.length)], r.nextBoolean());
+            }
+            final int[] changed = evaluator.setAll(updates);
+            Arrays.sort(changed);
+            for (int i = 0; i < roots.size(); i++) {
+                final String after = expected(roots.get(i), c);
+                Assert.assertEquals(after, actualRoot(evaluator, i));
+                if (!before[i].equals(after)) {
+                    Assert.assertTrue(Arrays.binarySearch(changed, i) >= 0);
+                }
+            }
+        }
+        Assert.assertEquals(0, evaluator.setAll(Map.of()).length);
+    }
+
+    /**
+     * Test für {@link IncrementalEvaluator#setAll(Map)}, eine Wurzel, deren fehlender
+     * Bezeichner gleich bleibt, gilt nicht als geändert, auch wenn er aus einem anderen Blatt
+     * mit einer anderen String-Instanz stammt.
+     */
+    @Test
+    public final void testMissingName() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression e = api.makeOrExpression(
+            api.makeAndExpression(api.makeVariableExpression("y"),
+                api.makeVariableExpression(new String("x"))),
+            api.makeVariableExpression(new String("x")));
+        final Context c = new Context();
+        c.set("y", true);
+        final IncrementalEvaluator evaluator = new IncrementalEvaluator(e, c);
+        Assert.assertEquals("x", actualRoot(evaluator, 0));
+
+        Assert.assertEquals(0, evaluator.setAll(Map.of("y", false)).length);
+        Assert.assertEquals("x", actualRoot(evaluator, 0));
+    }
+
+    /**
+     * Test für {@link IncrementalEvaluator#addRoot(Expression)}, ein Ausdruck mit einem Knoten,
+     * der nicht aus dem Paket tree stammt, wird abgelehnt und lässt den Auswerter unverändert.
+     */
+    @Test
+    public final void testForeignNode() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Context c = new Context();
+        c.set("a", true);
+        c.set("b", true);
+        final Expression b = api.makeVariableExpression("b");
+        final IncrementalEvaluator evaluator = new IncrementalEvaluator(
+            api.makeAndExpression(api.makeVariableExpression("a"), b), c);
+        final Expression foreign = new OperandReorderer(new ProfilingEvaluator())
+            .reorder(api.makeVariableExpression("a"));
+        try {
+            evaluator.addRoot(api.makeOrExpression(api.makeVariableExpression("c"), foreign));
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals(3, evaluator.getNodeCount());
+            Assert.assertEquals(1, evaluator.getRootCount());
+        }
+
+        evaluator.set("c", false);
+        Assert.assertEquals(0, evaluator.getLastUpdateCount());
+        Assert.assertEquals(1,
+            evaluator.addRoot(api.makeOrExpression(api.makeVariableExpression("c"), b)));
+        Assert.assertEquals(5, evaluator.getNodeCount());
+        Assert.assertTrue(evaluator.getValue(1));
+    }
+
+    /**
+     * Liefert das Ergebnis einer Wurzel des inkrementellen Auswerters als Text.
+     *
+     * @param evaluator der Auswerter
+     * @param root die Nummer der Wurzel
+     * @return "true", "false" oder der fehlende Bezeichner
+     */
+    private static String actualRoot(IncrementalEvaluator evaluator, int root) {
+        try {
+            return String.valueOf(evaluator.getValue(root));
+        } catch (IncompleteContextException ex) {
+            return ex.getName();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import api.InterningExpressionAPI;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die API mit Hash-Consing.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestInterningExpressionAPI {
+
+    /**
+     * Baut (a & !b) -> ((a & !b) | (c == (a & !b))) mit der übergebenen API.
+     *
+     * @param api die API
+     * @return der Ausdruck
+     */
+    private static Expression build(ExpressionAPI api) {
+        final Expression shared = api.makeAndExpression(api.makeVariableExpression("a"),
+            api.makeNotExpression(api.makeVariableExpression("b")));
+        final Expression again = api.makeAndExpression(api.makeVariableExpression("a"),
+            api.makeNotExpression(api.makeVariableExpression("b")));
+        return api.makeConsequenceExpression(shared, api.makeOrExpression(again,
+            api.makeEquivalenceExpression(api.makeVariableExpression("c"), shared)));
+    }
+
+    /**
+     * Test für {@link InterningExpressionAPI#makeAndExpression(Expression, Expression)} und
+     * die anderen Fabrikmethoden, gleiche Struktur liefert denselben Knoten.
+     */
+    @Test
+    public final void testCanonical() {
+        final InterningExpressionAPI api = new InterningExpressionAPI();
+        final Expression a = api.makeVariableExpression("a");
+        final Expression b = api.makeVariableExpression("b");
+        Assert.assertSame(a, api.makeVariableExpression("a"));
+        Assert.assertSame(api.makeConstantExpression(true), api.makeConstantExpression(true));
+        Assert.assertSame(api.makeAndExpression(a, b), api.makeAndExpression(a, b));
+        Assert.assertSame(api.makeNotExpression(a), api.makeNotExpression(a));
+        Assert.assertNotSame(api.makeAndExpression(a, b), api.makeAndExpression(b, a));
+        Assert.assertNotSame(api.makeAndExpression(a, b), api.makeOrExpression(a, b));
+        Assert.assertNotSame(api.makeIdExpression(a), api.makeNotExpression(a));
+        Assert.assertSame(build(api), build(api));
+    }
+
+    /**
+     * Test für {@link Expression#getChildrenCount()}, {@link Expression#toString()} und
+     * {@link Expression#toGraphviz()}, der Graph verhält sich wie der Baum.
+     */
+    @Test
+    public final void testLikeTree() throws IncompleteContextException {
+        final Expression tree = build(new ExpressionAPI());
+        final Expression dag = build(new InterningExpressionAPI());
+        Assert.assertEquals(tree.getChildrenCount(), dag.getChildrenCount());
+        Assert.assertEquals(tree.toString(), dag.toString());
+        Assert.assertEquals(tree.toGraphviz(), dag.toGraphviz());
+
+        final Context ctx = new Context();
+        ctx.set("a", true);
+        ctx.set("b", false);
+        ctx.set("c", false);
+        Assert.assertEquals(tree.evaluateShort(ctx), dag.evaluateShort(ctx));
+        Assert.assertEquals(tree.evaluateComplete(ctx), dag.evaluateComplete(ctx));
+    }
+
+    /**
+     * Test für {@link InterningExpressionAPI#size()}, verdoppelte Teilausdrücke belegen nur
+     * einen Knoten pro Ebene.
+     */
+    @Test
+    public final void testSharing() {
+        final InterningExpressionAPI api = new InterningExpressionAPI();
+        Expression e = api.makeVariableExpression("x");
+        for (int i = 0; i < 20; i++) {
+            e = api.makeXorExpression(e, api.makeVariableExpression("x"));
+            e = api.makeAndExpression(e, e);
+        }
+        Assert.assertEquals(41, api.size());
+        Assert.assertEquals(6 * (1 << 20) - 5, e.getChildrenCount());
+    }
+
+    /**
+     * Test für {@link InterningExpressionAPI}, mehrere Threads erhalten dieselben Knoten.
+     */
+    @Test
+    public final void testConcurrent() throws InterruptedException, ExecutionException {
+        final InterningExpressionAPI api = new InterningExpressionAPI();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<List<Expression>>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                final List<Expression> result = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    final Expression v = api.makeVariableExpression("v" + (char) ('a' + i % 26));
+                    result.add(api.makeOrExpression(v, api.makeConstantExpression(i % 2 == 0)));
+                }
+                return result;
+            }));
+        }
+        executor.shutdown();
+
+        final List<Expression> first = futures.get(0).get();
+        for (Future<List<Expression>> future : futures) {
+            final List<Expression> other = future.get();
+            for (int i = 0; i < first.size(); i++) {
+                Assert.assertSame(first.get(i), other.get(i));
+            }
+        }
+        Assert.assertEquals(26 + 26, api.size());
+    }
+}
@@ -0,0 +1,95 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import evaluation.IterativeEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die nicht rekursive Auswertung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestIterativeEvaluator {
+
+    /**
+     * Erzeugt den Ausdruck ((a -> b) <-> ((!a) || (b))).
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @return der Ausdruck
+     */
+    private static Expression almostAll(ExpressionAPI api) {
+        return api.makeEquivalenceExpression(
+            api.makeConsequenceExpression(
+                api.makeVariableExpression("a"),
+                api.makeVariableExpression("b")),
+            api.makeXorExpression(
+                api.makeOrExpression(
+                    api.makeNotExpression(api.makeVariableExpression("a")),
+                    api.makeIdExpression(api.makeVariableExpression("b"))),
+                api.makeAndExpression(
+                    api.makeVariableExpression("b"),
+                    api.makeConstantExpression(false))));
+    }
+
+    /**
+     * Test für {@link IterativeEvaluator#evaluateShort} und
+     * {@link IterativeEvaluator#evaluateComplete} mit allen Belegungen.
+     */
+    @Test
+    public final void testAllAssignments() throws IncompleteContextException {
+        final Expression e = almostAll(new ExpressionAPI());
+        for (int i = 0; i < 4; i++) {
+            final Context ctx = new Context();
+            ctx.set("a", (i & 1) != 0);
+            ctx.set("b", (i & 2) != 0);
+            Assert.assertEquals(e.evaluateShort(ctx), IterativeEvaluator.evaluateShort(e, ctx));
+            Assert.assertEquals(e.evaluateComplete(ctx),
+                IterativeEvaluator.evaluateComplete(e, ctx));
+        }
+    }
+
+    /**
+     * Test für {@link IterativeEvaluator#evaluateShort}, der rechte Operand wird wie bei
+     * evaluateShort übersprungen.
+     */
+    @Test
+    public final void testShortCircuit() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression e = api.makeConsequenceExpression(
+            api.makeVariableExpression("a"), api.makeVariableExpression("missing"));
+        final Context ctx = new Context();
+        ctx.set("a", false);
+        Assert.assertTrue(IterativeEvaluator.evaluateShort(e, ctx));
+        try {
+            IterativeEvaluator.evaluateComplete(e, ctx);
+            Assert.fail();
+        } catch (IncompleteContextException ex) {
+            Assert.assertEquals("missing", ex.getName());
+        }
+    }
+
+    /**
+     * Test für {@link IterativeEvaluator#evaluateShort} mit einer linkstiefen Kette aus
+     * hunderttausend Knoten, an der die rekursive Auswertung scheitert.
+     */
+    @Test
+    public final void testDeepChain() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression a = api.makeVariableExpression("a");
+        final Expression b = api.makeVariableExpression("b");
+        Expression e = a;
+        for (int i = 0; i < 100000; i++) {
+            e = i % 3 == 0 ? api.makeAndExpression(e, b) : api.makeOrExpression(e, a);
+        }
+        final Context ctx = new Context();
+        ctx.set("a", false);
+        ctx.set("b", true);
+        Assert.assertFalse(IterativeEvaluator.evaluateShort(e, ctx));
+        Assert.assertFalse(IterativeEvaluator.evaluateComplete(e, ctx));
+        ctx.set("a", true);
+        Assert.assertTrue(IterativeEvaluator.evaluateShort(e, ctx));
+    }
+}
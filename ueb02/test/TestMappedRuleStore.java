@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import io.MappedRuleStore;
+
+/**
+ * Tests für den eingeblendeten Regelspeicher.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestMappedRuleStore {
+
+    /** die Regeldatei */
+    private Path file;
+
+    /**
+     * Legt die Regeldatei an.
+     */
+    @Before
+    public final void setUp() throws IOException {
+        file = Files.createTempFile("rules", ".aud");
+    }
+
+    /**
+     * Löscht die Regeldatei.
+     */
+    @After
+    public final void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Erzeugt Regeln mit allen Operatoren, a ist ein gemeinsamer Teilbaum.
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @return die Regeln
+     */
+    private static List<Expression> rules(ExpressionAPI api) {
+        final Expression a = api.makeVariableExpression("a");
+        final Expression b = api.makeVariableExpression("b");
+        return List.of(
+            api.makeXorExpression(
+                api.makeEquivalenceExpression(
+                    api.makeConsequenceExpression(a, b),
+                    api.makeOrExpression(
+                        api.makeNotExpression(a),
+                        api.makeIdExpression(api.makeConstantExpression(true)))),
+                api.makeAndExpression(api.makeConstantExpression(false), b)),
+            a,
+            api.makeAndExpression(a, api.makeVariableExpression("c")));
+    }
+
+    /**
+     * Test für {@link MappedRuleStore#getRule(int)}, Darstellungen und Knotenzahl entsprechen
+     * denen der Bäume.
+     */
+    @Test
+    public final void testRepresentation() throws IOException {
+        final List<Expression> rules = rules(new ExpressionAPI());
+        MappedRuleStore.write(rules, file);
+        final MappedRuleStore store = MappedRuleStore.open(file);
+        Assert.assertEquals(rules.size(), store.getRuleCount());
+        Assert.assertEquals(13, store.getNodeCount());
+        for (int i = 0; i < rules.size(); i++) {
+            final Expression e = rules.get(i);
+            final Expression mapped = store.getRule(i);
+            Assert.assertEquals(e.toString(), mapped.toString());
+            Assert.assertEquals(e.toGraphviz(), mapped.toGraphviz());
+            Assert.assertEquals(e.getChildrenCount(), mapped.getChildrenCount());
+        }
+    }
+
+    /**
+     * Test für die Auswertung in allen Belegungen.
+     */
+    @Test
+    public final void testEvaluate() throws IOException, IncompleteContextException {
+        final List<Expression> rules = rules(new ExpressionAPI());
+        MappedRuleStore.write(rules, file);
+        final MappedRuleStore store = MappedRuleStore.open(file);
+        for (int bits = 0; bits < 8; bits++) {
+            final Context c = new Context();
+            c.set("a", (bits & 1) != 0);
+            c.set("b", (bits & 2) != 0);
+            c.set("c", (bits & 4) != 0);
+            for (int i = 0; i < rules.size(); i++) {
+                final boolean expected = rules.get(i).evaluateComplete(c);
+                final Expression mapped = store.getRule(i);
+                Assert.assertEquals(expected, mapped.evaluateShort(c));
+                Assert.assertEquals(expected, mapped.evaluateComplete(c));
+                Assert.assertEquals(expected, mapped.evaluateParallel(c, 1));
+            }
+        }
+    }
+
+    /**
+     * Test für die Auswertung mit unvollständigem Kontext.
+     */
+    @Test
+    public final void testIncompleteContext() throws IOException {
+        MappedRuleStore.write(rules(new ExpressionAPI()), file);
+        final Expression mapped = MappedRuleStore.open(file).getRule(0);
+        final Context c = new Context();
+        c.set("a", true);
+        try {
+            mapped.evaluateParallel(c, 1);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            // erwartet
+        }
+        try {
+            mapped.evaluateShort(null);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            // erwartet
+        }
+    }
+
+    /**
+     * Test für {@link MappedRuleStore#open(Path)} mit einer Datei, die keine Regeldatei ist.
+     */
+    @Test
+    public final void testInvalidFile() throws IOException {
+        Files.write(file, new byte[] {'A', 'u', 'D', 'E', 1, 0, 0});
+        try {
+            MappedRuleStore.open(file);
+            Assert.fail();
+        } catch (IOException e) {
+            // erwartet
+        }
+    }
+
+    /**
+     * Test für {@link MappedRuleStore#getRule(int)} mit beschädigten Anfangspositionen der
+     * Bezeichner, gemeldet wird ein beschädigter Knoten.
+     */
+    @Test
+    public final void testInvalidNameOffsets() throws IOException {
+        final ExpressionAPI api = new ExpressionAPI();
+        MappedRuleStore.write(rules(api), file);
+        final byte[] original = Files.readAllBytes(file);
+        final ByteBuffer header = ByteBuffer.wrap(original);
+        final int nameCount = header.getInt(16);
+        final int nameTable = (int) header.getLong(32);
+        for (long offset : new long[] {original.length + 1000L, nameTable, -5, Long.MIN_VALUE}) {
+            final ByteBuffer damaged = ByteBuffer.wrap(original.clone());
+            for (int i = 0; i < nameCount; i++) {
+                damaged.putLong(nameTable + i * Long.BYTES, offset);
+            }
+            Files.write(file, damaged.array());
+            final MappedRuleStore store = MappedRuleStore.open(file);
+            for (int rule = 0; rule < store.getRuleCount(); rule++) {
+                try {
+                    store.getRule(rule).toString();
+                    Assert.fail();
+                } catch (IllegalStateException e) {
+                    Assert.assertTrue(e.getMessage().startsWith("beschädigter Knoten"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import evaluation.MemoEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.And;
+
+/**
+ * Tests für die Auswertung mit Memoisierung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestMemoEvaluator {
+
+    /**
+     * Konjunktion, die ihre Auswertungen zählt.
+     */
+    private static final class CountingAnd extends And {
+
+        /** die Anzahl der Auswertungen aller Instanzen */
+        private final AtomicInteger count;
+
+        /**
+         * Konstruktor.
+         *
+         * @param left der linke Operand
+         * @param right der rechte Operand
+         * @param count die Anzahl der Auswertungen aller Instanzen
+         */
+        CountingAnd(Expression left, Expression right, AtomicInteger count) {
+            super(left.getChildrenCount() + right.getChildrenCount(), left, right);
+            this.count = count;
+        }
+
+        @Override
+        public boolean evaluate(boolean l, boolean r) {
+            count.incrementAndGet();
+            return super.evaluate(l, r);
+        }
+    }
+
+    /**
+     * Baut einen Graphen, in dem jede Ebene die vorherige zweimal verwendet.
+     *
+     * @param api die API
+     * @param depth die Anzahl der Ebenen
+     * @return der Ausdruck
+     */
+    private static Expression ladder(ExpressionAPI api, int depth) {
+        Expression e = api.makeVariableExpression("a");
+        for (int i = 0; i < depth; i++) {
+            final Expression x = api.makeXorExpression(e, api.makeVariableExpression("b"));
+            e = i % 2 == 0 ? api.makeOrExpression(x, e) : api.makeEquivalenceExpression(e, x);
+        }
+        return e;
+    }
+
+    /**
+     * Test für {@link MemoEvaluator#evaluateComplete} und
+     * {@link MemoEvaluator#evaluateParallel}, der Baum hätte 2^28 Knoten.
+     */
+    @Test
+    public final void testDeepDag() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Context ctx = new Context();
+        ctx.set("a", true);
+        ctx.set("b", false);
+        final MemoEvaluator evaluator = new MemoEvaluator(new ForkJoinPool(4), () -> { });
+
+        //Referenz über eine kleine Tiefe, die der Baum noch schafft
+        final Expression small = ladder(api, 12);
+        Assert.assertEquals(small.evaluateComplete(ctx), evaluator.evaluateComplete(small, ctx));
+        Assert.assertEquals(small.evaluateShort(ctx), evaluator.evaluateShort(small, ctx));
+        Assert.assertEquals(small.evaluateComplete(ctx),
+            evaluator.evaluateParallel(small, ctx, 0));
+
+        final Expression large = ladder(api, 27);
+        final boolean expected = evaluator.evaluateComplete(large, ctx);
+        Assert.assertEquals(expected, evaluator.evaluateShort(large, ctx));
+        Assert.assertEquals(expected, evaluator.evaluateParallel(large, ctx, 0));
+    }
+
+    /**
+     * Test für {@link MemoEvaluator#evaluateParallel}, jeder gemeinsame Knoten wird genau
+     * einmal ausgewertet, auch wenn mehrere Threads ihn erreichen.
+     */
+    @Test
+    public final void testExactlyOnce() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final AtomicInteger count = new AtomicInteger();
+        final Context ctx = new Context();
+        ctx.set("a", true);
+
+        //16 verschiedene Konjunktionen, jede wird in der nächsten Ebene viermal verwendet
+        Expression e = api.makeVariableExpression("a");
+        for (int i = 0; i < 16; i++) {
+            final Expression twice = new CountingAnd(e, e, count);
+            e = new CountingAnd(twice, twice, count);
+        }
+        final MemoEvaluator evaluator = new MemoEvaluator(new ForkJoinPool(4), () -> { });
+        for (int run = 0; run < 20; run++) {
+            count.set(0);
+            Assert.assertTrue(evaluator.evaluateParallel(e, ctx, 0));
+            Assert.assertEquals(32, count.get());
+        }
+        count.set(0);
+        Assert.assertTrue(evaluator.evaluateComplete(e, ctx));
+        Assert.assertEquals(32, count.get());
+    }
+
+    /**
+     * Test für {@link MemoEvaluator#evaluateShort} und {@link MemoEvaluator#evaluateParallel}
+     * mit fehlender Variable.
+     */
+    @Test
+    public final void testMissing() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression shared = api.makeNotExpression(api.makeVariableExpression("x"));
+        final Expression e = api.makeAndExpression(
+            api.makeAndExpression(api.makeVariableExpression("a"), shared),
+            api.makeOrExpression(shared, api.makeVariableExpression("a")));
+        final Context ctx = new Context();
+        ctx.set("a", false);
+        final MemoEvaluator evaluator = new MemoEvaluator(new ForkJoinPool(2), () -> { });
+        try {
+            Assert.assertFalse(evaluator.evaluateShort(e, ctx));
+        } catch (IncompleteContextException ex) {
+            Assert.fail();
+        }
+        try {
+            evaluator.evaluateParallel(e, ctx, 0);
+            Assert.fail();
+        } catch (IncompleteContextException ex) {
+            Assert.assertEquals("x", ex.getName());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.OperandReorderer;
+import compiler.ReorderedExpression;
+import evaluation.ProfilingEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für das Umsortieren von Operanden nach Messwerten.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestOperandReorderer {
+
+    /** die Variablen der zufälligen Ausdrücke */
+    private static final String[] NAMES = {"a", "b", "c", "d", "e", "f"};
+
+    /**
+     * Liefert das Ergebnis von evaluateShort als Text, auch für eine fehlende Variable.
+     *
+     * @param e der Ausdruck
+     * @param c der Kontext
+     * @return der Wahrheitswert oder der Name der fehlenden Variablen
+     */
+    private static String outcome(Expression e, Context c) {
+        try {
+            return String.valueOf(e.evaluateShort(c));
+        } catch (IncompleteContextException ex) {
+            return "fehlt " + ex.getName();
+        }
+    }
+
+    /**
+     * Erzeugt einen zufälligen Kontext, in dem jede Variable mit einer eigenen
+     * Wahrscheinlichkeit wahr ist.
+     *
+     * @param r der Zufallsgenerator
+     * @param bias die Wahrscheinlichkeiten der Variablen
+     * @param complete true, wenn alle Variablen belegt werden sollen
+     * @return der Kontext
+     */
+    private static Context context(Random r, double[] bias, boolean complete) {
+        final Context c = new Context();
+        for (int i = 0; i < NAMES.length; i++) {
+            if (complete || r.nextInt(5) != 0) {
+                c.set(NAMES[i], r.nextDouble() < bias[i]);
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Test für {@link ProfilingEvaluator#evaluate}.
+     */
+    @Test
+    public final void testProfile() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression a = api.makeVariableExpression("a");
+        final Expression b = api.makeVariableExpression("b");
+        final Expression e = api.makeAndExpression(a, api.makeNotExpression(b));
+        final ProfilingEvaluator profiler = new ProfilingEvaluator();
+        final Context c = new Context();
+
+        c.set("a", false);
+        Assert.assertFalse(profiler.evaluate(e, c));
+        c.set("a", true);
+        c.set("b", false);
+        Assert.assertTrue(profiler.evaluate(e, c));
+        final Context incomplete = new Context();
+        incomplete.set("a", true);
+        try {
+            profiler.evaluate(e, incomplete);
+            Assert.fail();
+        } catch (IncompleteContextException ex) {
+            Assert.assertEquals("b", ex.getName());
+        }
+
+        Assert.assertEquals(3, profiler.getEvaluationCount());
+        final ProfilingEvaluator.Profile root = profiler.getProfile(e);
+        Assert.assertEquals(3, root.getCalls());
+        Assert.assertEquals(1, root.getTrueCount());
+        Assert.assertEquals(1, root.getFalseCount());
+        Assert.assertEquals(1, root.getMissingCount());
+        Assert.assertEquals(2 + 4 + 4, root.getTotalCost());
+        Assert.assertEquals(2, profiler.getProfile(b).getCalls());
+        Assert.assertEquals(3, profiler.getProfile(a).getCalls());
+        Assert.assertEquals(0.6, profiler.getProfile(a).getTrueProbability(), 1e-9);
+    }
+
+    /**
+     * Test für {@link OperandReorderer#reorder}, ein teurer, meist wahrer Operand wird hinter
+     * einen billigen, meist falschen gestellt, und in der Oder-Kette rückt die einzelne
+     * Variable nach vorn.
+     */
+    @Test
+    public final void testReorder() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        Expression expensive = api.makeVariableExpression("a");
+        for (int i = 1; i < NAMES.length - 1; i++) {
+            expensive = api.makeOrExpression(expensive, api.makeVariableExpression(NAMES[i]));
+        }
+        final Expression e = api.makeAndExpression(api.makeIdExpression(expensive),
+            api.makeXorExpression(api.makeVariableExpression("e"),
+                api.makeVariableExpression("f")));
+        final double[] bias = {0.5, 0.5, 0.5, 0.5, 0.95, 0.9};
+        final Random r = new Random(25);
+        final ProfilingEvaluator profiler = new ProfilingEvaluator();
+        for (int i = 0; i < 500; i++) {
+            profiler.evaluate(e, context(r, bias, true));
+        }
+
+        final ReorderedExpression reordered = new OperandReorderer(profiler).reorder(e);
+        Assert.assertEquals(4, reordered.getSwapCount());
+        Assert.assertEquals(e.toString(), reordered.toString());
+        Assert.assertEquals(e.toGraphviz(), reordered.toGraphviz());
+        Assert.assertEquals("((e ^ f) && ((e || (d || (c || (a || b))))))",
+            reordered.getReordered().toString());
+        Assert.assertTrue(reordered.getExpectedCost() < reordered.getOriginalCost());
+
+        final ProfilingEvaluator before = new ProfilingEvaluator();
+        final ProfilingEvaluator after = new ProfilingEvaluator();
+        for (int i = 0; i < 500; i++) {
+            final Context c = context(r, bias, true);
+            Assert.assertEquals(before.evaluate(e, c), after.evaluate(reordered, c));
+            after.evaluate(reordered.getReordered(), c);
+        }
+        Assert.assertTrue(after.getProfile(reordered.getReordered()).getTotalCost()
+            < before.getProfile(e).getTotalCost());
+    }
+
+    /**
+     * Test für {@link OperandReorderer#reorder}, Xor, Äquivalenz und Implikation bleiben
+     * unverändert.
+     */
+    @Test
+    public final void testKeepsOrder() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression e = api.makeXorExpression(
+            api.makeConsequenceExpression(api.makeVariableExpression("a"),
+                api.makeVariableExpression("b")),
+            api.makeEquivalenceExpression(api.makeVariableExpression("c"),
+                api.makeVariableExpression("d")));
+        final ProfilingEvaluator profiler = new ProfilingEvaluator();
+        final Random r = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            profiler.evaluate(e, context(r, new double[] {0.1, 0.9, 0.5, 0.5, 0.5, 0.5}, true));
+        }
+        final ReorderedExpression reordered = new OperandReorderer(profiler).reorder(e);
+        Assert.assertEquals(0, reordered.getSwapCount());
+        Assert.assertSame(e, reordered.getReordered());
+    }
+
+    /**
+     * Test für {@link OperandReorderer#reorder}, eine Vertauschung, deren Ersparnis die Prüfung
+     * der Variablen im Kontext nicht aufwiegt, unterbleibt.
+     */
+    @Test
+    public final void testGuardCost() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression e = api.makeAndExpression(api.makeVariableExpression("a"),
+            api.makeVariableExpression("b"));
+        final ProfilingEvaluator profiler = new ProfilingEvaluator();
+        final Random r = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            profiler.evaluate(e, context(r, new double[] {0.95, 0.1, 0.5, 0.5, 0.5, 0.5}, true));
+        }
+        final ReorderedExpression reordered = new OperandReorderer(profiler).reorder(e);
+        Assert.assertEquals(0, reordered.getSwapCount());
+        Assert.assertSame(e, reordered.getReordered());
+        Assert.assertEquals(reordered.getOriginalCost(), reordered.getExpectedCost(), 1e-9);
+    }
+
+    /**
+     * Test für {@link ReorderedExpression#evaluateShort}, auch mit fehlenden Variablen wird
+     * genau dieselbe IncompleteContextException wie beim ursprünglichen Baum geworfen.
+     */
+    @Test
+    public final void testStrict() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Random r = new Random(2025);
+        int swaps = 0;
+        for (int i = 0; i < 200; i++) {
+            final Expression e = TestToolkit.randomExpression(api, r, NAMES, 2 + i % 6);
+            final double[] bias = new double[NAMES.length];
+            for (int v = 0; v < bias.length; v++) {
+                bias[v] = r.nextDouble();
+            }
+            final ProfilingEvaluator profiler = new ProfilingEvaluator();
+            final List<Context> traffic = new ArrayList<>();
+            for (int k = 0; k < 50; k++) {
+                traffic.add(context(r, bias, k % 2 == 0));
+            }
+            for (Context c : traffic) {
+                try {
+                    profiler.evaluate(e, c);
+                } catch (IncompleteContextException ex) {
+                    Assert.assertFalse(c.has(ex.getName()));
+                }
+            }
+            final ReorderedExpression reordered = new OperandReorderer(profiler).reorder(e);
+            swaps += reordered.getSwapCount();
+            Assert.assertEquals(e.toString(), reordered.toString());
+            for (Context c : traffic) {
+                Assert.assertEquals(e.toString(), outcome(e, c), outcome(reordered, c));
+                try {
+                    Assert.assertEquals(e.evaluateComplete(c), reordered.evaluateComplete(c));
+                } catch (IncompleteContextException ex) {
+                    Assert.assertFalse(c.has(ex.getName()));
+                }
+            }
+            final Context complete = context(r, bias, true);
+            Assert.assertEquals(outcome(e, complete), outcome(reordered.getReordered(), complete));
+        }
+        Assert.assertTrue(swaps > 0);
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.Program;
+import compiler.ProgramCompiler;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die Übersetzung von Ausdrücken in Postfix-Programme.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestProgramCompiler {
+
+    /**
+     * Test für {@link Program#evaluate}, alle Belegungen von ((a -> b) <-> ((!a) || (b))).
+     */
+    @Test
+    public final void testEvaluateAllContexts() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression expression = api.makeEquivalenceExpression(
+            api.makeConsequenceExpression(
+                api.makeVariableExpression("a"),
+                api.makeVariableExpression("b")),
+            api.makeOrExpression(
+                api.makeNotExpression(api.makeVariableExpression("a")),
+                api.makeIdExpression(api.makeVariableExpression("b"))));
+        final Program shortProgram = ProgramCompiler.compile(expression, true);
+        final Program completeProgram = ProgramCompiler.compile(expression, false);
+
+        Assert.assertEquals(2, shortProgram.getVariableCount());
+        for (int i = 0; i < 4; i++) {
+            final Context ctx = new Context();
+            ctx.set("a", (i & 1) != 0);
+            ctx.set("b", (i & 2) != 0);
+            Assert.assertEquals(expression.evaluateShort(ctx), shortProgram.evaluate(ctx));
+            Assert.assertEquals(expression.evaluateComplete(ctx), completeProgram.evaluate(ctx));
+        }
+    }
+
+    /**
+     * Test für {@link Program#evaluate}, nur die vollständige Auswertung benötigt den rechten
+     * Operanden von (F && b).
+     */
+    @Test
+    public final void testShortCircuit() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression expression = api.makeAndExpression(
+            api.makeConstantExpression(false), api.makeVariableExpression("b"));
+        final Context ctx = new Context();
+
+        Assert.assertFalse(ProgramCompiler.compile(expression, true).evaluate(ctx));
+        try {
+            ProgramCompiler.compile(expression, false).evaluate(ctx);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            Assert.assertEquals("b", e.getName());
+        }
+    }
+
+    /**
+     * Test für {@link Program#evaluate} mit einer Stapeltiefe über 64.
+     */
+    @Test
+    public final void testDeepStack() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        Expression expression = api.makeConstantExpression(true);
+        for (int i = 0; i < 100; i++) {
+            expression = api.makeXorExpression(api.makeConstantExpression(true), expression);
+        }
+
+        Assert.assertTrue(ProgramCompiler.compile(expression, false).evaluate(new Context()));
+    }
+}
@@ -0,0 +1,316 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Expression;
+import io.ExpressionParser;
+import io.SyntaxException;
+import reactive.Rule;
+import reactive.RuleEngine;
+
+/**
+ * Tests für die reaktive Regelauswertung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestRuleEngine {
+
+    /**
+     * Abonnent, der alle Werte sammelt und jeweils einen weiteren anfordert.
+     */
+    private static final class Collector implements Flow.Subscriber<Boolean> {
+
+        /** die empfangenen Werte */
+        private final List<Boolean> values = Collections.synchronizedList(new ArrayList<>());
+
+        /** wird bei onComplete heruntergezählt */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /** die Wartezeit pro Wert in Millisekunden */
+        private final long delay;
+
+        /** das Abonnement */
+        private Flow.Subscription subscription;
+
+        /**
+         * Konstruktor.
+         *
+         * @param delay die Wartezeit pro Wert in Millisekunden
+         */
+        Collector(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(Boolean item) {
+            values.add(item);
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Assert.fail(t.toString());
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in der Syntax von toString.
+     *
+     * @param text der Ausdruck
+     * @return der Ausdruck
+     */
+    private static Expression parse(String text) throws SyntaxException {
+        return new ExpressionParser(new ExpressionAPI()).parse(text);
+    }
+
+    /**
+     * Führt alle Aufgaben eines Executors aus, bis keine mehr vorliegen.
+     *
+     * @param tasks die Aufgaben
+     */
+    private static void run(Queue<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    /**
+     * Test für {@link RuleEngine#set(String, boolean)}: gemeldet wird nur, wenn sich ein
+     * bekannter Wert ändert, und eine Folge von Änderungen löst nur einen Durchlauf aus.
+     */
+    @Test
+    public final void testNotifications() throws SyntaxException {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final RuleEngine engine = new RuleEngine(tasks::add, 4);
+        final Rule and = engine.register(parse("(a && b)"));
+        final Rule or = engine.register(parse("(a || c)"));
+        final Rule constant = engine.register(parse("(a || T)"));
+        final Collector andValues = new Collector(0);
+        final Collector orValues = new Collector(0);
+        final Collector constantValues = new Collector(0);
+        and.subscribe(andValues);
+        or.subscribe(orValues);
+        constant.subscribe(constantValues);
+        run(tasks);
+        Assert.assertNull(and.getValue());
+
+        engine.set("a", true);
+        engine.set("b", false);
+        engine.set("b", true);
+        run(tasks);
+        Assert.assertEquals(1, engine.getPassCount());
+        Assert.assertEquals(3, engine.getUpdateCount());
+        Assert.assertEquals(List.of(true), andValues.values);
+        Assert.assertEquals(List.of(true), orValues.values);
+        Assert.assertEquals(List.of(true), constantValues.values);
+
+        //a bleibt am Ende wahr, es gibt nichts zu melden
+        for (int i = 0; i < 100; i++) {
+            engine.set("a", i % 2 == 1);
+        }
+        run(tasks);
+        Assert.assertEquals(2, engine.getPassCount());
+        Assert.assertEquals(List.of(true), andValues.values);
+
+        engine.set("a", false);
+        run(tasks);
+        Assert.assertEquals(List.of(true, false), andValues.values);
+        Assert.assertNull(or.getValue());
+        engine.set("c", false);
+        run(tasks);
+        Assert.assertEquals(List.of(true, false), orValues.values);
+        Assert.assertEquals(List.of(true), constantValues.values);
+
+        final Rule late = engine.register(parse("!(a)"));
+        Assert.assertEquals(Boolean.TRUE, late.getValue());
+        engine.close();
+        run(tasks);
+        Assert.assertEquals(0, andValues.done.getCount());
+        try {
+            engine.set("a", true);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("geschlossen", e.getMessage());
+        }
+    }
+
+    /**
+     * Test für die Zustellung an einen langsamen Abonnenten mit kleinem Puffer: der Durchlauf
+     * wartet, Änderungen werden zusammengefasst, und der Abonnent erhält abwechselnde Werte
+     * bis zum endgültigen.
+     */
+    @Test
+    public final void testBackPressure() throws SyntaxException, InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final RuleEngine engine = new RuleEngine(executor, 1);
+            final Rule rule = engine.register(parse("(a ^ b)"));
+            final Collector slow = new Collector(2);
+            rule.subscribe(slow);
+            engine.set("b", false);
+            for (int i = 0; i < 2000; i++) {
+                engine.set("a", i % 2 == 0);
+            }
+            engine.set("a", true);
+            engine.close();
+            Assert.assertTrue(slow.done.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(Boolean.TRUE, rule.getValue());
+            final List<Boolean> values = slow.values;
+            Assert.assertFalse(values.isEmpty());
+            Assert.assertEquals(Boolean.TRUE, values.get(values.size() - 1));
+            for (int i = 1; i < values.size(); i++) {
+                Assert.assertNotEquals(values.get(i - 1), values.get(i));
+            }
+            Assert.assertTrue(engine.getPassCount() < engine.getUpdateCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test für die Zustellung: der Durchlauf übergibt die Werte erst nach dem Freigeben der
+     * Sperre des Auswerters, ein anderer Thread kann währenddessen getPassCount aufrufen.
+     */
+    @Test
+    public final void testDeliveryOutsideLock() throws SyntaxException {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final RuleEngine[] engine = new RuleEngine[1];
+        final List<Boolean> free = new ArrayList<>();
+        engine[0] = new RuleEngine(task -> {
+            tasks.add(task);
+            final Thread reader = new Thread(engine[0]::getPassCount);
+            reader.start();
+            try {
+                reader.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            free.add(!reader.isAlive());
+        }, 4);
+        final Rule rule = engine[0].register(parse("a"));
+        final Collector values = new Collector(0);
+        rule.subscribe(values);
+        run(tasks);
+
+        engine[0].set("a", true);
+        run(tasks);
+        Assert.assertEquals(List.of(true), values.values);
+        Assert.assertTrue(free.size() >= 3);
+        Assert.assertFalse(free.contains(false));
+    }
+
+    /**
+     * Test für {@link RuleEngine#set(String, boolean)} nach einem Durchlauf, der mit einer
+     * Ausnahme abbricht: der nächste Aufruf plant wieder einen Durchlauf.
+     */
+    @Test
+    public final void testFailedPass() throws SyntaxException {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final boolean[] reject = {false};
+        final RuleEngine engine = new RuleEngine(task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException("voll");
+            }
+            tasks.add(task);
+        }, 4);
+        final Rule rule = engine.register(parse("a"));
+        rule.subscribe(new Collector(0));
+        run(tasks);
+
+        engine.set("a", true);
+        reject[0] = true;
+        try {
+            run(tasks);
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            Assert.assertEquals("voll", e.getMessage());
+        }
+        reject[0] = false;
+        engine.set("a", false);
+        Assert.assertFalse(tasks.isEmpty());
+        run(tasks);
+        Assert.assertEquals(Boolean.FALSE, rule.getValue());
+        Assert.assertEquals(2, engine.getPassCount());
+    }
+
+    /**
+     * Test für {@link RuleEngine#register(Expression)} gleichzeitig mit
+     * {@link RuleEngine#close()}: jede angenommene Regel erhält onComplete, spätere Aufrufe
+     * werden abgelehnt. Mehrere Threads melden große Regeln an, damit sie und der letzte
+     * Durchlauf um den Auswerter konkurrieren.
+     */
+    @Test
+    public final void testRegisterDuringClose() throws InterruptedException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 100; round++) {
+                final RuleEngine engine = new RuleEngine(executor, 4);
+                final List<Collector> accepted = Collections.synchronizedList(new ArrayList<>());
+                final CountDownLatch started = new CountDownLatch(4);
+                final List<Thread> registrars = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    final Thread registrar = new Thread(() -> {
+                        started.countDown();
+                        try {
+                            while (true) {
+                                Expression e = api.makeVariableExpression("a");
+                                for (int i = 0; i < 500; i++) {
+                                    e = api.makeAndExpression(e, api.makeVariableExpression("b"));
+                                }
+                                final Collector collector = new Collector(0);
+                                engine.register(e).subscribe(collector);
+                                accepted.add(collector);
+                            }
+                        } catch (IllegalStateException ex) {
+                            Assert.assertEquals("geschlossen", ex.getMessage());
+                        }
+                    });
+                    registrar.start();
+                    registrars.add(registrar);
+                }
+                started.await();
+                engine.close();
+                for (Thread registrar : registrars) {
+                    registrar.join(5000);
+                    Assert.assertFalse(registrar.isAlive());
+                }
+                for (Collector collector : accepted) {
+                    Assert.assertTrue(collector.done.await(5, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.BatchResult;
+import compiler.RuleNetwork;
+import compiler.RuleSetCompiler;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import expression.SlotContext;
+import io.ExpressionParser;
+import io.SyntaxException;
+
+/**
+ * Tests für das gemeinsame Regelnetz.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestRuleNetwork {
+
+    /** die Variablen der zufälligen Ausdrücke */
+    private static final String[] NAMES = {"a", "b", "c", "d", "e", "f"};
+
+    /**
+     * Prüft das Ergebnis des Netzes für jede Regel gegen evaluateComplete.
+     *
+     * @param rules die Regeln
+     * @param result das Ergebnis des Netzes
+     * @param c der Kontext
+     */
+    private static void check(List<Expression> rules, BatchResult result, Context c) {
+        for (int r = 0; r < rules.size(); r++) {
+            try {
+                final boolean expected = rules.get(r).evaluateComplete(c);
+                Assert.assertFalse(rules.get(r).toString(), result.isMissing(r));
+                Assert.assertEquals(rules.get(r).toString(), expected, result.get(r));
+            } catch (IncompleteContextException ex) {
+                Assert.assertTrue(rules.get(r).toString(), result.isMissing(r));
+            }
+        }
+    }
+
+    /**
+     * Test für {@link RuleNetwork#evaluate(Context)}.
+     */
+    @Test
+    public final void testRandom() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Random r = new Random(23);
+        final List<Expression> rules = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            rules.add(TestToolkit.randomExpression(api, r, NAMES, 1 + i % 6));
+        }
+        final RuleNetwork network = RuleSetCompiler.compile(rules);
+        Assert.assertEquals(rules.size(), network.getRuleCount());
+        Assert.assertTrue(network.getNodeCount() < network.getInputNodeCount());
+
+        for (int round = 0; round < 100; round++) {
+            final Context c = new Context();
+            for (int v = 0; v < NAMES.length; v++) {
+                if (round < 64) {
+                    c.set(NAMES[v], (round >> v & 1) == 1);
+                } else if (r.nextInt(4) != 0) {
+                    c.set(NAMES[v], r.nextBoolean());
+                }
+            }
+            check(rules, network.evaluate(c), c);
+        }
+        check(rules, network.evaluate((Context) null), null);
+    }
+
+    /**
+     * Test für {@link RuleSetCompiler#compile(List)}.
+     */
+    @Test
+    public final void testSharing() throws SyntaxException {
+        final ExpressionParser parser = new ExpressionParser(new ExpressionAPI());
+        final List<Expression> rules = new ArrayList<>();
+        rules.add(parser.parse("a && b"));
+        rules.add(parser.parse("b && a"));
+        rules.add(parser.parse("!(!(a && b))"));
+        rules.add(parser.parse("(a && b) || c"));
+        final RuleNetwork network = RuleSetCompiler.compile(rules);
+        Assert.assertEquals(6, network.getNodeCount());
+        Assert.assertEquals(3, network.getVariableCount());
+
+        final Context c = new Context();
+        c.set("a", true);
+        c.set("b", true);
+        final BatchResult result = network.evaluate(c);
+        Assert.assertEquals(3, result.countTrue());
+        Assert.assertTrue(result.isMissing(3));
+    }
+
+    /**
+     * Test für {@link RuleNetwork#evaluate(SlotContext)}.
+     */
+    @Test
+    public final void testSlotContext() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Random r = new Random(5);
+        final List<Expression> rules = new ArrayList<>();
+        for (int i = 0; i < 130; i++) {
+            rules.add(TestToolkit.randomExpression(api, r, NAMES, 4));
+        }
+        final RuleNetwork network = RuleSetCompiler.compile(rules);
+        for (int round = 0; round < 20; round++) {
+            final Context c = new Context();
+            for (String name : NAMES) {
+                if (r.nextInt(5) != 0) {
+                    c.set(name, r.nextBoolean());
+                }
+            }
+            final BatchResult expected = network.evaluate(c);
+            final BatchResult actual = network.evaluate(SlotContext.of(network.getTable(), c));
+            Assert.assertArrayEquals(expected.getValues(), actual.getValues());
+            Assert.assertArrayEquals(expected.getMissing(), actual.getMissing());
+        }
+    }
+}
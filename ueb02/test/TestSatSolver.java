@@ -0,0 +1,174 @@
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Expression;
+import expression.IncompleteContextException;
+import io.ExpressionParser;
+import io.SyntaxException;
+import logic.SatChecker;
+import logic.SatSolver;
+import logic.TruthTable;
+
+/**
+ * Tests für den SAT-Solver und die Tseitin-Übersetzung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestSatSolver {
+
+    /** die Variablen der zufälligen Ausdrücke */
+    private static final String[] NAMES = {"a", "b", "c", "d", "e"};
+
+    /**
+     * Übersetzt einen Ausdruck in der Syntax von toString.
+     *
+     * @param text der Ausdruck
+     * @return der Ausdruck
+     */
+    private static Expression parse(String text) throws SyntaxException {
+        return new ExpressionParser(new ExpressionAPI()).parse(text);
+    }
+
+    /**
+     * Liefert einen Bezeichner aus Buchstaben für einen Index.
+     *
+     * @param index der Index
+     * @return der Bezeichner
+     */
+    private static String name(int index) {
+        return "x" + (char) ('a' + index / 26) + (char) ('a' + index % 26);
+    }
+
+    /**
+     * Test für {@link SatChecker#isSatisfiable(Expression)} und
+     * {@link SatChecker#isTautology(Expression)} mit zufälligen Ausdrücken, verglichen mit der
+     * Wahrheitstabelle. Alle Fragen gehen an denselben Checker.
+     */
+    @Test
+    public final void testRandom() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final SatChecker checker = new SatChecker();
+        final Random r = new Random(20);
+        for (int i = 0; i < 300; i++) {
+            final Expression e = TestToolkit.randomExpression(api, r, NAMES, 6);
+            final TruthTable table = new TruthTable(e);
+            final long count = table.countSatisfying();
+            Assert.assertEquals(e.toString(), count > 0, checker.isSatisfiable(e));
+            if (count > 0) {
+                Assert.assertTrue(e.evaluateComplete(checker.getModel()));
+            } else {
+                Assert.assertNull(checker.getModel());
+            }
+            final boolean tautology = count == 1L << table.getVariableCount();
+            Assert.assertEquals(e.toString(), tautology, checker.isTautology(e));
+            if (!tautology) {
+                Assert.assertFalse(e.evaluateComplete(checker.getModel()));
+            }
+        }
+    }
+
+    /**
+     * Test für {@link SatChecker#areEquivalent(Expression, Expression)}.
+     */
+    @Test
+    public final void testEquivalence() throws SyntaxException, IncompleteContextException {
+        final SatChecker checker = new SatChecker();
+        Assert.assertTrue(checker.areEquivalent(parse("a && b"), parse("!(!a || !b)")));
+        Assert.assertTrue(checker.areEquivalent(parse("a -> b"), parse("!a || b")));
+        Assert.assertTrue(checker.areEquivalent(parse("a <-> b"), parse("!(a ^ b)")));
+        Assert.assertTrue(checker.areEquivalent(parse("(a) ^ T"), parse("!a")));
+        final Expression left = parse("a -> b");
+        final Expression right = parse("b -> a");
+        Assert.assertFalse(checker.areEquivalent(left, right));
+        Assert.assertNotEquals(left.evaluateComplete(checker.getModel()),
+            right.evaluateComplete(checker.getModel()));
+        Assert.assertTrue(checker.isTautology(parse("a || !a")));
+        Assert.assertFalse(checker.isSatisfiable(parse("(a && b) && !(b || F)")));
+        Assert.assertTrue(checker.isTautology(parse("(a -> b) && (b -> c) -> (a -> c)")));
+        Assert.assertTrue(checker.isTautology(parse("T")));
+        Assert.assertFalse(checker.isSatisfiable(parse("F")));
+    }
+
+    /**
+     * Test für {@link SatChecker#isTautology(Expression)} mit einer Kette von 300 Implikationen,
+     * zu groß für Wahrheitstabellen.
+     */
+    @Test
+    public final void testManyVariables() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final int n = 300;
+        Expression chain = api.makeConstantExpression(true);
+        for (int i = 0; i + 1 < n; i++) {
+            chain = api.makeAndExpression(chain, api.makeConsequenceExpression(
+                api.makeVariableExpression(name(i)), api.makeVariableExpression(name(i + 1))));
+        }
+        final Expression first = api.makeVariableExpression(name(0));
+        final Expression last = api.makeVariableExpression(name(n - 1));
+        final SatChecker checker = new SatChecker();
+        Assert.assertTrue(checker.isTautology(api.makeConsequenceExpression(chain,
+            api.makeConsequenceExpression(first, last))));
+        final Expression broken = api.makeConsequenceExpression(chain,
+            api.makeConsequenceExpression(last, first));
+        Assert.assertFalse(checker.isTautology(broken));
+        Assert.assertFalse(broken.evaluateComplete(checker.getModel()));
+    }
+
+    /**
+     * Test für {@link SatSolver#solve(int...)} mit dem Schubfachproblem, das nur mit mehr
+     * Schlägen als Tauben erfüllbar ist.
+     */
+    @Test
+    public final void testPigeonhole() {
+        for (int pigeons = 4; pigeons <= 7; pigeons++) {
+            for (int holes = pigeons - 1; holes <= pigeons; holes++) {
+                final SatSolver solver = new SatSolver();
+                final int[][] sits = new int[pigeons][holes];
+                for (int p = 0; p < pigeons; p++) {
+                    for (int h = 0; h < holes; h++) {
+                        sits[p][h] = solver.newVariable();
+                    }
+                    solver.addClause(sits[p]);
+                }
+                for (int h = 0; h < holes; h++) {
+                    for (int p = 0; p < pigeons; p++) {
+                        for (int q = p + 1; q < pigeons; q++) {
+                            solver.addClause(-sits[p][h], -sits[q][h]);
+                        }
+                    }
+                }
+                Assert.assertEquals(holes >= pigeons, solver.solve());
+            }
+        }
+    }
+
+    /**
+     * Test für {@link SatSolver#solve(int...)} mit Annahmen, die nur für einen Aufruf gelten.
+     */
+    @Test
+    public final void testAssumptions() {
+        final SatSolver solver = new SatSolver();
+        final int a = solver.newVariable();
+        final int b = solver.newVariable();
+        final int c = solver.newVariable();
+        solver.addClause(a, b);
+        solver.addClause(-b, c);
+        solver.addClause(b, b, -b);
+        Assert.assertTrue(solver.solve(-a));
+        Assert.assertTrue(solver.value(b));
+        Assert.assertTrue(solver.value(c));
+        Assert.assertFalse(solver.solve(-a, -c));
+        Assert.assertFalse(solver.solve(-a, a));
+        Assert.assertTrue(solver.solve(-c));
+        Assert.assertTrue(solver.value(a));
+        Assert.assertFalse(solver.value(b));
+        solver.addClause(-a);
+        Assert.assertFalse(solver.solve(-c));
+        Assert.assertTrue(solver.solve());
+        solver.addClause(-c);
+        Assert.assertFalse(solver.solve());
+        Assert.assertFalse(solver.solve(a));
+    }
+}
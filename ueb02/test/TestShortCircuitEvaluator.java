@@ -0,0 +1,167 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import evaluation.ForkJoinEvaluator;
+import evaluation.ShortCircuitEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import tree.And;
+import tree.BinaryOperation;
+import tree.Consequence;
+import tree.Or;
+import tree.UnaryOperation;
+
+/**
+ * Tests für die parallele, verkürzte Auswertung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestShortCircuitEvaluator {
+
+    /** die Variablen der zufälligen Ausdrücke */
+    private static final String[] NAMES = {"a", "b", "c", "d", "e"};
+
+    /**
+     * Wertet einen Ausdruck dreiwertig aus: eine Operation ist entschieden, sobald einer ihrer
+     * Operanden sie entscheidet.
+     *
+     * @param e der Ausdruck
+     * @param c der Kontext
+     * @return der Wahrheitswert oder null, wenn er ohne fehlende Variablen nicht feststeht
+     */
+    private static Boolean expected(Expression e, Context c) {
+        if (e instanceof UnaryOperation unary) {
+            final Boolean value = expected(unary.getOperand(), c);
+            return value == null ? null : unary.evaluate(value);
+        } else if (e instanceof BinaryOperation binary) {
+            final Boolean left = expected(binary.getLeft(), c);
+            final Boolean right = expected(binary.getRight(), c);
+            final boolean decisive = binary instanceof And ? false : true;
+            if (left != null && (binary instanceof Consequence ? !left : left == decisive)
+                    && (binary instanceof And || binary instanceof Or
+                    || binary instanceof Consequence)) {
+                return binary.evaluate(left, left);
+            } else if (right != null && right == decisive && (binary instanceof And
+                    || binary instanceof Or || binary instanceof Consequence)) {
+                return binary.evaluate(right, right);
+            }
+            return left == null || right == null ? null : binary.evaluate(left, right);
+        }
+        try {
+            return e.evaluateShort(c);
+        } catch (IncompleteContextException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Test für {@link ShortCircuitEvaluator#evaluate} gegen evaluateShort und die dreiwertige
+     * Auswertung, mit unvollständigen Kontexten und verschiedenen Grenzen.
+     */
+    @Test
+    public final void testRandom() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Random r = new Random(24);
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        final ShortCircuitEvaluator evaluator = new ShortCircuitEvaluator(pool, () -> { });
+        try {
+            for (int i = 0; i < 400; i++) {
+                final Expression e = TestToolkit.randomExpression(api, r, NAMES, 2 + i % 7);
+                final Context c = new Context();
+                for (String name : NAMES) {
+                    if (r.nextInt(4) != 0) {
+                        c.set(name, r.nextBoolean());
+                    }
+                }
+                final Boolean expected = expected(e, c);
+                for (int bound : new int[] {1, 4, Integer.MAX_VALUE}) {
+                    try {
+                        final boolean actual = evaluator.evaluate(e, c, bound);
+                        Assert.assertEquals(e.toString(), expected, actual);
+                        try {
+                            Assert.assertEquals(e.toString(), e.evaluateShort(c), actual);
+                        } catch (IncompleteContextException ex) {
+                            //evaluateShort gibt bei einer fehlenden linken Seite auf
+                        }
+                    } catch (IncompleteContextException ex) {
+                        Assert.assertNull(e.toString(), expected);
+                        Assert.assertFalse(c.has(ex.getName()));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test für {@link ShortCircuitEvaluator#evaluate}, der rechte Operand entscheidet auch
+     * ohne den linken.
+     */
+    @Test
+    public final void testMissing() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final ShortCircuitEvaluator evaluator = ShortCircuitEvaluator.getDefault();
+        final Context ctx = new Context();
+        ctx.set("b", true);
+
+        Assert.assertFalse(evaluator.evaluate(api.makeAndExpression(
+            api.makeVariableExpression("a"), api.makeConstantExpression(false)), ctx, 1));
+        Assert.assertTrue(evaluator.evaluate(api.makeConsequenceExpression(
+            api.makeVariableExpression("a"), api.makeVariableExpression("b")), ctx, 1));
+        try {
+            evaluator.evaluate(api.makeAndExpression(
+                api.makeVariableExpression("a"), api.makeVariableExpression("b")), ctx, 1);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            Assert.assertEquals("a", e.getName());
+        }
+    }
+
+    /**
+     * Test für {@link ShortCircuitEvaluator#evaluate}, ein großer linker Operand wird
+     * abgebrochen, sobald der rechte die Und-Verknüpfung entscheidet.
+     */
+    @Test
+    public final void testCancellation() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Context ctx = new Context();
+        List<Expression> level = new ArrayList<>();
+        for (int i = 0; i < 1 << 18; i++) {
+            final String name = NAMES[i % NAMES.length];
+            ctx.set(name, true);
+            level.add(api.makeVariableExpression(name));
+        }
+        while (level.size() > 1) {
+            final List<Expression> next = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += 2) {
+                next.add(api.makeXorExpression(level.get(i), level.get(i + 1)));
+            }
+            level = next;
+        }
+        final Expression e = api.makeAndExpression(level.get(0), api.makeNotExpression(
+            api.makeOrExpression(api.makeVariableExpression("a"),
+                api.makeVariableExpression("b"))));
+
+        final AtomicInteger complete = new AtomicInteger();
+        final AtomicInteger forks = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Assert.assertFalse(new ForkJoinEvaluator(pool, complete::incrementAndGet)
+                .evaluate(e, ctx, 64));
+            Assert.assertFalse(new ShortCircuitEvaluator(pool, forks::incrementAndGet)
+                .evaluate(e, ctx, 64));
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertTrue(forks.get() + " von " + complete.get(), forks.get() < complete.get() / 2);
+    }
+}
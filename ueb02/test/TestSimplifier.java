@@ -0,0 +1,114 @@
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.Simplifier;
+import compiler.Simplifier.Rewrite;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import io.ExpressionParser;
+import io.SyntaxException;
+
+/**
+ * Tests für die Vereinfachung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestSimplifier {
+
+    /** die Variablen der zufälligen Ausdrücke */
+    private static final String[] NAMES = {"a", "b", "c"};
+
+    /**
+     * Vereinfacht einen Ausdruck in der Syntax von toString.
+     *
+     * @param simplifier die Vereinfachung
+     * @param text der Ausdruck
+     * @return die Darstellung des Ergebnisses
+     */
+    private static String simplify(Simplifier simplifier, String text) throws SyntaxException {
+        return simplifier.simplify(new ExpressionParser(new ExpressionAPI()).parse(text))
+            .toString();
+    }
+
+    /**
+     * Test für {@link Simplifier#simplify(Expression)} mit je einer Umformung.
+     */
+    @Test
+    public final void testRewrites() throws SyntaxException {
+        final Simplifier s = new Simplifier();
+        Assert.assertEquals("a", simplify(s, "((a))"));
+        Assert.assertEquals("a", simplify(s, "!!a"));
+        Assert.assertEquals("F", simplify(s, "T && !T"));
+        Assert.assertEquals("a", simplify(s, "a && T"));
+        Assert.assertEquals("a", simplify(s, "F || a"));
+        Assert.assertEquals("a", simplify(s, "T -> a"));
+        Assert.assertEquals("F", simplify(s, "a && F"));
+        Assert.assertEquals("T", simplify(s, "F -> a"));
+        Assert.assertEquals("(!a)", simplify(s, "a ^ T"));
+        Assert.assertEquals("a", simplify(s, "!a <-> F"));
+        Assert.assertEquals("(!a)", simplify(s, "a -> F"));
+        Assert.assertEquals("(a && b)", simplify(s, "(a && b) || (a && b)"));
+        Assert.assertEquals("F", simplify(s, "(a || b) ^ (a || b)"));
+        Assert.assertEquals("T", simplify(s, "a -> a"));
+        Assert.assertEquals("T", simplify(s, "a || !a"));
+        Assert.assertEquals("(!a)", simplify(s, "a -> !a"));
+        Assert.assertEquals("(a <-> b)", simplify(s, "(a) <-> (b && T)"));
+        Assert.assertEquals(3, s.getCount(Rewrite.IDENTITY));
+        Assert.assertEquals(2, s.getCount(Rewrite.DOUBLE_NEGATION));
+        Assert.assertEquals(2, s.getCount(Rewrite.CONSTANT_FOLDING));
+        Assert.assertEquals(4, s.getCount(Rewrite.NEUTRAL_ELEMENT));
+        Assert.assertEquals(2, s.getCount(Rewrite.ABSORBING_ELEMENT));
+        Assert.assertEquals(3, s.getCount(Rewrite.NEGATION));
+        Assert.assertEquals(1, s.getCount(Rewrite.IDEMPOTENCE));
+        Assert.assertEquals(2, s.getCount(Rewrite.SAME_OPERANDS));
+        Assert.assertEquals(2, s.getCount(Rewrite.COMPLEMENT));
+        Assert.assertEquals(21, s.getTotalCount());
+        Assert.assertTrue(s.getOutputNodes() < s.getInputNodes());
+        s.resetStatistics();
+        Assert.assertEquals(0, s.getTotalCount());
+        Assert.assertEquals("Knoten 0 -> 0", s.toString());
+    }
+
+    /**
+     * Test für {@link Simplifier#simplify(Expression)}, zufällige Ausdrücke behalten ihren
+     * Wert in allen Belegungen und werden nicht größer.
+     */
+    @Test
+    public final void testEquivalence() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Simplifier s = new Simplifier();
+        final Random r = new Random(17);
+        for (int i = 0; i < 500; i++) {
+            final Expression e = TestToolkit.randomExpression(api, r, NAMES, 6);
+            final Expression simple = s.simplify(e);
+            Assert.assertTrue(simple.getChildrenCount() <= e.getChildrenCount());
+            for (int bits = 0; bits < 8; bits++) {
+                final Context c = new Context();
+                c.set("a", (bits & 1) != 0);
+                c.set("b", (bits & 2) != 0);
+                c.set("c", (bits & 4) != 0);
+                Assert.assertEquals(e.toString(), e.evaluateComplete(c), simple.evaluateShort(c));
+            }
+        }
+        Assert.assertTrue(s.getTotalCount() > 0);
+    }
+
+    /**
+     * Test für {@link Simplifier#simplify(Expression)} mit einer Kette aus 100001 Negationen.
+     */
+    @Test
+    public final void testDeepChain() {
+        final ExpressionAPI api = new ExpressionAPI();
+        Expression e = api.makeVariableExpression("a");
+        for (int i = 0; i <= 100000; i++) {
+            e = api.makeNotExpression(e);
+        }
+        final Simplifier s = new Simplifier();
+        Assert.assertEquals("(!a)", s.simplify(e).toString());
+        Assert.assertEquals(50000, s.getCount(Rewrite.DOUBLE_NEGATION));
+    }
+}
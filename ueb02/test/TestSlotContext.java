@@ -0,0 +1,86 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.Program;
+import compiler.ProgramCompiler;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import expression.SlotContext;
+import expression.VariableTable;
+
+/**
+ * Tests für den Kontext mit Slots.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestSlotContext {
+
+    /**
+     * Test für {@link SlotContext#set(int, boolean)} über mehr als 64 Slots.
+     */
+    @Test
+    public final void testSetGet() {
+        final VariableTable table = new VariableTable();
+        final SlotContext ctx = new SlotContext(table);
+        final int[] slots = new int[100];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = table.slotOf(name(i));
+        }
+        for (int i = 0; i < slots.length; i += 2) {
+            ctx.set(slots[i], i % 3 == 0);
+        }
+
+        for (int i = 0; i < slots.length; i++) {
+            Assert.assertEquals(i % 2 == 0, ctx.has(slots[i]));
+            if (i % 2 == 0) {
+                Assert.assertEquals(i % 3 == 0, ctx.get(slots[i]));
+            }
+        }
+        ctx.remove(slots[0]);
+        Assert.assertFalse(ctx.has(slots[0]));
+    }
+
+    /**
+     * Liefert einen Bezeichner aus Buchstaben für eine Zahl.
+     *
+     * @param i die Zahl
+     * @return der Bezeichner
+     */
+    private static String name(int i) {
+        return "v" + (char) ('a' + i / 26) + (char) ('a' + i % 26);
+    }
+
+    /**
+     * Test für {@link Program#evaluate(SlotContext)}, zwei Programme teilen sich eine Tabelle.
+     */
+    @Test
+    public final void testSharedTable() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final VariableTable table = new VariableTable();
+        final Expression first = api.makeAndExpression(
+            api.makeVariableExpression("a"), api.makeNotExpression(api.makeVariableExpression("b")));
+        final Expression second = api.makeXorExpression(
+            api.makeVariableExpression("c"), api.makeVariableExpression("a"));
+        final Program firstProgram = ProgramCompiler.compile(first, true, table);
+        final Program secondProgram = ProgramCompiler.compile(second, true, table);
+        Assert.assertEquals(3, table.size());
+
+        final Context ctx = new Context();
+        ctx.set("a", true);
+        ctx.set("b", false);
+        ctx.set("c", true);
+        final SlotContext slots = SlotContext.of(table, ctx);
+
+        Assert.assertEquals(first.evaluateShort(ctx), firstProgram.evaluate(slots));
+        Assert.assertEquals(second.evaluateShort(ctx), secondProgram.evaluate(slots));
+        slots.remove(table.indexOf("c"));
+        try {
+            secondProgram.evaluate(slots);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            Assert.assertEquals("c", e.getName());
+        }
+    }
+}
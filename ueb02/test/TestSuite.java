@@ -3,7 +3,31 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    ExampleTest.class
+    ExampleTest.class,
+    TestForkJoinEvaluator.class,
+    TestAdaptiveEvaluator.class,
+    TestProgramCompiler.class,
+    TestTieredExpression.class,
+    TestSlotContext.class,
+    TestBatchEvaluator.class,
+    TestInterningExpressionAPI.class,
+    TestMemoEvaluator.class,
+    TestToString.class,
+    TestGraphvizWriter.class,
+    TestIterativeEvaluator.class,
+    TestExpressionParser.class,
+    TestBinaryFormat.class,
+    TestMappedRuleStore.class,
+    TestSimplifier.class,
+    TestBdd.class,
+    TestTruthTable.class,
+    TestSatSolver.class,
+    TestIncrementalEvaluator.class,
+    TestRuleEngine.class,
+    TestRuleNetwork.class,
+    TestShortCircuitEvaluator.class,
+    TestOperandReorderer.class,
+    TestVirtualThreadEvaluator.class
 })
 
 public class TestSuite {
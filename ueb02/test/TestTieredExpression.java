@@ -0,0 +1,152 @@
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import compiler.TieredExpression;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die Auswertung mit übersetzten versteckten Klassen.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestTieredExpression {
+
+    /**
+     * Erzeugt den Ausdruck (((a ^ b) -> c) <-> (!(a && c))).
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @return der Ausdruck
+     */
+    private static Expression expression(ExpressionAPI api) {
+        return api.makeEquivalenceExpression(
+            api.makeConsequenceExpression(
+                api.makeXorExpression(api.makeVariableExpression("a"),
+                    api.makeVariableExpression("b")),
+                api.makeVariableExpression("c")),
+            api.makeNotExpression(
+                api.makeAndExpression(api.makeVariableExpression("a"),
+                    api.makeVariableExpression("c"))));
+    }
+
+    /**
+     * Test für {@link TieredExpression#evaluateShort}, nach der Schwelle wird übersetzt und das
+     * Ergebnis bleibt für alle Belegungen gleich.
+     */
+    @Test
+    public final void testEvaluateAllContexts() throws IncompleteContextException {
+        final Expression tree = expression(new ExpressionAPI());
+        final TieredExpression tiered = new TieredExpression(tree, 4);
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 8; i++) {
+                final Context ctx = new Context();
+                ctx.set("a", (i & 1) != 0);
+                ctx.set("b", (i & 2) != 0);
+                ctx.set("c", (i & 4) != 0);
+                Assert.assertEquals(tree.evaluateShort(ctx), tiered.evaluateShort(ctx));
+                Assert.assertEquals(tree.evaluateComplete(ctx), tiered.evaluateComplete(ctx));
+            }
+        }
+        Assert.assertTrue(tiered.isCompiled());
+        Assert.assertEquals(tree.toString(), tiered.toString());
+    }
+
+    /**
+     * Test für {@link TieredExpression#evaluateShort}, eine fehlende Variable, die verkürzt
+     * nicht benötigt wird, stört auch die übersetzte Klasse nicht, vollständig wird sie gemeldet.
+     */
+    @Test
+    public final void testIncompleteContext() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final TieredExpression tiered = new TieredExpression(
+            api.makeOrExpression(api.makeVariableExpression("a"), api.makeVariableExpression("c")),
+            0);
+        final Context ctx = new Context();
+        ctx.set("a", true);
+
+        Assert.assertTrue(tiered.evaluateShort(ctx));
+        Assert.assertTrue(tiered.isCompiled());
+        Assert.assertTrue(tiered.evaluateShort(ctx));
+        try {
+            tiered.evaluateComplete(ctx);
+            Assert.fail();
+        } catch (IncompleteContextException e) {
+            Assert.assertEquals("c", e.getName());
+        }
+    }
+
+    /**
+     * Test für {@link TieredExpression#isCompiled}, ein Ausdruck, der zu groß für eine Klasse
+     * ist, bleibt im Baum.
+     */
+    @Test
+    public final void testTooLarge() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final String[] names = {"a", "b", "c"};
+        final Context ctx = new Context();
+        ctx.set("a", true);
+        ctx.set("b", false);
+        ctx.set("c", true);
+        Expression tree = api.makeVariableExpression("a");
+        for (int i = 1; i < 2000; i++) {
+            tree = api.makeXorExpression(tree, api.makeVariableExpression(names[i % names.length]));
+        }
+        final TieredExpression tiered = new TieredExpression(tree, 0);
+        for (int round = 0; round < 3; round++) {
+            Assert.assertEquals(tree.evaluateShort(ctx), tiered.evaluateShort(ctx));
+        }
+        Assert.assertFalse(tiered.isCompiled());
+    }
+
+    /**
+     * Liefert das Ergebnis einer Auswertung als Text, auch für eine fehlende Variable.
+     *
+     * @param e der Ausdruck
+     * @param c der Kontext
+     * @param shortCircuit true für evaluateShort, false für evaluateComplete
+     * @return der Wahrheitswert oder der Name der fehlenden Variablen
+     */
+    private static String outcome(Expression e, Context c, boolean shortCircuit) {
+        try {
+            return String.valueOf(shortCircuit ? e.evaluateShort(c) : e.evaluateComplete(c));
+        } catch (IncompleteContextException ex) {
+            return "fehlt " + ex.getName();
+        }
+    }
+
+    /**
+     * Test für {@link TieredExpression#evaluateShort} und
+     * {@link TieredExpression#evaluateComplete} mit zufälligen Ausdrücken und unvollständigen
+     * Kontexten, die übersetzte Klasse liefert denselben Wert bzw. meldet dieselbe fehlende
+     * Variable wie der Baum.
+     */
+    @Test
+    public final void testRandomIncompleteContexts() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final String[] names = {"a", "b", "c", "d", "e"};
+        final Random r = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            final Expression tree = TestToolkit.randomExpression(api, r, names, 1 + i % 7);
+            final TieredExpression tiered = new TieredExpression(tree, 0);
+            for (int k = 0; k < 20; k++) {
+                final Context c = new Context();
+                for (String name : names) {
+                    if (r.nextInt(4) != 0) {
+                        c.set(name, r.nextBoolean());
+                    }
+                }
+                Assert.assertEquals(tree.toString(), outcome(tree, c, true),
+                    outcome(tiered, c, true));
+                Assert.assertEquals(tree.toString(), outcome(tree, c, false),
+                    outcome(tiered, c, false));
+            }
+            Assert.assertTrue(tiered.isCompiled());
+            Assert.assertEquals(outcome(tree, null, true), outcome(tiered, null, true));
+        }
+    }
+}
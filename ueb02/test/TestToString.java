@@ -0,0 +1,73 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Expression;
+
+/**
+ * Tests für die Stringdarstellung.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestToString {
+
+    /**
+     * Test für {@link Expression#toString()} mit tief geschachtelten Negationen.
+     */
+    @Test
+    public final void testDeepNegation() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final int depth = 2000;
+        Expression e = api.makeVariableExpression("a");
+        for (int i = 0; i < depth; i++) {
+            e = i % 2 == 0 ? api.makeNotExpression(e) : api.makeIdExpression(e);
+        }
+
+        final StringBuilder expected = new StringBuilder();
+        for (int i = depth - 1; i >= 0; i--) {
+            expected.append(i % 2 == 0 ? "(!" : "(");
+        }
+        expected.append("a");
+        for (int i = 0; i < depth; i++) {
+            expected.append(")");
+        }
+        Assert.assertEquals(expected.toString(), e.toString());
+    }
+
+    /**
+     * Test für {@link Expression#toString(StringBuilder)}, die Darstellung wird an den Inhalt
+     * des StringBuilders angehängt.
+     */
+    @Test
+    public final void testAppend() {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Expression e = api.makeXorExpression(
+            api.makeNotExpression(api.makeVariableExpression("a")),
+            api.makeIdExpression(api.makeConstantExpression(true)));
+        final StringBuilder builder = new StringBuilder("e = ");
+        e.toString(builder);
+        Assert.assertEquals("e = ((!a) ^ (T))", builder.toString());
+    }
+
+    /**
+     * Test für {@link Expression#toString()} mit einem vollständigen Baum mit 2^17 Blättern.
+     */
+    @Test
+    public final void testWide() {
+        final ExpressionAPI api = new ExpressionAPI();
+        Expression[] level = new Expression[1 << 17];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = api.makeNotExpression(api.makeVariableExpression("x"));
+        }
+        while (level.length > 1) {
+            final Expression[] next = new Expression[level.length / 2];
+            for (int i = 0; i < next.length; i++) {
+                next[i] = api.makeOrExpression(level[2 * i], level[2 * i + 1]);
+            }
+            level = next;
+        }
+        //je Blatt "(!x)", je Disjunktion "(", " || " und ")"
+        final int leaves = 1 << 17;
+        Assert.assertEquals(leaves * 4 + (leaves - 1) * 6, level[0].toString().length());
+    }
+}
@@ -7,13 +7,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Random;
 
+import api.ExpressionAPI;
 import expression.Expression;
 
 /**
  * Klasse mit statischen Methoden für JUnit-Tests. Die Klasse beinhaltet
  * unter anderem Methoden zum Vergleichen von Dateien und zum Erstellen
- * und Anzeigen von PNG-Dateien aus Graphviz-Dateien.
+ * und Anzeigen von PNG-Dateien aus Graphviz-Dateien sowie zum Erzeugen
+ * zufälliger Ausdrücke.
  * 
  * @author aan, avh, mhe, mre, tti
  */
@@ -215,4 +218,46 @@ public final class TestToolkit {
         return Arrays.equals(Files.readAllBytes(f1), Files.readAllBytes(f2));
     }
 
+    /**
+     * Erzeugt einen zufälligen Ausdruck mit allen Operatoren. Jeder Aufruf baut neue Objekte
+     * über die übergebene API, gleiche Teilausdrücke entstehen nur zufällig.
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @param r der Zufallsgenerator
+     * @param names die Bezeichner der Variablen
+     * @param depth die maximale Tiefe
+     * @return der Ausdruck
+     * @pre names ist nicht leer.
+     */
+    public static Expression randomExpression(ExpressionAPI api, Random r, String[] names,
+            int depth) {
+        assert names.length > 0;
+
+        final int kind = r.nextInt(depth == 0 ? 2 : 9);
+        if (kind == 0) {
+            return r.nextInt(5) == 0 ? api.makeConstantExpression(r.nextBoolean())
+                : api.makeVariableExpression(names[r.nextInt(names.length)]);
+        } else if (kind == 1) {
+            return api.makeVariableExpression(names[r.nextInt(names.length)]);
+        } else if (kind == 2) {
+            return api.makeNotExpression(randomExpression(api, r, names, depth - 1));
+        } else if (kind == 3) {
+            return api.makeIdExpression(randomExpression(api, r, names, depth - 1));
+        }
+        final Expression left = randomExpression(api, r, names, depth - 1);
+        final Expression right = randomExpression(api, r, names, depth - 1);
+        switch (kind) {
+            case 4:
+                return api.makeAndExpression(left, right);
+            case 5:
+                return api.makeOrExpression(left, right);
+            case 6:
+                return api.makeXorExpression(left, right);
+            case 7:
+                return api.makeEquivalenceExpression(left, right);
+            default:
+                return api.makeConsequenceExpression(left, right);
+        }
+    }
+
 }
@@ -0,0 +1,199 @@
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+import io.ExpressionParser;
+import io.SyntaxException;
+import logic.TruthTable;
+
+/**
+ * Tests für die Aufzählung der Wahrheitstabelle.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestTruthTable {
+
+    /**
+     * Liefert den Bezeichner der Variablen mit einem Index.
+     *
+     * @param index der Index, höchstens 25
+     * @return der Bezeichner aus v und einem Buchstaben
+     */
+    private static String name(int index) {
+        return "v" + (char) ('a' + index);
+    }
+
+    /**
+     * Erzeugt einen zufälligen Ausdruck über den ersten names Variablen.
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @param r der Zufallsgenerator
+     * @param names die Anzahl der Variablen
+     * @param depth die maximale Tiefe
+     * @return der Ausdruck
+     */
+    private static Expression random(ExpressionAPI api, Random r, int names, int depth) {
+        final int kind = r.nextInt(depth == 0 ? 1 : 7);
+        if (kind == 0) {
+            return api.makeVariableExpression(name(r.nextInt(names)));
+        } else if (kind == 1) {
+            return api.makeNotExpression(random(api, r, names, depth - 1));
+        }
+        final Expression left = random(api, r, names, depth - 1);
+        final Expression right = random(api, r, names, depth - 1);
+        switch (kind) {
+            case 2:
+                return api.makeAndExpression(left, right);
+            case 3:
+                return api.makeOrExpression(left, right);
+            case 4:
+                return api.makeXorExpression(left, right);
+            case 5:
+                return api.makeEquivalenceExpression(left, right);
+            default:
+                return api.makeConsequenceExpression(left, right);
+        }
+    }
+
+    /**
+     * Zählt die erfüllenden Belegungen mit einem Kontext pro Zeile.
+     *
+     * @param table die Tabelle, die die Variablen festlegt
+     * @param e der Ausdruck
+     * @return die Anzahl der erfüllenden Belegungen
+     */
+    private static long bruteForce(TruthTable table, Expression e)
+        throws IncompleteContextException {
+        long count = 0;
+        for (long bits = 0; bits < 1L << table.getVariableCount(); bits++) {
+            if (e.evaluateComplete(table.toContext(bits))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Übersetzt einen Ausdruck in der Syntax von toString.
+     *
+     * @param text der Ausdruck
+     * @return der Ausdruck
+     */
+    private static Expression parse(String text) throws SyntaxException {
+        return new ExpressionParser(new ExpressionAPI()).parse(text);
+    }
+
+    /**
+     * Erzeugt die Parität über die ersten names Variablen.
+     *
+     * @param names die Anzahl der Variablen
+     * @return der Ausdruck in der Syntax von toString
+     */
+    private static String parity(int names) {
+        final StringBuilder text = new StringBuilder(name(0));
+        for (int i = 1; i < names; i++) {
+            text.insert(0, '(').append(" ^ ").append(name(i)).append(')');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Test für {@link TruthTable#countSatisfying()} mit zufälligen Ausdrücken, die weniger
+     * Variablen als ein Wort Lanes haben, und einem, der sich über zwei Blöcke erstreckt, sodass
+     * die Blockgrenze und die Gray-Codierung der äußeren Spalte geprüft werden.
+     */
+    @Test
+    public final void testCountSatisfying() throws IncompleteContextException, SyntaxException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final Random r = new Random(19);
+        for (int names : new int[] {1, 3, 6, 10}) {
+            for (int i = 0; i < 5; i++) {
+                final Expression e = random(api, r, names, 6);
+                final TruthTable table = new TruthTable(e);
+                Assert.assertEquals(e.toString(), bruteForce(table, e), table.countSatisfying());
+            }
+        }
+
+        final Expression e = api.makeOrExpression(random(api, r, 13, 4), parse(parity(13)));
+        final TruthTable table = new TruthTable(e);
+        Assert.assertEquals(13, table.getVariableCount());
+        Assert.assertEquals(e.toString(), bruteForce(table, e), table.countSatisfying());
+    }
+
+    /**
+     * Test für {@link TruthTable#countSatisfying()} mit einer Parität über 17 Variablen, deren
+     * 32 Blöcke auf mehrere Fork/Join-Aufgaben verteilt werden.
+     */
+    @Test
+    public final void testParity() throws SyntaxException {
+        final TruthTable table = new TruthTable(parse(parity(17)));
+        Assert.assertEquals(17, table.getVariableCount());
+        Assert.assertEquals(1L << 16, table.countSatisfying());
+        Assert.assertTrue(table.isSatisfiable());
+    }
+
+    /**
+     * Test für {@link TruthTable#forEachSatisfying(java.util.function.LongConsumer)} und
+     * {@link TruthTable#toContext(long)}.
+     */
+    @Test
+    public final void testForEachSatisfying()
+        throws SyntaxException, IncompleteContextException {
+        final Expression e = parse("((a && b) || (c -> (d ^ e)))");
+        final TruthTable table = new TruthTable(e);
+        final Set<Long> found = ConcurrentHashMap.newKeySet();
+        final long count = table.forEachSatisfying(found::add);
+        Assert.assertEquals(found.size(), count);
+        final Set<Long> expected = new HashSet<>();
+        for (long bits = 0; bits < 1L << table.getVariableCount(); bits++) {
+            if (e.evaluateComplete(table.toContext(bits))) {
+                expected.add(bits);
+            }
+        }
+        Assert.assertEquals(expected, found);
+
+        final Context c = table.toContext(1L << 2);
+        Assert.assertTrue(c.get(table.getVariable(2)));
+        Assert.assertFalse(c.get(table.getVariable(0)));
+    }
+
+    /**
+     * Test für {@link TruthTable#forEachSatisfying(java.util.function.LongConsumer)} mit genau
+     * einer erfüllenden Belegung hinter der ersten Blockgrenze.
+     */
+    @Test
+    public final void testSingleAssignment() throws SyntaxException {
+        final StringBuilder text = new StringBuilder(name(0));
+        for (int i = 1; i < 16; i++) {
+            text.insert(0, '(').append(" && ").append(i % 5 == 4 ? "!" : "").append(name(i))
+                .append(')');
+        }
+        final TruthTable table = new TruthTable(parse(text.toString()));
+        final long[] assignment = new long[1];
+        Assert.assertEquals(1, table.forEachSatisfying(bits -> assignment[0] = bits));
+        for (int v = 0; v < table.getVariableCount(); v++) {
+            final int index = table.getVariable(v).charAt(1) - 'a';
+            Assert.assertEquals(index % 5 != 4, (assignment[0] >>> v & 1) != 0);
+        }
+    }
+
+    /**
+     * Test für {@link TruthTable#isSatisfiable()}.
+     */
+    @Test
+    public final void testIsSatisfiable() throws SyntaxException {
+        Assert.assertFalse(new TruthTable(parse("((a && !b) && (b || !a))")).isSatisfiable());
+        Assert.assertFalse(new TruthTable(parse("F")).isSatisfiable());
+        Assert.assertTrue(new TruthTable(parse("T")).isSatisfiable());
+        Assert.assertEquals(1, new TruthTable(parse("T")).countSatisfying());
+        Assert.assertTrue(new TruthTable(parse("(a <-> !b)")).isSatisfiable());
+    }
+}
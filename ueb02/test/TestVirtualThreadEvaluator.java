@@ -0,0 +1,226 @@
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import api.ExpressionAPI;
+import evaluation.VirtualThreadEvaluator;
+import expression.Context;
+import expression.Expression;
+import expression.IncompleteContextException;
+
+/**
+ * Tests für die Auswertung mit einem Thread pro abgespaltenem Teilbaum. Die Tests laufen in
+ * beiden Build-Profilen: unter Java 21 mit virtuellen Threads, sonst über den Rückfall auf
+ * Plattform-Threads.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+public class TestVirtualThreadEvaluator {
+
+    /**
+     * Ausdruck, dessen Auswertung mit einem vorgegebenen Fehler scheitert.
+     */
+    private static final class Failing implements Expression {
+
+        /** der Fehler */
+        private final RuntimeException runtime;
+
+        /** der Fehler, falls runtime null ist */
+        private final Error error;
+
+        /**
+         * Konstruktor.
+         *
+         * @param runtime der Fehler oder null
+         * @param error der Fehler, falls runtime null ist
+         */
+        private Failing(RuntimeException runtime, Error error) {
+            this.runtime = runtime;
+            this.error = error;
+        }
+
+        /**
+         * Wirft den Fehler.
+         *
+         * @return nie
+         */
+        private boolean fail() {
+            if (runtime != null) {
+                throw runtime;
+            }
+            throw error;
+        }
+
+        @Override
+        public boolean evaluateShort(Context c) {
+            return fail();
+        }
+
+        @Override
+        public boolean evaluateComplete(Context c) {
+            return fail();
+        }
+
+        @Override
+        public boolean evaluateParallel(Context c, int bound) {
+            return fail();
+        }
+
+        @Override
+        public int getChildrenCount() {
+            return 1;
+        }
+
+        @Override
+        public String toString() {
+            return "fail";
+        }
+
+        @Override
+        public void toString(StringBuilder builder) {
+            builder.append(toString());
+        }
+
+        @Override
+        public String toGraphviz() {
+            return toString();
+        }
+
+        @Override
+        public void toGraphviz(StringBuilder builder, String prefix) {
+            builder.append(toString());
+        }
+    }
+
+    /**
+     * Erzeugt den Ausdruck ((a -&gt; b) &lt;-&gt; ((!a) || (b))).
+     *
+     * @param api die API zum Erzeugen der Knoten
+     * @return der Ausdruck
+     */
+    private static Expression almostAll(ExpressionAPI api) {
+        return api.makeEquivalenceExpression(
+            api.makeConsequenceExpression(
+                api.makeVariableExpression("a"),
+                api.makeVariableExpression("b")),
+            api.makeOrExpression(
+                api.makeNotExpression(api.makeVariableExpression("a")),
+                api.makeIdExpression(api.makeVariableExpression("b"))));
+    }
+
+    /**
+     * Prüft, ob ein Thread virtuell ist.
+     *
+     * @param thread der Thread
+     * @return true, wenn die Laufzeitumgebung virtuelle Threads kennt und der Thread einer ist
+     */
+    private static boolean isVirtual(Thread thread) {
+        try {
+            Method isVirtual = Thread.class.getMethod("isVirtual");
+            return (Boolean) isVirtual.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wertet almostAll für alle Belegungen mit einer Fabrik aus, die sich die erzeugten
+     * Threads merkt.
+     *
+     * @param factory die Fabrik
+     * @return die erzeugten Threads
+     */
+    private static List<Thread> evaluateAll(ThreadFactory factory)
+            throws IncompleteContextException {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final VirtualThreadEvaluator evaluator = new VirtualThreadEvaluator(r -> {
+            final Thread t = factory.newThread(r);
+            threads.add(t);
+            return t;
+        }, () -> { });
+        final Expression e = almostAll(new ExpressionAPI());
+        for (int i = 0; i < 4; i++) {
+            final Context ctx = new Context();
+            ctx.set("a", (i & 1) != 0);
+            ctx.set("b", (i & 2) != 0);
+            Assert.assertEquals(e.evaluateComplete(ctx), evaluator.evaluate(e, ctx, 1));
+        }
+        Assert.assertEquals(4 * 3, threads.size());
+        return threads;
+    }
+
+    /**
+     * Test für {@link VirtualThreadEvaluator#lookupFactory}, virtuelle Threads gibt es genau ab
+     * Java 21, unbekannte Builder liefern null.
+     */
+    @Test
+    public final void testLookup() {
+        final boolean jdk21 = Runtime.version().feature() >= 21;
+        Assert.assertEquals(jdk21, VirtualThreadEvaluator.lookupFactory("ofVirtual") != null);
+        Assert.assertEquals(jdk21, VirtualThreadEvaluator.isVirtualAvailable());
+        Assert.assertNull(VirtualThreadEvaluator.lookupFactory("ofNothing"));
+    }
+
+    /**
+     * Test für {@link VirtualThreadEvaluator#evaluate} mit der Fabrik, die auch der
+     * Standard-Konstruktor nutzt: virtuelle Threads, wenn verfügbar, sonst Plattform-Threads.
+     */
+    @Test
+    public final void testDefaultFactory() throws IncompleteContextException {
+        final ThreadFactory virtual = VirtualThreadEvaluator.lookupFactory("ofVirtual");
+        for (Thread t : evaluateAll(virtual != null ? virtual : Thread::new)) {
+            Assert.assertEquals(virtual != null, isVirtual(t));
+        }
+        final Context ctx = new Context();
+        ctx.set("a", true);
+        ctx.set("b", true);
+        Assert.assertTrue(new VirtualThreadEvaluator().evaluate(almostAll(new ExpressionAPI()),
+            ctx, 1));
+    }
+
+    /**
+     * Test für {@link VirtualThreadEvaluator#evaluate} mit dem Rückfall auf Plattform-Threads,
+     * wie er ohne Thread.ofVirtual() genutzt wird.
+     */
+    @Test
+    public final void testFallback() throws IncompleteContextException {
+        Assert.assertNull(VirtualThreadEvaluator.lookupFactory("ofNothing"));
+        for (Thread t : evaluateAll(Thread::new)) {
+            Assert.assertFalse(isVirtual(t));
+        }
+    }
+
+    /**
+     * Test für {@link VirtualThreadEvaluator#evaluate}, Fehler im abgespaltenen Teilbaum
+     * erreichen den Aufrufer, statt als false gewertet zu werden.
+     */
+    @Test
+    public final void testFailure() throws IncompleteContextException {
+        final ExpressionAPI api = new ExpressionAPI();
+        final VirtualThreadEvaluator evaluator = new VirtualThreadEvaluator(Thread::new, () -> { });
+        final Context ctx = new Context();
+        ctx.set("a", true);
+
+        final IllegalStateException runtime = new IllegalStateException("rechts");
+        try {
+            evaluator.evaluate(api.makeOrExpression(api.makeVariableExpression("a"),
+                new Failing(runtime, null)), ctx, 0);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertSame(runtime, e);
+        }
+
+        final LinkageError error = new LinkageError("rechts");
+        try {
+            evaluator.evaluate(api.makeOrExpression(api.makeVariableExpression("a"),
+                new Failing(null, error)), ctx, 0);
+            Assert.fail();
+        } catch (LinkageError e) {
+            Assert.assertSame(error, e);
+        }
+    }
+}
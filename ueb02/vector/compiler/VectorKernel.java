@@ -0,0 +1,80 @@
+package compiler;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Rechenkern auf Vektorregistern mit jdk.incubator.vector. Pro Befehl werden so viele Worte
+ * verarbeitet, wie die bevorzugte Registerbreite der CPU fasst (vier bei 256 Bit, acht bei
+ * 512 Bit), der Rest eines Blocks wird skalar gerechnet.
+ *
+ * Die Klasse liegt in einem eigenen Quellverzeichnis, weil sie nur mit
+ * --add-modules jdk.incubator.vector übersetzt werden kann. {@link BatchEvaluator} lädt sie
+ * per Reflection und fällt auf {@link ScalarKernel} zurück, wenn sie fehlt.
+ *
+ * @author Ilana Schmara, Joshua-Scott Schöttke Gruppe 21
+ */
+final class VectorKernel implements BlockKernel {
+
+    /** die bevorzugte Registerbreite */
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Konstruktor, schlägt fehl, wenn ein Register nur ein Wort fasst.
+     */
+    VectorKernel() {
+        if (SPECIES.length() < 2) {
+            throw new UnsupportedOperationException(SPECIES.toString());
+        }
+    }
+
+    @Override
+    public void not(long[] v, int n) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            LongVector.fromArray(SPECIES, v, i).not().intoArray(v, i);
+        }
+        ScalarKernel.not(v, i, n);
+    }
+
+    @Override
+    public void combine(int op, boolean shortCircuit, int n, long[] l, long[] lm, long[] r,
+            long[] rm) {
+        int i = 0;
+        int bound = SPECIES.loopBound(n);
+        for (; i < bound; i += SPECIES.length()) {
+            LongVector lv = LongVector.fromArray(SPECIES, l, i);
+            LongVector lmv = LongVector.fromArray(SPECIES, lm, i);
+            LongVector rv = LongVector.fromArray(SPECIES, r, i);
+            LongVector rmv = LongVector.fromArray(SPECIES, rm, i);
+            switch (op) {
+                case Program.AND:
+                    lmv = lmv.or(shortCircuit ? lv.and(rmv) : rmv);
+                    lv = lv.and(rv);
+                    break;
+                case Program.OR:
+                    lmv = lmv.or(shortCircuit ? lv.not().and(rmv) : rmv);
+                    lv = lv.or(rv);
+                    break;
+                case Program.IMPL:
+                    lmv = lmv.or(shortCircuit ? lv.and(rmv) : rmv);
+                    lv = lv.not().or(rv);
+                    break;
+                case Program.XOR:
+                    lmv = lmv.or(rmv);
+                    lv = lv.lanewise(VectorOperators.XOR, rv);
+                    break;
+                case Program.EQUIV:
+                    lmv = lmv.or(rmv);
+                    lv = lv.lanewise(VectorOperators.XOR, rv).not();
+                    break;
+                default:
+                    throw new AssertionError(op);
+            }
+            lv.intoArray(l, i);
+            lmv.intoArray(lm, i);
+        }
+        ScalarKernel.combine(op, shortCircuit, i, n, l, lm, r, rm);
+    }
+}